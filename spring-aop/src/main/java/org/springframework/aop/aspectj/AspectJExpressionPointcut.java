@@ -18,6 +18,7 @@ package org.springframework.aop.aspectj;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -57,6 +58,7 @@ import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
@@ -70,6 +72,12 @@ import org.springframework.util.StringUtils;
  * <p>Naturally, as this is to be processed by Spring AOP's proxy-based model,
  * only method execution pointcuts are supported.
  *
+ * <p>Shadow matches are shared between all pointcut instances with the same
+ * expression, declaration scope, parameters, ClassLoader and BeanFactory, so that
+ * identical expressions used by several advice methods are only evaluated once
+ * per method. Class-level matches are cached per class unless the expression
+ * uses the Spring-specific {@code bean()} designator.
+ *
  * @author Rob Harrop
  * @author Adrian Colyer
  * @author Rod Johnson
@@ -100,6 +108,16 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 
 	private static final Log logger = LogFactory.getLog(AspectJExpressionPointcut.class);
 
+	/**
+	 * Shadow match caches shared between equivalent pointcut instances. Weakly
+	 * referenced, since the keys hold on to the BeanFactory and ClassLoader: each
+	 * pointcut instance keeps strong references to the key instance in this map
+	 * and to the cache in use, so an entry lives as long as any of its pointcuts.
+	 */
+	private static final ConcurrentReferenceHashMap<Object, SharedShadowMatchCache> sharedShadowMatchCaches =
+			new ConcurrentReferenceHashMap<Object, SharedShadowMatchCache>(64,
+					ConcurrentReferenceHashMap.ReferenceType.WEAK);
+
 	private Class<?> pointcutDeclarationScope;
 
 	private String[] pointcutParameterNames = new String[0];
@@ -110,10 +128,16 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 
 	private transient ClassLoader pointcutClassLoader;
 
-	private transient PointcutExpression pointcutExpression;
+	private transient volatile PointcutExpression pointcutExpression;
 
 	private transient Map<Method, ShadowMatch> shadowMatchCache = new ConcurrentHashMap<Method, ShadowMatch>(32);
 
+	private transient Object shadowMatchCacheKey;
+
+	private transient Map<Class<?>, Boolean> classMatchCache = new ConcurrentHashMap<Class<?>, Boolean>(32);
+
+	private transient boolean beanNameDependent;
+
 
 	/**
 	 * Create a new default AspectJExpressionPointcut.
@@ -178,17 +202,46 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 	/**
 	 * Check whether this pointcut is ready to match,
 	 * lazily building the underlying AspectJ pointcut expression.
+	 * <p>Matching may happen on several threads at once, so the expression is
+	 * built only once and published last, after the state derived from it.
 	 */
 	private void checkReadyToMatch() {
 		if (getExpression() == null) {
 			throw new IllegalStateException("Must set property 'expression' before attempting to match");
 		}
 		if (this.pointcutExpression == null) {
-			this.pointcutClassLoader = (this.beanFactory instanceof ConfigurableBeanFactory ?
-					((ConfigurableBeanFactory) this.beanFactory).getBeanClassLoader() :
-					ClassUtils.getDefaultClassLoader());
-			this.pointcutExpression = buildPointcutExpression(this.pointcutClassLoader);
+			synchronized (this) {
+				if (this.pointcutExpression == null) {
+					this.pointcutClassLoader = (this.beanFactory instanceof ConfigurableBeanFactory ?
+							((ConfigurableBeanFactory) this.beanFactory).getBeanClassLoader() :
+							ClassUtils.getDefaultClassLoader());
+					PointcutExpression expression = buildPointcutExpression(this.pointcutClassLoader);
+					this.shadowMatchCache = obtainSharedShadowMatchCache();
+					this.pointcutExpression = expression;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Obtain the shadow match cache shared with all equivalent pointcut instances.
+	 */
+	private Map<Method, ShadowMatch> obtainSharedShadowMatchCache() {
+		Object cacheKey = Arrays.asList(getExpression(), this.pointcutDeclarationScope,
+				Arrays.asList(this.pointcutParameterNames), Arrays.asList(this.pointcutParameterTypes),
+				new IdentityKey(this.pointcutClassLoader), new IdentityKey(this.beanFactory));
+		SharedShadowMatchCache cache = sharedShadowMatchCaches.get(cacheKey);
+		if (cache == null) {
+			SharedShadowMatchCache newCache = new SharedShadowMatchCache(cacheKey);
+			cache = sharedShadowMatchCaches.putIfAbsent(cacheKey, newCache);
+			if (cache == null) {
+				cache = newCache;
+			}
 		}
+		// Hold on to the key instance in the map, keeping its entry from being collected.
+		Object mappedKey = cache.key.get();
+		this.shadowMatchCacheKey = (mappedKey != null ? mappedKey : cacheKey);
+		return cache;
 	}
 
 	/**
@@ -241,6 +294,18 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 
 	public boolean matches(Class<?> targetClass) {
 		checkReadyToMatch();
+		if (this.beanNameDependent) {
+			return couldMatchJoinPointsInType(targetClass);
+		}
+		Boolean match = this.classMatchCache.get(targetClass);
+		if (match == null) {
+			match = couldMatchJoinPointsInType(targetClass);
+			this.classMatchCache.put(targetClass, match);
+		}
+		return match;
+	}
+
+	private boolean couldMatchJoinPointsInType(Class<?> targetClass) {
 		try {
 			try {
 				return this.pointcutExpression.couldMatchJoinPointsInType(targetClass);
@@ -522,6 +587,7 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		}
 
 		public ContextBasedMatcher parse(String expression) {
+			beanNameDependent = true;
 			return new BeanNameContextMatcher(expression);
 		}
 	}
@@ -610,6 +676,7 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		// Initialize transient fields.
 		// pointcutExpression will be initialized lazily by checkReadyToMatch()
 		this.shadowMatchCache = new ConcurrentHashMap<Method, ShadowMatch>(32);
+		this.classMatchCache = new ConcurrentHashMap<Class<?>, Boolean>(32);
 	}
 
 
@@ -651,4 +718,43 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		}
 	}
 
+
+	/**
+	 * Shadow match cache that is shared between equivalent pointcut instances,
+	 * referring back to its key in a way that does not keep the key alive.
+	 */
+	@SuppressWarnings("serial")
+	private static class SharedShadowMatchCache extends ConcurrentHashMap<Method, ShadowMatch> {
+
+		private final WeakReference<Object> key;
+
+		public SharedShadowMatchCache(Object key) {
+			super(32);
+			this.key = new WeakReference<Object>(key);
+		}
+	}
+
+
+	/**
+	 * Cache key component that compares the given object by identity.
+	 */
+	private static class IdentityKey {
+
+		private final Object object;
+
+		public IdentityKey(Object object) {
+			this.object = object;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return (this == other || (other instanceof IdentityKey && this.object == ((IdentityKey) other).object));
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(this.object);
+		}
+	}
+
 }
@@ -23,14 +23,20 @@ import org.springframework.aop.AopInvocationException;
 import org.springframework.aop.RawTargetAccess;
 import org.springframework.aop.TargetSource;
 import org.springframework.aop.support.AopUtils;
+import org.springframework.cglib.reflect.FastClass;
+import org.springframework.cglib.reflect.FastMethod;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 
 import java.io.Serializable;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * JDK-based {@link AopProxy} implementation for the Spring AOP framework,
@@ -50,6 +56,11 @@ import java.util.List;
  * <p>Proxies are serializable so long as all Advisors (including Advices
  * and Pointcuts) and the TargetSource are serializable.
  *
+ * <p>For a {@link AdvisedSupport#isFrozen() frozen} configuration with a static
+ * TargetSource, the interceptor chain of each proxied method is determined once
+ * at proxy creation time, and the target method is invoked through a generated
+ * CGLIB {@link FastClass} instead of through reflection.
+ *
  * @author Rod Johnson
  * @author Juergen Hoeller
  * @author Rob Harrop
@@ -89,6 +100,11 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	 */
 	private boolean hashCodeDefined;
 
+	/**
+	 * Precomputed dispatchers per proxied method, for frozen configurations only.
+	 */
+	private transient Map<Method, FrozenMethodDispatcher> frozenDispatchers;
+
 
 	/**
 	 * Construct a new JdkDynamicAopProxy for the given AOP configuration.
@@ -117,6 +133,9 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 		}
 		Class<?>[] proxiedInterfaces = AopProxyUtils.completeProxiedInterfaces(this.advised);
 		findDefinedEqualsAndHashCodeMethods(proxiedInterfaces);
+		if (this.advised.isFrozen() && this.advised.getTargetSource().isStatic()) {
+			this.frozenDispatchers = createFrozenDispatchers(proxiedInterfaces);
+		}
 
 		//我们看到会回调this的invoke方法
 		return Proxy.newProxyInstance(classLoader, proxiedInterfaces, this);
@@ -145,6 +164,51 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	}
 
 
+	/**
+	 * Determine the interceptor chain and the target invoker for each method
+	 * of the given interfaces, as far as the method can be advised.
+	 * @param proxiedInterfaces the interfaces to introspect
+	 * @return the dispatchers per method
+	 */
+	private Map<Method, FrozenMethodDispatcher> createFrozenDispatchers(Class<?>[] proxiedInterfaces) {
+		Object target;
+		try {
+			target = this.advised.getTargetSource().getTarget();
+		}
+		catch (Exception ex) {
+			throw new AopConfigException("Failed to obtain static target for frozen proxy", ex);
+		}
+		Class<?> targetClass = (target != null ? target.getClass() : null);
+		FastClass fastClass = null;
+		if (targetClass != null && Modifier.isPublic(targetClass.getModifiers())) {
+			try {
+				fastClass = FastClass.create(targetClass.getClassLoader(), targetClass);
+			}
+			catch (Throwable ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Could not generate FastClass for [" + targetClass.getName() +
+							"] - invoking target methods via reflection", ex);
+				}
+			}
+		}
+		Map<Method, FrozenMethodDispatcher> dispatchers = new HashMap<Method, FrozenMethodDispatcher>();
+		for (Class<?> proxiedInterface : proxiedInterfaces) {
+			if (proxiedInterface.isAssignableFrom(Advised.class)) {
+				continue;
+			}
+			for (Method method : proxiedInterface.getMethods()) {
+				List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+				FastMethod fastMethod = null;
+				if (fastClass != null && fastClass.getIndex(method.getName(), method.getParameterTypes()) >= 0) {
+					fastMethod = fastClass.getMethod(method.getName(), method.getParameterTypes());
+				}
+				dispatchers.put(method, new FrozenMethodDispatcher(chain, fastMethod));
+			}
+		}
+		return dispatchers;
+	}
+
+
 	/**
 	 * 代理实例每次都会触发这个方法
 	 * 			该方法完成了增强进行织入的封装
@@ -159,19 +223,24 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 		Object target = null;
 
 		try {
-			if (!this.equalsDefined && AopUtils.isEqualsMethod(method)) {
-				//eqauls()方法，具目标对象未实现此方法
-				return equals(args[0]);
-			}
-			if (!this.hashCodeDefined && AopUtils.isHashCodeMethod(method)) {
-				//hashCode()方法，具目标对象未实现此方法
-				return hashCode();
-			}
-			//Advised接口或者其父接口中定义的方法,直接反射调用,不应用通知
-			if (!this.advised.opaque && method.getDeclaringClass().isInterface() &&
-					method.getDeclaringClass().isAssignableFrom(Advised.class)) {
-				// Service invocations on ProxyConfig with the proxy config...
-				return AopUtils.invokeJoinpointUsingReflection(this.advised, method, args);
+			// Dispatchers only exist for methods that do not need any of the checks below.
+			FrozenMethodDispatcher dispatcher = (this.frozenDispatchers != null && this.advised.isFrozen() ?
+					this.frozenDispatchers.get(method) : null);
+			if (dispatcher == null) {
+				if (!this.equalsDefined && AopUtils.isEqualsMethod(method)) {
+					//eqauls()方法，具目标对象未实现此方法
+					return equals(args[0]);
+				}
+				if (!this.hashCodeDefined && AopUtils.isHashCodeMethod(method)) {
+					//hashCode()方法，具目标对象未实现此方法
+					return hashCode();
+				}
+				//Advised接口或者其父接口中定义的方法,直接反射调用,不应用通知
+				if (!this.advised.opaque && method.getDeclaringClass().isInterface() &&
+						method.getDeclaringClass().isAssignableFrom(Advised.class)) {
+					// Service invocations on ProxyConfig with the proxy config...
+					return AopUtils.invokeJoinpointUsingReflection(this.advised, method, args);
+				}
 			}
 
 			Object retVal;
@@ -195,17 +264,22 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 			 * 那么问题来了，应用在方法上面的通知链是怎么来得的？？？
 			 */
 			//获取可以应用到此方法上的Interceptor列表
-			List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+			List<Object> chain = (dispatcher != null ? dispatcher.chain :
+					this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass));
+			FastMethod fastMethod = (dispatcher != null ? dispatcher.fastMethod : null);
 
 			//如果没有可以应用到此方法的通知(Interceptor)，此直接反射调用 method.invoke(target, args)
 			if (chain.isEmpty()) {
 				//如果没有设定拦截器连就直接调用目标方法
-				retVal = AopUtils.invokeJoinpointUsingReflection(target, method, args);
+				retVal = (fastMethod != null ? invokeJoinpointUsingFastMethod(fastMethod, target, args) :
+						AopUtils.invokeJoinpointUsingReflection(target, method, args));
 			}
 			else {
 				//否则就调用拦截器链后进行目标方法的调用
 				//创建MethodInvocation
-				invocation = new ReflectiveMethodInvocation(proxy, target, method, args, targetClass, chain);
+				invocation = (fastMethod != null ?
+						new FastMethodInvocation(proxy, target, method, args, targetClass, chain, fastMethod) :
+						new ReflectiveMethodInvocation(proxy, target, method, args, targetClass, chain));
 				// 沿着拦截器链继续进行
 				retVal = invocation.proceed();
 			}
@@ -238,6 +312,22 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	}
 
 
+	/**
+	 * Invoke the given target method through its generated FastClass,
+	 * rethrowing any exception thrown by the target method itself.
+	 */
+	private static Object invokeJoinpointUsingFastMethod(FastMethod fastMethod, Object target, Object[] args)
+			throws Throwable {
+
+		try {
+			return fastMethod.invoke(target, args);
+		}
+		catch (InvocationTargetException ex) {
+			throw ex.getTargetException();
+		}
+	}
+
+
 	/**
 	 * Equality means interfaces, advisors and TargetSource are equal.
 	 * <p>The compared object may be a JdkDynamicAopProxy instance itself
@@ -280,4 +370,42 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 		return JdkDynamicAopProxy.class.hashCode() * 13 + this.advised.getTargetSource().hashCode();
 	}
 
+
+
+	/**
+	 * Interceptor chain and target invoker of a single method on a frozen proxy.
+	 */
+	private static class FrozenMethodDispatcher {
+
+		private final List<Object> chain;
+
+		private final FastMethod fastMethod;
+
+		public FrozenMethodDispatcher(List<Object> chain, FastMethod fastMethod) {
+			this.chain = chain;
+			this.fastMethod = fastMethod;
+		}
+	}
+
+
+	/**
+	 * MethodInvocation that invokes the target method through its generated FastClass.
+	 */
+	private static class FastMethodInvocation extends ReflectiveMethodInvocation {
+
+		private final FastMethod fastMethod;
+
+		public FastMethodInvocation(Object proxy, Object target, Method method, Object[] arguments,
+				Class<?> targetClass, List<Object> interceptorsAndDynamicMethodMatchers, FastMethod fastMethod) {
+
+			super(proxy, target, method, arguments, targetClass, interceptorsAndDynamicMethodMatchers);
+			this.fastMethod = fastMethod;
+		}
+
+		@Override
+		protected Object invokeJoinpoint() throws Throwable {
+			return invokeJoinpointUsingFastMethod(this.fastMethod, this.target, this.arguments);
+		}
+	}
+
 }
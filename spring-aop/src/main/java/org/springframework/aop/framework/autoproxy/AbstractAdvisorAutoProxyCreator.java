@@ -16,15 +16,29 @@
 
 package org.springframework.aop.framework.autoproxy;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.springframework.aop.Advisor;
+import org.springframework.aop.IntroductionAdvisor;
 import org.springframework.aop.TargetSource;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.core.OrderComparator;
 
-import java.util.List;
-
 /**
  * Generic auto proxy creator that builds AOP proxies for specific beans
  * based on detected Advisors for each bean.
@@ -40,6 +54,10 @@ import java.util.List;
  * Ordered interface will be considered as unordered; they will appear
  * at the end of the advisor chain in undefined order.
  *
+ * <p>The time spent matching each Advisor against bean classes is recorded and
+ * exposed through {@link #getAdvisorMatchingTimes()}. Matching of non-introduction
+ * Advisors may be spread across an {@link #setAdvisorMatchingExecutor Executor}.
+ *
  * @author Rod Johnson
  * @author Juergen Hoeller
  * @see #findCandidateAdvisors
@@ -49,6 +67,61 @@ public abstract class AbstractAdvisorAutoProxyCreator extends AbstractAutoProxyC
 
 	private BeanFactoryAdvisorRetrievalHelper advisorRetrievalHelper;
 
+	private Executor advisorMatchingExecutor;
+
+	private final ConcurrentMap<Advisor, AtomicLong> advisorMatchingNanos = new ConcurrentHashMap<Advisor, AtomicLong>(64);
+
+
+	/**
+	 * Specify an Executor to evaluate the eligibility of candidate Advisors
+	 * for a bean class in parallel.
+	 * <p>Default is none, evaluating all Advisors in the calling thread.
+	 * Introduction Advisors are always evaluated in the calling thread first,
+	 * since their outcome affects the matching of the remaining Advisors.
+	 * The resulting order of eligible Advisors is the same in either case.
+	 * <p><b>NOTE:</b> Only use this with Advisors whose pointcuts do not access
+	 * the BeanFactory while matching, e.g. through a {@code bean()} designator
+	 * or a lazily resolved Advice bean. Matching happens while the calling thread
+	 * holds the singleton lock of the BeanFactory, so such a pointcut would block
+	 * in the worker thread, deadlocking the calling thread waiting for it.
+	 */
+	public void setAdvisorMatchingExecutor(Executor advisorMatchingExecutor) {
+		this.advisorMatchingExecutor = advisorMatchingExecutor;
+	}
+
+	/**
+	 * Return the cumulative time in milliseconds spent matching each Advisor
+	 * against bean classes so far, in descending order of matching time.
+	 */
+	public Map<Advisor, Long> getAdvisorMatchingTimes() {
+		List<Map.Entry<Advisor, AtomicLong>> entries =
+				new ArrayList<Map.Entry<Advisor, AtomicLong>>(this.advisorMatchingNanos.entrySet());
+		Collections.sort(entries, new Comparator<Map.Entry<Advisor, AtomicLong>>() {
+			public int compare(Map.Entry<Advisor, AtomicLong> o1, Map.Entry<Advisor, AtomicLong> o2) {
+				long t1 = o1.getValue().get();
+				long t2 = o2.getValue().get();
+				return (t1 > t2 ? -1 : (t1 < t2 ? 1 : 0));
+			}
+		});
+		Map<Advisor, Long> result = new LinkedHashMap<Advisor, Long>(entries.size());
+		for (Map.Entry<Advisor, AtomicLong> entry : entries) {
+			result.put(entry.getKey(), entry.getValue().get() / 1000000);
+		}
+		return result;
+	}
+
+	/**
+	 * Return the cumulative time in milliseconds spent matching all Advisors
+	 * against bean classes so far.
+	 */
+	public long getTotalAdvisorMatchingTime() {
+		long total = 0;
+		for (AtomicLong nanos : this.advisorMatchingNanos.values()) {
+			total += nanos.get();
+		}
+		return total / 1000000;
+	}
+
 
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) {
@@ -112,17 +185,114 @@ public abstract class AbstractAdvisorAutoProxyCreator extends AbstractAutoProxyC
 	 * @param beanName the target's bean name
 	 * @return the List of applicable Advisors
 	 * @see ProxyCreationContext#getCurrentProxiedBeanName()
+	 * @see AopUtils#findAdvisorsThatCanApply
 	 */
 	protected List<Advisor> findAdvisorsThatCanApply(
 			List<Advisor> candidateAdvisors, Class beanClass, String beanName) {
 
+		if (candidateAdvisors.isEmpty()) {
+			return candidateAdvisors;
+		}
+		List<Advisor> eligibleAdvisors = new LinkedList<Advisor>();
 		ProxyCreationContext.setCurrentProxiedBeanName(beanName);
 		try {
-			return AopUtils.findAdvisorsThatCanApply(candidateAdvisors, beanClass);
+			for (Advisor candidate : candidateAdvisors) {
+				if (candidate instanceof IntroductionAdvisor && canApply(candidate, beanClass, false)) {
+					eligibleAdvisors.add(candidate);
+				}
+			}
+			boolean hasIntroductions = !eligibleAdvisors.isEmpty();
+			if (this.advisorMatchingExecutor != null && candidateAdvisors.size() > 1) {
+				eligibleAdvisors.addAll(
+						findAdvisorsThatCanApplyInParallel(candidateAdvisors, beanClass, beanName, hasIntroductions));
+			}
+			else {
+				for (Advisor candidate : candidateAdvisors) {
+					if (!(candidate instanceof IntroductionAdvisor) && canApply(candidate, beanClass, hasIntroductions)) {
+						eligibleAdvisors.add(candidate);
+					}
+				}
+			}
 		}
 		finally {
 			ProxyCreationContext.setCurrentProxiedBeanName(null);
 		}
+		return eligibleAdvisors;
+	}
+
+	private List<Advisor> findAdvisorsThatCanApplyInParallel(List<Advisor> candidateAdvisors,
+			final Class<?> beanClass, final String beanName, final boolean hasIntroductions) {
+
+		List<FutureTask<Boolean>> tasks = new ArrayList<FutureTask<Boolean>>(candidateAdvisors.size());
+		List<Advisor> advisors = new ArrayList<Advisor>(candidateAdvisors.size());
+		for (final Advisor candidate : candidateAdvisors) {
+			if (candidate instanceof IntroductionAdvisor) {
+				continue;
+			}
+			FutureTask<Boolean> task = new FutureTask<Boolean>(new Callable<Boolean>() {
+				public Boolean call() {
+					String previousBeanName = ProxyCreationContext.getCurrentProxiedBeanName();
+					ProxyCreationContext.setCurrentProxiedBeanName(beanName);
+					try {
+						return canApply(candidate, beanClass, hasIntroductions);
+					}
+					finally {
+						ProxyCreationContext.setCurrentProxiedBeanName(previousBeanName);
+					}
+				}
+			});
+			this.advisorMatchingExecutor.execute(task);
+			tasks.add(task);
+			advisors.add(candidate);
+		}
+		List<Advisor> eligibleAdvisors = new ArrayList<Advisor>(advisors.size());
+		for (int i = 0; i < tasks.size(); i++) {
+			FutureTask<Boolean> task = tasks.get(i);
+			// Run the task in the calling thread if the Executor did not get to it yet
+			task.run();
+			try {
+				if (task.get()) {
+					eligibleAdvisors.add(advisors.get(i));
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while matching Advisors for bean '" + beanName + "'");
+			}
+			catch (ExecutionException ex) {
+				Throwable cause = ex.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new IllegalStateException("Failed to match Advisor for bean '" + beanName + "'", cause);
+			}
+		}
+		return eligibleAdvisors;
+	}
+
+	/**
+	 * Determine whether the given Advisor can apply to the given bean class,
+	 * recording the time spent for the Advisor's matching metrics.
+	 */
+	private boolean canApply(Advisor advisor, Class<?> beanClass, boolean hasIntroductions) {
+		long start = System.nanoTime();
+		try {
+			return AopUtils.canApply(advisor, beanClass, hasIntroductions);
+		}
+		finally {
+			AtomicLong nanos = this.advisorMatchingNanos.get(advisor);
+			if (nanos == null) {
+				AtomicLong newNanos = new AtomicLong();
+				nanos = this.advisorMatchingNanos.putIfAbsent(advisor, newNanos);
+				if (nanos == null) {
+					nanos = newNanos;
+				}
+			}
+			nanos.addAndGet(System.nanoTime() - start);
+		}
 	}
 
 	/**
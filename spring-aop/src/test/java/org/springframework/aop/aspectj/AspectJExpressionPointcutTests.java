@@ -18,6 +18,7 @@ package org.springframework.aop.aspectj;
 
 import static org.junit.Assert.*;
 
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 
 import org.aopalliance.intercept.MethodInterceptor;
@@ -339,6 +340,53 @@ public final class AspectJExpressionPointcutTests {
 		assertEquals("execution(* *(..)) && args(String) && this(Object)",expr.getPointcutExpression());
 	}
 
+	@Test
+	public void testEquivalentPointcutsShareShadowMatches() throws Exception {
+		String expression = "execution(* org.springframework.tests.sample.beans.TestBean.get*(..))";
+		AspectJExpressionPointcut pc1 = (AspectJExpressionPointcut) getPointcut(expression);
+		AspectJExpressionPointcut pc2 = (AspectJExpressionPointcut) getPointcut(expression);
+		AspectJExpressionPointcut other = (AspectJExpressionPointcut) getPointcut(MATCH_ALL_METHODS);
+
+		assertTrue(pc1.matches(getAge, TestBean.class));
+		assertTrue(pc2.matches(getAge, TestBean.class));
+		assertFalse(pc2.matches(setAge, TestBean.class));
+		assertTrue(other.matches(setAge, TestBean.class));
+
+		assertSame(getShadowMatchCache(pc1), getShadowMatchCache(pc2));
+		assertNotSame(getShadowMatchCache(pc1), getShadowMatchCache(other));
+		assertFalse(pc1.matches(setAge, TestBean.class));
+	}
+
+	@Test
+	public void testSharedShadowMatchesSurviveGarbageCollection() throws Exception {
+		String expression = "execution(* org.springframework.tests.sample.beans.TestBean.set*(..))";
+		AspectJExpressionPointcut pc1 = (AspectJExpressionPointcut) getPointcut(expression);
+		assertTrue(pc1.matches(setAge, TestBean.class));
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+
+		AspectJExpressionPointcut pc2 = (AspectJExpressionPointcut) getPointcut(expression);
+		assertTrue(pc2.matches(setAge, TestBean.class));
+		assertSame(getShadowMatchCache(pc1), getShadowMatchCache(pc2));
+	}
+
+	@Test
+	public void testClassFilterMatchesAreStableWhenCached() {
+		AspectJExpressionPointcut pc = new AspectJExpressionPointcut();
+		pc.setExpression("within(org.springframework.tests.sample.beans.*)");
+		for (int i = 0; i < 3; i++) {
+			assertTrue(pc.matches(TestBean.class));
+			assertFalse(pc.matches(String.class));
+		}
+	}
+
+	private Object getShadowMatchCache(AspectJExpressionPointcut pointcut) throws Exception {
+		Field field = AspectJExpressionPointcut.class.getDeclaredField("shadowMatchCache");
+		field.setAccessible(true);
+		return field.get(pointcut);
+	}
+
 	private Pointcut getPointcut(String expression) {
 		AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
 		pointcut.setExpression(expression);
@@ -224,9 +224,7 @@ public abstract class AbstractMessageSource extends MessageSourceSupport impleme
 
 			MessageFormat messageFormat = resolveCode(code, locale);
 			if (messageFormat != null) {
-				synchronized (messageFormat) {
-					return messageFormat.format(argsToUse);
-				}
+				return PrecompiledMessageFormat.formatSafely(messageFormat, argsToUse);
 			}
 		}
 
@@ -332,9 +330,7 @@ public abstract class AbstractMessageSource extends MessageSourceSupport impleme
 	protected String resolveCodeWithoutArguments(String code, Locale locale) {
 		MessageFormat messageFormat = resolveCode(code, locale);
 		if (messageFormat != null) {
-			synchronized (messageFormat) {
-				return messageFormat.format(new Object[0]);
-			}
+			return PrecompiledMessageFormat.formatSafely(messageFormat, new Object[0]);
 		}
 		return null;
 	}
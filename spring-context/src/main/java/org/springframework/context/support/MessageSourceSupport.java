@@ -17,9 +17,10 @@
 package org.springframework.context.support;
 
 import java.text.MessageFormat;
-import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -52,8 +53,8 @@ public abstract class MessageSourceSupport {
 	 * Used for passed-in default messages. MessageFormats for resolved
 	 * codes are cached on a specific basis in subclasses.
 	 */
-	private final Map<String, Map<Locale, MessageFormat>> messageFormatsPerMessage =
-			new HashMap<String, Map<Locale, MessageFormat>>();
+	private final ConcurrentMap<String, Map<Locale, MessageFormat>> messageFormatsPerMessage =
+			new ConcurrentHashMap<String, Map<Locale, MessageFormat>>(64);
 
 
 	/**
@@ -115,48 +116,48 @@ public abstract class MessageSourceSupport {
 		if (msg == null || (!this.alwaysUseMessageFormat && ObjectUtils.isEmpty(args))) {
 			return msg;
 		}
-		MessageFormat messageFormat = null;
-		synchronized (this.messageFormatsPerMessage) {
-			Map<Locale, MessageFormat> messageFormatsPerLocale = this.messageFormatsPerMessage.get(msg);
-			if (messageFormatsPerLocale != null) {
-				messageFormat = messageFormatsPerLocale.get(locale);
+		Map<Locale, MessageFormat> messageFormatsPerLocale = this.messageFormatsPerMessage.get(msg);
+		if (messageFormatsPerLocale == null) {
+			messageFormatsPerLocale = new ConcurrentHashMap<Locale, MessageFormat>(4);
+			Map<Locale, MessageFormat> existing = this.messageFormatsPerMessage.putIfAbsent(msg, messageFormatsPerLocale);
+			if (existing != null) {
+				messageFormatsPerLocale = existing;
 			}
-			else {
-				messageFormatsPerLocale = new HashMap<Locale, MessageFormat>();
-				this.messageFormatsPerMessage.put(msg, messageFormatsPerLocale);
+		}
+		MessageFormat messageFormat = messageFormatsPerLocale.get(locale);
+		if (messageFormat == null) {
+			try {
+				messageFormat = createMessageFormat(msg, locale);
 			}
-			if (messageFormat == null) {
-				try {
-					messageFormat = createMessageFormat(msg, locale);
-				}
-				catch (IllegalArgumentException ex) {
-					// invalid message format - probably not intended for formatting,
-					// rather using a message structure with no arguments involved
-					if (this.alwaysUseMessageFormat) {
-						throw ex;
-					}
-					// silently proceed with raw message if format not enforced
-					messageFormat = INVALID_MESSAGE_FORMAT;
+			catch (IllegalArgumentException ex) {
+				// invalid message format - probably not intended for formatting,
+				// rather using a message structure with no arguments involved
+				if (this.alwaysUseMessageFormat) {
+					throw ex;
 				}
-				messageFormatsPerLocale.put(locale, messageFormat);
+				// silently proceed with raw message if format not enforced
+				messageFormat = INVALID_MESSAGE_FORMAT;
 			}
+			// A concurrently created equivalent format may get replaced: harmless.
+			messageFormatsPerLocale.put(locale, messageFormat);
 		}
 		if (messageFormat == INVALID_MESSAGE_FORMAT) {
 			return msg;
 		}
-		synchronized (messageFormat) {
-			return messageFormat.format(resolveArguments(args, locale));
-		}
+		return PrecompiledMessageFormat.formatSafely(messageFormat, resolveArguments(args, locale));
 	}
 
 	/**
 	 * Create a MessageFormat for the given message and Locale.
+	 * <p>The default implementation returns a precompiled format that can be
+	 * used from concurrent threads without locking. Custom implementations may
+	 * return any MessageFormat; such instances get synchronized on for each use.
 	 * @param msg the message to create a MessageFormat for
 	 * @param locale the Locale to create a MessageFormat for
 	 * @return the MessageFormat instance
 	 */
 	protected MessageFormat createMessageFormat(String msg, Locale locale) {
-		return new MessageFormat((msg != null ? msg : ""), locale);
+		return new PrecompiledMessageFormat((msg != null ? msg : ""), locale);
 	}
 
 	/**
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.support;
+
+import java.text.Format;
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link MessageFormat} variant that is parsed once and can then be used for
+ * formatting from concurrent threads without external synchronization.
+ *
+ * <p>Patterns without any quotes or argument placeholders are returned as-is,
+ * not involving MessageFormat at all. Patterns that only consist of plain
+ * {@code {n}} placeholders are formatted through this (effectively immutable)
+ * instance directly, since no stateful sub-format is involved. Patterns with
+ * explicit sub-formats such as {@code {0,number}} or {@code {1,date,short}}
+ * are formatted through a small pool of private copies of this instance,
+ * avoiding contention on the non-thread-safe {@link java.text.NumberFormat}
+ * and {@link java.text.DateFormat} instances.
+ *
+ * <p>Concurrent formatting is available through {@link #formatConcurrently};
+ * the inherited {@code format} methods keep plain MessageFormat semantics.
+ * Instances may be customized through the {@code applyPattern}, {@code setFormat}
+ * and {@code setLocale} methods until they are first used for concurrent
+ * formatting, e.g. in an overridden {@link MessageSourceSupport#createMessageFormat}
+ * method, but must not be reconfigured afterwards.
+ *
+ * @since 3.2.19
+ * @see MessageSourceSupport#createMessageFormat
+ */
+@SuppressWarnings("serial")
+class PrecompiledMessageFormat extends MessageFormat {
+
+	private static final int MAX_POOL_SIZE = Math.max(Runtime.getRuntime().availableProcessors(), 4);
+
+
+	private String literal;
+
+	private boolean stateless;
+
+	private volatile boolean prepared;
+
+	private final Queue<MessageFormat> formatPool = new ConcurrentLinkedQueue<MessageFormat>();
+
+	private final AtomicInteger formatPoolSize = new AtomicInteger();
+
+
+	/**
+	 * Create a new PrecompiledMessageFormat for the given pattern and Locale.
+	 * @param pattern the message pattern
+	 * @param locale the Locale to format with
+	 * @throws IllegalArgumentException if the pattern is invalid
+	 */
+	public PrecompiledMessageFormat(String pattern, Locale locale) {
+		super(pattern, locale);
+	}
+
+
+	/**
+	 * Return whether this format renders a constant message, i.e. whether
+	 * its pattern contains neither quotes nor argument placeholders.
+	 */
+	public boolean isLiteral() {
+		prepare();
+		return (this.literal != null);
+	}
+
+	/**
+	 * Format the given arguments without requiring external synchronization.
+	 * @param arguments the arguments to fill in (may be {@code null})
+	 * @return the formatted message
+	 */
+	public String formatConcurrently(Object[] arguments) {
+		prepare();
+		if (this.literal != null) {
+			return this.literal;
+		}
+		if (this.stateless) {
+			return format(arguments);
+		}
+		MessageFormat delegate = this.formatPool.poll();
+		if (delegate != null) {
+			this.formatPoolSize.decrementAndGet();
+		}
+		else {
+			delegate = (MessageFormat) clone();
+		}
+		try {
+			return delegate.format(arguments);
+		}
+		finally {
+			if (this.formatPoolSize.incrementAndGet() <= MAX_POOL_SIZE) {
+				this.formatPool.offer(delegate);
+			}
+			else {
+				this.formatPoolSize.decrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Determine how to format concurrently, based on the configuration
+	 * of this instance at the time of first use.
+	 */
+	private void prepare() {
+		if (!this.prepared) {
+			String pattern = toPattern();
+			this.literal = (pattern.indexOf('{') == -1 && pattern.indexOf('\'') == -1 ? pattern : null);
+			boolean stateless = true;
+			for (Format format : getFormats()) {
+				if (format != null) {
+					stateless = false;
+					break;
+				}
+			}
+			this.stateless = stateless;
+			this.prepared = true;
+		}
+	}
+
+
+	/**
+	 * Format the given arguments with the given MessageFormat, synchronizing
+	 * on it unless it is a precompiled (and therefore thread-safe) format.
+	 * @param messageFormat the MessageFormat to use
+	 * @param args the arguments to fill in
+	 * @return the formatted message
+	 */
+	static String formatSafely(MessageFormat messageFormat, Object[] args) {
+		if (messageFormat.getClass() == PrecompiledMessageFormat.class) {
+			return ((PrecompiledMessageFormat) messageFormat).formatConcurrently(args);
+		}
+		synchronized (messageFormat) {
+			return messageFormat.format(args);
+		}
+	}
+
+}
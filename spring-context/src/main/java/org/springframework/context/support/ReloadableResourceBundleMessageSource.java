@@ -16,23 +16,38 @@
 
 package org.springframework.context.support;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.DefaultPropertiesPersister;
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.PropertiesPersister;
 import org.springframework.util.StringUtils;
 
@@ -71,6 +86,18 @@ import org.springframework.util.StringUtils;
  * individual properties files are detected with a maximum delay of 1 second.
  * Higher "cacheSeconds" values usually <i>do not</i> make a significant difference.
  *
+ * <p>Message lookups are served from an immutable snapshot of the merged
+ * properties per Locale, which gets atomically replaced once a refresh detects
+ * a changed file. Cache hits therefore do not involve any locking, and message
+ * formats are precompiled once per snapshot and shared across threads.
+ *
+ * <p>With {@link #setBackgroundRefresh "backgroundRefresh"} activated, refresh
+ * checks are moved off the request path entirely: a background thread watches
+ * the bundle directories through a {@code java.nio.file.WatchService} (on
+ * Java 7+, for resources in the file system) and additionally polls all
+ * loaded files every "cacheSeconds", publishing changed snapshots atomically.
+ * Request threads then only perform file I/O for the initial load of a bundle.
+ *
  * <p>This MessageSource can easily be used outside of an
  * {@link org.springframework.context.ApplicationContext}: It will use a
  * {@link org.springframework.core.io.DefaultResourceLoader} as default,
@@ -93,12 +120,18 @@ import org.springframework.util.StringUtils;
  * @see java.util.ResourceBundle
  */
 public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
-		implements ResourceLoaderAware {
+		implements ResourceLoaderAware, DisposableBean {
 
 	private static final String PROPERTIES_SUFFIX = ".properties";
 
 	private static final String XML_SUFFIX = ".xml";
 
+	/** Minimum interval between background refresh passes */
+	private static final long MIN_BACKGROUND_REFRESH_INTERVAL = 100;
+
+	private static final boolean watchServiceAvailable = ClassUtils.isPresent(
+			"java.nio.file.WatchService", ReloadableResourceBundleMessageSource.class.getClassLoader());
+
 
 	private String[] basenames = new String[0];
 
@@ -114,15 +147,21 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 
 	private ResourceLoader resourceLoader = new DefaultResourceLoader();
 
+	private boolean backgroundRefresh = false;
+
+	private BackgroundRefresher backgroundRefresher;
+
 	/** Cache to hold filename lists per Locale */
-	private final Map<String, Map<Locale, List<String>>> cachedFilenames =
-			new HashMap<String, Map<Locale, List<String>>>();
+	private final ConcurrentMap<String, Map<Locale, List<String>>> cachedFilenames =
+			new ConcurrentHashMap<String, Map<Locale, List<String>>>();
 
 	/** Cache to hold already loaded properties per filename */
-	private final Map<String, PropertiesHolder> cachedProperties = new HashMap<String, PropertiesHolder>();
+	private final ConcurrentMap<String, PropertiesHolder> cachedProperties =
+			new ConcurrentHashMap<String, PropertiesHolder>();
 
 	/** Cache to hold merged loaded properties per locale */
-	private final Map<Locale, PropertiesHolder> cachedMergedProperties = new HashMap<Locale, PropertiesHolder>();
+	private final ConcurrentMap<Locale, PropertiesHolder> cachedMergedProperties =
+			new ConcurrentHashMap<Locale, PropertiesHolder>();
 
 
 	/**
@@ -231,6 +270,24 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 		this.cacheMillis = (cacheSeconds * 1000);
 	}
 
+	/**
+	 * Set whether to refresh properties files in a background thread instead of
+	 * checking them on the calling thread. Only applies with a "cacheSeconds"
+	 * value of 0 or higher.
+	 * <p>Default is "false". Switch this to "true" for bundles on slow file
+	 * systems (e.g. network mounts): message lookups will then always be served
+	 * from the current snapshot, while a background thread reacts to file system
+	 * change notifications (where supported) and checks all loaded files for
+	 * modifications every "cacheSeconds", replacing the snapshot of each
+	 * affected Locale atomically.
+	 * <p>The background thread gets started on first message access and
+	 * stopped on {@link #destroy()}.
+	 * @see #setCacheSeconds
+	 */
+	public void setBackgroundRefresh(boolean backgroundRefresh) {
+		this.backgroundRefresh = backgroundRefresh;
+	}
+
 	/**
 	 * Set the PropertiesPersister to use for parsing properties files.
 	 * <p>The default is a DefaultPropertiesPersister.
@@ -261,26 +318,7 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 	 */
 	@Override
 	protected String resolveCodeWithoutArguments(String code, Locale locale) {
-		if (this.cacheMillis < 0) {
-			PropertiesHolder propHolder = getMergedProperties(locale);
-			String result = propHolder.getProperty(code);
-			if (result != null) {
-				return result;
-			}
-		}
-		else {
-			for (String basename : this.basenames) {
-				List<String> filenames = calculateAllFilenames(basename, locale);
-				for (String filename : filenames) {
-					PropertiesHolder propHolder = getProperties(filename);
-					String result = propHolder.getProperty(code);
-					if (result != null) {
-						return result;
-					}
-				}
-			}
-		}
-		return null;
+		return getMergedProperties(locale).getProperty(code);
 	}
 
 	/**
@@ -289,26 +327,7 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 	 */
 	@Override
 	protected MessageFormat resolveCode(String code, Locale locale) {
-		if (this.cacheMillis < 0) {
-			PropertiesHolder propHolder = getMergedProperties(locale);
-			MessageFormat result = propHolder.getMessageFormat(code, locale);
-			if (result != null) {
-				return result;
-			}
-		}
-		else {
-			for (String basename : this.basenames) {
-				List<String> filenames = calculateAllFilenames(basename, locale);
-				for (String filename : filenames) {
-					PropertiesHolder propHolder = getProperties(filename);
-					MessageFormat result = propHolder.getMessageFormat(code, locale);
-					if (result != null) {
-						return result;
-					}
-				}
-			}
-		}
-		return null;
+		return getMergedProperties(locale).getMessageFormat(code, locale);
 	}
 
 
@@ -316,31 +335,58 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 	 * Get a PropertiesHolder that contains the actually visible properties
 	 * for a Locale, after merging all specified resource bundles.
 	 * Either fetches the holder from the cache or freshly loads it.
-	 * <p>Only used when caching resource bundle contents forever, i.e.
-	 * with cacheSeconds < 0. Therefore, merged properties are always
-	 * cached forever.
+	 * <p>The returned holder is an immutable snapshot. When caching resource
+	 * bundle contents forever, i.e. with cacheSeconds < 0, it is cached forever
+	 * as well. Otherwise, it gets re-validated against the individual files once
+	 * its refresh interval has elapsed, and atomically replaced with a freshly
+	 * merged snapshot if any of those files has changed.
 	 */
 	protected PropertiesHolder getMergedProperties(Locale locale) {
+		PropertiesHolder mergedHolder = this.cachedMergedProperties.get(locale);
+		if (mergedHolder != null && isUpToDate(mergedHolder)) {
+			return mergedHolder;
+		}
+		if (this.backgroundRefresh && this.cacheMillis >= 0) {
+			startBackgroundRefresh();
+		}
 		synchronized (this.cachedMergedProperties) {
-			PropertiesHolder mergedHolder = this.cachedMergedProperties.get(locale);
-			if (mergedHolder != null) {
+			mergedHolder = this.cachedMergedProperties.get(locale);
+			if (mergedHolder != null && isUpToDate(mergedHolder)) {
 				return mergedHolder;
 			}
-			Properties mergedProps = new Properties();
-			mergedHolder = new PropertiesHolder(mergedProps, -1);
-			for (int i = this.basenames.length - 1; i >= 0; i--) {
-				List filenames = calculateAllFilenames(this.basenames[i], locale);
-				for (int j = filenames.size() - 1; j >= 0; j--) {
-					String filename = (String) filenames.get(j);
-					PropertiesHolder propHolder = getProperties(filename);
-					if (propHolder.getProperties() != null) {
-						mergedProps.putAll(propHolder.getProperties());
-					}
-				}
+			return mergeProperties(locale, mergedHolder);
+		}
+	}
+
+	/**
+	 * Merge the properties files for the given Locale into a new snapshot,
+	 * unless the current snapshot has been built from the very same files.
+	 * To be called with the merged properties lock held.
+	 */
+	private PropertiesHolder mergeProperties(Locale locale, PropertiesHolder mergedHolder) {
+		long refreshTimestamp = (this.cacheMillis < 0 ? -1 : System.currentTimeMillis());
+		List<PropertiesHolder> sourceHolders = new ArrayList<PropertiesHolder>();
+		for (int i = this.basenames.length - 1; i >= 0; i--) {
+			List<String> filenames = calculateAllFilenames(this.basenames[i], locale);
+			for (int j = filenames.size() - 1; j >= 0; j--) {
+				sourceHolders.add(getProperties(filenames.get(j)));
 			}
-			this.cachedMergedProperties.put(locale, mergedHolder);
+		}
+		if (mergedHolder != null && mergedHolder.hasSourceHolders(sourceHolders)) {
+			// None of the files has changed: keep using the current snapshot.
+			mergedHolder.setRefreshTimestamp(refreshTimestamp);
 			return mergedHolder;
 		}
+		Properties mergedProps = new Properties();
+		for (PropertiesHolder propHolder : sourceHolders) {
+			if (propHolder.getProperties() != null) {
+				mergedProps.putAll(propHolder.getProperties());
+			}
+		}
+		mergedHolder = new PropertiesHolder(mergedProps, -1, sourceHolders);
+		mergedHolder.setRefreshTimestamp(refreshTimestamp);
+		this.cachedMergedProperties.put(locale, mergedHolder);
+		return mergedHolder;
 	}
 
 	/**
@@ -354,36 +400,34 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 	 * @see #calculateFilenamesForLocale
 	 */
 	protected List<String> calculateAllFilenames(String basename, Locale locale) {
-		synchronized (this.cachedFilenames) {
-			Map<Locale, List<String>> localeMap = this.cachedFilenames.get(basename);
-			if (localeMap != null) {
-				List<String> filenames = localeMap.get(locale);
-				if (filenames != null) {
-					return filenames;
-				}
+		Map<Locale, List<String>> localeMap = this.cachedFilenames.get(basename);
+		if (localeMap != null) {
+			List<String> filenames = localeMap.get(locale);
+			if (filenames != null) {
+				return filenames;
 			}
-			List<String> filenames = new ArrayList<String>(7);
-			filenames.addAll(calculateFilenamesForLocale(basename, locale));
-			if (this.fallbackToSystemLocale && !locale.equals(Locale.getDefault())) {
-				List<String> fallbackFilenames = calculateFilenamesForLocale(basename, Locale.getDefault());
-				for (String fallbackFilename : fallbackFilenames) {
-					if (!filenames.contains(fallbackFilename)) {
-						// Entry for fallback locale that isn't already in filenames list.
-						filenames.add(fallbackFilename);
-					}
+		}
+		List<String> filenames = new ArrayList<String>(7);
+		filenames.addAll(calculateFilenamesForLocale(basename, locale));
+		if (this.fallbackToSystemLocale && !locale.equals(Locale.getDefault())) {
+			List<String> fallbackFilenames = calculateFilenamesForLocale(basename, Locale.getDefault());
+			for (String fallbackFilename : fallbackFilenames) {
+				if (!filenames.contains(fallbackFilename)) {
+					// Entry for fallback locale that isn't already in filenames list.
+					filenames.add(fallbackFilename);
 				}
 			}
-			filenames.add(basename);
-			if (localeMap != null) {
-				localeMap.put(locale, filenames);
-			}
-			else {
-				localeMap = new HashMap<Locale, List<String>>();
-				localeMap.put(locale, filenames);
-				this.cachedFilenames.put(basename, localeMap);
+		}
+		filenames.add(basename);
+		if (localeMap == null) {
+			localeMap = new ConcurrentHashMap<Locale, List<String>>(4);
+			Map<Locale, List<String>> existing = this.cachedFilenames.putIfAbsent(basename, localeMap);
+			if (existing != null) {
+				localeMap = existing;
 			}
-			return filenames;
 		}
+		localeMap.put(locale, filenames);
+		return filenames;
 	}
 
 	/**
@@ -431,18 +475,28 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 	 * @return the current PropertiesHolder for the bundle
 	 */
 	protected PropertiesHolder getProperties(String filename) {
+		PropertiesHolder propHolder = this.cachedProperties.get(filename);
+		if (propHolder != null && isUpToDate(propHolder)) {
+			return propHolder;
+		}
 		synchronized (this.cachedProperties) {
-			PropertiesHolder propHolder = this.cachedProperties.get(filename);
-			if (propHolder != null &&
-					(propHolder.getRefreshTimestamp() < 0 ||
-					 propHolder.getRefreshTimestamp() > System.currentTimeMillis() - this.cacheMillis)) {
-				// up to date
+			propHolder = this.cachedProperties.get(filename);
+			if (propHolder != null && isUpToDate(propHolder)) {
 				return propHolder;
 			}
 			return refreshProperties(filename, propHolder);
 		}
 	}
 
+	/**
+	 * Determine whether the given holder is still within its refresh interval.
+	 */
+	private boolean isUpToDate(PropertiesHolder propHolder) {
+		long refreshTimestamp = propHolder.getRefreshTimestamp();
+		return (refreshTimestamp < 0 || this.backgroundRefresh ||
+				refreshTimestamp > System.currentTimeMillis() - this.cacheMillis);
+	}
+
 	/**
 	 * Refresh the PropertiesHolder for the given bundle filename.
 	 * The holder can be {@code null} if not cached before, or a timed-out cache entry
@@ -499,8 +553,11 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 			if (logger.isDebugEnabled()) {
 				logger.debug("No properties file found for [" + filename + "] - neither plain properties nor XML");
 			}
-			// Empty holder representing "not found".
-			propHolder = new PropertiesHolder();
+			if (propHolder == null || propHolder.getProperties() != null) {
+				// Empty holder representing "not found" - reused on subsequent
+				// refreshes in order to keep merged snapshots stable.
+				propHolder = new PropertiesHolder();
+			}
 		}
 
 		propHolder.setRefreshTimestamp(refreshTimestamp);
@@ -560,11 +617,48 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 	 */
 	public void clearCache() {
 		logger.debug("Clearing entire resource bundle cache");
+		this.cachedProperties.clear();
+		this.cachedMergedProperties.clear();
+	}
+
+	/**
+	 * Check all loaded properties files for modifications and atomically
+	 * replace the merged snapshots that are affected by a changed file.
+	 * <p>Called by the background refresh thread, if active; may also be
+	 * called directly in order to enforce a refresh check.
+	 * @see #setBackgroundRefresh
+	 */
+	public void refreshAll() {
 		synchronized (this.cachedProperties) {
-			this.cachedProperties.clear();
+			for (Map.Entry<String, PropertiesHolder> entry : this.cachedProperties.entrySet()) {
+				refreshProperties(entry.getKey(), entry.getValue());
+			}
 		}
 		synchronized (this.cachedMergedProperties) {
-			this.cachedMergedProperties.clear();
+			for (Map.Entry<Locale, PropertiesHolder> entry : this.cachedMergedProperties.entrySet()) {
+				mergeProperties(entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Stop the background refresh thread, if any.
+	 */
+	public void destroy() {
+		BackgroundRefresher refresher;
+		synchronized (this) {
+			refresher = this.backgroundRefresher;
+			this.backgroundRefresher = null;
+		}
+		if (refresher != null) {
+			refresher.shutdown();
+		}
+	}
+
+	private synchronized void startBackgroundRefresh() {
+		if (this.backgroundRefresher == null) {
+			this.backgroundRefresher = new BackgroundRefresher();
+			this.backgroundRefresher.start();
 		}
 	}
 
@@ -586,32 +680,174 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 	}
 
 
+	/**
+	 * Background thread that refreshes all loaded properties files,
+	 * waking up on file system changes (where supported) or once
+	 * the refresh interval has elapsed.
+	 */
+	private class BackgroundRefresher extends Thread {
+
+		private final FileWatcher fileWatcher;
+
+		private volatile boolean running = true;
+
+		public BackgroundRefresher() {
+			super("MessageSourceRefresher-" + ObjectUtils.getIdentityHexString(
+					ReloadableResourceBundleMessageSource.this));
+			setDaemon(true);
+			FileWatcher watcher = null;
+			if (watchServiceAvailable) {
+				try {
+					watcher = new FileWatcher();
+				}
+				catch (Throwable ex) {
+					logger.debug("Could not create WatchService - falling back to polling", ex);
+				}
+			}
+			this.fileWatcher = watcher;
+		}
+
+		@Override
+		public void run() {
+			long interval = Math.max(cacheMillis, MIN_BACKGROUND_REFRESH_INTERVAL);
+			while (this.running) {
+				try {
+					if (this.fileWatcher != null) {
+						registerDirectories();
+						this.fileWatcher.awaitChange(interval);
+					}
+					else {
+						Thread.sleep(interval);
+					}
+					if (this.running) {
+						refreshAll();
+					}
+				}
+				catch (InterruptedException ex) {
+					break;
+				}
+				catch (Throwable ex) {
+					logger.warn("Background refresh of properties files failed", ex);
+				}
+			}
+			if (this.fileWatcher != null) {
+				this.fileWatcher.close();
+			}
+		}
+
+		private void registerDirectories() {
+			for (String filename : cachedProperties.keySet()) {
+				try {
+					File file = resourceLoader.getResource(filename + PROPERTIES_SUFFIX).getFile();
+					this.fileWatcher.register(file.getAbsoluteFile().getParentFile());
+				}
+				catch (IOException ex) {
+					// Not in the file system: covered by polling.
+				}
+			}
+		}
+
+		public void shutdown() {
+			this.running = false;
+			interrupt();
+		}
+	}
+
+
+	/**
+	 * Inner class to avoid a hard dependency on Java 7's WatchService.
+	 */
+	private class FileWatcher {
+
+		private final WatchService watchService;
+
+		private final Set<Path> directories = Collections.newSetFromMap(new ConcurrentHashMap<Path, Boolean>());
+
+		public FileWatcher() throws IOException {
+			this.watchService = FileSystems.getDefault().newWatchService();
+		}
+
+		public void register(File directory) throws IOException {
+			if (directory != null && directory.isDirectory()) {
+				Path path = directory.toPath();
+				if (this.directories.add(path)) {
+					path.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+							StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+				}
+			}
+		}
+
+		public void awaitChange(long timeout) throws InterruptedException {
+			WatchKey key = this.watchService.poll(timeout, TimeUnit.MILLISECONDS);
+			while (key != null) {
+				key.pollEvents();
+				key.reset();
+				key = this.watchService.poll();
+			}
+		}
+
+		public void close() {
+			try {
+				this.watchService.close();
+			}
+			catch (IOException ex) {
+				logger.debug("Could not close WatchService", ex);
+			}
+		}
+	}
+
+
 	/**
 	 * PropertiesHolder for caching.
 	 * Stores the last-modified timestamp of the source file for efficient
 	 * change detection, and the timestamp of the last refresh attempt
 	 * (updated every time the cache entry gets re-validated).
+	 * <p>Message lookups are served from an unmodifiable copy of the
+	 * properties taken at construction time, avoiding the synchronized
+	 * access methods of {@link java.util.Properties}.
 	 */
 	protected class PropertiesHolder {
 
 		private Properties properties;
 
+		private Map<String, String> messages;
+
 		private long fileTimestamp = -1;
 
-		private long refreshTimestamp = -1;
+		private volatile long refreshTimestamp = -1;
+
+		private List<PropertiesHolder> sourceHolders;
 
 		/** Cache to hold already generated MessageFormats per message code */
-		private final Map<String, Map<Locale, MessageFormat>> cachedMessageFormats =
-				new HashMap<String, Map<Locale, MessageFormat>>();
+		private final ConcurrentMap<String, Map<Locale, MessageFormat>> cachedMessageFormats =
+				new ConcurrentHashMap<String, Map<Locale, MessageFormat>>();
 
 		public PropertiesHolder(Properties properties, long fileTimestamp) {
 			this.properties = properties;
 			this.fileTimestamp = fileTimestamp;
+			if (properties != null) {
+				Map<String, String> messages = new HashMap<String, String>(properties.size() * 4 / 3 + 1);
+				for (Enumeration<?> names = properties.propertyNames(); names.hasMoreElements();) {
+					Object name = names.nextElement();
+					if (name instanceof String) {
+						String value = properties.getProperty((String) name);
+						if (value != null) {
+							messages.put((String) name, value);
+						}
+					}
+				}
+				this.messages = Collections.unmodifiableMap(messages);
+			}
 		}
 
 		public PropertiesHolder() {
 		}
 
+		private PropertiesHolder(Properties properties, long fileTimestamp, List<PropertiesHolder> sourceHolders) {
+			this(properties, fileTimestamp);
+			this.sourceHolders = sourceHolders;
+		}
+
 		public Properties getProperties() {
 			return properties;
 		}
@@ -629,36 +865,54 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 		}
 
 		public String getProperty(String code) {
-			if (this.properties == null) {
+			if (this.messages == null) {
 				return null;
 			}
-			return this.properties.getProperty(code);
+			return this.messages.get(code);
 		}
 
 		public MessageFormat getMessageFormat(String code, Locale locale) {
-			if (this.properties == null) {
+			if (this.messages == null) {
 				return null;
 			}
-			synchronized (this.cachedMessageFormats) {
-				Map<Locale, MessageFormat> localeMap = this.cachedMessageFormats.get(code);
-				if (localeMap != null) {
-					MessageFormat result = localeMap.get(locale);
-					if (result != null) {
-						return result;
-					}
+			Map<Locale, MessageFormat> localeMap = this.cachedMessageFormats.get(code);
+			if (localeMap != null) {
+				MessageFormat result = localeMap.get(locale);
+				if (result != null) {
+					return result;
 				}
-				String msg = this.properties.getProperty(code);
-				if (msg != null) {
-					if (localeMap == null) {
-						localeMap = new HashMap<Locale, MessageFormat>();
-						this.cachedMessageFormats.put(code, localeMap);
+			}
+			String msg = this.messages.get(code);
+			if (msg != null) {
+				if (localeMap == null) {
+					localeMap = new ConcurrentHashMap<Locale, MessageFormat>(4);
+					Map<Locale, MessageFormat> existing = this.cachedMessageFormats.putIfAbsent(code, localeMap);
+					if (existing != null) {
+						localeMap = existing;
 					}
-					MessageFormat result = createMessageFormat(msg, locale);
-					localeMap.put(locale, result);
-					return result;
 				}
-				return null;
+				MessageFormat result = createMessageFormat(msg, locale);
+				localeMap.put(locale, result);
+				return result;
+			}
+			return null;
+		}
+
+		/**
+		 * Check whether this (merged) holder has been built from exactly
+		 * the given holders, i.e. whether none of the underlying files
+		 * has been reloaded in the meantime.
+		 */
+		private boolean hasSourceHolders(List<PropertiesHolder> holders) {
+			if (this.sourceHolders == null || this.sourceHolders.size() != holders.size()) {
+				return false;
+			}
+			for (int i = 0; i < holders.size(); i++) {
+				if (this.sourceHolders.get(i) != holders.get(i)) {
+					return false;
+				}
 			}
+			return true;
 		}
 	}
 
@@ -25,12 +25,13 @@ import java.security.AccessController;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
 import java.text.MessageFormat;
-import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.PropertyResourceBundle;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.core.JdkVersion;
@@ -85,19 +86,20 @@ public class ResourceBundleMessageSource extends AbstractMessageSource implement
 	 * This allows for very efficient hash lookups, significantly faster
 	 * than the ResourceBundle class's own cache.
 	 */
-	private final Map<String, Map<Locale, ResourceBundle>> cachedResourceBundles =
-			new HashMap<String, Map<Locale, ResourceBundle>>();
+	private final ConcurrentMap<String, Map<Locale, ResourceBundle>> cachedResourceBundles =
+			new ConcurrentHashMap<String, Map<Locale, ResourceBundle>>();
 
 	/**
 	 * Cache to hold already generated MessageFormats.
 	 * This Map is keyed with the ResourceBundle, which holds a Map that is
 	 * keyed with the message code, which in turn holds a Map that is keyed
 	 * with the Locale and holds the MessageFormat values. This allows for
-	 * very efficient hash lookups without concatenated keys.
+	 * very efficient hash lookups without concatenated keys. All levels are
+	 * concurrent maps, so cache hits do not involve any locking.
 	 * @see #getMessageFormat
 	 */
-	private final Map<ResourceBundle, Map<String, Map<Locale, MessageFormat>>> cachedBundleMessageFormats =
-			new HashMap<ResourceBundle, Map<String, Map<Locale, MessageFormat>>>();
+	private final ConcurrentMap<ResourceBundle, ConcurrentMap<String, Map<Locale, MessageFormat>>> cachedBundleMessageFormats =
+			new ConcurrentHashMap<ResourceBundle, ConcurrentMap<String, Map<Locale, MessageFormat>>>();
 
 
 	/**
@@ -277,31 +279,32 @@ public class ResourceBundleMessageSource extends AbstractMessageSource implement
 		}
 		else {
 			// Cache forever: prefer locale cache over repeated getBundle calls.
-			synchronized (this.cachedResourceBundles) {
-				Map<Locale, ResourceBundle> localeMap = this.cachedResourceBundles.get(basename);
-				if (localeMap != null) {
-					ResourceBundle bundle = localeMap.get(locale);
-					if (bundle != null) {
-						return bundle;
-					}
-				}
-				try {
-					ResourceBundle bundle = doGetBundle(basename, locale);
-					if (localeMap == null) {
-						localeMap = new HashMap<Locale, ResourceBundle>();
-						this.cachedResourceBundles.put(basename, localeMap);
-					}
-					localeMap.put(locale, bundle);
+			Map<Locale, ResourceBundle> localeMap = this.cachedResourceBundles.get(basename);
+			if (localeMap != null) {
+				ResourceBundle bundle = localeMap.get(locale);
+				if (bundle != null) {
 					return bundle;
 				}
-				catch (MissingResourceException ex) {
-					if (logger.isWarnEnabled()) {
-						logger.warn("ResourceBundle [" + basename + "] not found for MessageSource: " + ex.getMessage());
+			}
+			try {
+				ResourceBundle bundle = doGetBundle(basename, locale);
+				if (localeMap == null) {
+					localeMap = new ConcurrentHashMap<Locale, ResourceBundle>(4);
+					Map<Locale, ResourceBundle> existing = this.cachedResourceBundles.putIfAbsent(basename, localeMap);
+					if (existing != null) {
+						localeMap = existing;
 					}
-					// Assume bundle not found
-					// -> do NOT throw the exception to allow for checking parent message source.
-					return null;
 				}
+				localeMap.put(locale, bundle);
+				return bundle;
+			}
+			catch (MissingResourceException ex) {
+				if (logger.isWarnEnabled()) {
+					logger.warn("ResourceBundle [" + basename + "] not found for MessageSource: " + ex.getMessage());
+				}
+				// Assume bundle not found
+				// -> do NOT throw the exception to allow for checking parent message source.
+				return null;
 			}
 		}
 	}
@@ -345,36 +348,41 @@ public class ResourceBundleMessageSource extends AbstractMessageSource implement
 	protected MessageFormat getMessageFormat(ResourceBundle bundle, String code, Locale locale)
 			throws MissingResourceException {
 
-		synchronized (this.cachedBundleMessageFormats) {
-			Map<String, Map<Locale, MessageFormat>> codeMap = this.cachedBundleMessageFormats.get(bundle);
-			Map<Locale, MessageFormat> localeMap = null;
-			if (codeMap != null) {
-				localeMap = codeMap.get(code);
-				if (localeMap != null) {
-					MessageFormat result = localeMap.get(locale);
-					if (result != null) {
-						return result;
-					}
+		ConcurrentMap<String, Map<Locale, MessageFormat>> codeMap = this.cachedBundleMessageFormats.get(bundle);
+		Map<Locale, MessageFormat> localeMap = null;
+		if (codeMap != null) {
+			localeMap = codeMap.get(code);
+			if (localeMap != null) {
+				MessageFormat result = localeMap.get(locale);
+				if (result != null) {
+					return result;
 				}
 			}
+		}
 
-			String msg = getStringOrNull(bundle, code);
-			if (msg != null) {
-				if (codeMap == null) {
-					codeMap = new HashMap<String, Map<Locale, MessageFormat>>();
-					this.cachedBundleMessageFormats.put(bundle, codeMap);
+		String msg = getStringOrNull(bundle, code);
+		if (msg != null) {
+			if (codeMap == null) {
+				codeMap = new ConcurrentHashMap<String, Map<Locale, MessageFormat>>();
+				ConcurrentMap<String, Map<Locale, MessageFormat>> existing =
+						this.cachedBundleMessageFormats.putIfAbsent(bundle, codeMap);
+				if (existing != null) {
+					codeMap = existing;
 				}
-				if (localeMap == null) {
-					localeMap = new HashMap<Locale, MessageFormat>();
-					codeMap.put(code, localeMap);
+			}
+			if (localeMap == null) {
+				localeMap = new ConcurrentHashMap<Locale, MessageFormat>(4);
+				Map<Locale, MessageFormat> existing = codeMap.putIfAbsent(code, localeMap);
+				if (existing != null) {
+					localeMap = existing;
 				}
-				MessageFormat result = createMessageFormat(msg, locale);
-				localeMap.put(locale, result);
-				return result;
 			}
-
-			return null;
+			MessageFormat result = createMessageFormat(msg, locale);
+			localeMap.put(locale, result);
+			return result;
 		}
+
+		return null;
 	}
 
 	private String getStringOrNull(ResourceBundle bundle, String key) {
@@ -24,9 +24,12 @@ import java.io.OutputStream;
 import java.rmi.RemoteException;
 
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.remoting.support.CompactRemoteInvocationSerializer;
+import org.springframework.remoting.support.DefaultRemoteInvocationSerializer;
 import org.springframework.remoting.support.RemoteInvocation;
 import org.springframework.remoting.support.RemoteInvocationBasedExporter;
 import org.springframework.remoting.support.RemoteInvocationResult;
+import org.springframework.remoting.support.RemoteInvocationSerializer;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 
@@ -37,7 +40,8 @@ import org.springframework.util.ClassUtils;
  * for example Spring's HTTP invoker.
  *
  * <p>Provides template methods for {@code ObjectInputStream} and
- * {@code ObjectOutputStream} handling.
+ * {@code ObjectOutputStream} handling. Alternatively, a
+ * {@link RemoteInvocationSerializer} may be specified for a custom wire format.
  *
  * @author Juergen Hoeller
  * @since 2.5.1
@@ -55,16 +59,21 @@ public abstract class RemoteInvocationSerializingExporter extends RemoteInvocati
 	public static final String CONTENT_TYPE_SERIALIZED_OBJECT = "application/x-java-serialized-object";
 
 
-	private String contentType = CONTENT_TYPE_SERIALIZED_OBJECT;
+	private String contentType;
 
 	private boolean acceptProxyClasses = true;
 
+	private RemoteInvocationSerializer remoteInvocationSerializer;
+
 	private Object proxy;
 
 
 	/**
 	 * Specify the content type to use for sending remote invocation responses.
-	 * <p>Default is "application/x-java-serialized-object".
+	 * <p>Default is "application/x-java-serialized-object", or the content type
+	 * of the {@link #setRemoteInvocationSerializer RemoteInvocationSerializer}
+	 * if specified.
+	 * @see RemoteInvocationSerializer#getContentType()
 	 */
 	public void setContentType(String contentType) {
 		Assert.notNull(contentType, "'contentType' must not be null");
@@ -75,12 +84,18 @@ public abstract class RemoteInvocationSerializingExporter extends RemoteInvocati
 	 * Return the content type to use for sending remote invocation responses.
 	 */
 	public String getContentType() {
-		return this.contentType;
+		if (this.contentType != null) {
+			return this.contentType;
+		}
+		return (this.remoteInvocationSerializer != null ?
+				this.remoteInvocationSerializer.getContentType() : CONTENT_TYPE_SERIALIZED_OBJECT);
 	}
 
 	/**
 	 * Set whether to accept deserialization of proxy classes.
-	 * <p>Default is "true". May be deactivated as a security measure.
+	 * <p>Default is "true". May be deactivated as a security measure,
+	 * which also applies to a {@link CompactRemoteInvocationSerializer} or
+	 * {@link DefaultRemoteInvocationSerializer} specified on this exporter.
 	 */
 	public void setAcceptProxyClasses(boolean acceptProxyClasses) {
 		this.acceptProxyClasses = acceptProxyClasses;
@@ -93,6 +108,25 @@ public abstract class RemoteInvocationSerializingExporter extends RemoteInvocati
 		return this.acceptProxyClasses;
 	}
 
+	/**
+	 * Set the {@link RemoteInvocationSerializer} to use for reading remote invocations
+	 * and writing remote invocation results, e.g. a
+	 * {@link org.springframework.remoting.support.CompactRemoteInvocationSerializer}.
+	 * <p>Default is none, using plain Java serialization through the
+	 * {@code ObjectInputStream} and {@code ObjectOutputStream} template methods.
+	 * Note that the client side needs to be configured with a compatible serializer.
+	 */
+	public void setRemoteInvocationSerializer(RemoteInvocationSerializer remoteInvocationSerializer) {
+		this.remoteInvocationSerializer = remoteInvocationSerializer;
+	}
+
+	/**
+	 * Return the {@link RemoteInvocationSerializer} to use, if any.
+	 */
+	public RemoteInvocationSerializer getRemoteInvocationSerializer() {
+		return this.remoteInvocationSerializer;
+	}
+
 
 	public void afterPropertiesSet() {
 		prepare();
@@ -102,6 +136,14 @@ public abstract class RemoteInvocationSerializingExporter extends RemoteInvocati
 	 * Initialize this service exporter.
 	 */
 	public void prepare() {
+		if (!isAcceptProxyClasses()) {
+			if (this.remoteInvocationSerializer instanceof CompactRemoteInvocationSerializer) {
+				((CompactRemoteInvocationSerializer) this.remoteInvocationSerializer).setAcceptProxyClasses(false);
+			}
+			else if (this.remoteInvocationSerializer instanceof DefaultRemoteInvocationSerializer) {
+				((DefaultRemoteInvocationSerializer) this.remoteInvocationSerializer).setAcceptProxyClasses(false);
+			}
+		}
 		this.proxy = getProxyForService();
 	}
 
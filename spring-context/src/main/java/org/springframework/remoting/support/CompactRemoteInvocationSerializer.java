@@ -0,0 +1,602 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.remoting.support;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * {@link RemoteInvocationSerializer} implementation using a compact binary
+ * format instead of serializing the {@link RemoteInvocation} and
+ * {@link RemoteInvocationResult} objects as a whole.
+ *
+ * <p>Method names, parameter types and common argument types (Strings,
+ * primitive wrappers and byte arrays) are written directly; parameter types are
+ * written as class names once per stream and referenced by index afterwards.
+ * All remaining values (including exceptions) are written through a single
+ * {@link ObjectOutputStream} section at the end of the stream, so that each
+ * class descriptor is transferred at most once per stream. Classes resolved on
+ * the receiving side are cached per ClassLoader across calls.
+ *
+ * <p>The stream may optionally be GZIP-compressed once its uncompressed size
+ * exceeds a configurable {@link #setCompressionThreshold threshold}.
+ *
+ * <p>Note that this format is not compatible with plain Java serialization:
+ * both sides of a remoting channel have to be configured with this serializer.
+ * Custom {@link RemoteInvocation} and {@link RemoteInvocationResult} subclasses
+ * are supported, falling back to Java serialization for the entire object.
+ *
+ * @since 3.2.19
+ * @see DefaultRemoteInvocationSerializer
+ */
+public class CompactRemoteInvocationSerializer implements RemoteInvocationSerializer {
+
+	/**
+	 * Content type of streams written by this serializer:
+	 * "application/x-spring-compact-remote-invocation"
+	 */
+	public static final String CONTENT_TYPE_COMPACT_REMOTE_INVOCATION =
+			"application/x-spring-compact-remote-invocation";
+
+
+	private static final short MAGIC = 0x5352;
+
+	private static final byte VERSION = 1;
+
+	private static final byte FLAG_GZIP = 0x01;
+
+	private static final byte KIND_INVOCATION = 1;
+
+	private static final byte KIND_RESULT = 2;
+
+	private static final byte KIND_SERIALIZED = 3;
+
+	private static final byte TAG_NULL = 0;
+
+	private static final byte TAG_STRING = 1;
+
+	private static final byte TAG_INTEGER = 2;
+
+	private static final byte TAG_LONG = 3;
+
+	private static final byte TAG_BOOLEAN = 4;
+
+	private static final byte TAG_DOUBLE = 5;
+
+	private static final byte TAG_FLOAT = 6;
+
+	private static final byte TAG_SHORT = 7;
+
+	private static final byte TAG_BYTE = 8;
+
+	private static final byte TAG_CHARACTER = 9;
+
+	private static final byte TAG_BYTE_ARRAY = 10;
+
+	private static final byte TAG_SERIALIZED = 11;
+
+	private static final String CHARSET = "UTF-8";
+
+
+	private final ConcurrentMap<ClassLoader, Map<String, Class<?>>> classCache =
+			new ConcurrentReferenceHashMap<ClassLoader, Map<String, Class<?>>>();
+
+	private int compressionThreshold = -1;
+
+	private boolean acceptProxyClasses = true;
+
+
+	/**
+	 * Set the size in bytes above which the stream gets GZIP-compressed.
+	 * <p>Default is -1, indicating no compression at all. A value of 0
+	 * compresses every stream.
+	 */
+	public void setCompressionThreshold(int compressionThreshold) {
+		this.compressionThreshold = compressionThreshold;
+	}
+
+	/**
+	 * Return the size in bytes above which the stream gets GZIP-compressed.
+	 */
+	public int getCompressionThreshold() {
+		return this.compressionThreshold;
+	}
+
+	/**
+	 * Set whether to accept deserialization of proxy classes.
+	 * <p>Default is "true". May be deactivated as a security measure.
+	 */
+	public void setAcceptProxyClasses(boolean acceptProxyClasses) {
+		this.acceptProxyClasses = acceptProxyClasses;
+	}
+
+	/**
+	 * Return whether to accept deserialization of proxy classes.
+	 */
+	public boolean isAcceptProxyClasses() {
+		return this.acceptProxyClasses;
+	}
+
+
+	public String getContentType() {
+		return CONTENT_TYPE_COMPACT_REMOTE_INVOCATION;
+	}
+
+	public void writeRemoteInvocation(RemoteInvocation invocation, OutputStream os) throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+		Output out = new Output(body);
+		if (invocation.getClass() != RemoteInvocation.class) {
+			out.writeByte(KIND_SERIALIZED);
+			out.writeDeferred(invocation);
+		}
+		else {
+			out.writeByte(KIND_INVOCATION);
+			out.writeString(invocation.getMethodName());
+			Class[] parameterTypes = invocation.getParameterTypes();
+			out.writeInt(parameterTypes != null ? parameterTypes.length : -1);
+			if (parameterTypes != null) {
+				for (Class<?> parameterType : parameterTypes) {
+					out.writeClass(parameterType);
+				}
+			}
+			Object[] arguments = invocation.getArguments();
+			out.writeInt(arguments != null ? arguments.length : -1);
+			if (arguments != null) {
+				for (Object argument : arguments) {
+					out.writeValue(argument);
+				}
+			}
+			Map<String, Serializable> attributes = invocation.getAttributes();
+			out.writeInt(attributes != null ? attributes.size() : -1);
+			if (attributes != null) {
+				for (Map.Entry<String, Serializable> entry : attributes.entrySet()) {
+					out.writeString(entry.getKey());
+					out.writeValue(entry.getValue());
+				}
+			}
+		}
+		out.finish();
+		writeStream(body, os);
+	}
+
+	public RemoteInvocation readRemoteInvocation(InputStream is, ClassLoader classLoader)
+			throws IOException, ClassNotFoundException {
+
+		Input in = new Input(openStream(is), classLoader);
+		byte kind = in.readByte();
+		if (kind == KIND_SERIALIZED) {
+			return (RemoteInvocation) checkType(in.readSingleDeferred(), RemoteInvocation.class);
+		}
+		checkKind(kind, KIND_INVOCATION);
+		RemoteInvocation invocation = new RemoteInvocation();
+		invocation.setMethodName(in.readString());
+		int parameterCount = in.readInt();
+		if (parameterCount >= 0) {
+			Class[] parameterTypes = new Class[parameterCount];
+			for (int i = 0; i < parameterCount; i++) {
+				parameterTypes[i] = in.readClass();
+			}
+			invocation.setParameterTypes(parameterTypes);
+		}
+		int argumentCount = in.readInt();
+		Object[] arguments = null;
+		if (argumentCount >= 0) {
+			arguments = new Object[argumentCount];
+			for (int i = 0; i < argumentCount; i++) {
+				arguments[i] = in.readValue();
+			}
+		}
+		int attributeCount = in.readInt();
+		String[] attributeKeys = null;
+		Object[] attributeValues = null;
+		if (attributeCount >= 0) {
+			attributeKeys = new String[attributeCount];
+			attributeValues = new Object[attributeCount];
+			for (int i = 0; i < attributeCount; i++) {
+				attributeKeys[i] = in.readString();
+				attributeValues[i] = in.readValue();
+			}
+		}
+		in.readDeferred();
+		if (arguments != null) {
+			for (int i = 0; i < arguments.length; i++) {
+				arguments[i] = in.resolve(arguments[i]);
+			}
+			invocation.setArguments(arguments);
+		}
+		if (attributeKeys != null) {
+			Map<String, Serializable> attributes = new HashMap<String, Serializable>(attributeKeys.length * 2);
+			for (int i = 0; i < attributeKeys.length; i++) {
+				attributes.put(attributeKeys[i], (Serializable) in.resolve(attributeValues[i]));
+			}
+			invocation.setAttributes(attributes);
+		}
+		return invocation;
+	}
+
+	public void writeRemoteInvocationResult(RemoteInvocationResult result, OutputStream os) throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+		Output out = new Output(body);
+		if (result.getClass() != RemoteInvocationResult.class) {
+			out.writeByte(KIND_SERIALIZED);
+			out.writeDeferred(result);
+		}
+		else {
+			out.writeByte(KIND_RESULT);
+			out.writeBoolean(result.hasException());
+			if (result.hasException()) {
+				out.writeDeferred(result.getException());
+			}
+			else {
+				out.writeValue(result.getValue());
+			}
+		}
+		out.finish();
+		writeStream(body, os);
+	}
+
+	public RemoteInvocationResult readRemoteInvocationResult(InputStream is, ClassLoader classLoader)
+			throws IOException, ClassNotFoundException {
+
+		Input in = new Input(openStream(is), classLoader);
+		byte kind = in.readByte();
+		if (kind == KIND_SERIALIZED) {
+			return (RemoteInvocationResult) checkType(in.readSingleDeferred(), RemoteInvocationResult.class);
+		}
+		checkKind(kind, KIND_RESULT);
+		boolean hasException = in.readBoolean();
+		if (hasException) {
+			return new RemoteInvocationResult((Throwable) checkType(in.readSingleDeferred(), Throwable.class));
+		}
+		Object value = in.readValue();
+		in.readDeferred();
+		return new RemoteInvocationResult(in.resolve(value));
+	}
+
+
+	private void writeStream(ByteArrayOutputStream body, OutputStream os) throws IOException {
+		boolean compress = (this.compressionThreshold >= 0 && body.size() > this.compressionThreshold);
+		DataOutputStream dos = new DataOutputStream(os);
+		dos.writeShort(MAGIC);
+		dos.writeByte(VERSION);
+		dos.writeByte(compress ? FLAG_GZIP : 0);
+		if (compress) {
+			GZIPOutputStream gzos = new GZIPOutputStream(os);
+			body.writeTo(gzos);
+			gzos.finish();
+		}
+		else {
+			body.writeTo(os);
+		}
+		os.flush();
+	}
+
+	private InputStream openStream(InputStream is) throws IOException {
+		DataInputStream dis = new DataInputStream(is);
+		if (dis.readShort() != MAGIC) {
+			throw new StreamCorruptedException("Not a compact remote invocation stream");
+		}
+		byte version = dis.readByte();
+		if (version != VERSION) {
+			throw new StreamCorruptedException("Unsupported compact remote invocation stream version: " + version);
+		}
+		byte flags = dis.readByte();
+		return ((flags & FLAG_GZIP) != 0 ? new GZIPInputStream(is) : is);
+	}
+
+	private void checkKind(byte kind, byte expectedKind) throws IOException {
+		if (kind != expectedKind) {
+			throw new StreamCorruptedException("Unexpected compact remote invocation stream content: " + kind);
+		}
+	}
+
+	private Object checkType(Object obj, Class<?> expectedType) throws RemoteException {
+		if (!expectedType.isInstance(obj)) {
+			throw new RemoteException("Deserialized object needs to be assignable to type [" +
+					expectedType.getName() + "]: " + obj);
+		}
+		return obj;
+	}
+
+	/**
+	 * Resolve the given class name against the given ClassLoader,
+	 * caching the result for subsequent streams.
+	 */
+	private Class<?> resolveClass(String className, ClassLoader classLoader) throws ClassNotFoundException {
+		ClassLoader classLoaderToUse = (classLoader != null ? classLoader : ClassUtils.getDefaultClassLoader());
+		Map<String, Class<?>> classes = this.classCache.get(classLoaderToUse);
+		if (classes == null) {
+			classes = new ConcurrentHashMap<String, Class<?>>(64);
+			Map<String, Class<?>> existing = this.classCache.putIfAbsent(classLoaderToUse, classes);
+			if (existing != null) {
+				classes = existing;
+			}
+		}
+		Class<?> clazz = classes.get(className);
+		if (clazz == null) {
+			clazz = ClassUtils.forName(className, classLoaderToUse);
+			classes.put(className, clazz);
+		}
+		return clazz;
+	}
+
+
+	/**
+	 * Per-stream write state: the class table and the values to be
+	 * written through the trailing ObjectOutputStream section.
+	 */
+	private static class Output extends DataOutputStream {
+
+		private final Map<Class<?>, Integer> classTable = new HashMap<Class<?>, Integer>();
+
+		private final List<Object> deferred = new ArrayList<Object>();
+
+		public Output(OutputStream out) {
+			super(out);
+		}
+
+		public void writeString(String value) throws IOException {
+			if (value == null) {
+				writeInt(-1);
+			}
+			else {
+				byte[] bytes = value.getBytes(CHARSET);
+				writeInt(bytes.length);
+				write(bytes);
+			}
+		}
+
+		public void writeClass(Class<?> clazz) throws IOException {
+			Integer index = this.classTable.get(clazz);
+			if (index != null) {
+				writeInt(index);
+			}
+			else {
+				this.classTable.put(clazz, this.classTable.size());
+				writeInt(-1);
+				writeString(clazz.getName());
+			}
+		}
+
+		public void writeValue(Object value) throws IOException {
+			if (value == null) {
+				writeByte(TAG_NULL);
+			}
+			else if (value instanceof String) {
+				writeByte(TAG_STRING);
+				writeString((String) value);
+			}
+			else if (value instanceof Integer) {
+				writeByte(TAG_INTEGER);
+				writeInt((Integer) value);
+			}
+			else if (value instanceof Long) {
+				writeByte(TAG_LONG);
+				writeLong((Long) value);
+			}
+			else if (value instanceof Boolean) {
+				writeByte(TAG_BOOLEAN);
+				writeBoolean((Boolean) value);
+			}
+			else if (value instanceof Double) {
+				writeByte(TAG_DOUBLE);
+				writeDouble((Double) value);
+			}
+			else if (value instanceof Float) {
+				writeByte(TAG_FLOAT);
+				writeFloat((Float) value);
+			}
+			else if (value instanceof Short) {
+				writeByte(TAG_SHORT);
+				writeShort((Short) value);
+			}
+			else if (value instanceof Byte) {
+				writeByte(TAG_BYTE);
+				writeByte((Byte) value);
+			}
+			else if (value instanceof Character) {
+				writeByte(TAG_CHARACTER);
+				writeChar((Character) value);
+			}
+			else if (value instanceof byte[]) {
+				byte[] bytes = (byte[]) value;
+				writeByte(TAG_BYTE_ARRAY);
+				writeInt(bytes.length);
+				write(bytes);
+			}
+			else {
+				writeByte(TAG_SERIALIZED);
+				writeDeferred(value);
+			}
+		}
+
+		public void writeDeferred(Object value) throws IOException {
+			writeInt(this.deferred.size());
+			this.deferred.add(value);
+		}
+
+		public void finish() throws IOException {
+			writeInt(this.deferred.size());
+			if (!this.deferred.isEmpty()) {
+				ObjectOutputStream oos = new ObjectOutputStream(this);
+				for (Object value : this.deferred) {
+					oos.writeObject(value);
+				}
+				oos.flush();
+			}
+			flush();
+		}
+	}
+
+
+	/**
+	 * Placeholder for a value read from the trailing ObjectInputStream section.
+	 */
+	private static class DeferredValue {
+
+		private final int index;
+
+		public DeferredValue(int index) {
+			this.index = index;
+		}
+	}
+
+
+	/**
+	 * Per-stream read state, counterpart of {@link Output}.
+	 */
+	private class Input extends DataInputStream {
+
+		private final ClassLoader classLoader;
+
+		private final List<Class<?>> classTable = new ArrayList<Class<?>>();
+
+		private Object[] deferred;
+
+		public Input(InputStream in, ClassLoader classLoader) {
+			super(in);
+			this.classLoader = classLoader;
+		}
+
+		public String readString() throws IOException {
+			int length = readInt();
+			if (length < 0) {
+				return null;
+			}
+			byte[] bytes = new byte[length];
+			readFully(bytes);
+			return new String(bytes, CHARSET);
+		}
+
+		public Class<?> readClass() throws IOException, ClassNotFoundException {
+			int index = readInt();
+			if (index >= 0) {
+				return this.classTable.get(index);
+			}
+			Class<?> clazz = resolveClass(readString(), this.classLoader);
+			this.classTable.add(clazz);
+			return clazz;
+		}
+
+		public Object readValue() throws IOException {
+			byte tag = readByte();
+			switch (tag) {
+				case TAG_NULL:
+					return null;
+				case TAG_STRING:
+					return readString();
+				case TAG_INTEGER:
+					return readInt();
+				case TAG_LONG:
+					return readLong();
+				case TAG_BOOLEAN:
+					return readBoolean();
+				case TAG_DOUBLE:
+					return readDouble();
+				case TAG_FLOAT:
+					return readFloat();
+				case TAG_SHORT:
+					return readShort();
+				case TAG_BYTE:
+					return readByte();
+				case TAG_CHARACTER:
+					return readChar();
+				case TAG_BYTE_ARRAY:
+					byte[] bytes = new byte[readInt()];
+					readFully(bytes);
+					return bytes;
+				case TAG_SERIALIZED:
+					return new DeferredValue(readInt());
+				default:
+					throw new StreamCorruptedException("Unknown compact remote invocation value tag: " + tag);
+			}
+		}
+
+		public void readDeferred() throws IOException, ClassNotFoundException {
+			int count = readInt();
+			this.deferred = new Object[count];
+			if (count > 0) {
+				ObjectInputStream ois = new CachingObjectInputStream(this, this.classLoader);
+				for (int i = 0; i < count; i++) {
+					this.deferred[i] = ois.readObject();
+				}
+			}
+		}
+
+		public Object readSingleDeferred() throws IOException, ClassNotFoundException {
+			readInt();
+			readDeferred();
+			return resolve(0);
+		}
+
+		public Object resolve(Object value) {
+			return (value instanceof DeferredValue ? resolve(((DeferredValue) value).index) : value);
+		}
+
+		public Object resolve(int index) {
+			return this.deferred[index];
+		}
+	}
+
+
+	/**
+	 * ConfigurableObjectInputStream that resolves classes through the
+	 * serializer's shared class cache.
+	 */
+	private class CachingObjectInputStream extends ConfigurableObjectInputStream {
+
+		private final ClassLoader classLoader;
+
+		public CachingObjectInputStream(InputStream in, ClassLoader classLoader) throws IOException {
+			super(in, classLoader, acceptProxyClasses);
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass classDesc) throws IOException, ClassNotFoundException {
+			try {
+				return CompactRemoteInvocationSerializer.this.resolveClass(classDesc.getName(), this.classLoader);
+			}
+			catch (ClassNotFoundException ex) {
+				return super.resolveClass(classDesc);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.remoting.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.rmi.RemoteException;
+
+import org.springframework.core.ConfigurableObjectInputStream;
+
+/**
+ * Default {@link RemoteInvocationSerializer} implementation, using plain
+ * Java serialization of the {@link RemoteInvocation} and
+ * {@link RemoteInvocationResult} objects. The resulting stream format
+ * is identical to the one written by the HTTP invoker and JMS invoker
+ * infrastructure without a serializer configured.
+ *
+ * @since 3.2.19
+ * @see java.io.ObjectOutputStream
+ * @see org.springframework.core.ConfigurableObjectInputStream
+ */
+public class DefaultRemoteInvocationSerializer implements RemoteInvocationSerializer {
+
+	/**
+	 * Content type of Java-serialized streams: "application/x-java-serialized-object"
+	 */
+	public static final String CONTENT_TYPE_SERIALIZED_OBJECT = "application/x-java-serialized-object";
+
+
+	private boolean acceptProxyClasses = true;
+
+
+	/**
+	 * Set whether to accept deserialization of proxy classes.
+	 * <p>Default is "true". May be deactivated as a security measure.
+	 */
+	public void setAcceptProxyClasses(boolean acceptProxyClasses) {
+		this.acceptProxyClasses = acceptProxyClasses;
+	}
+
+	/**
+	 * Return whether to accept deserialization of proxy classes.
+	 */
+	public boolean isAcceptProxyClasses() {
+		return this.acceptProxyClasses;
+	}
+
+
+	public String getContentType() {
+		return CONTENT_TYPE_SERIALIZED_OBJECT;
+	}
+
+	public void writeRemoteInvocation(RemoteInvocation invocation, OutputStream os) throws IOException {
+		writeObject(invocation, os);
+	}
+
+	public RemoteInvocation readRemoteInvocation(InputStream is, ClassLoader classLoader)
+			throws IOException, ClassNotFoundException {
+
+		Object obj = readObject(is, classLoader);
+		if (!(obj instanceof RemoteInvocation)) {
+			throw new RemoteException("Deserialized object needs to be assignable to type [" +
+					RemoteInvocation.class.getName() + "]: " + obj);
+		}
+		return (RemoteInvocation) obj;
+	}
+
+	public void writeRemoteInvocationResult(RemoteInvocationResult result, OutputStream os) throws IOException {
+		writeObject(result, os);
+	}
+
+	public RemoteInvocationResult readRemoteInvocationResult(InputStream is, ClassLoader classLoader)
+			throws IOException, ClassNotFoundException {
+
+		Object obj = readObject(is, classLoader);
+		if (!(obj instanceof RemoteInvocationResult)) {
+			throw new RemoteException("Deserialized object needs to be assignable to type [" +
+					RemoteInvocationResult.class.getName() + "]: " + obj);
+		}
+		return (RemoteInvocationResult) obj;
+	}
+
+
+	/**
+	 * Create an ObjectInputStream for the given InputStream.
+	 * <p>The default implementation creates a Spring {@link ConfigurableObjectInputStream}.
+	 * @param is the InputStream to read from
+	 * @param classLoader the ClassLoader to resolve transferred classes against
+	 * @return the new ObjectInputStream instance to use
+	 * @throws IOException if creation of the ObjectInputStream failed
+	 */
+	protected ObjectInputStream createObjectInputStream(InputStream is, ClassLoader classLoader)
+			throws IOException {
+
+		return new ConfigurableObjectInputStream(is, classLoader, isAcceptProxyClasses());
+	}
+
+	/**
+	 * Create an ObjectOutputStream for the given OutputStream.
+	 * <p>The default implementation creates a plain {@link ObjectOutputStream}.
+	 * @param os the OutputStream to write to
+	 * @return the new ObjectOutputStream instance to use
+	 * @throws IOException if creation of the ObjectOutputStream failed
+	 */
+	protected ObjectOutputStream createObjectOutputStream(OutputStream os) throws IOException {
+		return new ObjectOutputStream(os);
+	}
+
+	private void writeObject(Object obj, OutputStream os) throws IOException {
+		ObjectOutputStream oos = createObjectOutputStream(os);
+		oos.writeObject(obj);
+		oos.flush();
+	}
+
+	private Object readObject(InputStream is, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+		return createObjectInputStream(is, classLoader).readObject();
+	}
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.remoting.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Strategy interface for turning {@link RemoteInvocation} and
+ * {@link RemoteInvocationResult} objects into a byte stream and back,
+ * for exporters and client-side executors that explicitly serialize
+ * invocations (HTTP invoker, JMS invoker).
+ *
+ * <p>Implementations are expected to be thread-safe and to leave the
+ * given streams open; closing them is up to the caller.
+ *
+ * @since 3.2.19
+ * @see DefaultRemoteInvocationSerializer
+ * @see CompactRemoteInvocationSerializer
+ */
+public interface RemoteInvocationSerializer {
+
+	/**
+	 * Return the content type of the streams written by this serializer,
+	 * e.g. for the "Content-Type" header of HTTP invoker requests and responses.
+	 */
+	String getContentType();
+
+	/**
+	 * Write the given RemoteInvocation to the given OutputStream.
+	 * @param invocation the RemoteInvocation object
+	 * @param os the OutputStream to write to
+	 * @throws IOException if thrown by I/O methods
+	 */
+	void writeRemoteInvocation(RemoteInvocation invocation, OutputStream os) throws IOException;
+
+	/**
+	 * Read a RemoteInvocation from the given InputStream.
+	 * @param is the InputStream to read from
+	 * @param classLoader the ClassLoader to resolve transferred classes against
+	 * (may be {@code null} for the default ClassLoader)
+	 * @return the RemoteInvocation object
+	 * @throws IOException in case of I/O failure
+	 * @throws ClassNotFoundException if case of a transferred class not
+	 * being found in the given ClassLoader
+	 */
+	RemoteInvocation readRemoteInvocation(InputStream is, ClassLoader classLoader)
+			throws IOException, ClassNotFoundException;
+
+	/**
+	 * Write the given RemoteInvocationResult to the given OutputStream.
+	 * @param result the RemoteInvocationResult object
+	 * @param os the OutputStream to write to
+	 * @throws IOException if thrown by I/O methods
+	 */
+	void writeRemoteInvocationResult(RemoteInvocationResult result, OutputStream os) throws IOException;
+
+	/**
+	 * Read a RemoteInvocationResult from the given InputStream.
+	 * @param is the InputStream to read from
+	 * @param classLoader the ClassLoader to resolve transferred classes against
+	 * (may be {@code null} for the default ClassLoader)
+	 * @return the RemoteInvocationResult object
+	 * @throws IOException in case of I/O failure
+	 * @throws ClassNotFoundException if case of a transferred class not
+	 * being found in the given ClassLoader
+	 */
+	RemoteInvocationResult readRemoteInvocationResult(InputStream is, ClassLoader classLoader)
+			throws IOException, ClassNotFoundException;
+
+}
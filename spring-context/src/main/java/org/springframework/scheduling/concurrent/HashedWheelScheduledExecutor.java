@@ -0,0 +1,529 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link ScheduledExecutorService} implementation backed by a hashed timing wheel,
+ * designed for very large numbers of delayed tasks that are mostly cancelled
+ * before they fire (e.g. request deadlines, async request timeouts, retries).
+ *
+ * <p>Scheduling and cancellation are O(1) and lock-free: new tasks and cancellations
+ * are handed to a single ticker thread through concurrent queues, and the ticker
+ * thread is the only one to touch the wheel itself. Tasks further away than one
+ * revolution of the wheel stay in their bucket for the required number of rounds.
+ * Tasks that are due get dispatched to a separate pool of execution threads.
+ *
+ * <p>The price for this is precision: tasks fire on the first tick at or after their
+ * deadline, so they may run up to one tick duration late. The observed lag between
+ * deadline and actual execution is exposed through {@link #getAverageSchedulingLag()}
+ * and {@link #getMaxSchedulingLag()}.
+ *
+ * <p>On shutdown, delayed tasks that have not fired yet are cancelled, while tasks
+ * that have already been dispatched are allowed to complete.
+ *
+ * @since 3.2.19
+ * @see HashedWheelTaskScheduler
+ */
+public class HashedWheelScheduledExecutor extends AbstractExecutorService implements ScheduledExecutorService {
+
+	private final long tickDuration;
+
+	private final WheelBucket[] wheel;
+
+	private final int mask;
+
+	private final ThreadPoolExecutor taskExecutor;
+
+	private final Thread tickerThread;
+
+	private final Queue<WheelTask<?>> pendingTasks = new ConcurrentLinkedQueue<WheelTask<?>>();
+
+	private final Queue<WheelTask<?>> cancelledTasks = new ConcurrentLinkedQueue<WheelTask<?>>();
+
+	private final long startTime;
+
+	private volatile boolean shutdown;
+
+	/** Only written by the ticker thread */
+	private volatile int delayedTaskCount;
+
+	private final AtomicLong executedTaskCount = new AtomicLong();
+
+	private final AtomicLong totalLag = new AtomicLong();
+
+	private final AtomicLong maxLag = new AtomicLong();
+
+
+	/**
+	 * Create a new HashedWheelScheduledExecutor with a default thread factory.
+	 * @param tickDuration the duration of a single tick, i.e. the scheduling resolution
+	 * @param unit the time unit of the tick duration
+	 * @param ticksPerWheel the number of buckets in the wheel (rounded up to a power of two)
+	 * @param poolSize the number of threads to execute due tasks with
+	 */
+	public HashedWheelScheduledExecutor(long tickDuration, TimeUnit unit, int ticksPerWheel, int poolSize) {
+		this(tickDuration, unit, ticksPerWheel, poolSize, Executors.defaultThreadFactory(),
+				new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	/**
+	 * Create a new HashedWheelScheduledExecutor.
+	 * @param tickDuration the duration of a single tick, i.e. the scheduling resolution
+	 * (at least one millisecond)
+	 * @param unit the time unit of the tick duration
+	 * @param ticksPerWheel the number of buckets in the wheel (rounded up to a power of two)
+	 * @param poolSize the number of threads to execute due tasks with
+	 * @param threadFactory the ThreadFactory for the ticker thread and the execution threads
+	 * @param rejectedExecutionHandler the handler for tasks that the execution threads
+	 * cannot accept
+	 */
+	public HashedWheelScheduledExecutor(long tickDuration, TimeUnit unit, int ticksPerWheel, int poolSize,
+			ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+
+		Assert.isTrue(unit.toMillis(tickDuration) >= 1, "'tickDuration' must be at least one millisecond");
+		Assert.isTrue(ticksPerWheel > 0 && ticksPerWheel <= (1 << 30), "'ticksPerWheel' must be between 1 and 2^30");
+		Assert.isTrue(poolSize > 0, "'poolSize' must be 1 or higher");
+		this.tickDuration = unit.toNanos(tickDuration);
+		int wheelSize = 1;
+		while (wheelSize < ticksPerWheel) {
+			wheelSize <<= 1;
+		}
+		this.wheel = new WheelBucket[wheelSize];
+		for (int i = 0; i < wheelSize; i++) {
+			this.wheel[i] = new WheelBucket();
+		}
+		this.mask = wheelSize - 1;
+		this.taskExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<Runnable>(), threadFactory, rejectedExecutionHandler);
+		this.startTime = System.nanoTime();
+		this.tickerThread = threadFactory.newThread(new Ticker());
+		this.tickerThread.start();
+	}
+
+
+	/**
+	 * Return the scheduling resolution in milliseconds.
+	 */
+	public long getTickDuration() {
+		return TimeUnit.NANOSECONDS.toMillis(this.tickDuration);
+	}
+
+	/**
+	 * Return the number of buckets in the wheel.
+	 */
+	public int getTicksPerWheel() {
+		return this.wheel.length;
+	}
+
+	/**
+	 * Return the number of delayed tasks held in the wheel as of the last tick.
+	 * Tasks scheduled or cancelled since then are not reflected yet.
+	 */
+	public int getDelayedTaskCount() {
+		return this.delayedTaskCount;
+	}
+
+	/**
+	 * Return the number of delayed task executions so far.
+	 */
+	public long getExecutedTaskCount() {
+		return this.executedTaskCount.get();
+	}
+
+	/**
+	 * Return the average lag in milliseconds between the scheduled and the
+	 * actual execution time of delayed tasks.
+	 */
+	public double getAverageSchedulingLag() {
+		long count = this.executedTaskCount.get();
+		return (count > 0 ? (double) this.totalLag.get() / count / 1000000 : 0);
+	}
+
+	/**
+	 * Return the maximum lag in milliseconds between the scheduled and the
+	 * actual execution time of delayed tasks.
+	 */
+	public long getMaxSchedulingLag() {
+		return TimeUnit.NANOSECONDS.toMillis(this.maxLag.get());
+	}
+
+
+	// ScheduledExecutorService implementation
+
+	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+		Assert.notNull(command, "Runnable must not be null");
+		return schedule(new WheelTask<Object>(command, null, triggerTime(delay, unit), 0));
+	}
+
+	public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+		Assert.notNull(callable, "Callable must not be null");
+		return schedule(new WheelTask<V>(callable, triggerTime(delay, unit)));
+	}
+
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+		Assert.notNull(command, "Runnable must not be null");
+		Assert.isTrue(period > 0, "'period' must be positive");
+		return schedule(new WheelTask<Object>(command, null, triggerTime(initialDelay, unit), unit.toNanos(period)));
+	}
+
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+		Assert.notNull(command, "Runnable must not be null");
+		Assert.isTrue(delay > 0, "'delay' must be positive");
+		return schedule(new WheelTask<Object>(command, null, triggerTime(initialDelay, unit), -unit.toNanos(delay)));
+	}
+
+	private long triggerTime(long delay, TimeUnit unit) {
+		return System.nanoTime() + unit.toNanos(Math.max(delay, 0));
+	}
+
+	private <V> ScheduledFuture<V> schedule(WheelTask<V> task) {
+		if (this.shutdown) {
+			throw new RejectedExecutionException("HashedWheelScheduledExecutor has been shut down");
+		}
+		enqueue(task);
+		return task;
+	}
+
+	/**
+	 * Hand the given task to the ticker thread, or dispatch it right away if already due.
+	 */
+	private void enqueue(WheelTask<?> task) {
+		if (task.triggerTime - System.nanoTime() <= 0) {
+			this.taskExecutor.execute(task);
+		}
+		else {
+			this.pendingTasks.add(task);
+		}
+	}
+
+	/**
+	 * Execute the given task right away on one of the execution threads.
+	 */
+	public void execute(Runnable command) {
+		if (this.shutdown) {
+			throw new RejectedExecutionException("HashedWheelScheduledExecutor has been shut down");
+		}
+		this.taskExecutor.execute(command);
+	}
+
+	public void shutdown() {
+		this.shutdown = true;
+		this.tickerThread.interrupt();
+		this.taskExecutor.shutdown();
+	}
+
+	public List<Runnable> shutdownNow() {
+		this.shutdown = true;
+		this.tickerThread.interrupt();
+		List<Runnable> remaining = new ArrayList<Runnable>(this.taskExecutor.shutdownNow());
+		for (WheelTask<?> task : this.pendingTasks) {
+			if (!task.isCancelled()) {
+				remaining.add(task);
+			}
+		}
+		return remaining;
+	}
+
+	public boolean isShutdown() {
+		return this.shutdown;
+	}
+
+	public boolean isTerminated() {
+		return (this.shutdown && !this.tickerThread.isAlive() && this.taskExecutor.isTerminated());
+	}
+
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		this.tickerThread.join(Math.max(unit.toMillis(timeout), 1));
+		long remaining = deadline - System.nanoTime();
+		return (!this.tickerThread.isAlive() && this.taskExecutor.awaitTermination(remaining, TimeUnit.NANOSECONDS));
+	}
+
+
+	private void recordLag(long lag) {
+		this.executedTaskCount.incrementAndGet();
+		if (lag > 0) {
+			this.totalLag.addAndGet(lag);
+			long max = this.maxLag.get();
+			while (lag > max && !this.maxLag.compareAndSet(max, lag)) {
+				max = this.maxLag.get();
+			}
+		}
+	}
+
+
+	/**
+	 * The single thread that advances the wheel and dispatches due tasks.
+	 */
+	private class Ticker implements Runnable {
+
+		private long tick;
+
+		public void run() {
+			try {
+				while (!shutdown) {
+					long deadline = waitForNextTick();
+					if (deadline < 0) {
+						break;
+					}
+					removeCancelledTasks();
+					transferPendingTasks();
+					wheel[(int) (this.tick & mask)].expireTasks(deadline);
+					this.tick++;
+				}
+			}
+			finally {
+				cancelRemainingTasks();
+			}
+		}
+
+		/**
+		 * Sleep until the end of the current tick.
+		 * @return the end of the tick relative to the start time,
+		 * or -1 if interrupted by a shutdown
+		 */
+		private long waitForNextTick() {
+			long deadline = tickDuration * (this.tick + 1);
+			while (true) {
+				long current = System.nanoTime() - startTime;
+				long sleepTimeMs = (deadline - current + 999999) / 1000000;
+				if (sleepTimeMs <= 0) {
+					return current;
+				}
+				try {
+					Thread.sleep(sleepTimeMs);
+				}
+				catch (InterruptedException ex) {
+					if (shutdown) {
+						return -1;
+					}
+				}
+			}
+		}
+
+		private void removeCancelledTasks() {
+			WheelTask<?> task;
+			while ((task = cancelledTasks.poll()) != null) {
+				if (task.bucket != null) {
+					task.bucket.remove(task);
+				}
+			}
+		}
+
+		private void transferPendingTasks() {
+			WheelTask<?> task;
+			while ((task = pendingTasks.poll()) != null) {
+				if (task.isCancelled()) {
+					continue;
+				}
+				long calculated = (task.triggerTime - startTime) / tickDuration;
+				task.remainingRounds = (calculated - this.tick) / wheel.length;
+				long ticks = Math.max(calculated, this.tick);
+				wheel[(int) (ticks & mask)].add(task);
+			}
+		}
+
+		private void cancelRemainingTasks() {
+			for (WheelBucket bucket : wheel) {
+				bucket.cancelAll();
+			}
+			WheelTask<?> task;
+			while ((task = pendingTasks.poll()) != null) {
+				task.cancel(false);
+			}
+			cancelledTasks.clear();
+			delayedTaskCount = 0;
+		}
+	}
+
+
+	/**
+	 * Doubly-linked list of tasks in a wheel slot, only accessed by the ticker thread.
+	 */
+	private class WheelBucket {
+
+		private WheelTask<?> head;
+
+		private WheelTask<?> tail;
+
+		public void add(WheelTask<?> task) {
+			task.bucket = this;
+			delayedTaskCount++;
+			if (this.head == null) {
+				this.head = this.tail = task;
+			}
+			else {
+				this.tail.next = task;
+				task.prev = this.tail;
+				this.tail = task;
+			}
+		}
+
+		public void remove(WheelTask<?> task) {
+			WheelTask<?> next = task.next;
+			if (task.prev != null) {
+				task.prev.next = next;
+			}
+			if (task.next != null) {
+				task.next.prev = task.prev;
+			}
+			if (task == this.head) {
+				this.head = next;
+			}
+			if (task == this.tail) {
+				this.tail = task.prev;
+			}
+			task.prev = null;
+			task.next = null;
+			task.bucket = null;
+			delayedTaskCount--;
+		}
+
+		public void expireTasks(long deadline) {
+			WheelTask<?> task = this.head;
+			while (task != null) {
+				WheelTask<?> next = task.next;
+				if (task.remainingRounds <= 0) {
+					remove(task);
+					if (!task.isCancelled()) {
+						dispatch(task);
+					}
+				}
+				else if (task.isCancelled()) {
+					remove(task);
+				}
+				else {
+					task.remainingRounds--;
+				}
+				task = next;
+			}
+		}
+
+		private void dispatch(WheelTask<?> task) {
+			try {
+				taskExecutor.execute(task);
+			}
+			catch (RejectedExecutionException ex) {
+				task.cancel(false);
+			}
+		}
+
+		public void cancelAll() {
+			WheelTask<?> task = this.head;
+			while (task != null) {
+				WheelTask<?> next = task.next;
+				remove(task);
+				task.cancel(false);
+				task = next;
+			}
+		}
+	}
+
+
+	/**
+	 * A delayed task, possibly periodic, sitting in a wheel bucket until due.
+	 */
+	private class WheelTask<V> extends FutureTask<V> implements ScheduledFuture<V> {
+
+		/** Fixed rate if positive, fixed delay if negative, one-shot if 0 */
+		private final long period;
+
+		private volatile long triggerTime;
+
+		private long remainingRounds;
+
+		private volatile WheelBucket bucket;
+
+		private WheelTask<?> prev;
+
+		private WheelTask<?> next;
+
+		public WheelTask(Runnable runnable, V result, long triggerTime, long period) {
+			super(runnable, result);
+			this.triggerTime = triggerTime;
+			this.period = period;
+		}
+
+		public WheelTask(Callable<V> callable, long triggerTime) {
+			super(callable);
+			this.triggerTime = triggerTime;
+			this.period = 0;
+		}
+
+		@Override
+		public void run() {
+			recordLag(System.nanoTime() - this.triggerTime);
+			if (this.period == 0) {
+				super.run();
+			}
+			else if (runAndReset() && !shutdown) {
+				this.triggerTime = (this.period > 0 ? this.triggerTime + this.period : System.nanoTime() - this.period);
+				try {
+					enqueue(this);
+				}
+				catch (RejectedExecutionException ex) {
+					cancel(false);
+				}
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled && this.bucket != null) {
+				// Let the ticker thread unlink the task right away; tasks that are not
+				// in a bucket yet get discarded when the ticker thread encounters them.
+				cancelledTasks.add(this);
+			}
+			return cancelled;
+		}
+
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.triggerTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+
+		public int compareTo(Delayed other) {
+			if (this == other) {
+				return 0;
+			}
+			long diff = getDelay(TimeUnit.NANOSECONDS) - other.getDelay(TimeUnit.NANOSECONDS);
+			return (diff == 0 ? 0 : ((diff < 0) ? -1 : 1));
+		}
+	}
+
+}
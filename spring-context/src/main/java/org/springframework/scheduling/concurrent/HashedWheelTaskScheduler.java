@@ -0,0 +1,94 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.util.Assert;
+
+/**
+ * Variant of {@link ThreadPoolTaskScheduler} that is backed by a
+ * {@link HashedWheelScheduledExecutor} instead of a
+ * {@link java.util.concurrent.ScheduledThreadPoolExecutor}.
+ *
+ * <p>Suitable for high volumes of short-lived timeouts that are mostly cancelled
+ * before they fire, where the single lock of a ScheduledThreadPoolExecutor's delay
+ * queue becomes a point of contention. Scheduling and cancellation are O(1), at the
+ * expense of a scheduling resolution of one {@link #setTickDuration tick}.
+ * Trigger-based scheduling, e.g. with a
+ * {@link org.springframework.scheduling.support.CronTrigger}, works as usual.
+ *
+ * @since 3.2.19
+ * @see #setTickDuration
+ * @see #setTicksPerWheel
+ * @see #setPoolSize
+ */
+@SuppressWarnings("serial")
+public class HashedWheelTaskScheduler extends ThreadPoolTaskScheduler {
+
+	private volatile long tickDuration = 10;
+
+	private volatile int ticksPerWheel = 512;
+
+
+	/**
+	 * Set the duration of a single tick of the wheel in milliseconds,
+	 * i.e. the scheduling resolution. Default is 10.
+	 */
+	public void setTickDuration(long tickDuration) {
+		Assert.isTrue(tickDuration > 0, "'tickDuration' must be 1 or higher");
+		this.tickDuration = tickDuration;
+	}
+
+	/**
+	 * Set the number of buckets in the wheel, rounded up to a power of two.
+	 * Default is 512.
+	 * <p>Tasks further away than {@code tickDuration * ticksPerWheel} remain in
+	 * their bucket for several revolutions of the wheel, so a larger wheel helps
+	 * with longer delays at the expense of memory.
+	 */
+	public void setTicksPerWheel(int ticksPerWheel) {
+		Assert.isTrue(ticksPerWheel > 0, "'ticksPerWheel' must be 1 or higher");
+		this.ticksPerWheel = ticksPerWheel;
+	}
+
+	/**
+	 * This implementation creates a {@link HashedWheelScheduledExecutor}.
+	 */
+	@Override
+	protected ScheduledExecutorService createExecutor(
+			int poolSize, ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+
+		return new HashedWheelScheduledExecutor(this.tickDuration, TimeUnit.MILLISECONDS, this.ticksPerWheel,
+				poolSize, threadFactory, rejectedExecutionHandler);
+	}
+
+	/**
+	 * Return the underlying HashedWheelScheduledExecutor for native access
+	 * and for access to its scheduling metrics.
+	 * @throws IllegalStateException if the HashedWheelTaskScheduler hasn't been initialized yet
+	 * @see HashedWheelScheduledExecutor#getAverageSchedulingLag()
+	 * @see HashedWheelScheduledExecutor#getMaxSchedulingLag()
+	 */
+	public HashedWheelScheduledExecutor getHashedWheelExecutor() throws IllegalStateException {
+		return (HashedWheelScheduledExecutor) getScheduledExecutor();
+	}
+
+}
@@ -48,6 +48,11 @@ import org.springframework.util.StringUtils;
  * <li>"0 0 0 25 12 ?" = every Christmas Day at midnight</li>
  * </ul>
  *
+ * <p>Next execution times are computed arithmetically on the wall-clock fields of the
+ * given time zone, jumping straight to the next matching value of each field. Days
+ * around a time zone offset transition (e.g. daylight saving time changes) are left
+ * to a {@link Calendar} based computation instead.
+ *
  * @author Dave Syer
  * @author Juergen Hoeller
  * @since 3.0
@@ -55,6 +60,23 @@ import org.springframework.util.StringUtils;
  */
 public class CronSequenceGenerator {
 
+	private static final long MILLIS_PER_DAY = 86400000;
+
+	/** Epoch day of 1583-01-01, the first full year of the Gregorian calendar */
+	private static final long MIN_GREGORIAN_EPOCH_DAY = -141349;
+
+	private static final int NO_FIXED_OFFSET = Integer.MIN_VALUE;
+
+	private static final int OFFSET_PROBES = 34;
+
+	/**
+	 * Number of years to search ahead for the next trigger: covers the longest gap
+	 * between leap days, e.g. from February 29th, 2096 to February 29th, 2104
+	 */
+	private static final int MAX_SEARCH_YEARS = 8;
+
+	private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
 	private final String expression;
 
 	private final TimeZone timeZone;
@@ -71,6 +93,9 @@ public class CronSequenceGenerator {
 
 	private final BitSet seconds = new BitSet(60);
 
+	/** The last range of days checked for a fixed time zone offset */
+	private volatile DayOffset lastDayOffset;
+
 
 	/**
 	 * Construct a {@link CronSequenceGenerator} from the pattern provided,
@@ -113,6 +138,180 @@ public class CronSequenceGenerator {
 	 * @return the next value matching the pattern
 	 */
 	public Date next(Date date) {
+		// Start with the whole second after the given date
+		long start = (floorDiv(date.getTime(), 1000) + 1) * 1000;
+		int startOffset = this.timeZone.getOffset(start);
+		long startDay = floorDiv(start + startOffset, MILLIS_PER_DAY);
+		if (startDay < MIN_GREGORIAN_EPOCH_DAY || getFixedOffset(startDay) != startOffset) {
+			return nextWithCalendar(date);
+		}
+		int secondOfDay = (int) ((start + startOffset - startDay * MILLIS_PER_DAY) / 1000);
+
+		// Convert the epoch day to year, month and day of month (proleptic Gregorian calendar)
+		long z = startDay + 719468;
+		long era = (z >= 0 ? z : z - 146096) / 146097;
+		int dayOfEra = (int) (z - era * 146097);
+		int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		int shiftedMonth = (5 * dayOfYear + 2) / 153;
+		int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+		int month = (shiftedMonth < 10 ? shiftedMonth + 2 : shiftedMonth - 10);
+		long year = yearOfEra + era * 400 + (month <= 1 ? 1 : 0);
+		int hour = secondOfDay / 3600;
+		int minute = secondOfDay / 60 % 60;
+		int second = secondOfDay % 60;
+
+		long startYear = year;
+		while (true) {
+			if (year - startYear > MAX_SEARCH_YEARS) {
+				throw new IllegalArgumentException("Invalid cron expression \"" + this.expression +
+						"\" led to runaway search for next trigger");
+			}
+			int nextMonth = this.months.nextSetBit(month);
+			if (nextMonth == -1) {
+				year++;
+				month = 0;
+				day = 1;
+				hour = minute = second = 0;
+				continue;
+			}
+			if (nextMonth != month) {
+				month = nextMonth;
+				day = 1;
+				hour = minute = second = 0;
+			}
+			int nextDay = findNextDay(year, month, day);
+			if (nextDay == -1) {
+				month++;
+				day = 1;
+				hour = minute = second = 0;
+				continue;
+			}
+			if (nextDay != day) {
+				day = nextDay;
+				hour = minute = second = 0;
+			}
+			int nextHour = this.hours.nextSetBit(hour);
+			if (nextHour == -1) {
+				day++;
+				hour = minute = second = 0;
+				continue;
+			}
+			if (nextHour != hour) {
+				hour = nextHour;
+				minute = second = 0;
+			}
+			int nextMinute = this.minutes.nextSetBit(minute);
+			if (nextMinute == -1) {
+				hour++;
+				minute = second = 0;
+				continue;
+			}
+			if (nextMinute != minute) {
+				minute = nextMinute;
+				second = 0;
+			}
+			int nextSecond = this.seconds.nextSetBit(second);
+			if (nextSecond == -1) {
+				minute++;
+				second = 0;
+				continue;
+			}
+			second = nextSecond;
+			break;
+		}
+
+		long resultDay = epochDay(year, month, day);
+		int resultOffset = getFixedOffset(resultDay);
+		if (resultOffset == NO_FIXED_OFFSET) {
+			return nextWithCalendar(date);
+		}
+		return new Date((resultDay * 86400 + hour * 3600 + minute * 60 + second) * 1000 - resultOffset);
+	}
+
+	/**
+	 * Find the next day of the given month, starting with the given day, that matches
+	 * both the day-of-month and the day-of-week fields.
+	 * @return the matching day of the month, or -1 if none left in the month
+	 */
+	private int findNextDay(long year, int month, int day) {
+		int daysInMonth = DAYS_IN_MONTH[month];
+		if (month == 1 && year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) {
+			daysInMonth = 29;
+		}
+		int dayOfWeek = -1;
+		int candidate = this.daysOfMonth.nextSetBit(day);
+		while (candidate != -1 && candidate <= daysInMonth) {
+			if (dayOfWeek == -1) {
+				// cron day-of-week values start with 0 (Sunday); 1970-01-01 was a Thursday
+				dayOfWeek = (int) ((epochDay(year, month, candidate) + 4) % 7);
+				if (dayOfWeek < 0) {
+					dayOfWeek += 7;
+				}
+			}
+			else {
+				dayOfWeek = (dayOfWeek + candidate - day) % 7;
+			}
+			day = candidate;
+			if (this.daysOfWeek.get(dayOfWeek)) {
+				return day;
+			}
+			candidate = this.daysOfMonth.nextSetBit(day + 1);
+		}
+		return -1;
+	}
+
+	/**
+	 * Return the offset of the time zone in milliseconds if it is the same throughout
+	 * the given (local) day and the days around it, {@link #NO_FIXED_OFFSET} otherwise.
+	 * <p>The offset is probed at daily intervals from the day before up to a month
+	 * ahead, and the range of days found to be free of offset transitions is cached.
+	 */
+	private int getFixedOffset(long epochDay) {
+		DayOffset dayOffset = this.lastDayOffset;
+		if (dayOffset == null || epochDay < dayOffset.firstDay || epochDay > dayOffset.lastDay) {
+			// A local day maps to instants within a day of its UTC counterpart, so a
+			// transition from the day before to the day after affects the given day
+			int offset = this.timeZone.getOffset((epochDay - 1) * MILLIS_PER_DAY);
+			int probes = 0;
+			while (probes < OFFSET_PROBES &&
+					this.timeZone.getOffset((epochDay + probes) * MILLIS_PER_DAY) == offset) {
+				probes++;
+			}
+			if (probes < 3) {
+				dayOffset = new DayOffset(epochDay, epochDay, NO_FIXED_OFFSET);
+			}
+			else {
+				dayOffset = new DayOffset(epochDay, epochDay + probes - 3, offset);
+			}
+			this.lastDayOffset = dayOffset;
+		}
+		return dayOffset.offset;
+	}
+
+	/**
+	 * Return the number of days since 1970-01-01 for the given date
+	 * (proleptic Gregorian calendar, month starting with 0).
+	 */
+	private static long epochDay(long year, int month, int day) {
+		long y = (month <= 1 ? year - 1 : year);
+		long era = (y >= 0 ? y : y - 399) / 400;
+		long yearOfEra = y - era * 400;
+		long dayOfYear = (153 * (month > 1 ? month - 2 : month + 10) + 2) / 5 + day - 1;
+		long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097 + dayOfEra - 719468;
+	}
+
+	private static long floorDiv(long x, long y) {
+		long result = x / y;
+		return ((x % y != 0 && ((x ^ y) < 0)) ? result - 1 : result);
+	}
+
+	/**
+	 * Calendar-based variant of {@link #next(Date)}, used for days around time zone
+	 * offset transitions and for dates before the Gregorian calendar took effect.
+	 */
+	Date nextWithCalendar(Date date) {
 		/*
 		The plan:
 
@@ -153,10 +352,9 @@ public class CronSequenceGenerator {
 
 		int second = calendar.get(Calendar.SECOND);
 		List<Integer> emptyList = Collections.emptyList();
-		int updateSecond = findNext(this.seconds, second, calendar, Calendar.SECOND, Calendar.MINUTE, emptyList);
-		if (second == updateSecond) {
-			resets.add(Calendar.SECOND);
-		}
+		findNext(this.seconds, second, calendar, Calendar.SECOND, Calendar.MINUTE, emptyList);
+		// Always reset the seconds when a higher field changes, even if they have just been moved
+		resets.add(Calendar.SECOND);
 
 		int minute = calendar.get(Calendar.MINUTE);
 		int updateMinute = findNext(this.minutes, minute, calendar, Calendar.MINUTE, Calendar.HOUR_OF_DAY, resets);
@@ -189,7 +387,7 @@ public class CronSequenceGenerator {
 		int month = calendar.get(Calendar.MONTH);
 		int updateMonth = findNext(this.months, month, calendar, Calendar.MONTH, Calendar.YEAR, resets);
 		if (month != updateMonth) {
-			if (calendar.get(Calendar.YEAR) - dot > 4) {
+			if (calendar.get(Calendar.YEAR) - dot > MAX_SEARCH_YEARS) {
 				throw new IllegalArgumentException("Invalid cron expression \"" + this.expression +
 						"\" led to runaway search for next trigger");
 			}
@@ -411,4 +609,23 @@ public class CronSequenceGenerator {
 		return getClass().getSimpleName() + ": " + this.expression;
 	}
 
+
+	/**
+	 * Time zone offset for a range of days, see {@link #getFixedOffset}.
+	 */
+	private static class DayOffset {
+
+		public final long firstDay;
+
+		public final long lastDay;
+
+		public final int offset;
+
+		public DayOffset(long firstDay, long lastDay, int offset) {
+			this.firstDay = firstDay;
+			this.lastDay = lastDay;
+			this.offset = offset;
+		}
+	}
+
 }
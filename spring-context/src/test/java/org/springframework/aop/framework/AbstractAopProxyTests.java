@@ -884,6 +884,39 @@ public abstract class AbstractAopProxyTests {
 		assertEquals(1, ((Advised) proxied).getAdvisors().length);
 	}
 
+	@Test
+	public void testFrozenProxyInvocation() throws Throwable {
+		TestBean target = new TestBean();
+		target.setAge(21);
+		ProxyFactory pc = new ProxyFactory(target);
+		NopInterceptor nop = new NopInterceptor();
+		pc.addAdvisor(new DefaultPointcutAdvisor(new NameMatchMethodPointcut() {
+			{
+				setMappedNames(new String[] {"getAge", "exceptional"});
+			}
+		}, nop));
+		pc.setFrozen(true);
+		ITestBean proxied = (ITestBean) createProxy(pc);
+
+		assertEquals(21, proxied.getAge());
+		assertEquals(1, nop.getCount());
+		proxied.setAge(22);
+		assertEquals(1, nop.getCount());
+		assertEquals(22, proxied.getAge());
+		assertEquals(2, nop.getCount());
+		assertSame(proxied, proxied.returnsThis());
+
+		IOException expected = new IOException();
+		try {
+			proxied.exceptional(expected);
+			fail("Should have thrown IOException");
+		}
+		catch (IOException ex) {
+			assertSame(expected, ex);
+		}
+		assertEquals(3, nop.getCount());
+	}
+
 	/**
 	 * Check that casting to Advised can't get around advice freeze.
 	 */
@@ -20,11 +20,16 @@ import java.io.Serializable;
 
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
+import org.junit.Test;
 import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
 import org.springframework.aop.support.AopUtils;
+import org.springframework.tests.Assume;
+import org.springframework.tests.TestGroup;
+import org.springframework.tests.aop.interceptor.NopInterceptor;
 import org.springframework.tests.sample.beans.IOther;
 import org.springframework.tests.sample.beans.ITestBean;
 import org.springframework.tests.sample.beans.TestBean;
+import org.springframework.util.StopWatch;
 
 import static org.junit.Assert.*;
 import static org.mockito.BDDMockito.*;
@@ -51,6 +56,69 @@ public final class JdkDynamicProxyTests extends AbstractAopProxyTests implements
 		return new JdkDynamicAopProxy(as);
 	}
 
+	@Test
+	public void testFrozenProxyUsesPrecomputedDispatchers() throws Throwable {
+		TestBean target = new TestBean();
+		target.setAge(25);
+		ProxyFactory pf = new ProxyFactory(target);
+		NopInterceptor nop = new NopInterceptor();
+		pf.addAdvice(nop);
+		pf.setFrozen(true);
+		ITestBean proxy = (ITestBean) createProxy(pf);
+		assertEquals(25, proxy.getAge());
+		assertEquals(1, nop.getCount());
+
+		pf.setFrozen(false);
+		pf.removeAdvice(nop);
+		assertEquals(25, proxy.getAge());
+		assertEquals("Chain changes must apply once unfrozen", 1, nop.getCount());
+	}
+
+	@Test
+	public void testInvocationPerformanceOfProxyStyles() {
+		Assume.group(TestGroup.PERFORMANCE);
+
+		ITestBean jdkProxy = createPerformanceProxy(false, false);
+		ITestBean cglibProxy = createPerformanceProxy(true, false);
+		ITestBean frozenProxy = createPerformanceProxy(false, true);
+		int iterations = 1000000;
+		for (int i = 0; i < iterations / 10; i++) {
+			jdkProxy.getAge();
+			cglibProxy.getAge();
+			frozenProxy.getAge();
+		}
+
+		StopWatch sw = new StopWatch();
+		sw.start("JDK dynamic proxy");
+		for (int i = 0; i < iterations; i++) {
+			jdkProxy.getAge();
+		}
+		sw.stop();
+		sw.start("CGLIB proxy");
+		for (int i = 0; i < iterations; i++) {
+			cglibProxy.getAge();
+		}
+		sw.stop();
+		sw.start("Frozen JDK dynamic proxy");
+		for (int i = 0; i < iterations; i++) {
+			frozenProxy.getAge();
+		}
+		sw.stop();
+
+		System.out.println(sw.prettyPrint());
+		assertTrue("Frozen proxy invocations took too long: " + sw.prettyPrint(), sw.getLastTaskTimeMillis() < 5000);
+	}
+
+	private ITestBean createPerformanceProxy(boolean proxyTargetClass, boolean frozen) {
+		ProxyFactory pf = new ProxyFactory(new TestBean());
+		pf.setProxyTargetClass(proxyTargetClass);
+		for (int i = 0; i < 5; i++) {
+			pf.addAdvice(new NopInterceptor());
+		}
+		pf.setFrozen(frozen);
+		return (ITestBean) pf.getProxy();
+	}
+
 	public void testNullConfig() {
 		try {
 			new JdkDynamicAopProxy(null);
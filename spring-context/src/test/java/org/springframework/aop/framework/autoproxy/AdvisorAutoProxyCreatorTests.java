@@ -21,22 +21,30 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Test;
+import org.springframework.aop.Advisor;
 import org.springframework.aop.framework.Advised;
 import org.springframework.aop.framework.autoproxy.target.AbstractBeanFactoryBasedTargetSourceCreator;
 import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.NameMatchMethodPointcutAdvisor;
 import org.springframework.aop.target.AbstractBeanFactoryBasedTargetSource;
 import org.springframework.aop.target.CommonsPoolTargetSource;
 import org.springframework.aop.target.LazyInitTargetSource;
 import org.springframework.aop.target.PrototypeTargetSource;
 import org.springframework.aop.target.ThreadLocalTargetSource;
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
 import org.springframework.tests.aop.advice.CountingBeforeAdvice;
 import org.springframework.tests.aop.interceptor.NopInterceptor;
 import org.springframework.tests.sample.beans.CountingTestBean;
 import org.springframework.tests.sample.beans.ITestBean;
+import org.springframework.tests.sample.beans.TestBean;
 
 import test.mixin.Lockable;
 
@@ -204,6 +212,42 @@ public final class AdvisorAutoProxyCreatorTests {
 		assertEquals("Incorrect number of calls to proxy", 2, beforeAdvice.getCalls());
 	}
 
+	@Test
+	public void testParallelAdvisorMatchingWithMetrics() throws Exception {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		NameMatchMethodPointcutAdvisor matching = new NameMatchMethodPointcutAdvisor(new NopInterceptor());
+		matching.setMappedName("getAge");
+		NameMatchMethodPointcutAdvisor nonMatching = new NameMatchMethodPointcutAdvisor(new NopInterceptor());
+		nonMatching.setMappedName("noSuchMethod");
+		NameMatchMethodPointcutAdvisor alsoMatching = new NameMatchMethodPointcutAdvisor(new CountingBeforeAdvice());
+		alsoMatching.setMappedName("setAge");
+		bf.registerSingleton("matching", matching);
+		bf.registerSingleton("nonMatching", nonMatching);
+		bf.registerSingleton("alsoMatching", alsoMatching);
+		bf.registerBeanDefinition("test", new RootBeanDefinition(TestBean.class));
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			DefaultAdvisorAutoProxyCreator apc = new DefaultAdvisorAutoProxyCreator();
+			apc.setAdvisorMatchingExecutor(executor);
+			apc.setBeanFactory(bf);
+			bf.addBeanPostProcessor(apc);
+
+			ITestBean test = (ITestBean) bf.getBean("test");
+			assertTrue(AopUtils.isAopProxy(test));
+			Advisor[] advisors = ((Advised) test).getAdvisors();
+			assertEquals(2, advisors.length);
+
+			Map<Advisor, Long> matchingTimes = apc.getAdvisorMatchingTimes();
+			assertEquals(3, matchingTimes.size());
+			assertTrue(matchingTimes.containsKey(nonMatching));
+			assertTrue(apc.getTotalAdvisorMatchingTime() >= 0);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 }
 
 class SelectivePrototypeTargetSourceCreator extends AbstractBeanFactoryBasedTargetSourceCreator {
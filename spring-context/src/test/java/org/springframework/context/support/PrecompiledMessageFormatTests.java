@@ -0,0 +1,90 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.support;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.MessageFormat;
+import java.util.Date;
+import java.util.Locale;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PrecompiledMessageFormat}.
+ */
+public class PrecompiledMessageFormatTests {
+
+	@Test
+	public void literalPattern() {
+		PrecompiledMessageFormat format = new PrecompiledMessageFormat("Plain message", Locale.ENGLISH);
+		assertTrue(format.isLiteral());
+		assertEquals("Plain message", format.formatConcurrently(new Object[0]));
+		assertEquals("Plain message", format.formatConcurrently(new Object[] {"ignored"}));
+		assertEquals("Plain message", format.format(new Object[0]));
+	}
+
+	@Test
+	public void quotedPatternIsNotLiteral() {
+		PrecompiledMessageFormat format = new PrecompiledMessageFormat("I''m here", Locale.ENGLISH);
+		assertFalse(format.isLiteral());
+		assertEquals("I'm here", format.formatConcurrently(new Object[0]));
+	}
+
+	@Test
+	public void plainPlaceholders() {
+		PrecompiledMessageFormat format = new PrecompiledMessageFormat("{0}, {1}", Locale.ENGLISH);
+		assertFalse(format.isLiteral());
+		assertEquals("Hello, World", format.formatConcurrently(new Object[] {"Hello", "World"}));
+		assertEquals("Hello, {1}", format.formatConcurrently(new Object[] {"Hello"}));
+	}
+
+	@Test
+	public void subformatsMatchMessageFormat() {
+		String pattern = "{0,number,#.##} on {1,date,yyyy-MM-dd} ({2,choice,0#none|1#one|1<many})";
+		Object[] args = new Object[] {3.14159, new Date(0), 5};
+		PrecompiledMessageFormat format = new PrecompiledMessageFormat(pattern, Locale.ENGLISH);
+		String expected = new MessageFormat(pattern, Locale.ENGLISH).format(args);
+		assertEquals(expected, format.formatConcurrently(args));
+		assertEquals(expected, format.formatConcurrently(args));
+		assertEquals(expected, PrecompiledMessageFormat.formatSafely(format, args));
+	}
+
+	@Test
+	public void customizedBeforeFirstUse() {
+		PrecompiledMessageFormat format = new PrecompiledMessageFormat("Plain message", Locale.ENGLISH);
+		format.applyPattern("{0,number} items");
+		format.setFormat(0, new DecimalFormat("000", new DecimalFormatSymbols(Locale.ENGLISH)));
+		assertFalse(format.isLiteral());
+		assertEquals("007 items", format.formatConcurrently(new Object[] {7}));
+		assertEquals("042 items", format.formatConcurrently(new Object[] {42}));
+	}
+
+	@Test
+	public void formatSafelyWithPlainMessageFormat() {
+		MessageFormat format = new MessageFormat("{0}!", Locale.ENGLISH);
+		assertEquals("Hi!", PrecompiledMessageFormat.formatSafely(format, new Object[] {"Hi"}));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidPattern() {
+		new PrecompiledMessageFormat("{0", Locale.ENGLISH);
+	}
+
+}
@@ -16,10 +16,20 @@
 
 package org.springframework.context.support;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Properties;
 import java.util.ResourceBundle;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import junit.framework.TestCase;
 
@@ -28,6 +38,10 @@ import org.springframework.context.MessageSourceResolvable;
 import org.springframework.context.NoSuchMessageException;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.core.JdkVersion;
+import org.springframework.tests.Assume;
+import org.springframework.tests.TestGroup;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.StopWatch;
 
 /**
  * @author Juergen Hoeller
@@ -352,6 +366,146 @@ public class ResourceBundleMessageSourceTests extends TestCase {
 		assertEquals(0, filenames.size());
 	}
 
+	public void testReloadableResourceBundleMessageSourceSharesMergedSnapshot() {
+		ReloadableResourceBundleMessageSource ms = new ReloadableResourceBundleMessageSource();
+		ms.setBasenames(new String[] {"org/springframework/context/support/messages",
+				"org/springframework/context/support/more-messages"});
+		ms.setFallbackToSystemLocale(false);
+		assertEquals("message1", ms.getMessage("code1", null, Locale.ENGLISH));
+		assertEquals("nachricht2", ms.getMessage("code2", null, Locale.GERMAN));
+		assertEquals("Hello, World", ms.getMessage("hello", new Object[] {"Hello", "World"}, Locale.GERMAN));
+
+		ReloadableResourceBundleMessageSource.PropertiesHolder holder = ms.getMergedProperties(Locale.GERMAN);
+		assertSame(holder, ms.getMergedProperties(Locale.GERMAN));
+		assertSame(holder.getMessageFormat("hello", Locale.GERMAN), holder.getMessageFormat("hello", Locale.GERMAN));
+		assertNotSame(holder, ms.getMergedProperties(Locale.ENGLISH));
+
+		ms.clearCache();
+		assertNotSame(holder, ms.getMergedProperties(Locale.GERMAN));
+		assertEquals("nachricht2", ms.getMessage("code2", null, Locale.GERMAN));
+	}
+
+	public void testReloadableResourceBundleMessageSourceSwapsSnapshotOnRefresh() throws Exception {
+		File dir = File.createTempFile("messages", "");
+		assertTrue(dir.delete());
+		assertTrue(dir.mkdir());
+		File file = new File(dir, "messages.properties");
+		try {
+			writeMessages(file, "code1=first\nhello={0}!\n", 10000);
+			ReloadableResourceBundleMessageSource ms = new ReloadableResourceBundleMessageSource();
+			ms.setBasename("file:" + new File(dir, "messages").getAbsolutePath());
+			ms.setFallbackToSystemLocale(false);
+			ms.setCacheSeconds(0);
+			assertEquals("first", ms.getMessage("code1", null, Locale.ENGLISH));
+			assertEquals("you!", ms.getMessage("hello", new Object[] {"you"}, Locale.ENGLISH));
+
+			ReloadableResourceBundleMessageSource.PropertiesHolder holder = ms.getMergedProperties(Locale.ENGLISH);
+			assertSame("Unchanged files must not lead to a new snapshot",
+					holder, ms.getMergedProperties(Locale.ENGLISH));
+
+			writeMessages(file, "code1=second\nhello={0}?\n", 20000);
+			assertEquals("second", ms.getMessage("code1", null, Locale.ENGLISH));
+			assertEquals("you?", ms.getMessage("hello", new Object[] {"you"}, Locale.ENGLISH));
+			assertNotSame(holder, ms.getMergedProperties(Locale.ENGLISH));
+		}
+		finally {
+			file.delete();
+			dir.delete();
+		}
+	}
+
+	public void testReloadableResourceBundleMessageSourceWithBackgroundRefresh() throws Exception {
+		File dir = File.createTempFile("messages", "");
+		assertTrue(dir.delete());
+		assertTrue(dir.mkdir());
+		File file = new File(dir, "messages.properties");
+		final List<Thread> refreshThreads = Collections.synchronizedList(new ArrayList<Thread>());
+		ReloadableResourceBundleMessageSource ms = new ReloadableResourceBundleMessageSource() {
+			@Override
+			protected PropertiesHolder refreshProperties(String filename, PropertiesHolder propHolder) {
+				refreshThreads.add(Thread.currentThread());
+				return super.refreshProperties(filename, propHolder);
+			}
+		};
+		try {
+			writeMessages(file, "code1=first\n", 10000);
+			ms.setBasename("file:" + new File(dir, "messages").getAbsolutePath());
+			ms.setFallbackToSystemLocale(false);
+			ms.setCacheSeconds(1);
+			ms.setBackgroundRefresh(true);
+			assertEquals("first", ms.getMessage("code1", null, Locale.ENGLISH));
+			refreshThreads.clear();
+
+			writeMessages(file, "code1=second\n", 20000);
+			long deadline = System.currentTimeMillis() + 10000;
+			while (!"second".equals(ms.getMessage("code1", null, Locale.ENGLISH)) &&
+					System.currentTimeMillis() < deadline) {
+				Thread.sleep(20);
+			}
+			assertEquals("second", ms.getMessage("code1", null, Locale.ENGLISH));
+			assertFalse(refreshThreads.isEmpty());
+			assertFalse("Request thread must not check files", refreshThreads.contains(Thread.currentThread()));
+		}
+		finally {
+			ms.destroy();
+			file.delete();
+			dir.delete();
+		}
+	}
+
+	public void testMessageAccessFromConcurrentThreads() throws Exception {
+		final ReloadableResourceBundleMessageSource reloadable = new ReloadableResourceBundleMessageSource();
+		reloadable.setBasename("org/springframework/context/support/messages");
+		final ResourceBundleMessageSource standard = new ResourceBundleMessageSource();
+		standard.setBasename("org/springframework/context/support/messages");
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Object>> futures = new ArrayList<Future<Object>>();
+			for (int i = 0; i < 32; i++) {
+				final int index = i;
+				futures.add(executor.submit(new Callable<Object>() {
+					@Override
+					public Object call() {
+						for (int j = 0; j < 500; j++) {
+							String arg = index + "-" + j;
+							assertEquals("Hello, " + arg, reloadable.getMessage("hello", new Object[] {"Hello", arg}, Locale.GERMAN));
+							assertEquals("Hello, " + arg, standard.getMessage("hello", new Object[] {"Hello", arg}, Locale.GERMAN));
+							assertEquals("nachricht2", reloadable.getMessage("code2", null, Locale.GERMAN));
+							assertEquals("nachricht2", standard.getMessage("code2", null, Locale.GERMAN));
+							assertEquals("Total: " + j, reloadable.getMessage(
+									"total", new Object[] {j}, "Total: {0,number,integer}", Locale.ENGLISH));
+						}
+						return null;
+					}
+				}));
+			}
+			for (Future<Object> future : futures) {
+				future.get();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	public void testMessageAccessPerformance() {
+		Assume.group(TestGroup.PERFORMANCE);
+		ReloadableResourceBundleMessageSource ms = new ReloadableResourceBundleMessageSource();
+		ms.setBasenames(new String[] {"org/springframework/context/support/messages",
+				"org/springframework/context/support/more-messages"});
+		Object[] args = new Object[] {"Hello", "World"};
+		StopWatch sw = new StopWatch();
+		sw.start("getMessage");
+		for (int i = 0; i < 1000000; i++) {
+			ms.getMessage("code2", null, Locale.GERMAN);
+			ms.getMessage("hello", args, Locale.GERMAN);
+		}
+		sw.stop();
+		System.out.println(sw.prettyPrint());
+		assertTrue("Message access took too long: " + sw.prettyPrint(), sw.getLastTaskTimeMillis() < 5000);
+	}
+
 	public void testMessageSourceResourceBundle() {
 		ResourceBundleMessageSource ms = new ResourceBundleMessageSource();
 		ms.setBasename("org/springframework/context/support/messages");
@@ -363,6 +517,12 @@ public class ResourceBundleMessageSourceTests extends TestCase {
 		assertTrue(rbg.containsKey("code2"));
 	}
 
+	private static void writeMessages(File file, String content, long lastModifiedOffset) throws IOException {
+		OutputStream os = new FileOutputStream(file);
+		FileCopyUtils.copy(content.getBytes("ISO-8859-1"), os);
+		assertTrue(file.setLastModified(System.currentTimeMillis() - 100000 + lastModifiedOffset));
+	}
+
 	@Override
 	protected void tearDown() throws Exception {
 		if (JdkVersion.getMajorJavaVersion() >= JdkVersion.JAVA_16) {
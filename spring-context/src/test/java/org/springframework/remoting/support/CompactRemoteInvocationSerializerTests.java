@@ -0,0 +1,199 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.remoting.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.tests.Assume;
+import org.springframework.tests.TestGroup;
+import org.springframework.util.StopWatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link CompactRemoteInvocationSerializer}.
+ */
+public class CompactRemoteInvocationSerializerTests {
+
+	private final CompactRemoteInvocationSerializer serializer = new CompactRemoteInvocationSerializer();
+
+
+	@Test
+	public void remoteInvocationRoundTrip() throws Exception {
+		ArrayList<String> list = new ArrayList<String>(Arrays.asList("a", "b"));
+		RemoteInvocation invocation = new RemoteInvocation("doSomething",
+				new Class[] {String.class, int.class, Long.class, byte[].class, List.class, String[].class, List.class},
+				new Object[] {"str", 42, null, new byte[] {1, 2, 3}, list, new String[] {"a", "b"}, list});
+		invocation.addAttribute("myKey", "myValue");
+		invocation.addAttribute("myList", list);
+
+		RemoteInvocation copy = roundTrip(invocation);
+		assertEquals("doSomething", copy.getMethodName());
+		assertArrayEquals(invocation.getParameterTypes(), copy.getParameterTypes());
+		Object[] arguments = copy.getArguments();
+		assertEquals("str", arguments[0]);
+		assertEquals(42, arguments[1]);
+		assertNull(arguments[2]);
+		assertArrayEquals(new byte[] {1, 2, 3}, (byte[]) arguments[3]);
+		assertEquals(list, arguments[4]);
+		assertNotSame(list, arguments[4]);
+		assertTrue(Arrays.equals(new String[] {"a", "b"}, (String[]) arguments[5]));
+		assertSame(arguments[4], arguments[6]);
+		assertEquals("myValue", copy.getAttribute("myKey"));
+		assertSame(arguments[4], copy.getAttribute("myList"));
+	}
+
+	@Test
+	public void remoteInvocationWithoutArguments() throws Exception {
+		RemoteInvocation copy = roundTrip(new RemoteInvocation("toString", new Class[0], new Object[0]));
+		assertEquals("toString", copy.getMethodName());
+		assertEquals(0, copy.getParameterTypes().length);
+		assertEquals(0, copy.getArguments().length);
+		assertNull(copy.getAttributes());
+	}
+
+	@Test
+	public void customRemoteInvocation() throws Exception {
+		RemoteInvocation copy = roundTrip(new TestRemoteInvocation("getName", "user"));
+		assertTrue(copy instanceof TestRemoteInvocation);
+		assertEquals("getName", copy.getMethodName());
+		assertEquals("user", ((TestRemoteInvocation) copy).principal);
+	}
+
+	@Test
+	public void remoteInvocationResultWithValue() throws Exception {
+		assertEquals("value", roundTrip(new RemoteInvocationResult("value")).getValue());
+		assertNull(roundTrip(new RemoteInvocationResult((Object) null)).getValue());
+		List<Integer> list = Arrays.asList(1, 2, 3);
+		assertEquals(list, roundTrip(new RemoteInvocationResult(list)).getValue());
+	}
+
+	@Test
+	public void remoteInvocationResultWithException() throws Exception {
+		RemoteInvocationResult copy = roundTrip(new RemoteInvocationResult(new IllegalStateException("fail")));
+		assertTrue(copy.hasException());
+		assertTrue(copy.getException() instanceof IllegalStateException);
+		assertEquals("fail", copy.getException().getMessage());
+	}
+
+	@Test
+	public void compression() throws Exception {
+		char[] chars = new char[10000];
+		Arrays.fill(chars, 'x');
+		RemoteInvocation invocation = new RemoteInvocation("setName",
+				new Class[] {String.class}, new Object[] {new String(chars)});
+
+		int uncompressed = serialize(invocation).length;
+		this.serializer.setCompressionThreshold(1024);
+		byte[] compressed = serialize(invocation);
+		assertTrue(compressed.length < uncompressed / 10);
+		RemoteInvocation copy = this.serializer.readRemoteInvocation(new ByteArrayInputStream(compressed), null);
+		assertEquals(new String(chars), copy.getArguments()[0]);
+	}
+
+	@Test
+	public void smallerThanJavaSerialization() throws Exception {
+		RemoteInvocation invocation = new RemoteInvocation("setNameAndAge",
+				new Class[] {String.class, int.class}, new Object[] {"myname", 99});
+		ByteArrayOutputStream javaStream = new ByteArrayOutputStream();
+		new DefaultRemoteInvocationSerializer().writeRemoteInvocation(invocation, javaStream);
+		assertTrue(serialize(invocation).length * 4 < javaStream.size());
+	}
+
+	@Test(expected = StreamCorruptedException.class)
+	public void javaSerializedStreamRejected() throws Exception {
+		ByteArrayOutputStream javaStream = new ByteArrayOutputStream();
+		new DefaultRemoteInvocationSerializer().writeRemoteInvocation(
+				new RemoteInvocation("toString", new Class[0], new Object[0]), javaStream);
+		this.serializer.readRemoteInvocation(new ByteArrayInputStream(javaStream.toByteArray()), null);
+	}
+
+	@Test
+	public void defaultSerializerRoundTrip() throws Exception {
+		DefaultRemoteInvocationSerializer defaultSerializer = new DefaultRemoteInvocationSerializer();
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		defaultSerializer.writeRemoteInvocationResult(new RemoteInvocationResult("value"), os);
+		RemoteInvocationResult copy = defaultSerializer.readRemoteInvocationResult(
+				new ByteArrayInputStream(os.toByteArray()), getClass().getClassLoader());
+		assertEquals("value", copy.getValue());
+	}
+
+	@Test
+	public void serializationPerformance() throws Exception {
+		Assume.group(TestGroup.PERFORMANCE);
+
+		RemoteInvocation invocation = new RemoteInvocation("setNameAndAge",
+				new Class[] {String.class, int.class, List.class},
+				new Object[] {"myname", 99, Arrays.asList("a", "b")});
+		DefaultRemoteInvocationSerializer defaultSerializer = new DefaultRemoteInvocationSerializer();
+		int iterations = 50000;
+
+		StopWatch sw = new StopWatch();
+		sw.start("java");
+		for (int i = 0; i < iterations; i++) {
+			ByteArrayOutputStream os = new ByteArrayOutputStream();
+			defaultSerializer.writeRemoteInvocation(invocation, os);
+			defaultSerializer.readRemoteInvocation(new ByteArrayInputStream(os.toByteArray()), null);
+		}
+		sw.stop();
+		sw.start("compact");
+		for (int i = 0; i < iterations; i++) {
+			this.serializer.readRemoteInvocation(new ByteArrayInputStream(serialize(invocation)), null);
+		}
+		sw.stop();
+
+		System.out.println(sw.prettyPrint());
+		assertTrue("Compact serialization took too long: " + sw.prettyPrint(), sw.getLastTaskTimeMillis() < 5000);
+	}
+
+
+	private byte[] serialize(RemoteInvocation invocation) throws Exception {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		this.serializer.writeRemoteInvocation(invocation, os);
+		return os.toByteArray();
+	}
+
+	private RemoteInvocation roundTrip(RemoteInvocation invocation) throws Exception {
+		return this.serializer.readRemoteInvocation(new ByteArrayInputStream(serialize(invocation)), null);
+	}
+
+	private RemoteInvocationResult roundTrip(RemoteInvocationResult result) throws Exception {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		this.serializer.writeRemoteInvocationResult(result, os);
+		return this.serializer.readRemoteInvocationResult(new ByteArrayInputStream(os.toByteArray()), null);
+	}
+
+
+	@SuppressWarnings("serial")
+	private static class TestRemoteInvocation extends RemoteInvocation {
+
+		private final String principal;
+
+		public TestRemoteInvocation(String methodName, String principal) {
+			super(methodName, new Class[0], new Object[0]);
+			this.principal = principal;
+		}
+	}
+
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.tests.Assume;
+import org.springframework.tests.TestGroup;
+import org.springframework.util.StopWatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link HashedWheelTaskScheduler} and {@link HashedWheelScheduledExecutor}.
+ */
+public class HashedWheelTaskSchedulerTests {
+
+	private static final String THREAD_NAME_PREFIX = "wheel-";
+
+	private final HashedWheelTaskScheduler scheduler = new HashedWheelTaskScheduler();
+
+
+	@Before
+	public void initScheduler() {
+		scheduler.setThreadNamePrefix(THREAD_NAME_PREFIX);
+		scheduler.setTickDuration(5);
+		scheduler.setTicksPerWheel(64);
+		scheduler.setPoolSize(2);
+		scheduler.afterPropertiesSet();
+	}
+
+	@After
+	public void shutdownScheduler() {
+		scheduler.destroy();
+	}
+
+
+	@Test
+	public void executeRunnable() throws Exception {
+		CountingTask task = new CountingTask(1);
+		scheduler.execute(task);
+		task.await();
+		assertTrue(task.lastThread.getName().startsWith(THREAD_NAME_PREFIX));
+	}
+
+	@Test
+	public void scheduleOneTimeTask() throws Exception {
+		CountingTask task = new CountingTask(1);
+		Future<?> future = scheduler.schedule(task, new Date(System.currentTimeMillis() + 50));
+		assertNull(future.get(1000, TimeUnit.MILLISECONDS));
+		assertTrue(future.isDone());
+		assertEquals(1, task.count.get());
+		assertTrue(task.lastThread.getName().startsWith(THREAD_NAME_PREFIX));
+	}
+
+	@Test
+	public void scheduleTaskBeyondOneRevolution() throws Exception {
+		// 64 ticks of 5 ms per revolution
+		CountingTask task = new CountingTask(1);
+		long start = System.currentTimeMillis();
+		Future<?> future = scheduler.schedule(task, new Date(start + 400));
+		future.get(2000, TimeUnit.MILLISECONDS);
+		assertTrue(System.currentTimeMillis() - start >= 390);
+	}
+
+	@Test
+	public void schedulePeriodicTriggerTask() throws Exception {
+		CountingTask task = new CountingTask(3);
+		ScheduledFuture<?> future = scheduler.schedule(task, new PeriodicTrigger(10));
+		task.await();
+		future.cancel(false);
+		assertTrue(future.isCancelled());
+	}
+
+	@Test
+	public void scheduleAtFixedRate() throws Exception {
+		CountingTask task = new CountingTask(3);
+		ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(task, 10);
+		task.await();
+		future.cancel(false);
+		// let an execution in progress complete, then wait for several more periods
+		awaitScheduledTask(20);
+		int count = task.count.get();
+		awaitScheduledTask(50);
+		assertEquals(count, task.count.get());
+	}
+
+	@Test
+	public void cancelledTasksAreRemoved() throws Exception {
+		HashedWheelScheduledExecutor executor = scheduler.getHashedWheelExecutor();
+		CountingTask task = new CountingTask(1);
+		List<ScheduledFuture<?>> futures = new ArrayList<ScheduledFuture<?>>();
+		for (int i = 0; i < 1000; i++) {
+			futures.add(executor.schedule(task, 500 + i, TimeUnit.MILLISECONDS));
+		}
+		awaitDelayedTaskCount(executor, 1000);
+		for (ScheduledFuture<?> future : futures) {
+			assertTrue(future.cancel(false));
+		}
+		awaitDelayedTaskCount(executor, 0);
+		// all cancelled tasks would have been due before this one
+		awaitScheduledTask(1600);
+		assertEquals(0, task.count.get());
+	}
+
+	@Test
+	public void schedulingLagMetrics() throws Exception {
+		HashedWheelScheduledExecutor executor = scheduler.getHashedWheelExecutor();
+		CountingTask task = new CountingTask(10);
+		for (int i = 0; i < 10; i++) {
+			executor.schedule(task, 20, TimeUnit.MILLISECONDS);
+		}
+		task.await();
+		assertEquals(10, executor.getExecutedTaskCount());
+		assertTrue(executor.getAverageSchedulingLag() >= 0);
+		assertTrue(executor.getMaxSchedulingLag() < 1000);
+	}
+
+	@Test
+	public void scheduleAndCancelPerformance() throws Exception {
+		Assume.group(TestGroup.PERFORMANCE);
+
+		ScheduledThreadPoolExecutor threadPoolExecutor = new ScheduledThreadPoolExecutor(1);
+		HashedWheelScheduledExecutor wheelExecutor = scheduler.getHashedWheelExecutor();
+		int iterations = 1000000;
+		try {
+			StopWatch sw = new StopWatch();
+			sw.start("ScheduledThreadPoolExecutor");
+			scheduleAndCancel(threadPoolExecutor, iterations);
+			sw.stop();
+			sw.start("HashedWheelScheduledExecutor");
+			scheduleAndCancel(wheelExecutor, iterations);
+			sw.stop();
+
+			System.out.println(sw.prettyPrint());
+			assertTrue("Timing wheel took too long: " + sw.prettyPrint(), sw.getLastTaskTimeMillis() < 5000);
+		}
+		finally {
+			threadPoolExecutor.shutdownNow();
+		}
+	}
+
+	private void awaitScheduledTask(long delay) throws InterruptedException {
+		CountingTask sentinel = new CountingTask(1);
+		scheduler.getHashedWheelExecutor().schedule(sentinel, delay, TimeUnit.MILLISECONDS);
+		sentinel.await();
+	}
+
+	private void awaitDelayedTaskCount(HashedWheelScheduledExecutor executor, int expected)
+			throws InterruptedException {
+
+		long deadline = System.currentTimeMillis() + 2000;
+		while (executor.getDelayedTaskCount() != expected && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertEquals(expected, executor.getDelayedTaskCount());
+	}
+
+	private void scheduleAndCancel(final ScheduledExecutorService executor, final int iterations)
+			throws InterruptedException {
+
+		final Runnable task = new CountingTask(0);
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < iterations / 4; j++) {
+						executor.schedule(task, 30000, TimeUnit.MILLISECONDS).cancel(false);
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+	}
+
+
+	private static class CountingTask implements Runnable {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		private final CountDownLatch latch;
+
+		private volatile Thread lastThread;
+
+		CountingTask(int expectedRunCount) {
+			this.latch = new CountDownLatch(expectedRunCount);
+		}
+
+		@Override
+		public void run() {
+			this.lastThread = Thread.currentThread();
+			this.count.incrementAndGet();
+			this.latch.countDown();
+		}
+
+		public void await() throws InterruptedException {
+			assertTrue("latch did not count down", this.latch.await(2000, TimeUnit.MILLISECONDS));
+		}
+	}
+
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+import org.springframework.tests.Assume;
+import org.springframework.tests.TestGroup;
+import org.springframework.util.StopWatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * Property-based tests for {@link CronSequenceGenerator#next}: randomly generated
+ * expressions are checked against a brute-force search, and the arithmetic computation
+ * is checked against the {@link java.util.Calendar} based one around time zone offset
+ * transitions.
+ */
+public class CronSequenceGeneratorEquivalenceTests {
+
+	private static final String[] TIME_ZONES = {"UTC", "Europe/Berlin", "America/New_York",
+			"America/Sao_Paulo", "Australia/Lord_Howe", "Asia/Kolkata", "Pacific/Chatham"};
+
+	private static final String[] FIXED_OFFSET_TIME_ZONES = {"UTC", "Asia/Kolkata", "Etc/GMT+11", "Etc/GMT-14"};
+
+	private static final String[] MONTH_NAMES = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN",
+			"JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+
+	private static final String[] DAY_NAMES = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+
+	/** 2000-01-01T00:00:00Z */
+	private static final long MIN_DATE = 946684800000L;
+
+	/** Roughly 30 years */
+	private static final long DATE_RANGE = 30L * 365 * 86400000;
+
+
+	@Test
+	public void randomExpressions() {
+		Random random = new Random(20141019L);
+		for (int i = 0; i < 3000; i++) {
+			TimeZone timeZone = TimeZone.getTimeZone(FIXED_OFFSET_TIME_ZONES[random.nextInt(FIXED_OFFSET_TIME_ZONES.length)]);
+			RandomExpression expression = new RandomExpression(random);
+			CronSequenceGenerator generator = new CronSequenceGenerator(expression.toString(), timeZone);
+			Date date = randomDate(random);
+			for (int j = 0; j < 5 && date != null; j++) {
+				Date expected = expression.next(date, timeZone);
+				String description = describe(generator, date);
+				if (expected != null) {
+					assertEquals(description, expected, generator.next(date));
+				}
+				else {
+					try {
+						generator.next(date);
+						fail("Expected IllegalArgumentException for " + description);
+					}
+					catch (IllegalArgumentException ex) {
+						// expected
+					}
+				}
+				date = expected;
+			}
+		}
+	}
+
+	@Test
+	public void aroundOffsetTransitions() {
+		Random random = new Random(42L);
+		String[] expressions = {"0 * * * * *", "0 0 * * * *", "0 30 2 * * *", "0 0/15 1-3 * * *",
+				"*/30 * 2 * * *", "0 0 0 * * SUN", "0 59 1 * * *"};
+		for (String zone : TIME_ZONES) {
+			TimeZone timeZone = TimeZone.getTimeZone(zone);
+			for (String expression : expressions) {
+				CronSequenceGenerator generator = new CronSequenceGenerator(expression, timeZone);
+				long time = MIN_DATE;
+				for (int i = 0; i < 60; i++) {
+					// walk through a few years in steps of roughly two weeks
+					time += 13 * 86400000L + random.nextInt(86400000);
+					Date date = new Date(time);
+					for (int j = 0; j < 20 && date != null; j++) {
+						date = assertEquivalent(generator, date);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void wholeSecondInput() {
+		TimeZone timeZone = TimeZone.getTimeZone("Europe/Berlin");
+		CronSequenceGenerator generator = new CronSequenceGenerator("*/10 * * * * *", timeZone);
+		Date date = new Date(MIN_DATE);
+		assertEquals(new Date(MIN_DATE + 10000), generator.next(date));
+		assertEquals(generator.nextWithCalendar(date), generator.next(date));
+		date = new Date(MIN_DATE - 1);
+		assertEquals(new Date(MIN_DATE), generator.next(date));
+		assertEquals(generator.nextWithCalendar(date), generator.next(date));
+	}
+
+	@Test
+	public void nextPerformance() {
+		Assume.group(TestGroup.PERFORMANCE);
+
+		CronSequenceGenerator generator = new CronSequenceGenerator("0 0 9-17 * * MON-FRI",
+				TimeZone.getTimeZone("Europe/Berlin"));
+		int iterations = 200000;
+		StopWatch sw = new StopWatch();
+		sw.start("Calendar");
+		Date date = new Date(MIN_DATE);
+		for (int i = 0; i < iterations; i++) {
+			date = generator.nextWithCalendar(date);
+		}
+		sw.stop();
+		sw.start("arithmetic");
+		date = new Date(MIN_DATE);
+		for (int i = 0; i < iterations; i++) {
+			date = generator.next(date);
+		}
+		sw.stop();
+
+		System.out.println(sw.prettyPrint());
+		assertTrue("Cron computation took too long: " + sw.prettyPrint(), sw.getLastTaskTimeMillis() < 2000);
+	}
+
+
+	/**
+	 * Assert that the arithmetic and the Calendar-based computation agree for the given date.
+	 * @return the next date
+	 */
+	private Date assertEquivalent(CronSequenceGenerator generator, Date date) {
+		Date expected = generator.nextWithCalendar(date);
+		assertEquals(describe(generator, date), expected, generator.next(date));
+		return expected;
+	}
+
+	private String describe(CronSequenceGenerator generator, Date date) {
+		return "\"" + generator.getExpression() + "\" after " + date.getTime() + " (" + date + ")";
+	}
+
+	private Date randomDate(Random random) {
+		long time = MIN_DATE + (long) (random.nextDouble() * DATE_RANGE);
+		switch (random.nextInt(3)) {
+			case 0:
+				return new Date(time);
+			case 1:
+				return new Date(time - time % 1000);
+			default:
+				return new Date(time - time % 60000);
+		}
+	}
+
+
+
+	/**
+	 * Randomly generated cron expression along with the values matched by each field.
+	 */
+	private static class RandomExpression {
+
+		private final boolean[] seconds;
+
+		private final boolean[] minutes;
+
+		private final boolean[] hours;
+
+		private final boolean[] daysOfMonth;
+
+		private final boolean[] months;
+
+		private final boolean[] daysOfWeek;
+
+		private final StringBuilder expression = new StringBuilder();
+
+		public RandomExpression(Random random) {
+			this.seconds = randomField(random, 0, 59, null, false);
+			this.minutes = randomField(random, 0, 59, null, false);
+			this.hours = randomField(random, 0, 23, null, false);
+			this.daysOfMonth = randomField(random, 1, 31, null, true);
+			this.months = randomField(random, 1, 12, MONTH_NAMES, false);
+			this.daysOfWeek = randomField(random, 0, 6, DAY_NAMES, true);
+		}
+
+		/**
+		 * Brute-force search for the first matching whole second after the given date,
+		 * assuming a time zone with a fixed offset.
+		 * @return the next date, or {@code null} if none up to eight years ahead
+		 */
+		public Date next(Date date, TimeZone timeZone) {
+			long start = (date.getTime() / 1000 + 1) * 1000;
+			Calendar calendar = new GregorianCalendar(timeZone);
+			calendar.setTimeInMillis(start);
+			calendar.set(Calendar.HOUR_OF_DAY, 0);
+			calendar.set(Calendar.MINUTE, 0);
+			calendar.set(Calendar.SECOND, 0);
+			calendar.set(Calendar.MILLISECOND, 0);
+			int maxYear = calendar.get(Calendar.YEAR) + 8;
+			while (calendar.get(Calendar.YEAR) <= maxYear) {
+				if (this.months[calendar.get(Calendar.MONTH) + 1] &&
+						this.daysOfMonth[calendar.get(Calendar.DAY_OF_MONTH)] &&
+						this.daysOfWeek[calendar.get(Calendar.DAY_OF_WEEK) - 1]) {
+					long dayStart = calendar.getTimeInMillis();
+					for (int hour = 0; hour < 24; hour++) {
+						for (int minute = 0; this.hours[hour] && minute < 60; minute++) {
+							for (int second = 0; this.minutes[minute] && second < 60; second++) {
+								long time = dayStart + (hour * 3600 + minute * 60 + second) * 1000L;
+								if (this.seconds[second] && time >= start) {
+									return new Date(time);
+								}
+							}
+						}
+					}
+				}
+				calendar.add(Calendar.DAY_OF_MONTH, 1);
+			}
+			return null;
+		}
+
+		private boolean[] randomField(Random random, int min, int max, String[] names, boolean day) {
+			if (this.expression.length() > 0) {
+				this.expression.append(' ');
+			}
+			boolean[] values = new boolean[max + 2];
+			switch (random.nextInt(day ? 7 : 6)) {
+				case 0:
+				case 1:
+					this.expression.append('*');
+					fill(values, min, max, 1);
+					break;
+				case 2: {
+					int value = min + random.nextInt(max - min + 1);
+					this.expression.append(render(value, min, names));
+					values[value] = true;
+					break;
+				}
+				case 3: {
+					int from = min + random.nextInt(max - min + 1);
+					int to = from + random.nextInt(max - from + 1);
+					this.expression.append(render(from, min, names)).append('-').append(render(to, min, names));
+					fill(values, from, to, 1);
+					break;
+				}
+				case 4: {
+					int from = (random.nextBoolean() ? min : min + random.nextInt(max - min + 1));
+					int step = 1 + random.nextInt(max / 2 + 1);
+					this.expression.append(from == min ? "*" : render(from, min, names)).append('/').append(step);
+					// an incrementer on '*' counts from 0 for the day of month as well,
+					// and runs up to 7 (Sunday again) for the day of week
+					fill(values, (from == min && day ? 0 : from), (max == 6 ? 7 : max), step);
+					if (max == 6 && values[7]) {
+						values[0] = true;
+					}
+					break;
+				}
+				case 5: {
+					int count = 1 + random.nextInt(4);
+					for (int i = 0; i < count; i++) {
+						int value = min + random.nextInt(max - min + 1);
+						this.expression.append(i > 0 ? "," : "").append(render(value, min, names));
+						values[value] = true;
+					}
+					break;
+				}
+				default:
+					this.expression.append('?');
+					fill(values, min, max, 1);
+			}
+			return values;
+		}
+
+		private void fill(boolean[] values, int from, int to, int step) {
+			for (int i = from; i <= to; i += step) {
+				values[i] = true;
+			}
+		}
+
+		private String render(int value, int min, String[] names) {
+			if (names != null && value % 3 == 0) {
+				return names[value - min];
+			}
+			return String.valueOf(value);
+		}
+
+		@Override
+		public String toString() {
+			return this.expression.toString();
+		}
+	}
+
+}
@@ -46,6 +46,28 @@ public class CronSequenceGeneratorTests {
 				new CronSequenceGenerator("0 */2 1-4 * * *").next(new Date(2012, 6, 1, 9, 0)));
 	}
 
+	@Test
+	public void secondsResetWhenHourRollsOver() {
+		CronSequenceGenerator generator = new CronSequenceGenerator("*/30 * 2 * * *");
+		Date date = new Date(2012, 6, 1, 9, 13, 5);
+		assertEquals(new Date(2012, 6, 2, 2, 0, 0), generator.next(date));
+		assertEquals(new Date(2012, 6, 2, 2, 0, 0), generator.nextWithCalendar(date));
+	}
+
+	@Test
+	public void sparseExpressionBeyondOneYear() {
+		// the 13th of January or August that is a Thursday
+		assertEquals(new Date(120, 7, 13, 6, 0),
+				new CronSequenceGenerator("0 0 6 13 1,8 THU").next(new Date(116, 11, 25, 0, 40)));
+	}
+
+	@Test
+	public void leapDayAcrossNonLeapCentury() {
+		// 2100 is not a leap year: eight years until the next February 29th
+		assertEquals(new Date(204, 1, 29),
+				new CronSequenceGenerator("0 0 0 29 2 *").next(new Date(196, 2, 1)));
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void with0Increment() {
 		new CronSequenceGenerator("*/0 * * * * *").next(new Date(2012, 6, 1, 9, 0));
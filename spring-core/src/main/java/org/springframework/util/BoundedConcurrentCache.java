@@ -0,0 +1,111 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Simple size-bounded cache for values derived from externally supplied keys,
+ * such as parsed HTTP header values or URI templates.
+ *
+ * <p>Lookups are plain {@link ConcurrentHashMap} reads without any locking.
+ * Once the configured limit is exceeded, the entries that have been added first
+ * get evicted. The limit is not enforced atomically: concurrent additions may
+ * temporarily exceed it by the number of writing threads.
+ *
+ * @since 3.2.19
+ */
+public class BoundedConcurrentCache<K, V> {
+
+	private final int maxSize;
+
+	private final ConcurrentMap<K, V> cache;
+
+	private final Queue<K> insertionOrder = new ConcurrentLinkedQueue<K>();
+
+
+	/**
+	 * Create a new cache holding up to the given number of entries.
+	 * @param maxSize the maximum number of entries (a value of 0 disables caching)
+	 */
+	public BoundedConcurrentCache(int maxSize) {
+		Assert.isTrue(maxSize >= 0, "Cache size must not be negative");
+		this.maxSize = maxSize;
+		this.cache = new ConcurrentHashMap<K, V>(Math.min(maxSize, 256));
+	}
+
+
+	/**
+	 * Return the value cached for the given key, or {@code null} if none.
+	 */
+	public V get(K key) {
+		return this.cache.get(key);
+	}
+
+	/**
+	 * Cache the given value unless a value is already present for the given key,
+	 * evicting the oldest entries if the size limit has been exceeded.
+	 * @param key the key to cache the value for
+	 * @param value the value to cache
+	 * @return the value in the cache for the given key: either the given value,
+	 * or a previously cached one (for sharing a single instance per key)
+	 */
+	public V putIfAbsent(K key, V value) {
+		if (this.maxSize == 0) {
+			return value;
+		}
+		V existing = this.cache.putIfAbsent(key, value);
+		if (existing != null) {
+			return existing;
+		}
+		this.insertionOrder.add(key);
+		while (this.cache.size() > this.maxSize) {
+			K eldest = this.insertionOrder.poll();
+			if (eldest == null) {
+				break;
+			}
+			this.cache.remove(eldest);
+		}
+		return value;
+	}
+
+	/**
+	 * Return the current number of cached entries.
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Return the maximum number of entries held by this cache.
+	 */
+	public int getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Remove all entries from this cache.
+	 */
+	public void clear() {
+		this.insertionOrder.clear();
+		this.cache.clear();
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link BoundedConcurrentCache}.
+ */
+public class BoundedConcurrentCacheTests {
+
+	@Test
+	public void putAndGet() {
+		BoundedConcurrentCache<String, Integer> cache = new BoundedConcurrentCache<String, Integer>(4);
+		assertNull(cache.get("a"));
+		assertEquals(Integer.valueOf(1), cache.putIfAbsent("a", 1));
+		assertEquals(Integer.valueOf(1), cache.putIfAbsent("a", 2));
+		assertEquals(Integer.valueOf(1), cache.get("a"));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void evictsOldestEntries() {
+		BoundedConcurrentCache<String, Integer> cache = new BoundedConcurrentCache<String, Integer>(2);
+		cache.putIfAbsent("a", 1);
+		cache.putIfAbsent("b", 2);
+		cache.putIfAbsent("c", 3);
+		assertEquals(2, cache.size());
+		assertNull(cache.get("a"));
+		assertEquals(Integer.valueOf(2), cache.get("b"));
+		assertEquals(Integer.valueOf(3), cache.get("c"));
+
+		cache.putIfAbsent("a", 4);
+		assertNull(cache.get("b"));
+		assertEquals(Integer.valueOf(4), cache.get("a"));
+	}
+
+	@Test
+	public void disabledCache() {
+		BoundedConcurrentCache<String, Integer> cache = new BoundedConcurrentCache<String, Integer>(0);
+		assertEquals(Integer.valueOf(1), cache.putIfAbsent("a", 1));
+		assertNull(cache.get("a"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void clear() {
+		BoundedConcurrentCache<String, Integer> cache = new BoundedConcurrentCache<String, Integer>(2);
+		cache.putIfAbsent("a", 1);
+		cache.putIfAbsent("b", 2);
+		cache.clear();
+		assertEquals(0, cache.size());
+		cache.putIfAbsent("c", 3);
+		cache.putIfAbsent("d", 4);
+		assertEquals(2, cache.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeSize() {
+		new BoundedConcurrentCache<String, Integer>(-1);
+	}
+
+}
@@ -0,0 +1,482 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.jdbc.datasource.lookup;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * {@link javax.sql.DataSource} implementation that routes read-only transactions
+ * to a load-balanced set of replica DataSources, with all other work going to
+ * the primary DataSource.
+ *
+ * <p>A replica that fails to hand out a Connection is marked as unhealthy and
+ * skipped until the {@link #setRetryInterval retry interval} has elapsed; if no
+ * healthy replica is able to provide a Connection, the primary DataSource will
+ * be used instead. Replicas are either picked in
+ * {@link LoadBalancingPolicy#ROUND_ROBIN round-robin} fashion or by
+ * {@link LoadBalancingPolicy#LEAST_CONNECTIONS least active Connections}.
+ *
+ * <p>Transaction managers such as
+ * {@link org.springframework.jdbc.datasource.DataSourceTransactionManager}
+ * obtain their Connection before exposing the read-only flag of the transaction.
+ * This router therefore hands out lazy Connection handles by default, deferring
+ * the actual routing decision until the first Statement is created; see
+ * {@link LazyConnectionDataSourceProxy} for the semantics of such handles.
+ *
+ * <p>The configuration can for example look like this:
+ *
+ * <pre>
+ * &lt;bean id="dataSource" class="org.springframework.jdbc.datasource.lookup.ReadOnlyRoutingDataSource"&gt;
+ *   &lt;property name="primaryDataSource" ref="myPrimaryDataSource"/&gt;
+ *   &lt;property name="replicaDataSources"&gt;
+ *     &lt;map&gt;
+ *       &lt;entry key="replica1" value-ref="myReplicaDataSource1"/&gt;
+ *       &lt;entry key="replica2" value-ref="myReplicaDataSource2"/&gt;
+ *     &lt;/map&gt;
+ *   &lt;/property&gt;
+ *   &lt;property name="loadBalancingPolicy" value="LEAST_CONNECTIONS"/&gt;
+ * &lt;/bean&gt;</pre>
+ *
+ * @since 3.2.19
+ * @see #setPrimaryDataSource
+ * @see #setReplicaDataSources
+ * @see TransactionSynchronizationManager#isCurrentTransactionReadOnly()
+ */
+public class ReadOnlyRoutingDataSource extends AbstractDataSource implements InitializingBean {
+
+	/**
+	 * Strategies for selecting a replica DataSource.
+	 */
+	public enum LoadBalancingPolicy {
+
+		/** Cycle through the healthy replicas */
+		ROUND_ROBIN,
+
+		/** Pick the healthy replica with the fewest active Connections */
+		LEAST_CONNECTIONS
+	}
+
+
+	private Object primaryDataSource;
+
+	private Map<String, Object> replicaDataSources;
+
+	private DataSourceLookup dataSourceLookup = new JndiDataSourceLookup();
+
+	private LoadBalancingPolicy loadBalancingPolicy = LoadBalancingPolicy.ROUND_ROBIN;
+
+	private long retryInterval = 30000;
+
+	private boolean lazyConnectionAcquisition = true;
+
+	private RoutingTarget primaryTarget;
+
+	private List<RoutingTarget> replicaTargets = Collections.emptyList();
+
+	private DataSource connectionSource;
+
+	private final AtomicInteger roundRobinCounter = new AtomicInteger();
+
+	private final AtomicLong primaryFallbackCount = new AtomicLong();
+
+
+	/**
+	 * Specify the primary DataSource, receiving all work outside of read-only transactions.
+	 * <p>The value can either be a {@link javax.sql.DataSource} instance or a data source
+	 * name String (to be resolved via a {@link #setDataSourceLookup DataSourceLookup}).
+	 */
+	public void setPrimaryDataSource(Object primaryDataSource) {
+		this.primaryDataSource = primaryDataSource;
+	}
+
+	/**
+	 * Specify the replica DataSources for read-only transactions, with a
+	 * descriptive name as key. The mapped value can either be a
+	 * {@link javax.sql.DataSource} instance or a data source name String
+	 * (to be resolved via a {@link #setDataSourceLookup DataSourceLookup}).
+	 */
+	public void setReplicaDataSources(Map<String, Object> replicaDataSources) {
+		this.replicaDataSources = replicaDataSources;
+	}
+
+	/**
+	 * Set the DataSourceLookup implementation to use for resolving data source
+	 * name Strings. Default is a {@link JndiDataSourceLookup}.
+	 */
+	public void setDataSourceLookup(DataSourceLookup dataSourceLookup) {
+		this.dataSourceLookup = (dataSourceLookup != null ? dataSourceLookup : new JndiDataSourceLookup());
+	}
+
+	/**
+	 * Set the policy for selecting among the healthy replicas.
+	 * Default is {@link LoadBalancingPolicy#ROUND_ROBIN}.
+	 */
+	public void setLoadBalancingPolicy(LoadBalancingPolicy loadBalancingPolicy) {
+		Assert.notNull(loadBalancingPolicy, "LoadBalancingPolicy must not be null");
+		this.loadBalancingPolicy = loadBalancingPolicy;
+	}
+
+	/**
+	 * Set the time in milliseconds after which a replica that failed to
+	 * provide a Connection will be tried again. Default is 30000 ms.
+	 */
+	public void setRetryInterval(long retryInterval) {
+		this.retryInterval = retryInterval;
+	}
+
+	/**
+	 * Specify whether to hand out lazy Connection handles which only determine
+	 * their target DataSource on first actual use. Default is "true".
+	 * <p>Switch this flag to "false" when the read-only flag is always exposed
+	 * before a Connection is requested, e.g. with the DataSource only being
+	 * accessed within existing transactions of a different transaction manager.
+	 * @see LazyConnectionDataSourceProxy
+	 */
+	public void setLazyConnectionAcquisition(boolean lazyConnectionAcquisition) {
+		this.lazyConnectionAcquisition = lazyConnectionAcquisition;
+	}
+
+
+	public void afterPropertiesSet() {
+		if (this.primaryDataSource == null) {
+			throw new IllegalArgumentException("Property 'primaryDataSource' is required");
+		}
+		this.primaryTarget = new RoutingTarget("primary", resolveSpecifiedDataSource(this.primaryDataSource));
+		if (this.replicaDataSources != null) {
+			List<RoutingTarget> replicas = new ArrayList<RoutingTarget>(this.replicaDataSources.size());
+			for (Map.Entry<String, Object> entry : this.replicaDataSources.entrySet()) {
+				replicas.add(new RoutingTarget(entry.getKey(), resolveSpecifiedDataSource(entry.getValue())));
+			}
+			this.replicaTargets = Collections.unmodifiableList(replicas);
+		}
+		DataSource routingSource = new RoutingConnectionSource();
+		if (this.lazyConnectionAcquisition) {
+			LazyConnectionDataSourceProxy lazySource = new LazyConnectionDataSourceProxy();
+			lazySource.setTargetDataSource(routingSource);
+			lazySource.afterPropertiesSet();
+			routingSource = lazySource;
+		}
+		this.connectionSource = routingSource;
+	}
+
+	/**
+	 * Resolve the specified data source object into a DataSource instance.
+	 * @param dataSource the data source value object as specified
+	 * @return the resolved DataSource (never {@code null})
+	 * @throws IllegalArgumentException in case of an unsupported value type
+	 */
+	protected DataSource resolveSpecifiedDataSource(Object dataSource) throws IllegalArgumentException {
+		if (dataSource instanceof DataSource) {
+			return (DataSource) dataSource;
+		}
+		else if (dataSource instanceof String) {
+			return this.dataSourceLookup.getDataSource((String) dataSource);
+		}
+		else {
+			throw new IllegalArgumentException(
+					"Illegal data source value - only [javax.sql.DataSource] and String supported: " + dataSource);
+		}
+	}
+
+
+	public Connection getConnection() throws SQLException {
+		return getConnectionSource().getConnection();
+	}
+
+	public Connection getConnection(String username, String password) throws SQLException {
+		return getConnectionSource().getConnection(username, password);
+	}
+
+	private DataSource getConnectionSource() {
+		Assert.notNull(this.connectionSource, "DataSource router not initialized");
+		return this.connectionSource;
+	}
+
+	/**
+	 * Determine whether the current Connection request should be routed to a replica.
+	 * <p>The default implementation checks whether the current transaction is
+	 * marked as read-only.
+	 * @see TransactionSynchronizationManager#isCurrentTransactionReadOnly()
+	 */
+	protected boolean isReadOnlyRoute() {
+		return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+	}
+
+	/**
+	 * Obtain a physical Connection from the appropriate target DataSource.
+	 */
+	private Connection doGetConnection(String username, String password) throws SQLException {
+		if (isReadOnlyRoute() && !this.replicaTargets.isEmpty()) {
+			long now = System.currentTimeMillis();
+			for (RoutingTarget replica : selectReplicas(now)) {
+				try {
+					return replica.getConnection(username, password);
+				}
+				catch (SQLException ex) {
+					replica.markUnhealthy(now);
+					logger.warn("Replica DataSource '" + replica.getName() + "' failed to provide a Connection - " +
+							"excluding it for " + this.retryInterval + " ms", ex);
+				}
+			}
+			this.primaryFallbackCount.incrementAndGet();
+			if (logger.isDebugEnabled()) {
+				logger.debug("No replica DataSource available for read-only access - falling back to primary");
+			}
+		}
+		return this.primaryTarget.getConnection(username, password);
+	}
+
+	/**
+	 * Determine the replicas to try in order, according to the load-balancing policy.
+	 */
+	private List<RoutingTarget> selectReplicas(long now) {
+		int count = this.replicaTargets.size();
+		List<RoutingTarget> candidates = new ArrayList<RoutingTarget>(count);
+		if (this.loadBalancingPolicy == LoadBalancingPolicy.LEAST_CONNECTIONS) {
+			for (RoutingTarget replica : this.replicaTargets) {
+				if (replica.isAvailable(now, this.retryInterval)) {
+					int index = 0;
+					while (index < candidates.size() &&
+							candidates.get(index).getActiveConnectionCount() <= replica.getActiveConnectionCount()) {
+						index++;
+					}
+					candidates.add(index, replica);
+				}
+			}
+		}
+		else {
+			int start = (this.roundRobinCounter.getAndIncrement() & Integer.MAX_VALUE) % count;
+			for (int i = 0; i < count; i++) {
+				RoutingTarget replica = this.replicaTargets.get((start + i) % count);
+				if (replica.isAvailable(now, this.retryInterval)) {
+					candidates.add(replica);
+				}
+			}
+		}
+		return candidates;
+	}
+
+
+	/**
+	 * Return the statistics of the primary DataSource.
+	 */
+	public RoutingTarget getPrimaryTarget() {
+		return this.primaryTarget;
+	}
+
+	/**
+	 * Return the statistics of the replica DataSources, in configuration order.
+	 */
+	public List<RoutingTarget> getReplicaTargets() {
+		return this.replicaTargets;
+	}
+
+	/**
+	 * Return the number of read-only Connection requests that had to
+	 * fall back to the primary DataSource.
+	 */
+	public long getPrimaryFallbackCount() {
+		return this.primaryFallbackCount.get();
+	}
+
+
+	/**
+	 * A target DataSource of this router, keeping track of its health and usage.
+	 */
+	public static class RoutingTarget {
+
+		private final String name;
+
+		private final DataSource dataSource;
+
+		private final AtomicInteger activeConnectionCount = new AtomicInteger();
+
+		private final AtomicLong connectionCount = new AtomicLong();
+
+		private final AtomicLong failureCount = new AtomicLong();
+
+		private volatile long unhealthySince = -1;
+
+		RoutingTarget(String name, DataSource dataSource) {
+			this.name = name;
+			this.dataSource = dataSource;
+		}
+
+		/**
+		 * Return the name of this target.
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Return the target DataSource.
+		 */
+		public DataSource getDataSource() {
+			return this.dataSource;
+		}
+
+		/**
+		 * Return whether this target provided a Connection on its last attempt.
+		 */
+		public boolean isHealthy() {
+			return (this.unhealthySince < 0);
+		}
+
+		/**
+		 * Return the number of Connections from this target that are currently open.
+		 */
+		public int getActiveConnectionCount() {
+			return this.activeConnectionCount.get();
+		}
+
+		/**
+		 * Return the total number of Connections obtained from this target.
+		 */
+		public long getConnectionCount() {
+			return this.connectionCount.get();
+		}
+
+		/**
+		 * Return the number of failed attempts to obtain a Connection from this target.
+		 */
+		public long getFailureCount() {
+			return this.failureCount.get();
+		}
+
+		boolean isAvailable(long now, long retryInterval) {
+			long since = this.unhealthySince;
+			return (since < 0 || now - since >= retryInterval);
+		}
+
+		void markUnhealthy(long now) {
+			this.unhealthySince = now;
+		}
+
+		Connection getConnection(String username, String password) throws SQLException {
+			Connection con;
+			try {
+				con = (username != null ? this.dataSource.getConnection(username, password) :
+						this.dataSource.getConnection());
+			}
+			catch (SQLException ex) {
+				this.failureCount.incrementAndGet();
+				throw ex;
+			}
+			this.unhealthySince = -1;
+			this.connectionCount.incrementAndGet();
+			this.activeConnectionCount.incrementAndGet();
+			return (Connection) Proxy.newProxyInstance(
+					ConnectionProxy.class.getClassLoader(),
+					new Class[] {ConnectionProxy.class},
+					new TrackingInvocationHandler(con, this.activeConnectionCount));
+		}
+
+		@Override
+		public String toString() {
+			return "RoutingTarget '" + this.name + "': healthy=" + isHealthy() +
+					", activeConnections=" + getActiveConnectionCount() + ", connections=" + getConnectionCount() +
+					", failures=" + getFailureCount();
+		}
+	}
+
+
+	/**
+	 * Internal DataSource that performs the actual routing of Connection requests.
+	 */
+	private class RoutingConnectionSource extends AbstractDataSource {
+
+		public Connection getConnection() throws SQLException {
+			return doGetConnection(null, null);
+		}
+
+		public Connection getConnection(String username, String password) throws SQLException {
+			return doGetConnection(username, password);
+		}
+	}
+
+
+	/**
+	 * Invocation handler that keeps track of the active Connections of a target.
+	 */
+	private static class TrackingInvocationHandler implements InvocationHandler {
+
+		private final Connection target;
+
+		private final AtomicInteger activeConnectionCount;
+
+		private boolean closed;
+
+		public TrackingInvocationHandler(Connection target, AtomicInteger activeConnectionCount) {
+			this.target = target;
+			this.activeConnectionCount = activeConnectionCount;
+		}
+
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			// Invocation on ConnectionProxy interface coming in...
+
+			if (method.getName().equals("equals")) {
+				// Only consider equal when proxies are identical.
+				return (proxy == args[0]);
+			}
+			else if (method.getName().equals("hashCode")) {
+				// Use hashCode of Connection proxy.
+				return System.identityHashCode(proxy);
+			}
+			else if (method.getName().equals("getTargetConnection")) {
+				// Handle getTargetConnection method: return underlying Connection.
+				return this.target;
+			}
+			else if (method.getName().equals("close")) {
+				// Handle close method: release the active slot once.
+				if (!this.closed) {
+					this.closed = true;
+					this.activeConnectionCount.decrementAndGet();
+				}
+			}
+
+			// Invoke method on target Connection.
+			try {
+				return method.invoke(this.target, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.jdbc.datasource.lookup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Tests for {@link ReadOnlyRoutingDataSource}.
+ */
+public class ReadOnlyRoutingDataSourceTests {
+
+	private DataSource primary;
+
+	private DataSource replica1;
+
+	private DataSource replica2;
+
+	private ReadOnlyRoutingDataSource router;
+
+
+	@Before
+	public void setUp() throws Exception {
+		primary = mockDataSource();
+		replica1 = mockDataSource();
+		replica2 = mockDataSource();
+		Map<String, Object> replicas = new LinkedHashMap<String, Object>();
+		replicas.put("replica1", replica1);
+		replicas.put("replica2", replica2);
+		router = new ReadOnlyRoutingDataSource();
+		router.setPrimaryDataSource(primary);
+		router.setReplicaDataSources(replicas);
+		router.setLazyConnectionAcquisition(false);
+	}
+
+	@After
+	public void resetReadOnlyFlag() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+	}
+
+
+	@Test
+	public void readWriteAccessUsesPrimary() throws Exception {
+		router.afterPropertiesSet();
+		Connection con = router.getConnection();
+		assertSame(primary.getConnection(), ((ConnectionProxy) con).getTargetConnection());
+		assertEquals(1, router.getPrimaryTarget().getActiveConnectionCount());
+		con.close();
+		con.close();
+		assertEquals(0, router.getPrimaryTarget().getActiveConnectionCount());
+		assertEquals(0, router.getReplicaTargets().get(0).getConnectionCount());
+	}
+
+	@Test
+	public void roundRobinAcrossReplicas() throws Exception {
+		router.afterPropertiesSet();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		for (int i = 0; i < 4; i++) {
+			router.getConnection().close();
+		}
+		assertEquals(2, router.getReplicaTargets().get(0).getConnectionCount());
+		assertEquals(2, router.getReplicaTargets().get(1).getConnectionCount());
+		assertEquals(0, router.getPrimaryTarget().getConnectionCount());
+	}
+
+	@Test
+	public void leastConnectionsAcrossReplicas() throws Exception {
+		router.setLoadBalancingPolicy(ReadOnlyRoutingDataSource.LoadBalancingPolicy.LEAST_CONNECTIONS);
+		router.afterPropertiesSet();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		Connection con1 = router.getConnection();
+		Connection con2 = router.getConnection();
+		con1.close();
+		router.getConnection();
+		assertEquals(2, router.getReplicaTargets().get(0).getConnectionCount());
+		assertEquals(1, router.getReplicaTargets().get(1).getActiveConnectionCount());
+		assertEquals(1, router.getReplicaTargets().get(0).getActiveConnectionCount());
+		con2.close();
+	}
+
+	@Test
+	public void failingReplicaExcludedUntilRetry() throws Exception {
+		given(replica1.getConnection()).willThrow(new SQLException("down"));
+		router.setRetryInterval(60000);
+		router.afterPropertiesSet();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		for (int i = 0; i < 4; i++) {
+			router.getConnection().close();
+		}
+		ReadOnlyRoutingDataSource.RoutingTarget failing = router.getReplicaTargets().get(0);
+		assertFalse(failing.isHealthy());
+		assertEquals(1, failing.getFailureCount());
+		assertEquals(4, router.getReplicaTargets().get(1).getConnectionCount());
+		assertEquals(0, router.getPrimaryFallbackCount());
+	}
+
+	@Test
+	public void fallbackToPrimaryWithoutHealthyReplica() throws Exception {
+		given(replica1.getConnection()).willThrow(new SQLException("down"));
+		given(replica2.getConnection()).willThrow(new SQLException("down"));
+		router.setRetryInterval(0);
+		router.afterPropertiesSet();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		Connection con = router.getConnection();
+		assertSame(primary.getConnection(), ((ConnectionProxy) con).getTargetConnection());
+		assertEquals(1, router.getPrimaryFallbackCount());
+		router.getConnection();
+		assertEquals(2, router.getReplicaTargets().get(0).getFailureCount());
+		assertEquals(2, router.getPrimaryFallbackCount());
+	}
+
+	@Test
+	public void readOnlyTransactionWithLazyConnectionAcquisition() throws Exception {
+		router.setLazyConnectionAcquisition(true);
+		router.afterPropertiesSet();
+		final Connection replicaCon = replica1.getConnection();
+		TransactionTemplate tt = new TransactionTemplate(new DataSourceTransactionManager(router));
+		tt.setReadOnly(true);
+		tt.execute(new TransactionCallbackWithoutResult() {
+			@Override
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				try {
+					DataSourceUtils.getConnection(router).createStatement();
+				}
+				catch (SQLException ex) {
+					throw new IllegalStateException(ex);
+				}
+			}
+		});
+		verify(replicaCon).createStatement();
+		verify(replicaCon).commit();
+		verify(replicaCon).close();
+		assertEquals(0, router.getReplicaTargets().get(0).getActiveConnectionCount());
+	}
+
+
+	private static DataSource mockDataSource() throws SQLException {
+		DataSource dataSource = mock(DataSource.class);
+		Connection con = mock(Connection.class);
+		given(con.getAutoCommit()).willReturn(true);
+		given(con.getTransactionIsolation()).willReturn(Connection.TRANSACTION_READ_COMMITTED);
+		given(con.createStatement()).willReturn(mock(Statement.class));
+		given(dataSource.getConnection()).willReturn(con);
+		return dataSource;
+	}
+
+}
@@ -22,10 +22,21 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.Destination;
@@ -33,12 +44,14 @@ import javax.jms.JMSException;
 import javax.jms.MessageConsumer;
 import javax.jms.MessageProducer;
 import javax.jms.QueueSession;
+import javax.jms.ResourceAllocationException;
 import javax.jms.Session;
 import javax.jms.TemporaryQueue;
 import javax.jms.TemporaryTopic;
 import javax.jms.Topic;
 import javax.jms.TopicSession;
 
+import org.springframework.jms.support.JmsUtils;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 
@@ -51,7 +64,18 @@ import org.springframework.util.ObjectUtils;
  * <p>By default, only one single Session will be cached, with further requested
  * Sessions being created and disposed on demand. Consider raising the
  * {@link #setSessionCacheSize "sessionCacheSize" value} in case of a
- * high-concurrency environment.
+ * high-concurrency environment. Cached Sessions are kept in a concurrent pool per
+ * Session type, split into several stripes in order to avoid a single point of
+ * contention among many concurrently sending threads. By default, further Sessions
+ * beyond the cache size get created on demand; alternatively, a
+ * {@link #setSessionWaitTimeout "sessionWaitTimeout"} may be specified in order to
+ * strictly limit the number of Sessions, letting callers wait for a Session to be
+ * returned to the cache instead.
+ *
+ * <p>MessageProducers are cached per Session and Destination, optionally limited
+ * through a {@link #setProducerCacheSize "producerCacheSize"} with least-recently-used
+ * eviction. Hit, miss and wait statistics for Sessions and MessageProducers are
+ * exposed through corresponding getters, e.g. for JMX exposure.
  *
  * <p><b>NOTE: This ConnectionFactory decorator requires JMS 1.1 or higher.</b>
  * You may use it through the JMS 1.0.2 API; however, the target JMS driver
@@ -81,16 +105,35 @@ import org.springframework.util.ObjectUtils;
  */
 public class CachingConnectionFactory extends SingleConnectionFactory {
 
+	private static final int MAX_SESSION_STRIPES = 16;
+
+
 	private int sessionCacheSize = 1;
 
+	private long sessionWaitTimeout = -1;
+
 	private boolean cacheProducers = true;
 
+	private int producerCacheSize = -1;
+
 	private boolean cacheConsumers = true;
 
 	private volatile boolean active = true;
 
-	private final Map<Integer, LinkedList<Session>> cachedSessions =
-			new HashMap<Integer, LinkedList<Session>>();
+	private final ConcurrentMap<Integer, CachedSessionPool> cachedSessions =
+			new ConcurrentHashMap<Integer, CachedSessionPool>(8);
+
+	private final AtomicLong sessionCacheHitCount = new AtomicLong();
+
+	private final AtomicLong sessionCacheMissCount = new AtomicLong();
+
+	private final AtomicLong sessionWaitCount = new AtomicLong();
+
+	private final AtomicLong sessionWaitTime = new AtomicLong();
+
+	private final AtomicLong producerCacheHitCount = new AtomicLong();
+
+	private final AtomicLong producerCacheMissCount = new AtomicLong();
 
 
 	/**
@@ -137,6 +180,31 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 		return this.sessionCacheSize;
 	}
 
+	/**
+	 * Specify the maximum time to wait for a cached JMS Session to become
+	 * available, in milliseconds, once the {@link #setSessionCacheSize cache size}
+	 * has been reached.
+	 * <p>Default is -1, not limiting the number of Sessions at all: further
+	 * Sessions get created on demand and physically closed when returned to a full
+	 * cache. Specify 0 or a positive value in order to turn the cache size into a
+	 * strict limit (per JMS Session type), with callers waiting up to the given time
+	 * for another caller to close its Session. A
+	 * {@link javax.jms.ResourceAllocationException} will be thrown when no Session
+	 * becomes available in time.
+	 * @see #setSessionCacheSize
+	 * @see #getSessionWaitCount()
+	 */
+	public void setSessionWaitTimeout(long sessionWaitTimeout) {
+		this.sessionWaitTimeout = sessionWaitTimeout;
+	}
+
+	/**
+	 * Return the maximum time to wait for a cached JMS Session, in milliseconds.
+	 */
+	public long getSessionWaitTimeout() {
+		return this.sessionWaitTimeout;
+	}
+
 	/**
 	 * Specify whether to cache JMS MessageProducers per JMS Session instance
 	 * (more specifically: one MessageProducer per Destination and Session).
@@ -154,6 +222,32 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 		return this.cacheProducers;
 	}
 
+	/**
+	 * Specify the maximum number of JMS MessageProducers to cache per JMS Session,
+	 * that is, the maximum number of distinct Destinations to keep producers for.
+	 * <p>Default is -1, caching one MessageProducer for every Destination that the
+	 * Session has been used with. Specify a positive limit in order to close the
+	 * least recently used MessageProducer once the limit has been exceeded, e.g.
+	 * when sending to a large number of dynamic destinations.
+	 * <p>MessageProducers which have been obtained from the Session but not been
+	 * closed yet are never evicted, since the caller may still be using them. The
+	 * cache may therefore temporarily exceed the limit, until those producers have
+	 * been closed or the Session has been returned to the cache.
+	 * @see #setCacheProducers
+	 */
+	public void setProducerCacheSize(int producerCacheSize) {
+		Assert.isTrue(producerCacheSize == -1 || producerCacheSize >= 1,
+				"Producer cache size must be -1 (unlimited) or 1 or higher");
+		this.producerCacheSize = producerCacheSize;
+	}
+
+	/**
+	 * Return the maximum number of JMS MessageProducers to cache per JMS Session.
+	 */
+	public int getProducerCacheSize() {
+		return this.producerCacheSize;
+	}
+
 	/**
 	 * Specify whether to cache JMS MessageConsumers per JMS Session instance
 	 * (more specifically: one MessageConsumer per Destination, selector String
@@ -174,26 +268,74 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 	}
 
 
+	/**
+	 * Return the number of Session requests served from the cache.
+	 */
+	public long getSessionCacheHitCount() {
+		return this.sessionCacheHitCount.get();
+	}
+
+	/**
+	 * Return the number of Session requests which required a new Session.
+	 */
+	public long getSessionCacheMissCount() {
+		return this.sessionCacheMissCount.get();
+	}
+
+	/**
+	 * Return the number of Session requests which had to wait for a Session
+	 * to become available.
+	 * @see #setSessionWaitTimeout
+	 */
+	public long getSessionWaitCount() {
+		return this.sessionWaitCount.get();
+	}
+
+	/**
+	 * Return the accumulated time that Session requests spent waiting
+	 * for a Session to become available, in milliseconds.
+	 * @see #setSessionWaitTimeout
+	 */
+	public long getSessionWaitTime() {
+		return this.sessionWaitTime.get();
+	}
+
+	/**
+	 * Return the number of MessageProducer requests served from the cache.
+	 */
+	public long getProducerCacheHitCount() {
+		return this.producerCacheHitCount.get();
+	}
+
+	/**
+	 * Return the number of MessageProducer requests which required a new producer.
+	 */
+	public long getProducerCacheMissCount() {
+		return this.producerCacheMissCount.get();
+	}
+
+	/**
+	 * Return the number of Sessions currently held in the cache,
+	 * across all JMS Session types.
+	 */
+	public int getCachedSessionCount() {
+		int count = 0;
+		for (CachedSessionPool pool : this.cachedSessions.values()) {
+			count += pool.getIdleCount();
+		}
+		return count;
+	}
+
+
 	/**
 	 * Resets the Session cache as well.
 	 */
 	public void resetConnection() {
 		this.active = false;
-		synchronized (this.cachedSessions) {
-			for (LinkedList<Session> sessionList : this.cachedSessions.values()) {
-				synchronized (sessionList) {
-					for (Session session : sessionList) {
-						try {
-							session.close();
-						}
-						catch (Throwable ex) {
-							logger.trace("Could not close cached JMS Session", ex);
-						}
-					}
-				}
-			}
-			this.cachedSessions.clear();
+		for (CachedSessionPool pool : this.cachedSessions.values()) {
+			pool.close();
 		}
+		this.cachedSessions.clear();
 		this.active = true;
 
 		// Now proceed with actual closing of the shared Connection...
@@ -204,45 +346,91 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 	 * Checks for a cached Session for the given mode.
 	 */
 	protected Session getSession(Connection con, Integer mode) throws JMSException {
-		LinkedList<Session> sessionList;
-		synchronized (this.cachedSessions) {
-			sessionList = this.cachedSessions.get(mode);
-			if (sessionList == null) {
-				sessionList = new LinkedList<Session>();
-				this.cachedSessions.put(mode, sessionList);
+		CachedSessionPool pool = getSessionPool(mode);
+		pool.acquire();
+		try {
+			Session session = pool.poll();
+			if (session != null) {
+				this.sessionCacheHitCount.incrementAndGet();
+				if (logger.isTraceEnabled()) {
+					logger.trace("Found cached JMS Session for mode " + mode + ": " +
+							((SessionProxy) session).getTargetSession());
+				}
 			}
-		}
-		Session session = null;
-		synchronized (sessionList) {
-			if (!sessionList.isEmpty()) {
-				session = sessionList.removeFirst();
+			else {
+				this.sessionCacheMissCount.incrementAndGet();
+				Session targetSession = createSession(con, mode);
+				if (logger.isDebugEnabled()) {
+					logger.debug("Creating cached JMS Session for mode " + mode + ": " + targetSession);
+				}
+				session = getCachedSessionProxy(targetSession, new CachedSessionList(pool));
 			}
+			return session;
 		}
-		if (session != null) {
-			if (logger.isTraceEnabled()) {
-				logger.trace("Found cached JMS Session for mode " + mode + ": " +
-						(session instanceof SessionProxy ? ((SessionProxy) session).getTargetSession() : session));
-			}
+		catch (JMSException ex) {
+			pool.release();
+			throw ex;
 		}
-		else {
-			Session targetSession = createSession(con, mode);
-			if (logger.isDebugEnabled()) {
-				logger.debug("Creating cached JMS Session for mode " + mode + ": " + targetSession);
+		catch (RuntimeException ex) {
+			pool.release();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Obtain the pool of cached Sessions for the given mode, creating it if necessary.
+	 */
+	private CachedSessionPool getSessionPool(Integer mode) {
+		CachedSessionPool pool = this.cachedSessions.get(mode);
+		if (pool == null) {
+			pool = new CachedSessionPool(mode);
+			CachedSessionPool existingPool = this.cachedSessions.putIfAbsent(mode, pool);
+			if (existingPool != null) {
+				pool = existingPool;
 			}
-			session = getCachedSessionProxy(targetSession, sessionList);
 		}
-		return session;
+		return pool;
 	}
 
 	/**
 	 * Wrap the given Session with a proxy that delegates every method call to it
 	 * but adapts close calls. This is useful for allowing application code to
 	 * handle a special framework Session just like an ordinary Session.
+	 * <p>Called by {@link #getSession} for every newly created Session, with a
+	 * permit of the pool for the Session's mode acquired already. When called
+	 * with any other List, a permit gets acquired here, to be given back when
+	 * the returned proxy is closed.
 	 * @param target the original Session to wrap
 	 * @param sessionList the List of cached Sessions that the given Session belongs to
 	 * @return the wrapped Session
+	 * @deprecated as of Spring 3.2.19, since cached Sessions are held in a concurrent
+	 * pool per Session mode rather than in a List: the List passed in by
+	 * {@link #getSession} is an empty placeholder for that pool
 	 */
+	@Deprecated
 	protected Session getCachedSessionProxy(Session target, LinkedList<Session> sessionList) {
+		if (sessionList instanceof CachedSessionList) {
+			return createCachedSessionProxy(target, ((CachedSessionList) sessionList).pool);
+		}
+		try {
+			Integer mode = (target.getTransacted() ? Session.SESSION_TRANSACTED : target.getAcknowledgeMode());
+			CachedSessionPool pool = getSessionPool(mode);
+			pool.acquire();
+			return createCachedSessionProxy(target, pool);
+		}
+		catch (JMSException ex) {
+			throw JmsUtils.convertJmsAccessException(ex);
+		}
+	}
+
+	/**
+	 * Wrap the given Session with a proxy that delegates every method call to it
+	 * but adapts close calls, returning the Session to the given pool.
+	 * @param target the original Session to wrap
+	 * @param pool the pool of cached Sessions that the given Session belongs to
+	 * @return the wrapped Session
+	 */
+	private Session createCachedSessionProxy(Session target, CachedSessionPool pool) {
 		List<Class<?>> classes = new ArrayList<Class<?>>(3);
 		classes.add(SessionProxy.class);
 		if (target instanceof QueueSession) {
@@ -251,10 +439,151 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 		if (target instanceof TopicSession) {
 			classes.add(TopicSession.class);
 		}
-		return (Session) Proxy.newProxyInstance(
+		CachedSessionInvocationHandler handler = new CachedSessionInvocationHandler(target, pool);
+		Session proxy = (Session) Proxy.newProxyInstance(
 				SessionProxy.class.getClassLoader(),
-				classes.toArray(new Class<?>[classes.size()]),
-				new CachedSessionInvocationHandler(target, sessionList));
+				classes.toArray(new Class<?>[classes.size()]), handler);
+		handler.proxy = proxy;
+		return proxy;
+	}
+
+
+	/**
+	 * Concurrent pool of cached Sessions for a specific Session mode, split into
+	 * stripes which are chosen per thread, falling back to the other stripes when
+	 * the thread's own stripe is empty. Optionally limits the number of Sessions
+	 * handed out at any point in time, letting further callers wait.
+	 */
+	private class CachedSessionPool {
+
+		private final Integer mode;
+
+		private final Queue<CachedSessionInvocationHandler>[] stripes;
+
+		private final AtomicInteger idleCount = new AtomicInteger();
+
+		private final Semaphore permits;
+
+		private volatile boolean closed = false;
+
+		@SuppressWarnings("unchecked")
+		public CachedSessionPool(Integer mode) {
+			this.mode = mode;
+			int stripeCount = Math.min(Math.min(Runtime.getRuntime().availableProcessors(),
+					getSessionCacheSize()), MAX_SESSION_STRIPES);
+			this.stripes = new Queue[Math.max(stripeCount, 1)];
+			for (int i = 0; i < this.stripes.length; i++) {
+				this.stripes[i] = new ConcurrentLinkedQueue<CachedSessionInvocationHandler>();
+			}
+			this.permits = (getSessionWaitTimeout() >= 0 ? new Semaphore(getSessionCacheSize()) : null);
+		}
+
+		public void acquire() throws JMSException {
+			if (this.permits == null || this.permits.tryAcquire()) {
+				return;
+			}
+			sessionWaitCount.incrementAndGet();
+			long timeout = getSessionWaitTimeout();
+			long startTime = System.currentTimeMillis();
+			boolean acquired;
+			try {
+				acquired = this.permits.tryAcquire(timeout, TimeUnit.MILLISECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new ResourceAllocationException(
+						"Interrupted while waiting for cached JMS Session for mode " + this.mode);
+			}
+			finally {
+				sessionWaitTime.addAndGet(System.currentTimeMillis() - startTime);
+			}
+			if (!acquired) {
+				throw new ResourceAllocationException("No cached JMS Session for mode " + this.mode +
+						" available within " + timeout + " ms: all " + getSessionCacheSize() + " Sessions in use");
+			}
+		}
+
+		public void release() {
+			if (this.permits != null) {
+				this.permits.release();
+			}
+		}
+
+		public Session poll() {
+			int index = stripeIndex();
+			for (int i = 0; i < this.stripes.length; i++) {
+				CachedSessionInvocationHandler handler = this.stripes[(index + i) % this.stripes.length].poll();
+				if (handler != null) {
+					this.idleCount.decrementAndGet();
+					handler.checkedOut.set(true);
+					return handler.proxy;
+				}
+			}
+			return null;
+		}
+
+		public boolean reserve() {
+			for (;;) {
+				int current = this.idleCount.get();
+				if (this.closed || current >= getSessionCacheSize()) {
+					return false;
+				}
+				if (this.idleCount.compareAndSet(current, current + 1)) {
+					return true;
+				}
+			}
+		}
+
+		public void unreserve() {
+			this.idleCount.decrementAndGet();
+		}
+
+		public void offer(CachedSessionInvocationHandler handler) {
+			this.stripes[stripeIndex()].offer(handler);
+			if (this.closed) {
+				// Closed in the meantime: make sure we're not leaving the Session behind.
+				close();
+			}
+		}
+
+		public int getIdleCount() {
+			return this.idleCount.get();
+		}
+
+		public void close() {
+			this.closed = true;
+			for (Queue<CachedSessionInvocationHandler> stripe : this.stripes) {
+				CachedSessionInvocationHandler handler;
+				while ((handler = stripe.poll()) != null) {
+					this.idleCount.decrementAndGet();
+					try {
+						handler.physicalClose();
+					}
+					catch (Throwable ex) {
+						logger.trace("Could not close cached JMS Session", ex);
+					}
+				}
+			}
+		}
+
+		private int stripeIndex() {
+			return (int) (Thread.currentThread().getId() % this.stripes.length);
+		}
+	}
+
+
+	/**
+	 * Placeholder for the List of cached Sessions passed to
+	 * {@link #getCachedSessionProxy}, referring to the actual pool.
+	 */
+	@SuppressWarnings("serial")
+	private static class CachedSessionList extends LinkedList<Session> {
+
+		private final CachedSessionPool pool;
+
+		public CachedSessionList(CachedSessionPool pool) {
+			this.pool = pool;
+		}
 	}
 
 
@@ -265,19 +594,27 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 
 		private final Session target;
 
-		private final LinkedList<Session> sessionList;
+		private final CachedSessionPool pool;
+
+		private Session proxy;
+
+		private final AtomicBoolean checkedOut = new AtomicBoolean(true);
 
 		private final Map<DestinationCacheKey, MessageProducer> cachedProducers =
-				new HashMap<DestinationCacheKey, MessageProducer>();
+				new LinkedHashMap<DestinationCacheKey, MessageProducer>(16, 0.75f, true);
+
+		/** Number of handed-out, not yet closed decorators per cached MessageProducer */
+		private final Map<MessageProducer, Integer> producersInUse =
+				new IdentityHashMap<MessageProducer, Integer>(16);
 
 		private final Map<ConsumerCacheKey, MessageConsumer> cachedConsumers =
 				new HashMap<ConsumerCacheKey, MessageConsumer>();
 
 		private boolean transactionOpen = false;
 
-		public CachedSessionInvocationHandler(Session target, LinkedList<Session> sessionList) {
+		public CachedSessionInvocationHandler(Session target, CachedSessionPool pool) {
 			this.target = target;
-			this.sessionList = sessionList;
+			this.pool = pool;
 		}
 
 		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
@@ -295,24 +632,31 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 			}
 			else if (methodName.equals("close")) {
 				// Handle close method: don't pass the call on.
-				if (active) {
-					synchronized (this.sessionList) {
-						if (this.sessionList.size() < getSessionCacheSize()) {
-							try {
-								logicalClose((Session) proxy);
-								// Remain open in the session list.
-								return null;
-							}
-							catch (JMSException ex) {
-								logger.trace("Logical close of cached JMS Session failed - discarding it", ex);
-								// Proceed to physical close from here...
-							}
+				if (!this.checkedOut.compareAndSet(true, false)) {
+					// Allow for multiple close calls...
+					return null;
+				}
+				try {
+					if (active && this.pool.reserve()) {
+						try {
+							logicalClose();
+							// Remain open in the session pool.
+							this.pool.offer(this);
+							return null;
+						}
+						catch (JMSException ex) {
+							this.pool.unreserve();
+							logger.trace("Logical close of cached JMS Session failed - discarding it", ex);
+							// Proceed to physical close from here...
 						}
 					}
+					// If we get here, we're supposed to shut down.
+					physicalClose();
+					return null;
+				}
+				finally {
+					this.pool.release();
 				}
-				// If we get here, we're supposed to shut down.
-				physicalClose();
-				return null;
 			}
 			else if (methodName.equals("getTargetSession")) {
 				// Handle getTargetSession method: return underlying Session.
@@ -363,18 +707,74 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 			DestinationCacheKey cacheKey = (dest != null ? new DestinationCacheKey(dest) : null);
 			MessageProducer producer = this.cachedProducers.get(cacheKey);
 			if (producer != null) {
+				producerCacheHitCount.incrementAndGet();
 				if (logger.isTraceEnabled()) {
 					logger.trace("Found cached JMS MessageProducer for destination [" + dest + "]: " + producer);
 				}
 			}
 			else {
+				producerCacheMissCount.incrementAndGet();
 				producer = this.target.createProducer(dest);
 				if (logger.isDebugEnabled()) {
 					logger.debug("Creating cached JMS MessageProducer for destination [" + dest + "]: " + producer);
 				}
 				this.cachedProducers.put(cacheKey, producer);
 			}
-			return new CachedMessageProducer(producer);
+			Integer count = this.producersInUse.get(producer);
+			this.producersInUse.put(producer, (count != null ? count + 1 : 1));
+			evictProducers();
+			final MessageProducer target = producer;
+			return new CachedMessageProducer(producer) {
+				private boolean closed;
+				@Override
+				public void close() throws JMSException {
+					super.close();
+					if (!this.closed) {
+						this.closed = true;
+						returnProducer(target);
+					}
+				}
+			};
+		}
+
+		private void returnProducer(MessageProducer producer) {
+			Integer count = this.producersInUse.get(producer);
+			if (count != null) {
+				if (count > 1) {
+					this.producersInUse.put(producer, count - 1);
+				}
+				else {
+					this.producersInUse.remove(producer);
+					evictProducers();
+				}
+			}
+		}
+
+		/**
+		 * Close least recently used MessageProducers beyond the producer cache size,
+		 * skipping those that are still in use.
+		 */
+		private void evictProducers() {
+			int limit = getProducerCacheSize();
+			if (limit < 0 || this.cachedProducers.size() <= limit) {
+				return;
+			}
+			for (Iterator<MessageProducer> it = this.cachedProducers.values().iterator();
+					it.hasNext() && this.cachedProducers.size() > limit;) {
+				MessageProducer producer = it.next();
+				if (!this.producersInUse.containsKey(producer)) {
+					it.remove();
+					if (logger.isDebugEnabled()) {
+						logger.debug("Closing least recently used JMS MessageProducer: " + producer);
+					}
+					try {
+						producer.close();
+					}
+					catch (Throwable ex) {
+						logger.trace("Could not close evicted JMS MessageProducer", ex);
+					}
+				}
+			}
 		}
 
 		private MessageConsumer getCachedConsumer(
@@ -404,7 +804,7 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 			return new CachedMessageConsumer(consumer);
 		}
 
-		private void logicalClose(Session proxy) throws JMSException {
+		private void logicalClose() throws JMSException {
 			// Preserve rollback-on-close semantics.
 			if (this.transactionOpen && this.target.getTransacted()) {
 				this.transactionOpen = false;
@@ -418,15 +818,10 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 					it.remove();
 				}
 			}
-			// Allow for multiple close calls...
-			boolean returned = false;
-			synchronized (this.sessionList) {
-				if (!this.sessionList.contains(proxy)) {
-					this.sessionList.addLast(proxy);
-					returned = true;
-				}
-			}
-			if (returned && logger.isTraceEnabled()) {
+			// MessageProducers must not be used beyond the Session anyway.
+			this.producersInUse.clear();
+			evictProducers();
+			if (logger.isTraceEnabled()) {
 				logger.trace("Returned cached Session: " + this.target);
 			}
 		}
@@ -447,6 +842,7 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 			}
 			finally {
 				this.cachedProducers.clear();
+				this.producersInUse.clear();
 				this.cachedConsumers.clear();
 				// Now actually close the Session.
 				this.target.close();
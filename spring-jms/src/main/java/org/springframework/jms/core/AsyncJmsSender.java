@@ -0,0 +1,808 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jms.support.JmsUtils;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * High-throughput sending facade on top of a {@link JmsTemplate}, decoupling
+ * callers from the broker round trip of each {@code MessageProducer.send} call.
+ *
+ * <p>Messages are accepted into a bounded in-memory buffer and immediately
+ * acknowledged with a {@link Future} that completes once the message has actually
+ * been sent (and committed, in case of a transacted Session). Messages are grouped
+ * per destination: each destination gets a dedicated worker which keeps a single
+ * long-lived JMS Session and MessageProducer open for as long as messages keep
+ * arriving, releasing them after the {@link #setLaneIdleTimeout "laneIdleTimeout"}.
+ * A destination's worker state is discarded once it has been drained, so temporary
+ * and dynamically resolved destinations do not accumulate.
+ *
+ * <p>With a {@link JmsTemplate#setSessionTransacted transacted} JmsTemplate, the
+ * worker commits every {@link #setCommitBatchSize "commitBatchSize"} messages or
+ * after the {@link #setCommitInterval "commitInterval"} has elapsed, whichever comes
+ * first. A failure rolls back the current batch and fails the futures of all messages
+ * in it. Without transactions, each future completes as soon as its message has been
+ * handed to the producer. Messages still queued after a failure are sent through a
+ * fresh Session; if sending to the destination fails before any message could be
+ * taken, e.g. since no Session can be obtained, the queued messages fail with a
+ * {@link TaskRejectedException} that has the original failure as its cause.
+ *
+ * <p>The JmsTemplate's ConnectionFactory, destination resolution, message conversion
+ * and quality-of-service settings apply as usual. Note that messages get created on
+ * the worker thread: message payloads passed to {@code convertAndSend} must not be
+ * modified after the call. Queue depth, throughput and flush latency are exposed
+ * through corresponding getters, e.g. for JMX exposure.
+ *
+ * @since 3.2.19
+ * @see JmsTemplate
+ * @see #send(Destination, MessageCreator)
+ * @see #convertAndSend(String, Object)
+ */
+public class AsyncJmsSender implements BeanNameAware, InitializingBean, DisposableBean {
+
+	/**
+	 * Default thread name prefix: "AsyncJmsSender-".
+	 */
+	public static final String DEFAULT_THREAD_NAME_PREFIX = ClassUtils.getShortName(AsyncJmsSender.class) + "-";
+
+	/**
+	 * The default number of messages that may be pending at any time: 1000.
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+	/**
+	 * The default number of messages per transaction: 100.
+	 */
+	public static final int DEFAULT_COMMIT_BATCH_SIZE = 100;
+
+	/**
+	 * The default maximum time between commits: 100 ms.
+	 */
+	public static final long DEFAULT_COMMIT_INTERVAL = 100;
+
+	/**
+	 * The default time after which an idle destination worker releases its Session: 60000 ms.
+	 */
+	public static final long DEFAULT_LANE_IDLE_TIMEOUT = 60000;
+
+	/**
+	 * The default time to wait for pending messages on shutdown: 10000 ms.
+	 */
+	public static final long DEFAULT_SHUTDOWN_TIMEOUT = 10000;
+
+	private static final long MAX_POLL_INTERVAL = 100;
+
+
+	protected final Log logger = LogFactory.getLog(getClass());
+
+	private JmsTemplate jmsTemplate;
+
+	private TaskExecutor taskExecutor;
+
+	private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+	private long enqueueTimeout = -1;
+
+	private int commitBatchSize = DEFAULT_COMMIT_BATCH_SIZE;
+
+	private long commitInterval = DEFAULT_COMMIT_INTERVAL;
+
+	private long laneIdleTimeout = DEFAULT_LANE_IDLE_TIMEOUT;
+
+	private long shutdownTimeout = DEFAULT_SHUTDOWN_TIMEOUT;
+
+	private String beanName;
+
+	private Semaphore capacity;
+
+	private volatile boolean active = false;
+
+	private final ConcurrentMap<Object, SendLane> lanes = new ConcurrentHashMap<Object, SendLane>();
+
+	private final AtomicInteger activeLaneCount = new AtomicInteger();
+
+	private final Object lifecycleMonitor = new Object();
+
+	private final AtomicInteger queueDepth = new AtomicInteger();
+
+	private final AtomicLong sentMessageCount = new AtomicLong();
+
+	private final AtomicLong failedMessageCount = new AtomicLong();
+
+	private final AtomicLong flushCount = new AtomicLong();
+
+	private final AtomicLong totalFlushLatency = new AtomicLong();
+
+
+	/**
+	 * Create a new AsyncJmsSender for bean-style usage.
+	 * @see #setJmsTemplate
+	 */
+	public AsyncJmsSender() {
+	}
+
+	/**
+	 * Create a new AsyncJmsSender for the given JmsTemplate.
+	 * @param jmsTemplate the JmsTemplate to send messages with
+	 */
+	public AsyncJmsSender(JmsTemplate jmsTemplate) {
+		this.jmsTemplate = jmsTemplate;
+	}
+
+
+	/**
+	 * Set the JmsTemplate to send messages with, providing the ConnectionFactory,
+	 * destination resolution, message conversion and quality-of-service settings.
+	 */
+	public void setJmsTemplate(JmsTemplate jmsTemplate) {
+		this.jmsTemplate = jmsTemplate;
+	}
+
+	/**
+	 * Return the JmsTemplate to send messages with.
+	 */
+	public JmsTemplate getJmsTemplate() {
+		return this.jmsTemplate;
+	}
+
+	/**
+	 * Set the TaskExecutor to run the per-destination workers with.
+	 * <p>Default is a {@link SimpleAsyncTaskExecutor}, starting a new thread for each
+	 * destination that becomes active. Note that each active destination occupies a
+	 * thread for as long as messages keep arriving for it, so a bounded thread pool
+	 * needs to provide at least as many threads as destinations are in concurrent use.
+	 */
+	public void setTaskExecutor(TaskExecutor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * Set the maximum number of messages that may be pending at any time, that is,
+	 * accepted but not sent and committed yet. Default is 1000.
+	 * @see #setEnqueueTimeout
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		Assert.isTrue(queueCapacity >= 1, "'queueCapacity' must be 1 or higher");
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Return the maximum number of messages that may be pending at any time.
+	 */
+	public int getQueueCapacity() {
+		return this.queueCapacity;
+	}
+
+	/**
+	 * Set the time to wait for free capacity when accepting a message, in milliseconds.
+	 * <p>Default is -1, blocking the caller until capacity becomes available. Specify
+	 * 0 or a positive value in order to throw a {@link TaskRejectedException} when the
+	 * buffer is still full after the given time.
+	 * @see #setQueueCapacity
+	 */
+	public void setEnqueueTimeout(long enqueueTimeout) {
+		this.enqueueTimeout = enqueueTimeout;
+	}
+
+	/**
+	 * Set the maximum number of messages to send within a single transaction,
+	 * in case of a transacted Session. Default is 100.
+	 * @see #setCommitInterval
+	 * @see JmsTemplate#setSessionTransacted
+	 */
+	public void setCommitBatchSize(int commitBatchSize) {
+		Assert.isTrue(commitBatchSize >= 1, "'commitBatchSize' must be 1 or higher");
+		this.commitBatchSize = commitBatchSize;
+	}
+
+	/**
+	 * Set the maximum time between the first message of a transaction and its commit,
+	 * in milliseconds, in case of a transacted Session. Default is 100 ms.
+	 * @see #setCommitBatchSize
+	 */
+	public void setCommitInterval(long commitInterval) {
+		this.commitInterval = commitInterval;
+	}
+
+	/**
+	 * Set the time after which the worker for a destination releases its Session
+	 * when no further messages arrive for that destination, in milliseconds.
+	 * Default is 60000 ms, that is, 1 minute.
+	 */
+	public void setLaneIdleTimeout(long laneIdleTimeout) {
+		this.laneIdleTimeout = laneIdleTimeout;
+	}
+
+	/**
+	 * Set the maximum time to wait for pending messages to be sent on shutdown,
+	 * in milliseconds. Default is 10000 ms, that is, 10 seconds.
+	 * @see #destroy()
+	 */
+	public void setShutdownTimeout(long shutdownTimeout) {
+		this.shutdownTimeout = shutdownTimeout;
+	}
+
+	public void setBeanName(String beanName) {
+		this.beanName = beanName;
+	}
+
+
+	public void afterPropertiesSet() {
+		Assert.notNull(this.jmsTemplate, "Property 'jmsTemplate' is required");
+		if (this.taskExecutor == null) {
+			this.taskExecutor = createDefaultTaskExecutor();
+		}
+		this.capacity = new Semaphore(this.queueCapacity);
+		this.active = true;
+	}
+
+	/**
+	 * Create a default TaskExecutor. Called if no explicit TaskExecutor has been specified.
+	 * <p>The default implementation builds a {@link SimpleAsyncTaskExecutor}
+	 * with the specified bean name (or the class name, if no bean name specified) as thread name prefix.
+	 * @see SimpleAsyncTaskExecutor#SimpleAsyncTaskExecutor(String)
+	 */
+	protected TaskExecutor createDefaultTaskExecutor() {
+		String threadNamePrefix = (this.beanName != null ? this.beanName + "-" : DEFAULT_THREAD_NAME_PREFIX);
+		return new SimpleAsyncTaskExecutor(threadNamePrefix);
+	}
+
+	/**
+	 * Stop accepting messages and wait for pending messages to be sent,
+	 * up to the specified shutdown timeout.
+	 * @see #setShutdownTimeout
+	 */
+	public void destroy() throws InterruptedException {
+		this.active = false;
+		long deadline = System.currentTimeMillis() + this.shutdownTimeout;
+		synchronized (this.lifecycleMonitor) {
+			long remaining;
+			while (this.activeLaneCount.get() > 0 && (remaining = deadline - System.currentTimeMillis()) > 0) {
+				this.lifecycleMonitor.wait(remaining);
+			}
+		}
+		if (this.queueDepth.get() > 0 && logger.isWarnEnabled()) {
+			logger.warn("Shutting down with " + this.queueDepth.get() + " pending JMS messages");
+		}
+	}
+
+
+	//-------------------------------------------------------------------------
+	// Sending entry points
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Send a message to the JmsTemplate's default destination.
+	 * @param messageCreator callback to create a message
+	 * @return a future which completes once the message has been sent
+	 * @throws TaskRejectedException if the message could not be accepted in time
+	 * @see JmsTemplate#setDefaultDestination
+	 * @see JmsTemplate#setDefaultDestinationName
+	 */
+	public Future<Void> send(MessageCreator messageCreator) {
+		return enqueue(getRequiredDefaultDestination(), messageCreator);
+	}
+
+	/**
+	 * Send a message to the specified destination.
+	 * @param destination the destination to send this message to
+	 * @param messageCreator callback to create a message
+	 * @return a future which completes once the message has been sent
+	 * @throws TaskRejectedException if the message could not be accepted in time
+	 */
+	public Future<Void> send(Destination destination, MessageCreator messageCreator) {
+		Assert.notNull(destination, "Destination must not be null");
+		return enqueue(destination, messageCreator);
+	}
+
+	/**
+	 * Send a message to the specified destination.
+	 * @param destinationName the name of the destination to send this message to
+	 * (to be resolved to an actual destination by the JmsTemplate's DestinationResolver)
+	 * @param messageCreator callback to create a message
+	 * @return a future which completes once the message has been sent
+	 * @throws TaskRejectedException if the message could not be accepted in time
+	 */
+	public Future<Void> send(String destinationName, MessageCreator messageCreator) {
+		Assert.notNull(destinationName, "Destination name must not be null");
+		return enqueue(destinationName, messageCreator);
+	}
+
+	/**
+	 * Send the given object to the JmsTemplate's default destination, converting
+	 * the object to a JMS message with the JmsTemplate's MessageConverter.
+	 * @param message the object to convert to a message
+	 * @return a future which completes once the message has been sent
+	 * @throws TaskRejectedException if the message could not be accepted in time
+	 */
+	public Future<Void> convertAndSend(Object message) {
+		return enqueue(getRequiredDefaultDestination(), createConvertingMessageCreator(message));
+	}
+
+	/**
+	 * Send the given object to the specified destination, converting the object
+	 * to a JMS message with the JmsTemplate's MessageConverter.
+	 * @param destination the destination to send this message to
+	 * @param message the object to convert to a message
+	 * @return a future which completes once the message has been sent
+	 * @throws TaskRejectedException if the message could not be accepted in time
+	 */
+	public Future<Void> convertAndSend(Destination destination, Object message) {
+		Assert.notNull(destination, "Destination must not be null");
+		return enqueue(destination, createConvertingMessageCreator(message));
+	}
+
+	/**
+	 * Send the given object to the specified destination, converting the object
+	 * to a JMS message with the JmsTemplate's MessageConverter.
+	 * @param destinationName the name of the destination to send this message to
+	 * (to be resolved to an actual destination by the JmsTemplate's DestinationResolver)
+	 * @param message the object to convert to a message
+	 * @return a future which completes once the message has been sent
+	 * @throws TaskRejectedException if the message could not be accepted in time
+	 */
+	public Future<Void> convertAndSend(String destinationName, Object message) {
+		Assert.notNull(destinationName, "Destination name must not be null");
+		return enqueue(destinationName, createConvertingMessageCreator(message));
+	}
+
+
+	//-------------------------------------------------------------------------
+	// Runtime statistics
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Return the number of messages accepted but not sent and committed yet.
+	 */
+	public int getQueueDepth() {
+		return this.queueDepth.get();
+	}
+
+	/**
+	 * Return the number of destinations with an active worker.
+	 */
+	public int getActiveLaneCount() {
+		return this.activeLaneCount.get();
+	}
+
+	/**
+	 * Return the number of destinations with pending messages or an active worker.
+	 */
+	public int getLaneCount() {
+		return this.lanes.size();
+	}
+
+	/**
+	 * Return the number of messages successfully sent (and committed) so far.
+	 */
+	public long getSentMessageCount() {
+		return this.sentMessageCount.get();
+	}
+
+	/**
+	 * Return the number of messages which failed to be sent so far.
+	 */
+	public long getFailedMessageCount() {
+		return this.failedMessageCount.get();
+	}
+
+	/**
+	 * Return the number of flushes so far, that is, commits of a batch of messages
+	 * or individual sends in case of a non-transacted Session.
+	 */
+	public long getFlushCount() {
+		return this.flushCount.get();
+	}
+
+	/**
+	 * Return the average flush latency in milliseconds: the time from accepting the
+	 * first message of a batch until the batch has been sent and committed.
+	 */
+	public double getAverageFlushLatency() {
+		long flushes = this.flushCount.get();
+		return (flushes > 0 ? (double) this.totalFlushLatency.get() / flushes : 0);
+	}
+
+
+	//-------------------------------------------------------------------------
+	// Internal processing
+	//-------------------------------------------------------------------------
+
+	private Object getRequiredDefaultDestination() {
+		Object destination = this.jmsTemplate.getDefaultDestination();
+		if (destination == null) {
+			destination = this.jmsTemplate.getDefaultDestinationName();
+		}
+		if (destination == null) {
+			throw new IllegalStateException("No 'defaultDestination' or 'defaultDestinationName' specified " +
+					"on the JmsTemplate. Check configuration of JmsTemplate.");
+		}
+		return destination;
+	}
+
+	private MessageCreator createConvertingMessageCreator(final Object message) {
+		final MessageConverter converter = this.jmsTemplate.getMessageConverter();
+		if (converter == null) {
+			throw new IllegalStateException("No 'messageConverter' specified on the JmsTemplate. " +
+					"Check configuration of JmsTemplate.");
+		}
+		return new MessageCreator() {
+			public Message createMessage(Session session) throws JMSException {
+				return converter.toMessage(message, session);
+			}
+		};
+	}
+
+	private Future<Void> enqueue(Object destination, MessageCreator messageCreator) {
+		Assert.notNull(messageCreator, "MessageCreator must not be null");
+		if (!this.active) {
+			throw new IllegalStateException("AsyncJmsSender is not active - not initialized or already shut down");
+		}
+		acquireCapacity();
+		SendRequest request = new SendRequest(messageCreator);
+		this.queueDepth.incrementAndGet();
+		SendLane lane;
+		do {
+			lane = this.lanes.get(destination);
+			if (lane == null) {
+				lane = new SendLane(destination);
+				SendLane existingLane = this.lanes.putIfAbsent(destination, lane);
+				if (existingLane != null) {
+					lane = existingLane;
+				}
+			}
+		}
+		while (!lane.offer(request));
+		if (lane.running.compareAndSet(false, true)) {
+			startLane(lane);
+		}
+		return request.future;
+	}
+
+	private void acquireCapacity() {
+		try {
+			if (this.enqueueTimeout < 0) {
+				this.capacity.acquire();
+			}
+			else if (!this.capacity.tryAcquire(this.enqueueTimeout, TimeUnit.MILLISECONDS)) {
+				throw new TaskRejectedException("Send buffer of AsyncJmsSender is full: " +
+						this.queueCapacity + " messages pending");
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new TaskRejectedException("Interrupted while waiting for send buffer capacity", ex);
+		}
+	}
+
+	private void startLane(SendLane lane) {
+		this.activeLaneCount.incrementAndGet();
+		try {
+			this.taskExecutor.execute(lane);
+		}
+		catch (RuntimeException ex) {
+			lane.running.set(false);
+			lane.failPending(ex);
+			lane.retireIfDrained();
+			laneStopped();
+			throw ex;
+		}
+	}
+
+	private void laneStopped() {
+		this.activeLaneCount.decrementAndGet();
+		synchronized (this.lifecycleMonitor) {
+			this.lifecycleMonitor.notifyAll();
+		}
+	}
+
+	private void completed(SendRequest request) {
+		// Update statistics first, making them consistent for callers of the future.
+		this.sentMessageCount.incrementAndGet();
+		this.queueDepth.decrementAndGet();
+		this.capacity.release();
+		request.future.complete();
+	}
+
+	private void failed(SendRequest request, Throwable ex) {
+		this.failedMessageCount.incrementAndGet();
+		this.queueDepth.decrementAndGet();
+		this.capacity.release();
+		request.future.fail(ex);
+	}
+
+	private void flushed(long batchStart) {
+		this.flushCount.incrementAndGet();
+		this.totalFlushLatency.addAndGet(System.currentTimeMillis() - batchStart);
+	}
+
+
+	/**
+	 * Worker for a specific destination, sending its pending messages through a
+	 * single Session for as long as messages keep arriving.
+	 */
+	private class SendLane implements Runnable {
+
+		private final Object destination;
+
+		private final BlockingQueue<SendRequest> queue = new LinkedBlockingQueue<SendRequest>();
+
+		private final AtomicBoolean running = new AtomicBoolean();
+
+		private boolean retired = false;
+
+		/** Whether the current attempt has taken a request off the queue (worker thread only) */
+		private boolean requestTaken;
+
+		public SendLane(Object destination) {
+			this.destination = destination;
+		}
+
+		/**
+		 * Add the given request to this lane's queue, unless the lane has been
+		 * retired already, in which case the caller needs to obtain a fresh lane.
+		 */
+		public synchronized boolean offer(SendRequest request) {
+			if (this.retired) {
+				return false;
+			}
+			this.queue.add(request);
+			return true;
+		}
+
+		/**
+		 * Remove this lane from the sender once its queue has been drained and no
+		 * worker is running for it, preventing further requests from being offered.
+		 */
+		public synchronized void retireIfDrained() {
+			if (this.queue.isEmpty() && !this.running.get()) {
+				this.retired = true;
+				lanes.remove(this.destination, this);
+			}
+		}
+
+		public void run() {
+			try {
+				do {
+					this.requestTaken = false;
+					try {
+						jmsTemplate.execute(new SessionCallback<Object>() {
+							public Object doInJms(Session session) throws JMSException {
+								processMessages(session);
+								return null;
+							}
+						}, false);
+					}
+					catch (Throwable ex) {
+						if (this.requestTaken) {
+							// Only the messages in flight have failed: retry the rest with a fresh Session.
+							logger.warn("Failed to send JMS messages to " + this + " - retrying pending messages", ex);
+						}
+						else {
+							logger.warn("Failed to send JMS messages to " + this + " - failing pending messages", ex);
+							failPending(new TaskRejectedException("Sending to " + this + " aborted", ex));
+						}
+					}
+					this.running.set(false);
+				}
+				while (!this.queue.isEmpty() && this.running.compareAndSet(false, true));
+			}
+			finally {
+				retireIfDrained();
+				laneStopped();
+			}
+		}
+
+		private void processMessages(Session session) throws JMSException {
+			Destination dest = (this.destination instanceof Destination ? (Destination) this.destination :
+					jmsTemplate.getDestinationResolver().resolveDestinationName(
+							session, (String) this.destination, jmsTemplate.isPubSubDomain()));
+			MessageProducer producer = jmsTemplate.createProducer(session, dest);
+			List<SendRequest> batch = new ArrayList<SendRequest>();
+			try {
+				boolean transacted = session.getTransacted();
+				long batchStart = 0;
+				long lastActivity = System.currentTimeMillis();
+				while (true) {
+					long now = System.currentTimeMillis();
+					long pollTimeout = (batch.isEmpty() ? MAX_POLL_INTERVAL :
+							Math.min(batchStart + commitInterval - now, MAX_POLL_INTERVAL));
+					SendRequest request = (pollTimeout > 0 ?
+							this.queue.poll(pollTimeout, TimeUnit.MILLISECONDS) : this.queue.poll());
+					if (request != null) {
+						this.requestTaken = true;
+						lastActivity = System.currentTimeMillis();
+						Message message;
+						try {
+							message = request.messageCreator.createMessage(session);
+						}
+						catch (RuntimeException ex) {
+							failed(request, ex);
+							continue;
+						}
+						if (logger.isDebugEnabled()) {
+							logger.debug("Sending created message: " + message);
+						}
+						try {
+							jmsTemplate.doSend(producer, message);
+						}
+						catch (JMSException ex) {
+							batch.add(request);
+							rollback(session, batch, ex);
+							throw ex;
+						}
+						if (transacted) {
+							if (batch.isEmpty()) {
+								batchStart = request.timestamp;
+							}
+							batch.add(request);
+							if (batch.size() >= commitBatchSize) {
+								commit(session, batch, batchStart);
+							}
+						}
+						else {
+							completed(request);
+							flushed(request.timestamp);
+						}
+					}
+					else {
+						now = System.currentTimeMillis();
+						if (!batch.isEmpty() && (now >= batchStart + commitInterval || !active)) {
+							commit(session, batch, batchStart);
+						}
+						if (batch.isEmpty() && this.queue.isEmpty() &&
+								(!active || now - lastActivity >= laneIdleTimeout)) {
+							return;
+						}
+					}
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				JMSException jmsEx = new javax.jms.IllegalStateException(
+						"Interrupted while waiting for JMS messages to send");
+				rollback(session, batch, jmsEx);
+				throw jmsEx;
+			}
+			catch (RuntimeException ex) {
+				rollback(session, batch, ex);
+				throw ex;
+			}
+			finally {
+				JmsUtils.closeMessageProducer(producer);
+			}
+		}
+
+		private void commit(Session session, List<SendRequest> batch, long batchStart) throws JMSException {
+			try {
+				JmsUtils.commitIfNecessary(session);
+			}
+			catch (JMSException ex) {
+				rollback(session, batch, ex);
+				throw ex;
+			}
+			for (SendRequest request : batch) {
+				completed(request);
+			}
+			batch.clear();
+			flushed(batchStart);
+		}
+
+		private void rollback(Session session, List<SendRequest> batch, Exception ex) {
+			try {
+				if (session.getTransacted()) {
+					JmsUtils.rollbackIfNecessary(session);
+				}
+			}
+			catch (Throwable ex2) {
+				logger.debug("Could not roll back JMS Session after send failure", ex2);
+			}
+			Exception cause = (ex instanceof JMSException ? JmsUtils.convertJmsAccessException((JMSException) ex) : ex);
+			for (SendRequest request : batch) {
+				failed(request, cause);
+			}
+			batch.clear();
+		}
+
+		public void failPending(Throwable ex) {
+			SendRequest request;
+			while ((request = this.queue.poll()) != null) {
+				failed(request, ex);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return "destination [" + this.destination + "]";
+		}
+	}
+
+
+	/**
+	 * Holder for a pending message and its future.
+	 */
+	private static class SendRequest {
+
+		private final MessageCreator messageCreator;
+
+		private final long timestamp = System.currentTimeMillis();
+
+		private final SendFuture future = new SendFuture();
+
+		public SendRequest(MessageCreator messageCreator) {
+			this.messageCreator = messageCreator;
+		}
+	}
+
+
+	/**
+	 * Future for a pending message, completed by the sending worker.
+	 */
+	private static class SendFuture extends FutureTask<Void> {
+
+		private static final Callable<Void> NO_OP = new Callable<Void>() {
+			public Void call() {
+				return null;
+			}
+		};
+
+		public SendFuture() {
+			super(NO_OP);
+		}
+
+		public void complete() {
+			set(null);
+		}
+
+		public void fail(Throwable ex) {
+			setException(ex);
+		}
+	}
+
+}
@@ -16,6 +16,9 @@
 
 package org.springframework.jms.listener;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.jms.Connection;
 import javax.jms.Destination;
 import javax.jms.JMSException;
@@ -34,6 +37,7 @@ import org.springframework.transaction.support.DefaultTransactionDefinition;
 import org.springframework.transaction.support.ResourceTransactionManager;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.util.Assert;
 
 /**
  * Base class for listener container implementations which are based on polling.
@@ -95,6 +99,10 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 
 	private long receiveTimeout = DEFAULT_RECEIVE_TIMEOUT;
 
+	private int batchSize = 1;
+
+	private long batchTimeout = 0;
+
 	private volatile Boolean commitAfterNoMessageReceived;
 
 
@@ -186,6 +194,56 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 		this.receiveTimeout = receiveTimeout;
 	}
 
+	/**
+	 * Specify the maximum number of messages to receive and process as one batch,
+	 * within a single transaction or acknowledgement cycle. Default is 1, that is,
+	 * no batching.
+	 * <p>With a value greater than 1, the listener container keeps draining its
+	 * consumer after the first message has been received, until the batch is full
+	 * or until the {@link #setBatchTimeout "batchTimeout"} has elapsed. The batch is
+	 * then passed to a {@link BatchMessageListener} in one go, or to any other
+	 * listener one message at a time. Either way, the container commits or
+	 * acknowledges once per batch and rolls back the entire batch on failure.
+	 * <p><b>NOTE:</b> Rollback of an entire batch requires a transacted Session or
+	 * "CLIENT_ACKNOWLEDGE" mode; with "AUTO_ACKNOWLEDGE", each message is already
+	 * acknowledged on reception, just like without batching.
+	 * @see #setBatchTimeout
+	 * @see BatchMessageListener
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize >= 1, "'batchSize' must be 1 or higher");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Return the maximum number of messages to process as one batch.
+	 */
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	/**
+	 * Set the time to wait for further messages once a batch has been started,
+	 * in <b>milliseconds</b>. Default is 0, only draining messages which are
+	 * immediately available from the consumer.
+	 * <p>Only applies in case of a {@link #setBatchSize "batchSize"} greater than 1.
+	 * Like the receive timeout, this value needs to be smaller than the
+	 * transaction timeout used by the transaction manager.
+	 * @see #setBatchSize
+	 * @see javax.jms.MessageConsumer#receiveNoWait()
+	 */
+	public void setBatchTimeout(long batchTimeout) {
+		this.batchTimeout = batchTimeout;
+	}
+
+	/**
+	 * Return the time to wait for further messages once a batch has been started,
+	 * in milliseconds.
+	 */
+	public long getBatchTimeout() {
+		return this.batchTimeout;
+	}
+
 
 	@Override
 	public void initialize() {
@@ -309,8 +367,13 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 			}
 			Message message = receiveMessage(consumerToUse);
 			if (message != null) {
+				List<Message> batch = null;
+				if (this.batchSize > 1) {
+					batch = receiveBatch(consumerToUse, message);
+				}
 				if (logger.isDebugEnabled()) {
-					logger.debug("Received message of type [" + message.getClass() + "] from consumer [" +
+					logger.debug("Received " + (batch != null ? "batch of " + batch.size() + " messages" :
+							"message of type [" + message.getClass() + "]") + " from consumer [" +
 							consumerToUse + "] of " + (transactional ? "transactional " : "") + "session [" +
 							sessionToUse + "]");
 				}
@@ -322,7 +385,12 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 							getConnectionFactory(), new LocallyExposedJmsResourceHolder(sessionToUse));
 				}
 				try {
-					doExecuteListener(sessionToUse, message);
+					if (batch != null) {
+						doExecuteListener(sessionToUse, batch);
+					}
+					else {
+						doExecuteListener(sessionToUse, message);
+					}
 				}
 				catch (Throwable ex) {
 					if (status != null) {
@@ -430,9 +498,37 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 		return (this.receiveTimeout < 0 ? consumer.receive() : consumer.receive(this.receiveTimeout));
 	}
 
+	/**
+	 * Complete a batch of messages, starting with the given first message:
+	 * draining the given consumer until the configured batch size has been
+	 * reached or the batch timeout has elapsed.
+	 * @param consumer the MessageConsumer to use
+	 * @param firstMessage the message that started the batch
+	 * @return the batch of messages, in order of reception (never empty)
+	 * @throws JMSException if thrown by JMS methods
+	 * @since 3.2.19
+	 * @see #setBatchSize
+	 * @see #setBatchTimeout
+	 */
+	protected List<Message> receiveBatch(MessageConsumer consumer, Message firstMessage) throws JMSException {
+		List<Message> batch = new ArrayList<Message>(this.batchSize);
+		batch.add(firstMessage);
+		long deadline = System.currentTimeMillis() + this.batchTimeout;
+		while (batch.size() < this.batchSize) {
+			long remaining = deadline - System.currentTimeMillis();
+			Message message = (remaining > 0 ? consumer.receive(remaining) : consumer.receiveNoWait());
+			if (message == null) {
+				break;
+			}
+			batch.add(message);
+		}
+		return batch;
+	}
+
 	/**
 	 * Template method that gets called right when a new message has been received,
-	 * before attempting to process it. Allows subclasses to react to the event
+	 * before attempting to process it. In case of batching, this method gets called
+	 * once per batch of messages. Allows subclasses to react to the event
 	 * of an actual incoming message, for example adapting their consumer count.
 	 * @param invoker the invoker object (passed through)
 	 * @param session the receiving JMS Session
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener;
+
+import java.util.List;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.Session;
+
+/**
+ * Listener contract for processing several received JMS messages in one go,
+ * together with the underlying JMS Session that received them.
+ *
+ * <p>Supported by Spring's {@link DefaultMessageListenerContainer} in combination
+ * with a {@link AbstractPollingMessageListenerContainer#setBatchSize "batchSize"}
+ * greater than 1: the container drains up to the specified number of messages
+ * from its consumer and hands them to the listener as one batch, committing or
+ * acknowledging once for the entire batch. Any exception thrown from the listener
+ * leads to a rollback (or recovery, in case of client acknowledgement) of the
+ * entire batch. Without batching, each message is passed in as a batch of one.
+ *
+ * @since 3.2.19
+ * @see AbstractPollingMessageListenerContainer#setBatchSize
+ * @see AbstractPollingMessageListenerContainer#setBatchTimeout
+ * @see org.springframework.jms.listener.adapter.MessageListenerAdapter#setDefaultBatchListenerMethod
+ */
+public interface BatchMessageListener<M extends Message> {
+
+	/**
+	 * Callback for processing a batch of received JMS messages.
+	 * @param messages the received JMS messages, in order of reception
+	 * (never {@code null} or empty)
+	 * @param session the underlying JMS Session (never {@code null})
+	 * @throws JMSException if thrown by JMS methods
+	 */
+	void onMessages(List<M> messages, Session session) throws JMSException;
+
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener;
+
+/**
+ * Immutable snapshot of the load measured by a {@link DefaultMessageListenerContainer}
+ * over one evaluation interval, as passed to a {@link ConsumerScalingPolicy}.
+ *
+ * @since 3.2.19
+ * @see DefaultMessageListenerContainer#getLastLoadStatistics()
+ */
+public class ConsumerLoadStatistics {
+
+	private final long intervalMillis;
+
+	private final long receivedMessageCount;
+
+	private final long emptyReceiveCount;
+
+	private final long processingTimeNanos;
+
+	private final int scheduledConsumerCount;
+
+	private final int activeConsumerCount;
+
+	private final int concurrentConsumers;
+
+	private final int maxConcurrentConsumers;
+
+	private final long millisSinceLastScaleUp;
+
+	private final long millisSinceLastScaleDown;
+
+
+	/**
+	 * Create a new ConsumerLoadStatistics instance.
+	 * @param intervalMillis the length of the evaluation interval
+	 * @param receivedMessageCount the number of messages received within the interval
+	 * @param emptyReceiveCount the number of receive attempts that returned no message
+	 * @param processingTimeNanos the accumulated listener processing time within the interval
+	 * @param scheduledConsumerCount the number of currently scheduled consumers
+	 * @param activeConsumerCount the number of currently active consumers
+	 * @param concurrentConsumers the container's minimum number of consumers
+	 * @param maxConcurrentConsumers the container's maximum number of consumers
+	 * @param millisSinceLastScaleUp the time since the last scale-up event
+	 * ({@code Long.MAX_VALUE} if none)
+	 * @param millisSinceLastScaleDown the time since the last scale-down event
+	 * ({@code Long.MAX_VALUE} if none)
+	 */
+	public ConsumerLoadStatistics(long intervalMillis, long receivedMessageCount, long emptyReceiveCount,
+			long processingTimeNanos, int scheduledConsumerCount, int activeConsumerCount,
+			int concurrentConsumers, int maxConcurrentConsumers,
+			long millisSinceLastScaleUp, long millisSinceLastScaleDown) {
+
+		this.intervalMillis = intervalMillis;
+		this.receivedMessageCount = receivedMessageCount;
+		this.emptyReceiveCount = emptyReceiveCount;
+		this.processingTimeNanos = processingTimeNanos;
+		this.scheduledConsumerCount = scheduledConsumerCount;
+		this.activeConsumerCount = activeConsumerCount;
+		this.concurrentConsumers = concurrentConsumers;
+		this.maxConcurrentConsumers = maxConcurrentConsumers;
+		this.millisSinceLastScaleUp = millisSinceLastScaleUp;
+		this.millisSinceLastScaleDown = millisSinceLastScaleDown;
+	}
+
+
+	/**
+	 * Return the length of the evaluation interval in milliseconds.
+	 */
+	public long getIntervalMillis() {
+		return this.intervalMillis;
+	}
+
+	/**
+	 * Return the number of messages received within the interval.
+	 */
+	public long getReceivedMessageCount() {
+		return this.receivedMessageCount;
+	}
+
+	/**
+	 * Return the number of receive attempts within the interval
+	 * that returned without a message.
+	 */
+	public long getEmptyReceiveCount() {
+		return this.emptyReceiveCount;
+	}
+
+	/**
+	 * Return the number of messages received per second within the interval.
+	 */
+	public double getReceiveRate() {
+		return (this.intervalMillis > 0 ? this.receivedMessageCount * 1000d / this.intervalMillis : 0);
+	}
+
+	/**
+	 * Return the average listener processing time per message in milliseconds.
+	 */
+	public double getAverageProcessingTime() {
+		return (this.receivedMessageCount > 0 ? this.processingTimeNanos / 1000000d / this.receivedMessageCount : 0);
+	}
+
+	/**
+	 * Return the fraction of receive attempts within the interval that
+	 * returned without a message, between 0 and 1. Returns 1 if no receive
+	 * attempt happened at all.
+	 */
+	public double getEmptyReceiveRatio() {
+		long attempts = this.receivedMessageCount + this.emptyReceiveCount;
+		return (attempts > 0 ? (double) this.emptyReceiveCount / attempts : 1);
+	}
+
+	/**
+	 * Return the number of consumers kept busy by the measured load,
+	 * i.e. the receive rate times the average processing time.
+	 */
+	public double getBusyConsumerEstimate() {
+		return getReceiveRate() * getAverageProcessingTime() / 1000;
+	}
+
+	/**
+	 * Return the number of currently scheduled consumers.
+	 */
+	public int getScheduledConsumerCount() {
+		return this.scheduledConsumerCount;
+	}
+
+	/**
+	 * Return the number of currently active consumers.
+	 */
+	public int getActiveConsumerCount() {
+		return this.activeConsumerCount;
+	}
+
+	/**
+	 * Return the container's minimum number of consumers.
+	 * @see DefaultMessageListenerContainer#getConcurrentConsumers()
+	 */
+	public int getConcurrentConsumers() {
+		return this.concurrentConsumers;
+	}
+
+	/**
+	 * Return the container's maximum number of consumers.
+	 * @see DefaultMessageListenerContainer#getMaxConcurrentConsumers()
+	 */
+	public int getMaxConcurrentConsumers() {
+		return this.maxConcurrentConsumers;
+	}
+
+	/**
+	 * Return the time in milliseconds since the container last added consumers,
+	 * or {@code Long.MAX_VALUE} if it never did.
+	 */
+	public long getMillisSinceLastScaleUp() {
+		return this.millisSinceLastScaleUp;
+	}
+
+	/**
+	 * Return the time in milliseconds since the container last removed consumers,
+	 * or {@code Long.MAX_VALUE} if it never did.
+	 */
+	public long getMillisSinceLastScaleDown() {
+		return this.millisSinceLastScaleDown;
+	}
+
+
+	@Override
+	public String toString() {
+		return "ConsumerLoadStatistics: receiveRate=" + getReceiveRate() +
+				", averageProcessingTime=" + getAverageProcessingTime() +
+				", emptyReceiveRatio=" + getEmptyReceiveRatio() +
+				", scheduledConsumers=" + this.scheduledConsumerCount +
+				", activeConsumers=" + this.activeConsumerCount;
+	}
+
+}
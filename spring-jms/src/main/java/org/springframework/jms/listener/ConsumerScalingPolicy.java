@@ -0,0 +1,45 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener;
+
+/**
+ * Strategy interface for determining the number of concurrent consumers
+ * of a {@link DefaultMessageListenerContainer}, based on the load measured
+ * over the most recent evaluation interval.
+ *
+ * <p>Invoked periodically by one of the container's consumer threads;
+ * implementations should be quick and thread-safe, and may be shared
+ * between several listener containers.
+ *
+ * @since 3.2.19
+ * @see DefaultMessageListenerContainer#setConsumerScalingPolicy
+ * @see LoadBasedConsumerScalingPolicy
+ */
+public interface ConsumerScalingPolicy {
+
+	/**
+	 * Determine the desired number of scheduled consumers for the given load.
+	 * <p>The returned value gets constrained to the container's
+	 * "concurrentConsumers" and "maxConcurrentConsumers" range.
+	 * Returning {@link ConsumerLoadStatistics#getScheduledConsumerCount()}
+	 * leaves the current number of consumers as-is.
+	 * @param statistics the load statistics for the last evaluation interval
+	 * @return the desired number of consumers
+	 */
+	int determineConsumerCount(ConsumerLoadStatistics statistics);
+
+}
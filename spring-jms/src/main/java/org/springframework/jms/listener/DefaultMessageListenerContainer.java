@@ -17,10 +17,14 @@
 package org.springframework.jms.listener;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.jms.Connection;
 import javax.jms.JMSException;
+import javax.jms.Message;
 import javax.jms.MessageConsumer;
 import javax.jms.Session;
 
@@ -94,6 +98,13 @@ import org.springframework.util.ClassUtils;
  * number of 1 consumer, otherwise you'd receive the same message multiple times on
  * the same node.
  *
+ * <p>As an alternative to the idle-based scaling heuristic, a
+ * {@link #setConsumerScalingPolicy "consumerScalingPolicy"} may be specified,
+ * sizing the number of consumers according to the measured receive rate,
+ * processing time and empty-receive ratio. Load statistics and scaling events
+ * are exposed through bean properties such as {@link #getMessageThroughput()},
+ * for example for monitoring through JMX.
+ *
  * <p><b>Note: Don't use Spring's {@link org.springframework.jms.connection.CachingConnectionFactory}
  * in combination with dynamic scaling.</b> Ideally, don't use it with a message
  * listener container at all, since it is generally preferable to let the
@@ -131,6 +142,11 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	 */
 	public static final long DEFAULT_RECOVERY_INTERVAL = 5000;
 
+	/**
+	 * The default load evaluation interval: 1000 ms = 1 second.
+	 */
+	public static final long DEFAULT_LOAD_EVALUATION_INTERVAL = 1000;
+
 
 	/**
 	 * Constant that indicates to cache no JMS resources at all.
@@ -186,10 +202,18 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 
 	private int idleTaskExecutionLimit = 1;
 
+	private ConsumerScalingPolicy consumerScalingPolicy;
+
+	private long loadEvaluationInterval = DEFAULT_LOAD_EVALUATION_INTERVAL;
+
 	private final Set<AsyncMessageListenerInvoker> scheduledInvokers = new HashSet<AsyncMessageListenerInvoker>();
 
+	private final AtomicInteger idleInvokerCount = new AtomicInteger();
+
 	private int activeInvokerCount = 0;
 
+	private int pendingInvokerRemovals = 0;
+
 	private int registeredWithDestination = 0;
 
 	private volatile boolean recovering = false;
@@ -200,6 +224,34 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 
 	private final Object recoveryMonitor = new Object();
 
+	private final AtomicLong receivedMessageCount = new AtomicLong();
+
+	private final AtomicLong emptyReceiveCount = new AtomicLong();
+
+	private final AtomicLong processingTimeNanos = new AtomicLong();
+
+	private final AtomicLong scaleUpCount = new AtomicLong();
+
+	private final AtomicLong scaleDownCount = new AtomicLong();
+
+	private volatile long nextLoadEvaluation;
+
+	private long lastLoadEvaluation;
+
+	private long lastReceivedMessageCount;
+
+	private long lastEmptyReceiveCount;
+
+	private long lastProcessingTimeNanos;
+
+	private long lastScaleUp;
+
+	private long lastScaleDown;
+
+	private volatile ConsumerLoadStatistics lastLoadStatistics;
+
+	private final Object loadEvaluationMonitor = new Object();
+
 
 	/**
 	 * Set the Spring {@code TaskExecutor} to use for running the listener threads.
@@ -481,6 +533,48 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 		}
 	}
 
+	/**
+	 * Specify a {@link ConsumerScalingPolicy} for determining the number of
+	 * consumers between "concurrentConsumers" and "maxConcurrentConsumers",
+	 * based on the load measured within each {@link #setLoadEvaluationInterval
+	 * load evaluation interval}, e.g. a {@link LoadBasedConsumerScalingPolicy}.
+	 * <p>Default is none, scaling up and down according to the
+	 * {@link #setIdleConsumerLimit "idleConsumerLimit"} and
+	 * {@link #setIdleTaskExecutionLimit "idleTaskExecutionLimit"} settings,
+	 * which are ignored once a scaling policy has been specified.
+	 * <p>The policy gets evaluated by the consumer threads themselves, once per
+	 * evaluation interval at most. Note that with a long
+	 * {@link #setReceiveTimeout "receiveTimeout"}, evaluation may happen less often.
+	 */
+	public void setConsumerScalingPolicy(ConsumerScalingPolicy consumerScalingPolicy) {
+		this.consumerScalingPolicy = consumerScalingPolicy;
+	}
+
+	/**
+	 * Return the {@link ConsumerScalingPolicy} to use, if any.
+	 */
+	public ConsumerScalingPolicy getConsumerScalingPolicy() {
+		return this.consumerScalingPolicy;
+	}
+
+	/**
+	 * Specify the interval for measuring the load of this listener container,
+	 * in milliseconds. The default is 1000 ms, that is, 1 second.
+	 * @see #getLastLoadStatistics()
+	 * @see #setConsumerScalingPolicy
+	 */
+	public void setLoadEvaluationInterval(long loadEvaluationInterval) {
+		Assert.isTrue(loadEvaluationInterval > 0, "'loadEvaluationInterval' must be larger than 0");
+		this.loadEvaluationInterval = loadEvaluationInterval;
+	}
+
+	/**
+	 * Return the interval for measuring the load of this listener container.
+	 */
+	public long getLoadEvaluationInterval() {
+		return this.loadEvaluationInterval;
+	}
+
 
 	//-------------------------------------------------------------------------
 	// Implementation of AbstractMessageListenerContainer's template methods
@@ -521,6 +615,10 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	 */
 	@Override
 	protected void doInitialize() throws JMSException {
+		synchronized (this.loadEvaluationMonitor) {
+			this.lastLoadEvaluation = System.currentTimeMillis();
+			this.nextLoadEvaluation = this.lastLoadEvaluation + this.loadEvaluationInterval;
+		}
 		synchronized (this.lifecycleMonitor) {
 			for (int i = 0; i < this.concurrentConsumers; i++) {
 				scheduleNewInvoker();
@@ -546,9 +644,11 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 				}
 				// Clear remaining scheduled invokers, possibly left over as paused tasks...
 				for (AsyncMessageListenerInvoker scheduledInvoker : this.scheduledInvokers) {
+					scheduledInvoker.setScheduled(false);
 					scheduledInvoker.clearResources();
 				}
 				this.scheduledInvokers.clear();
+				this.pendingInvokerRemovals = 0;
 			}
 		}
 		catch (InterruptedException ex) {
@@ -640,6 +740,65 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 		}
 	}
 
+	/**
+	 * Return the total number of messages received by this listener container.
+	 */
+	public final long getReceivedMessageCount() {
+		return this.receivedMessageCount.get();
+	}
+
+	/**
+	 * Return the total number of receive attempts that returned without a message.
+	 */
+	public final long getEmptyReceiveCount() {
+		return this.emptyReceiveCount.get();
+	}
+
+	/**
+	 * Return the number of messages received per second
+	 * within the last load evaluation interval.
+	 * @see #getLastLoadStatistics()
+	 */
+	public final double getMessageThroughput() {
+		ConsumerLoadStatistics statistics = this.lastLoadStatistics;
+		return (statistics != null ? statistics.getReceiveRate() : 0);
+	}
+
+	/**
+	 * Return the average listener processing time per message in milliseconds,
+	 * within the last load evaluation interval.
+	 * @see #getLastLoadStatistics()
+	 */
+	public final double getAverageProcessingTime() {
+		ConsumerLoadStatistics statistics = this.lastLoadStatistics;
+		return (statistics != null ? statistics.getAverageProcessingTime() : 0);
+	}
+
+	/**
+	 * Return the number of times that the {@link #setConsumerScalingPolicy
+	 * consumer scaling policy} added consumers.
+	 */
+	public final long getScaleUpCount() {
+		return this.scaleUpCount.get();
+	}
+
+	/**
+	 * Return the number of times that the {@link #setConsumerScalingPolicy
+	 * consumer scaling policy} removed consumers.
+	 */
+	public final long getScaleDownCount() {
+		return this.scaleDownCount.get();
+	}
+
+	/**
+	 * Return the load statistics measured within the last load evaluation
+	 * interval, or {@code null} if none have been measured yet.
+	 * @see #setLoadEvaluationInterval
+	 */
+	public final ConsumerLoadStatistics getLastLoadStatistics() {
+		return this.lastLoadStatistics;
+	}
+
 
 	/**
 	 * Create a default TaskExecutor. Called if no explicit TaskExecutor has been specified.
@@ -662,6 +821,7 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 		if (rescheduleTaskIfNecessary(invoker)) {
 			// This should always be true, since we're only calling this when active.
 			this.scheduledInvokers.add(invoker);
+			invoker.setScheduled(true);
 		}
 	}
 
@@ -684,14 +844,29 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 		this.taskExecutor.execute((Runnable) task);
 	}
 
+	/**
+	 * Counts the additional messages of a batch towards the received message count,
+	 * with {@link #messageReceived} getting called once per batch.
+	 */
+	@Override
+	protected List<Message> receiveBatch(MessageConsumer consumer, Message firstMessage) throws JMSException {
+		List<Message> batch = super.receiveBatch(consumer, firstMessage);
+		this.receivedMessageCount.addAndGet(batch.size() - 1);
+		return batch;
+	}
+
 	/**
 	 * Tries scheduling a new invoker, since we know messages are coming in...
+	 * unless a {@link #setConsumerScalingPolicy consumer scaling policy} is active.
 	 * @see #scheduleNewInvokerIfAppropriate()
 	 */
 	@Override
 	protected void messageReceived(Object invoker, Session session) {
-		((AsyncMessageListenerInvoker) invoker).setIdle(false);
-		scheduleNewInvokerIfAppropriate();
+		this.receivedMessageCount.incrementAndGet();
+		((AsyncMessageListenerInvoker) invoker).messageReceived();
+		if (this.consumerScalingPolicy == null) {
+			scheduleNewInvokerIfAppropriate();
+		}
 	}
 
 	/**
@@ -699,6 +874,7 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	 */
 	@Override
 	protected void noMessageReceived(Object invoker, Session session) {
+		this.emptyReceiveCount.incrementAndGet();
 		((AsyncMessageListenerInvoker) invoker).setIdle(true);
 	}
 
@@ -735,6 +911,9 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	 * that this invoker task has already accumulated (in a row)
 	 */
 	private boolean shouldRescheduleInvoker(int idleTaskExecutionCount) {
+		if (this.consumerScalingPolicy != null) {
+			return (this.scheduledInvokers.size() <= this.maxConcurrentConsumers && !acquireInvokerRemoval());
+		}
 		boolean superfluous =
 				(idleTaskExecutionCount >= this.idleTaskExecutionLimit && getIdleInvokerCount() > 1);
 		return (this.scheduledInvokers.size() <=
@@ -742,17 +921,116 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	}
 
 	/**
-	 * Determine whether this listener container currently has more
-	 * than one idle instance among its scheduled invokers.
+	 * Determine the number of idle instances among the scheduled invokers
+	 * of this listener container.
+	 * <p>Package-visible for testing purposes.
 	 */
-	private int getIdleInvokerCount() {
-		int count = 0;
-		for (AsyncMessageListenerInvoker invoker : this.scheduledInvokers) {
-			if (invoker.isIdle()) {
-				count++;
+	int getIdleInvokerCount() {
+		return this.idleInvokerCount.get();
+	}
+
+	/**
+	 * Claim one of the invoker removals requested by the consumer scaling policy,
+	 * as long as the number of scheduled invokers is above "concurrentConsumers".
+	 * <p>To be called with the lifecycle monitor held.
+	 * @return {@code true} if the calling invoker is supposed to shut down
+	 */
+	private boolean acquireInvokerRemoval() {
+		if (this.pendingInvokerRemovals > 0) {
+			if (this.scheduledInvokers.size() > this.concurrentConsumers) {
+				this.pendingInvokerRemovals--;
+				return true;
+			}
+			this.pendingInvokerRemovals = 0;
+		}
+		return false;
+	}
+
+	/**
+	 * Measure the load of this listener container if the current load evaluation
+	 * interval has elapsed, and apply the consumer scaling policy (if any).
+	 * <p>Called by the invokers after each receive attempt; only one of them
+	 * will actually perform the evaluation for any given interval.
+	 * @see #setLoadEvaluationInterval
+	 * @see #setConsumerScalingPolicy
+	 */
+	private void evaluateLoadIfNecessary() {
+		long now = System.currentTimeMillis();
+		if (now < this.nextLoadEvaluation) {
+			return;
+		}
+		synchronized (this.loadEvaluationMonitor) {
+			if (now < this.nextLoadEvaluation) {
+				return;
+			}
+			this.nextLoadEvaluation = now + this.loadEvaluationInterval;
+			int scheduledCount;
+			int activeCount;
+			int minCount;
+			int maxCount;
+			synchronized (this.lifecycleMonitor) {
+				scheduledCount = this.scheduledInvokers.size() - this.pendingInvokerRemovals;
+				activeCount = this.activeInvokerCount;
+				minCount = this.concurrentConsumers;
+				maxCount = this.maxConcurrentConsumers;
+			}
+			long received = this.receivedMessageCount.get();
+			long emptyReceives = this.emptyReceiveCount.get();
+			long processingTime = this.processingTimeNanos.get();
+			ConsumerLoadStatistics statistics = new ConsumerLoadStatistics(now - this.lastLoadEvaluation,
+					received - this.lastReceivedMessageCount, emptyReceives - this.lastEmptyReceiveCount,
+					processingTime - this.lastProcessingTimeNanos, scheduledCount, activeCount, minCount, maxCount,
+					(this.lastScaleUp > 0 ? now - this.lastScaleUp : Long.MAX_VALUE),
+					(this.lastScaleDown > 0 ? now - this.lastScaleDown : Long.MAX_VALUE));
+			this.lastLoadEvaluation = now;
+			this.lastReceivedMessageCount = received;
+			this.lastEmptyReceiveCount = emptyReceives;
+			this.lastProcessingTimeNanos = processingTime;
+			this.lastLoadStatistics = statistics;
+
+			if (this.consumerScalingPolicy == null || !isRunning()) {
+				return;
+			}
+			int targetCount = this.consumerScalingPolicy.determineConsumerCount(statistics);
+			targetCount = Math.max(minCount, Math.min(maxCount, targetCount));
+			if (targetCount > scheduledCount) {
+				resumePausedTasks();
+				int added = 0;
+				while (added < targetCount - scheduledCount) {
+					// Lock per invoker only, not across the entire scale-up.
+					synchronized (this.lifecycleMonitor) {
+						if (this.pendingInvokerRemovals > 0) {
+							this.pendingInvokerRemovals--;
+						}
+						else if (isRunning() && this.scheduledInvokers.size() < this.maxConcurrentConsumers) {
+							scheduleNewInvoker();
+						}
+						else {
+							break;
+						}
+					}
+					added++;
+				}
+				if (added > 0) {
+					this.lastScaleUp = now;
+					this.scaleUpCount.incrementAndGet();
+					if (logger.isDebugEnabled()) {
+						logger.debug("Raised scheduled invoker count by " + added + " - " + statistics);
+					}
+				}
+			}
+			else if (targetCount < scheduledCount) {
+				synchronized (this.lifecycleMonitor) {
+					this.pendingInvokerRemovals += (scheduledCount - targetCount);
+				}
+				this.lastScaleDown = now;
+				this.scaleDownCount.incrementAndGet();
+				if (logger.isDebugEnabled()) {
+					logger.debug("Lowering scheduled invoker count by " + (scheduledCount - targetCount) +
+							" - " + statistics);
+				}
 			}
 		}
-		return count;
 	}
 
 
@@ -979,7 +1257,11 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 
 		private int idleTaskExecutionCount = 0;
 
-		private volatile boolean idle = true;
+		private boolean idle = true;
+
+		private boolean scheduled = false;
+
+		private long messageReceivedTime;
 
 		public void run() {
 			synchronized (lifecycleMonitor) {
@@ -1037,6 +1319,7 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 					if (!shouldRescheduleInvoker(this.idleTaskExecutionCount) || !rescheduleTaskIfNecessary(this)) {
 						// We're shutting down completely.
 						scheduledInvokers.remove(this);
+						setScheduled(false);
 						if (logger.isDebugEnabled()) {
 							logger.debug("Lowered scheduled invoker count: " + scheduledInvokers.size());
 						}
@@ -1087,7 +1370,9 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 					if (wasWaiting) {
 						activeInvokerCount++;
 					}
-					if (scheduledInvokers.size() > maxConcurrentConsumers) {
+					if (scheduledInvokers.size() > maxConcurrentConsumers ||
+							(consumerScalingPolicy != null && pendingInvokerRemovals > 0)) {
+						// Leave it up to the rescheduling check to claim a pending removal.
 						active = false;
 					}
 				}
@@ -1101,7 +1386,11 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 		private boolean invokeListener() throws JMSException {
 			initResourcesIfNecessary();
 			boolean messageReceived = receiveAndExecute(this, this.session, this.consumer);
+			if (messageReceived) {
+				processingTimeNanos.addAndGet(System.nanoTime() - this.messageReceivedTime);
+			}
 			this.lastMessageSucceeded = true;
+			evaluateLoadIfNecessary();
 			return messageReceived;
 		}
 
@@ -1161,13 +1450,51 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 			return (maxMessagesPerTask < 0);
 		}
 
-		public void setIdle(boolean idle) {
-			this.idle = idle;
+		public void messageReceived() {
+			this.messageReceivedTime = System.nanoTime();
+			setIdle(false);
 		}
 
-		public boolean isIdle() {
+		/**
+		 * Mark this invoker as idle or busy, counting it towards the container's
+		 * idle invoker count for as long as it is scheduled.
+		 */
+		public synchronized void setIdle(boolean idle) {
+			if (this.idle != idle) {
+				this.idle = idle;
+				if (this.scheduled) {
+					updateIdleInvokerCount(idle);
+				}
+			}
+		}
+
+		public synchronized boolean isIdle() {
 			return this.idle;
 		}
+
+		/**
+		 * Mark this invoker as scheduled or removed, counting it towards the
+		 * container's idle invoker count for as long as it is idle.
+		 * <p>Guarded by this invoker's monitor, consistently with {@link #setIdle},
+		 * so that the count never drifts for invokers still running on shutdown.
+		 */
+		public synchronized void setScheduled(boolean scheduled) {
+			if (this.scheduled != scheduled) {
+				this.scheduled = scheduled;
+				if (this.idle) {
+					updateIdleInvokerCount(scheduled);
+				}
+			}
+		}
+
+		private void updateIdleInvokerCount(boolean increment) {
+			if (increment) {
+				idleInvokerCount.incrementAndGet();
+			}
+			else {
+				idleInvokerCount.decrementAndGet();
+			}
+		}
 	}
 
 }
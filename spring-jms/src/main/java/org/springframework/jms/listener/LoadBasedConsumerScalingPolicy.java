@@ -0,0 +1,142 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener;
+
+import org.springframework.util.Assert;
+
+/**
+ * Default {@link ConsumerScalingPolicy} implementation, sizing the consumer
+ * pool according to the measured receive rate and processing time, with the
+ * empty-receive ratio indicating saturation and idleness respectively.
+ *
+ * <p>The number of consumers required for the measured load is estimated as
+ * receive rate times average processing time (i.e. the number of consumers
+ * kept busy), divided by the {@link #setTargetUtilization target utilization}.
+ * Since the load that a saturated pool cannot keep up with is not measurable,
+ * consumers get added step by step as long as (almost) every receive attempt
+ * returns a message. Consumers only get removed once a significant share of
+ * receive attempts come back empty.
+ *
+ * <p>Separate cool-down windows for scaling up and scaling down prevent the
+ * pool from oscillating under bursty load: by default, consumers may be added
+ * once per second but only removed after 30 seconds without any scaling event.
+ *
+ * @since 3.2.19
+ * @see DefaultMessageListenerContainer#setConsumerScalingPolicy
+ */
+public class LoadBasedConsumerScalingPolicy implements ConsumerScalingPolicy {
+
+	private double targetUtilization = 0.75;
+
+	private double saturationThreshold = 0.05;
+
+	private double idleThreshold = 0.5;
+
+	private int scaleUpStep = 1;
+
+	private int scaleDownStep = 1;
+
+	private long scaleUpCooldown = 1000;
+
+	private long scaleDownCooldown = 30000;
+
+
+	/**
+	 * Set the fraction of time that each consumer is supposed to be busy
+	 * processing messages, used to derive the required number of consumers
+	 * from the measured load. Default is 0.75.
+	 */
+	public void setTargetUtilization(double targetUtilization) {
+		Assert.isTrue(targetUtilization > 0 && targetUtilization <= 1, "'targetUtilization' must be between 0 and 1");
+		this.targetUtilization = targetUtilization;
+	}
+
+	/**
+	 * Set the empty-receive ratio at or below which the consumers are considered
+	 * saturated, leading to additional consumers getting scheduled even if
+	 * the measured load does not call for them. Default is 0.05.
+	 */
+	public void setSaturationThreshold(double saturationThreshold) {
+		this.saturationThreshold = saturationThreshold;
+	}
+
+	/**
+	 * Set the empty-receive ratio at or above which consumers may be removed.
+	 * Default is 0.5.
+	 */
+	public void setIdleThreshold(double idleThreshold) {
+		this.idleThreshold = idleThreshold;
+	}
+
+	/**
+	 * Set the number of consumers to add per evaluation in case of saturation.
+	 * Default is 1.
+	 */
+	public void setScaleUpStep(int scaleUpStep) {
+		Assert.isTrue(scaleUpStep > 0, "'scaleUpStep' must be 1 or higher");
+		this.scaleUpStep = scaleUpStep;
+	}
+
+	/**
+	 * Set the maximum number of consumers to remove per evaluation.
+	 * Default is 1.
+	 */
+	public void setScaleDownStep(int scaleDownStep) {
+		Assert.isTrue(scaleDownStep > 0, "'scaleDownStep' must be 1 or higher");
+		this.scaleDownStep = scaleDownStep;
+	}
+
+	/**
+	 * Set the minimum time in milliseconds between two scale-up events.
+	 * Default is 1000.
+	 */
+	public void setScaleUpCooldown(long scaleUpCooldown) {
+		this.scaleUpCooldown = scaleUpCooldown;
+	}
+
+	/**
+	 * Set the minimum time in milliseconds between the last scaling event
+	 * (in either direction) and a scale-down event. Default is 30000.
+	 */
+	public void setScaleDownCooldown(long scaleDownCooldown) {
+		this.scaleDownCooldown = scaleDownCooldown;
+	}
+
+
+	public int determineConsumerCount(ConsumerLoadStatistics statistics) {
+		int current = statistics.getScheduledConsumerCount();
+		double emptyReceiveRatio = statistics.getEmptyReceiveRatio();
+		int required = (int) Math.ceil(statistics.getBusyConsumerEstimate() / this.targetUtilization);
+		if (statistics.getReceivedMessageCount() > 0 && emptyReceiveRatio <= this.saturationThreshold) {
+			required = Math.max(required, current + this.scaleUpStep);
+		}
+		if (required > current) {
+			if (statistics.getMillisSinceLastScaleUp() >= this.scaleUpCooldown) {
+				return required;
+			}
+		}
+		else if (required < current && emptyReceiveRatio >= this.idleThreshold) {
+			long sinceLastScaleEvent =
+					Math.min(statistics.getMillisSinceLastScaleUp(), statistics.getMillisSinceLastScaleDown());
+			if (sinceLastScaleEvent >= this.scaleDownCooldown) {
+				return Math.max(required, current - this.scaleDownStep);
+			}
+		}
+		return current;
+	}
+
+}
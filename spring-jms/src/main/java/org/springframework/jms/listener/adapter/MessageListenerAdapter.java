@@ -17,6 +17,10 @@
 package org.springframework.jms.listener.adapter;
 
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import javax.jms.Destination;
 import javax.jms.InvalidDestinationException;
 import javax.jms.JMSException;
@@ -28,6 +32,7 @@ import javax.jms.Session;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.jms.listener.BatchMessageListener;
 import org.springframework.jms.listener.SessionAwareMessageListener;
 import org.springframework.jms.listener.SubscriptionNameProvider;
 import org.springframework.jms.support.JmsUtils;
@@ -114,6 +119,17 @@ import org.springframework.util.ObjectUtils;
  *    String handleMessage(String text);
  * }</pre>
  *
+ * <p>When driven by a listener container with a
+ * {@link org.springframework.jms.listener.AbstractPollingMessageListenerContainer#setBatchSize
+ * "batchSize"} greater than 1, a delegate may handle an entire batch of messages
+ * through a {@link #ORIGINAL_DEFAULT_BATCH_LISTENER_METHOD "handleMessages"} method
+ * which accepts a {@code List} of converted message contents. Delegates without
+ * such a method simply receive the messages of a batch one at a time.
+ *
+ * <pre class="code">public interface BatchMessageContentsDelegate {
+ *    void handleMessages(List&lt;String&gt; texts);
+ * }</pre>
+ *
  * For further examples and discussion please do refer to the Spring
  * reference documentation which describes this class (and it's attendant
  * XML configuration) in detail.
@@ -122,20 +138,27 @@ import org.springframework.util.ObjectUtils;
  * @since 2.0
  * @see #setDelegate
  * @see #setDefaultListenerMethod
+ * @see #setDefaultBatchListenerMethod
  * @see #setDefaultResponseDestination
  * @see #setMessageConverter
  * @see org.springframework.jms.support.converter.SimpleMessageConverter
  * @see org.springframework.jms.listener.SessionAwareMessageListener
+ * @see org.springframework.jms.listener.BatchMessageListener
  * @see org.springframework.jms.listener.AbstractMessageListenerContainer#setMessageListener
  */
-public class MessageListenerAdapter
-		implements MessageListener, SessionAwareMessageListener<Message>, SubscriptionNameProvider {
+public class MessageListenerAdapter implements MessageListener, SessionAwareMessageListener<Message>,
+		BatchMessageListener<Message>, SubscriptionNameProvider {
 
 	/**
 	 * Out-of-the-box value for the default listener method: "handleMessage".
 	 */
 	public static final String ORIGINAL_DEFAULT_LISTENER_METHOD = "handleMessage";
 
+	/**
+	 * Out-of-the-box value for the default batch listener method: "handleMessages".
+	 */
+	public static final String ORIGINAL_DEFAULT_BATCH_LISTENER_METHOD = "handleMessages";
+
 
 	/** Logger available to subclasses */
 	protected final Log logger = LogFactory.getLog(getClass());
@@ -144,12 +167,17 @@ public class MessageListenerAdapter
 
 	private String defaultListenerMethod = ORIGINAL_DEFAULT_LISTENER_METHOD;
 
+	private String defaultBatchListenerMethod = ORIGINAL_DEFAULT_BATCH_LISTENER_METHOD;
+
 	private Object defaultResponseDestination;
 
 	private DestinationResolver destinationResolver = new DynamicDestinationResolver();
 
 	private MessageConverter messageConverter;
 
+	/** Batch listener method resolved for the most recently used delegate class */
+	private volatile BatchListenerMethodResolution batchListenerMethodResolution;
+
 
 	/**
 	 * Create a new {@link MessageListenerAdapter} with default settings.
@@ -205,6 +233,25 @@ public class MessageListenerAdapter
 		return this.defaultListenerMethod;
 	}
 
+	/**
+	 * Specify the name of the default listener method to delegate batches of
+	 * messages to, accepting a {@code List} of converted message contents.
+	 * Out-of-the-box value is {@link #ORIGINAL_DEFAULT_BATCH_LISTENER_METHOD "handleMessages"}.
+	 * <p>If the delegate does not declare such a method, each message of a batch
+	 * gets passed to the regular {@link #setDefaultListenerMethod listener method}.
+	 * @see #getBatchListenerMethodName
+	 */
+	public void setDefaultBatchListenerMethod(String defaultBatchListenerMethod) {
+		this.defaultBatchListenerMethod = defaultBatchListenerMethod;
+	}
+
+	/**
+	 * Return the name of the default batch listener method to delegate to.
+	 */
+	protected String getDefaultBatchListenerMethod() {
+		return this.defaultBatchListenerMethod;
+	}
+
 	/**
 	 * Set the default destination to send response messages to. This will be applied
 	 * in case of a request message that does not carry a "JMSReplyTo" field.
@@ -361,6 +408,49 @@ public class MessageListenerAdapter
 		}
 	}
 
+	/**
+	 * Spring {@link BatchMessageListener} entry point.
+	 * <p>Delegates the entire batch to the target batch listener method, with
+	 * appropriate conversion of each message, if the delegate declares such a
+	 * method. Otherwise, each message gets handled individually through
+	 * {@link #onMessage(javax.jms.Message, javax.jms.Session)}.
+	 * <p><b>Note:</b> Does not support sending response messages based on
+	 * result objects returned from batch listener methods.
+	 * @param messages the incoming JMS messages
+	 * @param session the JMS session to operate on
+	 * @throws JMSException if thrown by JMS API methods
+	 * @see #getBatchListenerMethodName
+	 */
+	@SuppressWarnings("unchecked")
+	public void onMessages(List<Message> messages, Session session) throws JMSException {
+		// Check whether the delegate is a BatchMessageListener impl itself.
+		// In that case, the adapter will simply act as a pass-through.
+		Object delegate = getDelegate();
+		if (delegate != this && delegate instanceof BatchMessageListener) {
+			((BatchMessageListener) delegate).onMessages(messages, session);
+			return;
+		}
+
+		String methodName = getBatchListenerMethodName(messages);
+		if (methodName == null) {
+			for (Message message : messages) {
+				onMessage(message, session);
+			}
+			return;
+		}
+
+		// Invoke the batch handler method with the converted messages.
+		List<Object> convertedMessages = new ArrayList<Object>(messages.size());
+		for (Message message : messages) {
+			convertedMessages.add(extractMessage(message));
+		}
+		Object result = invokeListenerMethod(methodName, new Object[] {convertedMessages});
+		if (result != null && logger.isWarnEnabled()) {
+			logger.warn("Ignoring result object returned from batch listener method '" + methodName +
+					"': " + result);
+		}
+	}
+
 	public String getSubscriptionName() {
 		Object delegate = getDelegate();
 		if (delegate != this && delegate instanceof SubscriptionNameProvider) {
@@ -425,6 +515,49 @@ public class MessageListenerAdapter
 		return getDefaultListenerMethod();
 	}
 
+	/**
+	 * Determine the name of the listener method that is supposed to
+	 * handle the given batch of messages.
+	 * <p>The default implementation returns the configured default batch listener
+	 * method if the delegate declares a public method of that name with a single
+	 * {@code List}-compatible parameter, and {@code null} otherwise. The result is
+	 * cached for the delegate class and method name.
+	 * @param originalMessages the JMS request messages
+	 * @return the name of the batch listener method, or {@code null} to
+	 * handle each message individually
+	 * @throws JMSException if thrown by JMS API methods
+	 * @see #setDefaultBatchListenerMethod
+	 */
+	protected String getBatchListenerMethodName(List<Message> originalMessages) throws JMSException {
+		String methodName = getDefaultBatchListenerMethod();
+		if (methodName == null) {
+			return null;
+		}
+		Class<?> delegateClass = getDelegate().getClass();
+		BatchListenerMethodResolution resolution = this.batchListenerMethodResolution;
+		if (resolution == null || !resolution.matches(delegateClass, methodName)) {
+			resolution = new BatchListenerMethodResolution(delegateClass, methodName,
+					hasBatchListenerMethod(delegateClass, methodName));
+			this.batchListenerMethodResolution = resolution;
+		}
+		return (resolution.declared ? methodName : null);
+	}
+
+	/**
+	 * Check for a public method of the given name that takes a single List or
+	 * Collection parameter, as opposed to a generic {@code Object} parameter.
+	 */
+	private boolean hasBatchListenerMethod(Class<?> delegateClass, String methodName) {
+		for (Method method : delegateClass.getMethods()) {
+			Class<?>[] paramTypes = method.getParameterTypes();
+			if (method.getName().equals(methodName) && paramTypes.length == 1 &&
+					paramTypes[0].isAssignableFrom(List.class) && Collection.class.isAssignableFrom(paramTypes[0])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Build an array of arguments to be passed into the target listener method.
 	 * Allows for multiple method arguments to be built from a single message object.
@@ -650,4 +783,27 @@ public class MessageListenerAdapter
 		}
 	}
 
+
+	/**
+	 * Whether a given delegate class declares a batch listener method of a given name.
+	 */
+	private static class BatchListenerMethodResolution {
+
+		private final Class<?> delegateClass;
+
+		private final String methodName;
+
+		private final boolean declared;
+
+		public BatchListenerMethodResolution(Class<?> delegateClass, String methodName, boolean declared) {
+			this.delegateClass = delegateClass;
+			this.methodName = methodName;
+			this.declared = declared;
+		}
+
+		public boolean matches(Class<?> delegateClass, String methodName) {
+			return (this.delegateClass == delegateClass && this.methodName.equals(methodName));
+		}
+	}
+
 }
@@ -16,6 +16,10 @@
 
 package org.springframework.jms.remoting;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import javax.jms.BytesMessage;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.JMSException;
@@ -38,6 +42,7 @@ import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.jms.connection.ConnectionFactoryUtils;
 import org.springframework.jms.support.JmsUtils;
+import org.springframework.jms.support.converter.MessageConversionException;
 import org.springframework.jms.support.converter.MessageConverter;
 import org.springframework.jms.support.converter.SimpleMessageConverter;
 import org.springframework.jms.support.destination.DestinationResolver;
@@ -48,6 +53,7 @@ import org.springframework.remoting.support.DefaultRemoteInvocationFactory;
 import org.springframework.remoting.support.RemoteInvocation;
 import org.springframework.remoting.support.RemoteInvocationFactory;
 import org.springframework.remoting.support.RemoteInvocationResult;
+import org.springframework.remoting.support.RemoteInvocationSerializer;
 import org.springframework.util.ClassUtils;
 
 /**
@@ -87,6 +93,8 @@ public class JmsInvokerClientInterceptor implements MethodInterceptor, Initializ
 
 	private MessageConverter messageConverter = new SimpleMessageConverter();
 
+	private RemoteInvocationSerializer remoteInvocationSerializer;
+
 	private long receiveTimeout = 0;
 
 
@@ -160,6 +168,19 @@ public class JmsInvokerClientInterceptor implements MethodInterceptor, Initializ
 		this.messageConverter = (messageConverter != null ? messageConverter : new SimpleMessageConverter());
 	}
 
+	/**
+	 * Specify a {@link RemoteInvocationSerializer} to use for writing request
+	 * messages and reading response messages as JMS {@link javax.jms.BytesMessage
+	 * BytesMessages}, e.g. a
+	 * {@link org.springframework.remoting.support.CompactRemoteInvocationSerializer}.
+	 * <p>Default is none, using the {@link #setMessageConverter MessageConverter}.
+	 * Note that the service exporter needs to be configured with a compatible serializer.
+	 * @see JmsInvokerServiceExporter#setRemoteInvocationSerializer
+	 */
+	public void setRemoteInvocationSerializer(RemoteInvocationSerializer remoteInvocationSerializer) {
+		this.remoteInvocationSerializer = remoteInvocationSerializer;
+	}
+
 	/**
 	 * Set the timeout to use for receiving the response message for a request
 	 * (in milliseconds).
@@ -317,13 +338,26 @@ public class JmsInvokerClientInterceptor implements MethodInterceptor, Initializ
 	/**
 	 * Create the invoker request message.
 	 * <p>The default implementation creates a JMS ObjectMessage
-	 * for the given RemoteInvocation object.
+	 * for the given RemoteInvocation object (or a BytesMessage in case of a
+	 * {@link #setRemoteInvocationSerializer RemoteInvocationSerializer}).
 	 * @param session the current JMS Session
 	 * @param invocation the remote invocation to send
 	 * @return the JMS Message to send
 	 * @throws JMSException if the message could not be created
 	 */
 	protected Message createRequestMessage(Session session, RemoteInvocation invocation) throws JMSException {
+		if (this.remoteInvocationSerializer != null) {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream(1024);
+			try {
+				this.remoteInvocationSerializer.writeRemoteInvocation(invocation, baos);
+			}
+			catch (IOException ex) {
+				throw new MessageConversionException("Could not serialize remote invocation", ex);
+			}
+			BytesMessage message = session.createBytesMessage();
+			message.writeBytes(baos.toByteArray());
+			return message;
+		}
 		return this.messageConverter.toMessage(invocation, session);
 	}
 
@@ -377,7 +411,8 @@ public class JmsInvokerClientInterceptor implements MethodInterceptor, Initializ
 	/**
 	 * Extract the invocation result from the response message.
 	 * <p>The default implementation expects a JMS ObjectMessage carrying
-	 * a RemoteInvocationResult object. If an invalid response message is
+	 * a RemoteInvocationResult object (or a BytesMessage in case of a
+	 * {@link #setRemoteInvocationSerializer RemoteInvocationSerializer}). If an invalid response message is
 	 * encountered, the {@code onInvalidResponse} callback gets invoked.
 	 * @param responseMessage the response message
 	 * @return the invocation result
@@ -385,6 +420,24 @@ public class JmsInvokerClientInterceptor implements MethodInterceptor, Initializ
 	 * @see #onInvalidResponse
 	 */
 	protected RemoteInvocationResult extractInvocationResult(Message responseMessage) throws JMSException {
+		if (this.remoteInvocationSerializer != null) {
+			if (responseMessage instanceof BytesMessage) {
+				BytesMessage message = (BytesMessage) responseMessage;
+				byte[] bytes = new byte[(int) message.getBodyLength()];
+				message.readBytes(bytes);
+				try {
+					return this.remoteInvocationSerializer.readRemoteInvocationResult(
+							new ByteArrayInputStream(bytes), null);
+				}
+				catch (IOException ex) {
+					throw new MessageConversionException("Could not deserialize remote invocation result", ex);
+				}
+				catch (ClassNotFoundException ex) {
+					throw new MessageConversionException("Could not deserialize remote invocation result", ex);
+				}
+			}
+			return onInvalidResponse(responseMessage);
+		}
 		Object content = this.messageConverter.fromMessage(responseMessage);
 		if (content instanceof RemoteInvocationResult) {
 			return (RemoteInvocationResult) content;
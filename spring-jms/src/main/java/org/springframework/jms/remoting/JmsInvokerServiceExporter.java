@@ -16,6 +16,10 @@
 
 package org.springframework.jms.remoting;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import javax.jms.BytesMessage;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageFormatException;
@@ -25,11 +29,13 @@ import javax.jms.Session;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.jms.listener.SessionAwareMessageListener;
 import org.springframework.jms.support.JmsUtils;
+import org.springframework.jms.support.converter.MessageConversionException;
 import org.springframework.jms.support.converter.MessageConverter;
 import org.springframework.jms.support.converter.SimpleMessageConverter;
 import org.springframework.remoting.support.RemoteInvocation;
 import org.springframework.remoting.support.RemoteInvocationBasedExporter;
 import org.springframework.remoting.support.RemoteInvocationResult;
+import org.springframework.remoting.support.RemoteInvocationSerializer;
 
 /**
  * JMS message listener that exports the specified service bean as a
@@ -56,6 +62,8 @@ public class JmsInvokerServiceExporter extends RemoteInvocationBasedExporter
 
 	private MessageConverter messageConverter = new SimpleMessageConverter();
 
+	private RemoteInvocationSerializer remoteInvocationSerializer;
+
 	private boolean ignoreInvalidRequests = true;
 
 	private Object proxy;
@@ -77,6 +85,19 @@ public class JmsInvokerServiceExporter extends RemoteInvocationBasedExporter
 		this.messageConverter = (messageConverter != null ? messageConverter : new SimpleMessageConverter());
 	}
 
+	/**
+	 * Specify a {@link RemoteInvocationSerializer} to use for reading request
+	 * messages and writing response messages as JMS {@link javax.jms.BytesMessage
+	 * BytesMessages}, e.g. a
+	 * {@link org.springframework.remoting.support.CompactRemoteInvocationSerializer}.
+	 * <p>Default is none, using the {@link #setMessageConverter MessageConverter}.
+	 * Note that the client side needs to be configured with a compatible serializer.
+	 * @see JmsInvokerClientInterceptor#setRemoteInvocationSerializer
+	 */
+	public void setRemoteInvocationSerializer(RemoteInvocationSerializer remoteInvocationSerializer) {
+		this.remoteInvocationSerializer = remoteInvocationSerializer;
+	}
+
 	/**
 	 * Set whether invalidly formatted messages should be discarded.
 	 * Default is "true".
@@ -110,6 +131,24 @@ public class JmsInvokerServiceExporter extends RemoteInvocationBasedExporter
 	 * @throws javax.jms.JMSException in case of message access failure
 	 */
 	protected RemoteInvocation readRemoteInvocation(Message requestMessage) throws JMSException {
+		if (this.remoteInvocationSerializer != null) {
+			if (requestMessage instanceof BytesMessage) {
+				BytesMessage message = (BytesMessage) requestMessage;
+				byte[] bytes = new byte[(int) message.getBodyLength()];
+				message.readBytes(bytes);
+				try {
+					return this.remoteInvocationSerializer.readRemoteInvocation(
+							new ByteArrayInputStream(bytes), getBeanClassLoader());
+				}
+				catch (IOException ex) {
+					throw new MessageConversionException("Could not deserialize remote invocation", ex);
+				}
+				catch (ClassNotFoundException ex) {
+					throw new MessageConversionException("Could not deserialize remote invocation", ex);
+				}
+			}
+			return onInvalidRequest(requestMessage);
+		}
 		Object content = this.messageConverter.fromMessage(requestMessage);
 		if (content instanceof RemoteInvocation) {
 			return (RemoteInvocation) content;
@@ -141,7 +180,8 @@ public class JmsInvokerServiceExporter extends RemoteInvocationBasedExporter
 	/**
 	 * Create the invocation result response message.
 	 * <p>The default implementation creates a JMS ObjectMessage for the given
-	 * RemoteInvocationResult object. It sets the response's correlation id
+	 * RemoteInvocationResult object (or a BytesMessage in case of a
+	 * {@link #setRemoteInvocationSerializer RemoteInvocationSerializer}). It sets the response's correlation id
 	 * to the request message's correlation id, if any; otherwise to the
 	 * request message id.
 	 * @param request the original request message
@@ -153,7 +193,22 @@ public class JmsInvokerServiceExporter extends RemoteInvocationBasedExporter
 	protected Message createResponseMessage(Message request, Session session, RemoteInvocationResult result)
 			throws JMSException {
 
-		Message response = this.messageConverter.toMessage(result, session);
+		Message response;
+		if (this.remoteInvocationSerializer != null) {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream(1024);
+			try {
+				this.remoteInvocationSerializer.writeRemoteInvocationResult(result, baos);
+			}
+			catch (IOException ex) {
+				throw new MessageConversionException("Could not serialize remote invocation result", ex);
+			}
+			BytesMessage message = session.createBytesMessage();
+			message.writeBytes(baos.toByteArray());
+			response = message;
+		}
+		else {
+			response = this.messageConverter.toMessage(result, session);
+		}
 		String correlation = request.getJMSCorrelationID();
 		if (correlation == null) {
 			correlation = request.getJMSMessageID();
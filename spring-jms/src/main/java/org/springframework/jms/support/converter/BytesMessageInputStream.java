@@ -0,0 +1,142 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.jms.support.converter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+
+/**
+ * {@link InputStream} that reads straight from the body of a JMS {@link BytesMessage},
+ * allowing converters to parse message content without copying it into a byte array
+ * of the full body length first.
+ *
+ * <p>Small reads are served from a per-thread transfer buffer, filled through
+ * {@link BytesMessage#readBytes(byte[])}; reads into a large target array go to
+ * the message directly. The stream should be {@link #close() closed} after use in
+ * order to release the buffer; this does not affect the message itself.
+ *
+ * @since 3.2.19
+ * @see BytesMessageOutputStream
+ */
+public class BytesMessageInputStream extends InputStream {
+
+	private final BytesMessage message;
+
+	private byte[] buffer;
+
+	private int pos;
+
+	private int limit;
+
+	private boolean endOfMessage;
+
+	private boolean closed;
+
+
+	/**
+	 * Create a new BytesMessageInputStream for the given message.
+	 * @param message the BytesMessage to read from (in read-only mode)
+	 */
+	public BytesMessageInputStream(BytesMessage message) {
+		this.message = message;
+	}
+
+
+	@Override
+	public int read() throws IOException {
+		if (this.pos >= this.limit && !fillBuffer()) {
+			return -1;
+		}
+		return (this.buffer[this.pos++] & 0xFF);
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		int available = this.limit - this.pos;
+		if (available <= 0) {
+			if (off == 0 && len == b.length && len >= MessageBodyBuffers.BUFFER_SIZE) {
+				// Large read into an entire array: no need to go through our buffer.
+				return readFromMessage(b);
+			}
+			if (!fillBuffer()) {
+				return -1;
+			}
+			available = this.limit;
+		}
+		int count = Math.min(len, available);
+		System.arraycopy(this.buffer, this.pos, b, off, count);
+		this.pos += count;
+		return count;
+	}
+
+	@Override
+	public int available() {
+		return (this.limit - this.pos);
+	}
+
+	@Override
+	public void close() {
+		this.closed = true;
+		if (this.buffer != null) {
+			MessageBodyBuffers.release(this.buffer);
+			this.buffer = null;
+		}
+		this.pos = 0;
+		this.limit = 0;
+	}
+
+
+	private boolean fillBuffer() throws IOException {
+		if (this.buffer == null) {
+			if (this.closed) {
+				throw new IOException("BytesMessageInputStream has been closed already");
+			}
+			this.buffer = MessageBodyBuffers.obtain();
+		}
+		int count = readFromMessage(this.buffer);
+		if (count <= 0) {
+			return false;
+		}
+		this.pos = 0;
+		this.limit = count;
+		return true;
+	}
+
+	private int readFromMessage(byte[] b) throws IOException {
+		if (this.endOfMessage) {
+			return -1;
+		}
+		try {
+			int count = this.message.readBytes(b);
+			if (count <= 0) {
+				this.endOfMessage = true;
+				return -1;
+			}
+			return count;
+		}
+		catch (JMSException ex) {
+			IOException ioEx = new IOException("Could not read from BytesMessage: " + ex.getMessage());
+			ioEx.initCause(ex);
+			throw ioEx;
+		}
+	}
+
+}
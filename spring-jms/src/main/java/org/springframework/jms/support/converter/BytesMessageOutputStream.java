@@ -0,0 +1,124 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.jms.support.converter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+
+/**
+ * {@link OutputStream} that writes straight into the body of a JMS {@link BytesMessage},
+ * allowing converters to stream content into a message without building up an
+ * intermediate byte array first.
+ *
+ * <p>Writes are collected in a per-thread transfer buffer which gets passed on to
+ * {@link BytesMessage#writeBytes(byte[], int, int)} whenever it is full; large writes
+ * go to the message directly. The stream needs to be {@link #close() closed} in order
+ * to write any remaining content and to release the buffer; this does not affect
+ * the message itself.
+ *
+ * @since 3.2.19
+ * @see BytesMessageInputStream
+ */
+public class BytesMessageOutputStream extends OutputStream {
+
+	private final BytesMessage message;
+
+	private byte[] buffer;
+
+	private int count;
+
+
+	/**
+	 * Create a new BytesMessageOutputStream for the given message.
+	 * @param message the BytesMessage to write to (in write-only mode)
+	 */
+	public BytesMessageOutputStream(BytesMessage message) {
+		this.message = message;
+		this.buffer = MessageBodyBuffers.obtain();
+	}
+
+
+	@Override
+	public void write(int b) throws IOException {
+		assertOpen();
+		if (this.count == this.buffer.length) {
+			flushBuffer();
+		}
+		this.buffer[this.count++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		assertOpen();
+		if (len >= this.buffer.length) {
+			flushBuffer();
+			writeToMessage(b, off, len);
+			return;
+		}
+		if (len > this.buffer.length - this.count) {
+			flushBuffer();
+		}
+		System.arraycopy(b, off, this.buffer, this.count, len);
+		this.count += len;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		assertOpen();
+		flushBuffer();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (this.buffer != null) {
+			try {
+				flushBuffer();
+			}
+			finally {
+				MessageBodyBuffers.release(this.buffer);
+				this.buffer = null;
+			}
+		}
+	}
+
+
+	private void assertOpen() throws IOException {
+		if (this.buffer == null) {
+			throw new IOException("BytesMessageOutputStream has been closed already");
+		}
+	}
+
+	private void flushBuffer() throws IOException {
+		if (this.count > 0) {
+			writeToMessage(this.buffer, 0, this.count);
+			this.count = 0;
+		}
+	}
+
+	private void writeToMessage(byte[] b, int off, int len) throws IOException {
+		try {
+			this.message.writeBytes(b, off, len);
+		}
+		catch (JMSException ex) {
+			IOException ioEx = new IOException("Could not write to BytesMessage: " + ex.getMessage());
+			ioEx.initCause(ex);
+			throw ioEx;
+		}
+	}
+
+}
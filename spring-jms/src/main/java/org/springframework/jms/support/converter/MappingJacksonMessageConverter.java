@@ -16,11 +16,14 @@
 
 package org.springframework.jms.support.converter;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.util.HashMap;
 import java.util.Map;
 import javax.jms.BytesMessage;
@@ -214,12 +217,22 @@ public class MappingJacksonMessageConverter implements MessageConverter, BeanCla
 	protected BytesMessage mapToBytesMessage(Object object, Session session, ObjectMapper objectMapper)
 			throws JMSException, IOException {
 
-		ByteArrayOutputStream bos = new ByteArrayOutputStream(1024);
-		OutputStreamWriter writer = new OutputStreamWriter(bos, this.encoding);
-		objectMapper.writeValue(writer, object);
-
 		BytesMessage message = session.createBytesMessage();
-		message.writeBytes(bos.toByteArray());
+		OutputStream out = new BytesMessageOutputStream(message);
+		try {
+			if (DEFAULT_ENCODING.equalsIgnoreCase(this.encoding)) {
+				// Jackson writes UTF-8 straight into the message body.
+				objectMapper.writeValue(out, object);
+			}
+			else {
+				Writer writer = new OutputStreamWriter(out, this.encoding);
+				objectMapper.writeValue(writer, object);
+				writer.close();
+			}
+		}
+		finally {
+			out.close();
+		}
 		if (this.encodingPropertyName != null) {
 			message.setStringProperty(this.encodingPropertyName, this.encoding);
 		}
@@ -314,15 +327,20 @@ public class MappingJacksonMessageConverter implements MessageConverter, BeanCla
 		if (this.encodingPropertyName != null && message.propertyExists(this.encodingPropertyName)) {
 			encoding = message.getStringProperty(this.encodingPropertyName);
 		}
-		byte[] bytes = new byte[(int) message.getBodyLength()];
-		message.readBytes(bytes);
+		InputStream in = new BytesMessageInputStream(message);
 		try {
-			String body = new String(bytes, encoding);
-			return this.objectMapper.readValue(body, targetJavaType);
+			if (DEFAULT_ENCODING.equalsIgnoreCase(encoding)) {
+				// Let Jackson parse UTF-8 straight from the message body.
+				return this.objectMapper.readValue(in, targetJavaType);
+			}
+			return this.objectMapper.readValue(new InputStreamReader(in, encoding), targetJavaType);
 		}
 		catch (UnsupportedEncodingException ex) {
 			throw new MessageConversionException("Cannot convert bytes to String", ex);
 		}
+		finally {
+			in.close();
+		}
 	}
 
 	/**
@@ -16,9 +16,9 @@
 
 package org.springframework.jms.support.converter;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 import javax.jms.BytesMessage;
@@ -228,11 +228,14 @@ public class MarshallingMessageConverter implements MessageConverter, Initializi
 	protected BytesMessage marshalToBytesMessage(Object object, Session session, Marshaller marshaller)
 			throws JMSException, IOException, XmlMappingException {
 
-		ByteArrayOutputStream bos = new ByteArrayOutputStream(1024);
-		StreamResult streamResult = new StreamResult(bos);
-		marshaller.marshal(object, streamResult);
 		BytesMessage message = session.createBytesMessage();
-		message.writeBytes(bos.toByteArray());
+		OutputStream out = new BytesMessageOutputStream(message);
+		try {
+			marshaller.marshal(object, new StreamResult(out));
+		}
+		finally {
+			out.close();
+		}
 		return message;
 	}
 
@@ -288,11 +291,13 @@ public class MarshallingMessageConverter implements MessageConverter, Initializi
 	protected Object unmarshalFromBytesMessage(BytesMessage message, Unmarshaller unmarshaller)
 			throws JMSException, IOException, XmlMappingException {
 
-		byte[] bytes = new byte[(int) message.getBodyLength()];
-		message.readBytes(bytes);
-		ByteArrayInputStream bis = new ByteArrayInputStream(bytes);
-		StreamSource source = new StreamSource(bis);
-		return unmarshaller.unmarshal(source);
+		InputStream in = new BytesMessageInputStream(message);
+		try {
+			return unmarshaller.unmarshal(new StreamSource(in));
+		}
+		finally {
+			in.close();
+		}
 	}
 
 	/**
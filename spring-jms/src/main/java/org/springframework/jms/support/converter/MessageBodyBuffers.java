@@ -0,0 +1,60 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.jms.support.converter;
+
+import org.springframework.core.NamedThreadLocal;
+
+/**
+ * Per-thread cache of the transfer buffers used by {@link BytesMessageInputStream}
+ * and {@link BytesMessageOutputStream}, avoiding a new buffer allocation for every
+ * message conversion. A buffer is handed out exclusively until released again,
+ * so nested use on the same thread simply allocates a further buffer.
+ *
+ * @since 3.2.19
+ */
+abstract class MessageBodyBuffers {
+
+	/**
+	 * Size of the transfer buffers: 8 KB.
+	 */
+	static final int BUFFER_SIZE = 8192;
+
+	private static final ThreadLocal<byte[]> cachedBuffer =
+			new NamedThreadLocal<byte[]>("Cached JMS message body buffer");
+
+
+	/**
+	 * Obtain a transfer buffer for exclusive use by the current thread.
+	 * @return the cached buffer, or a newly allocated one
+	 */
+	static byte[] obtain() {
+		byte[] buffer = cachedBuffer.get();
+		if (buffer != null) {
+			cachedBuffer.set(null);
+			return buffer;
+		}
+		return new byte[BUFFER_SIZE];
+	}
+
+	/**
+	 * Release the given transfer buffer for reuse by the current thread.
+	 * @param buffer the buffer obtained through {@link #obtain()}
+	 */
+	static void release(byte[] buffer) {
+		cachedBuffer.set(buffer);
+	}
+
+}
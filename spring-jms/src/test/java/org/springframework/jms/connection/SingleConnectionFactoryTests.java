@@ -16,13 +16,21 @@
 
 package org.springframework.jms.connection;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.ExceptionListener;
 import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
 import javax.jms.QueueConnection;
 import javax.jms.QueueConnectionFactory;
 import javax.jms.QueueSession;
+import javax.jms.ResourceAllocationException;
 import javax.jms.Session;
 import javax.jms.TopicConnection;
 import javax.jms.TopicConnectionFactory;
@@ -393,6 +401,155 @@ public class SingleConnectionFactoryTests {
 		verify(con).close();
 	}
 
+	@Test
+	public void testCachingConnectionFactoryWithSessionWaitTimeout() throws JMSException {
+		ConnectionFactory cf = mock(ConnectionFactory.class);
+		Connection con = mock(Connection.class);
+		Session session = mock(Session.class);
+
+		given(cf.createConnection()).willReturn(con);
+		given(con.createSession(false, Session.AUTO_ACKNOWLEDGE)).willReturn(session);
+
+		CachingConnectionFactory scf = new CachingConnectionFactory(cf);
+		scf.setReconnectOnException(false);
+		scf.setSessionWaitTimeout(0);
+		Connection con1 = scf.createConnection();
+		Session session1 = con1.createSession(false, Session.AUTO_ACKNOWLEDGE);
+		try {
+			con1.createSession(false, Session.AUTO_ACKNOWLEDGE);
+			fail("Should have thrown ResourceAllocationException");
+		}
+		catch (ResourceAllocationException ex) {
+			// expected
+		}
+		session1.close();  // should be ignored
+		session1.close();  // should be ignored as well
+		Session session2 = con1.createSession(false, Session.AUTO_ACKNOWLEDGE);
+		session2.close();  // should be ignored
+
+		assertEquals(1, scf.getSessionCacheMissCount());
+		assertEquals(1, scf.getSessionCacheHitCount());
+		assertEquals(1, scf.getSessionWaitCount());
+		assertEquals(1, scf.getCachedSessionCount());
+		scf.destroy();  // should trigger actual close
+
+		assertEquals(0, scf.getCachedSessionCount());
+		verify(con, times(1)).createSession(false, Session.AUTO_ACKNOWLEDGE);
+		verify(session).close();
+		verify(con).close();
+	}
+
+	@Test
+	public void testCachingConnectionFactoryWithProducerCacheSize() throws JMSException {
+		ConnectionFactory cf = mock(ConnectionFactory.class);
+		Connection con = mock(Connection.class);
+		Session session = mock(Session.class);
+		Queue queue1 = mock(Queue.class);
+		Queue queue2 = mock(Queue.class);
+		MessageProducer producer1 = mock(MessageProducer.class);
+		MessageProducer producer2 = mock(MessageProducer.class);
+
+		given(cf.createConnection()).willReturn(con);
+		given(con.createSession(false, Session.AUTO_ACKNOWLEDGE)).willReturn(session);
+		given(session.createProducer(queue1)).willReturn(producer1);
+		given(session.createProducer(queue2)).willReturn(producer2);
+
+		CachingConnectionFactory scf = new CachingConnectionFactory(cf);
+		scf.setReconnectOnException(false);
+		scf.setProducerCacheSize(1);
+		Connection con1 = scf.createConnection();
+		Session session1 = con1.createSession(false, Session.AUTO_ACKNOWLEDGE);
+		session1.createProducer(queue1).close();  // should be ignored
+		session1.createProducer(queue1).close();  // should be ignored
+		session1.createProducer(queue2).close();  // should evict producer1
+		session1.close();  // should be ignored
+
+		assertEquals(1, scf.getProducerCacheHitCount());
+		assertEquals(2, scf.getProducerCacheMissCount());
+		verify(producer1).close();
+		verify(producer2, never()).close();
+		scf.destroy();  // should trigger actual close
+
+		verify(producer2).close();
+		verify(session).close();
+	}
+
+	@Test
+	public void testCachingConnectionFactoryWithOverriddenSessionProxyCreation() throws JMSException {
+		ConnectionFactory cf = mock(ConnectionFactory.class);
+		Connection con = mock(Connection.class);
+		Session session = mock(Session.class);
+
+		given(cf.createConnection()).willReturn(con);
+		given(con.createSession(false, Session.AUTO_ACKNOWLEDGE)).willReturn(session);
+
+		final List<Session> targetSessions = new ArrayList<Session>();
+		CachingConnectionFactory scf = new CachingConnectionFactory(cf) {
+			@Override
+			@SuppressWarnings("deprecation")
+			protected Session getCachedSessionProxy(Session target, LinkedList<Session> sessionList) {
+				targetSessions.add(target);
+				return super.getCachedSessionProxy(target, sessionList);
+			}
+		};
+		scf.setReconnectOnException(false);
+		scf.setSessionWaitTimeout(0);
+		Connection con1 = scf.createConnection();
+		Session session1 = con1.createSession(false, Session.AUTO_ACKNOWLEDGE);
+		try {
+			con1.createSession(false, Session.AUTO_ACKNOWLEDGE);
+			fail("Should have thrown ResourceAllocationException");
+		}
+		catch (ResourceAllocationException ex) {
+			// expected
+		}
+		session1.close();  // should be ignored
+		Session session2 = con1.createSession(false, Session.AUTO_ACKNOWLEDGE);
+		assertSame(session1, session2);
+		session2.close();  // should be ignored
+
+		assertEquals(Collections.singletonList(session), targetSessions);
+		assertEquals(1, scf.getCachedSessionCount());
+		scf.destroy();  // should trigger actual close
+
+		verify(session).close();
+	}
+
+	@Test
+	public void testCachingConnectionFactoryWithProducerCacheSizeAndProducersInUse() throws JMSException {
+		ConnectionFactory cf = mock(ConnectionFactory.class);
+		Connection con = mock(Connection.class);
+		Session session = mock(Session.class);
+		Queue queue1 = mock(Queue.class);
+		Queue queue2 = mock(Queue.class);
+		MessageProducer producer1 = mock(MessageProducer.class);
+		MessageProducer producer2 = mock(MessageProducer.class);
+
+		given(cf.createConnection()).willReturn(con);
+		given(con.createSession(false, Session.AUTO_ACKNOWLEDGE)).willReturn(session);
+		given(session.createProducer(queue1)).willReturn(producer1);
+		given(session.createProducer(queue2)).willReturn(producer2);
+
+		CachingConnectionFactory scf = new CachingConnectionFactory(cf);
+		scf.setReconnectOnException(false);
+		scf.setProducerCacheSize(1);
+		Connection con1 = scf.createConnection();
+		Session session1 = con1.createSession(false, Session.AUTO_ACKNOWLEDGE);
+		MessageProducer cachedProducer1 = session1.createProducer(queue1);
+		MessageProducer cachedProducer2 = session1.createProducer(queue2);
+		verify(producer1, never()).close();  // still in use
+
+		cachedProducer1.close();  // should evict producer1
+		verify(producer1).close();
+		cachedProducer2.close();
+		session1.close();  // should be ignored
+		verify(producer2, never()).close();
+		scf.destroy();  // should trigger actual close
+
+		verify(producer2).close();
+		verify(session).close();
+	}
+
 	@Test
 	public void testCachingConnectionFactoryWithQueueConnectionFactoryAndJms102Usage() throws JMSException {
 		QueueConnectionFactory cf = mock(QueueConnectionFactory.class);
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jms.JmsException;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Unit tests for {@link AsyncJmsSender}.
+ */
+public class AsyncJmsSenderTests {
+
+	private final ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+
+	private final Connection connection = mock(Connection.class);
+
+	private final Session session = mock(Session.class);
+
+	private final Queue queue = mock(Queue.class);
+
+	private final MessageProducer producer = mock(MessageProducer.class);
+
+	private final TextMessage message = mock(TextMessage.class);
+
+	private final JmsTemplate jmsTemplate = new JmsTemplate(this.connectionFactory);
+
+	private final AsyncJmsSender sender = new AsyncJmsSender(this.jmsTemplate);
+
+
+	@Before
+	public void setUp() throws Exception {
+		given(this.connectionFactory.createConnection()).willReturn(this.connection);
+		given(this.connection.createSession(true, Session.AUTO_ACKNOWLEDGE)).willReturn(this.session);
+		given(this.session.getTransacted()).willReturn(true);
+		given(this.session.createProducer(this.queue)).willReturn(this.producer);
+		given(this.session.createTextMessage("text")).willReturn(this.message);
+		this.jmsTemplate.setSessionTransacted(true);
+		this.jmsTemplate.setDefaultDestination(this.queue);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		this.sender.destroy();
+	}
+
+
+	@Test
+	public void commitsPerBatch() throws Exception {
+		this.sender.setCommitBatchSize(2);
+		this.sender.setCommitInterval(200);
+		this.sender.afterPropertiesSet();
+
+		List<Future<Void>> futures = new ArrayList<Future<Void>>();
+		for (int i = 0; i < 5; i++) {
+			futures.add(this.sender.convertAndSend("text"));
+		}
+		for (Future<Void> future : futures) {
+			assertNull(future.get(5, TimeUnit.SECONDS));
+		}
+
+		verify(this.producer, times(5)).send(this.message);
+		verify(this.session, times(3)).commit();
+		verify(this.connection, times(1)).createSession(true, Session.AUTO_ACKNOWLEDGE);
+		assertEquals(5, this.sender.getSentMessageCount());
+		assertEquals(3, this.sender.getFlushCount());
+		assertEquals(0, this.sender.getQueueDepth());
+	}
+
+	@Test
+	public void sessionReleasedAfterIdleTimeout() throws Exception {
+		this.sender.setLaneIdleTimeout(0);
+		this.sender.afterPropertiesSet();
+
+		this.sender.convertAndSend(this.queue, "text").get(5, TimeUnit.SECONDS);
+		this.sender.destroy();
+
+		assertEquals(0, this.sender.getActiveLaneCount());
+		verify(this.producer).close();
+		verify(this.session).close();
+	}
+
+	@Test
+	public void laneDiscardedOnceDrained() throws Exception {
+		Queue otherQueue = mock(Queue.class);
+		given(this.session.createProducer(otherQueue)).willReturn(this.producer);
+		this.sender.setLaneIdleTimeout(0);
+		this.sender.afterPropertiesSet();
+
+		this.sender.convertAndSend(this.queue, "text").get(5, TimeUnit.SECONDS);
+		this.sender.convertAndSend(otherQueue, "text").get(5, TimeUnit.SECONDS);
+		this.sender.destroy();
+
+		assertEquals(0, this.sender.getActiveLaneCount());
+		assertEquals(0, this.sender.getLaneCount());
+		assertEquals(2, this.sender.getSentMessageCount());
+	}
+
+	@Test
+	public void batchRolledBackOnSendFailure() throws Exception {
+		willThrow(new JMSException("Intentional")).given(this.producer).send(this.message);
+		this.sender.afterPropertiesSet();
+
+		Future<Void> future = this.sender.send(new MessageCreator() {
+			@Override
+			public Message createMessage(Session session) throws JMSException {
+				return session.createTextMessage("text");
+			}
+		});
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			fail("Should have thrown ExecutionException");
+		}
+		catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof JmsException);
+		}
+
+		verify(this.session).rollback();
+		verify(this.session, never()).commit();
+		assertEquals(1, this.sender.getFailedMessageCount());
+	}
+
+	@Test
+	public void sendFailureOnlyFailsMessageInFlight() throws Exception {
+		final TextMessage failingMessage = mock(TextMessage.class);
+		willThrow(new JMSException("Intentional")).given(this.producer).send(failingMessage);
+		this.sender.afterPropertiesSet();
+
+		final CountDownLatch latch = new CountDownLatch(1);
+		Future<Void> failingFuture = this.sender.send(new MessageCreator() {
+			@Override
+			public Message createMessage(Session session) throws JMSException {
+				try {
+					latch.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				return failingMessage;
+			}
+		});
+		List<Future<Void>> futures = new ArrayList<Future<Void>>();
+		for (int i = 0; i < 2; i++) {
+			futures.add(this.sender.convertAndSend("text"));
+		}
+		latch.countDown();
+
+		try {
+			failingFuture.get(5, TimeUnit.SECONDS);
+			fail("Should have thrown ExecutionException");
+		}
+		catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof JmsException);
+		}
+		for (Future<Void> future : futures) {
+			assertNull(future.get(5, TimeUnit.SECONDS));
+		}
+		verify(this.connection, times(2)).createSession(true, Session.AUTO_ACKNOWLEDGE);
+		assertEquals(1, this.sender.getFailedMessageCount());
+		assertEquals(2, this.sender.getSentMessageCount());
+	}
+
+	@Test
+	public void pendingMessagesAbortedWithoutSession() throws Exception {
+		willThrow(new JMSException("Intentional")).given(this.connection).createSession(true, Session.AUTO_ACKNOWLEDGE);
+		this.sender.afterPropertiesSet();
+
+		Future<Void> future = this.sender.convertAndSend("text");
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			fail("Should have thrown ExecutionException");
+		}
+		catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof TaskRejectedException);
+			assertTrue(ex.getCause().getCause() instanceof JmsException);
+		}
+		assertEquals(1, this.sender.getFailedMessageCount());
+	}
+
+	@Test
+	public void rejectsWhenQueueFull() throws Exception {
+		this.sender.setQueueCapacity(1);
+		this.sender.setEnqueueTimeout(0);
+		this.sender.afterPropertiesSet();
+
+		final CountDownLatch latch = new CountDownLatch(1);
+		Future<Void> future = this.sender.send(new MessageCreator() {
+			@Override
+			public Message createMessage(Session session) throws JMSException {
+				try {
+					latch.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				return session.createTextMessage("text");
+			}
+		});
+		try {
+			this.sender.convertAndSend("text");
+			fail("Should have thrown TaskRejectedException");
+		}
+		catch (TaskRejectedException ex) {
+			// expected
+		}
+		finally {
+			latch.countDown();
+		}
+		assertNull(future.get(5, TimeUnit.SECONDS));
+		assertEquals(1, this.sender.getSentMessageCount());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void rejectsWhenNotInitialized() {
+		this.sender.convertAndSend("text");
+	}
+
+}
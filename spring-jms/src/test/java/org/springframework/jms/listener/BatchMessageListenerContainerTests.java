@@ -0,0 +1,188 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Tests for batch message consumption in {@link AbstractPollingMessageListenerContainer}.
+ */
+public class BatchMessageListenerContainerTests {
+
+	private final TestPollingMessageListenerContainer container = new TestPollingMessageListenerContainer();
+
+	private final Session session = mock(Session.class);
+
+	private final MessageConsumer consumer = mock(MessageConsumer.class);
+
+	private final Message message1 = mock(Message.class);
+
+	private final Message message2 = mock(Message.class);
+
+	private final Message message3 = mock(Message.class);
+
+
+	@Before
+	public void setUp() throws Exception {
+		this.container.setConnectionFactory(mock(ConnectionFactory.class));
+		this.container.setAcceptMessagesWhileStopping(true);
+		this.container.setSessionTransacted(true);
+		this.container.setBatchSize(3);
+		given(this.session.getTransacted()).willReturn(true);
+		given(this.consumer.receive(AbstractPollingMessageListenerContainer.DEFAULT_RECEIVE_TIMEOUT)).willReturn(this.message1);
+	}
+
+
+	@Test
+	public void batchDrainedUpToBatchSize() throws Exception {
+		given(this.consumer.receiveNoWait()).willReturn(this.message2, this.message3, mock(Message.class));
+		RecordingBatchMessageListener listener = new RecordingBatchMessageListener();
+		this.container.setMessageListener(listener);
+
+		assertTrue(this.container.receiveAndExecute(this, this.session, this.consumer));
+		assertEquals(1, listener.batches.size());
+		assertEquals(Arrays.asList(this.message1, this.message2, this.message3), listener.batches.get(0));
+		verify(this.session, times(1)).commit();
+		verify(this.session, never()).rollback();
+	}
+
+	@Test
+	public void batchCompletedWhenNoFurtherMessageAvailable() throws Exception {
+		given(this.consumer.receiveNoWait()).willReturn(this.message2, null);
+		RecordingBatchMessageListener listener = new RecordingBatchMessageListener();
+		this.container.setMessageListener(listener);
+
+		assertTrue(this.container.receiveAndExecute(this, this.session, this.consumer));
+		assertEquals(Arrays.asList(this.message1, this.message2), listener.batches.get(0));
+		verify(this.session, times(1)).commit();
+	}
+
+	@Test
+	public void batchTimeoutWaitsForFurtherMessages() throws Exception {
+		this.container.setBatchTimeout(60000);
+		assertEquals(60000, this.container.getBatchTimeout());
+		given(this.consumer.receive(anyLong())).willReturn(this.message1, this.message2, null);
+		RecordingBatchMessageListener listener = new RecordingBatchMessageListener();
+		this.container.setMessageListener(listener);
+
+		assertTrue(this.container.receiveAndExecute(this, this.session, this.consumer));
+		assertEquals(Arrays.asList(this.message1, this.message2), listener.batches.get(0));
+		verify(this.consumer, never()).receiveNoWait();
+	}
+
+	@Test
+	public void batchRolledBackOnListenerException() throws Exception {
+		given(this.consumer.receiveNoWait()).willReturn(this.message2, null);
+		this.container.setMessageListener(new BatchMessageListener<Message>() {
+			@Override
+			public void onMessages(List<Message> messages, Session session) {
+				throw new IllegalStateException("Intentional");
+			}
+		});
+
+		assertTrue(this.container.receiveAndExecute(this, this.session, this.consumer));
+		verify(this.session, times(1)).rollback();
+		verify(this.session, never()).commit();
+	}
+
+	@Test
+	public void plainListenerInvokedPerMessageWithSingleCommit() throws Exception {
+		given(this.consumer.receiveNoWait()).willReturn(this.message2, null);
+		MessageListener listener = mock(MessageListener.class);
+		this.container.setMessageListener(listener);
+
+		assertTrue(this.container.receiveAndExecute(this, this.session, this.consumer));
+		verify(listener).onMessage(this.message1);
+		verify(listener).onMessage(this.message2);
+		verify(this.session, times(1)).commit();
+	}
+
+	@Test
+	public void clientAcknowledgeOncePerBatch() throws Exception {
+		this.container.setSessionTransacted(false);
+		this.container.setSessionAcknowledgeMode(Session.CLIENT_ACKNOWLEDGE);
+		given(this.session.getTransacted()).willReturn(false);
+		given(this.session.getAcknowledgeMode()).willReturn(Session.CLIENT_ACKNOWLEDGE);
+		given(this.consumer.receiveNoWait()).willReturn(this.message2, null);
+		this.container.setMessageListener(new RecordingBatchMessageListener());
+
+		assertTrue(this.container.receiveAndExecute(this, this.session, this.consumer));
+		verify(this.message1, never()).acknowledge();
+		verify(this.message2, times(1)).acknowledge();
+	}
+
+	@Test
+	public void batchListenerWithoutBatching() throws Exception {
+		this.container.setBatchSize(1);
+		RecordingBatchMessageListener listener = new RecordingBatchMessageListener();
+		this.container.setMessageListener(listener);
+
+		assertTrue(this.container.receiveAndExecute(this, this.session, this.consumer));
+		assertEquals(Arrays.asList(this.message1), listener.batches.get(0));
+		verify(this.consumer, never()).receiveNoWait();
+		verify(this.session, times(1)).commit();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidBatchSize() {
+		this.container.setBatchSize(0);
+	}
+
+
+	private static class RecordingBatchMessageListener implements BatchMessageListener<Message> {
+
+		private final List<List<Message>> batches = new ArrayList<List<Message>>();
+
+		@Override
+		public void onMessages(List<Message> messages, Session session) throws JMSException {
+			this.batches.add(messages);
+		}
+	}
+
+
+	private static class TestPollingMessageListenerContainer extends AbstractPollingMessageListenerContainer {
+
+		@Override
+		protected boolean sharedConnectionEnabled() {
+			return false;
+		}
+
+		@Override
+		protected void doInitialize() {
+		}
+
+		@Override
+		protected void doShutdown() {
+		}
+	}
+
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Queue;
+import javax.jms.Session;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Tests for consumer scaling in {@link DefaultMessageListenerContainer}.
+ */
+public class DefaultMessageListenerContainerTests {
+
+	private static final long TIMEOUT = 5000;
+
+	private final ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+
+	private final Connection connection = mock(Connection.class);
+
+	private final Session session = mock(Session.class);
+
+	private final MessageConsumer consumer = mock(MessageConsumer.class);
+
+	private final Queue queue = mock(Queue.class);
+
+	private final Message message = mock(Message.class);
+
+	private final AtomicBoolean messagePending = new AtomicBoolean();
+
+	private final DefaultMessageListenerContainer container = new DefaultMessageListenerContainer();
+
+
+	@Before
+	public void setUp() throws Exception {
+		given(this.connectionFactory.createConnection()).willReturn(this.connection);
+		given(this.connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).willReturn(this.session);
+		given(this.session.createConsumer(this.queue, null)).willReturn(this.consumer);
+		given(this.consumer.receive(anyLong())).willAnswer(new Answer<Message>() {
+			@Override
+			public Message answer(InvocationOnMock invocation) throws Throwable {
+				if (messagePending.compareAndSet(true, false)) {
+					return message;
+				}
+				Thread.sleep(5);
+				return null;
+			}
+		});
+		this.container.setConnectionFactory(this.connectionFactory);
+		this.container.setDestination(this.queue);
+		this.container.setMessageListener(mock(MessageListener.class));
+		this.container.setReceiveTimeout(5);
+	}
+
+	@After
+	public void tearDown() {
+		this.container.shutdown();
+	}
+
+
+	@Test
+	public void idleInvokerCountResetOnShutdown() throws Exception {
+		this.container.setConcurrentConsumers(3);
+		this.container.afterPropertiesSet();
+		this.container.start();
+		awaitActiveConsumerCount(3);
+		assertEquals(3, this.container.getScheduledConsumerCount());
+		assertEquals(3, this.container.getIdleInvokerCount());
+
+		this.container.shutdown();
+		assertEquals(0, this.container.getScheduledConsumerCount());
+		assertEquals(0, this.container.getIdleInvokerCount());
+	}
+
+	@Test
+	public void idleInvokerCountExcludesBusyInvokers() throws Exception {
+		final CountDownLatch received = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		this.container.setConcurrentConsumers(2);
+		this.container.setMessageListener(new MessageListener() {
+			@Override
+			public void onMessage(Message message) {
+				received.countDown();
+				try {
+					release.await(TIMEOUT, TimeUnit.MILLISECONDS);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		this.container.afterPropertiesSet();
+		this.container.start();
+		awaitActiveConsumerCount(2);
+
+		this.messagePending.set(true);
+		assertTrue(received.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		assertEquals(1, this.container.getIdleInvokerCount());
+
+		release.countDown();
+		awaitIdleInvokerCount(2);
+		assertEquals(2, this.container.getScheduledConsumerCount());
+	}
+
+	@Test
+	public void scaleUpAndDownWithConsumerScalingPolicy() throws Exception {
+		FixedConsumerScalingPolicy policy = new FixedConsumerScalingPolicy();
+		policy.consumerCount = 4;
+		this.container.setConcurrency("2-4");
+		this.container.setConsumerScalingPolicy(policy);
+		this.container.setLoadEvaluationInterval(10);
+		this.container.afterPropertiesSet();
+		this.container.start();
+
+		awaitScheduledConsumerCount(4);
+		assertTrue(this.container.getScaleUpCount() > 0);
+		awaitIdleInvokerCount(4);
+
+		// Removals below "concurrentConsumers" never get claimed
+		policy.consumerCount = 0;
+		awaitScheduledConsumerCount(2);
+		assertTrue(this.container.getScaleDownCount() > 0);
+		awaitIdleInvokerCount(2);
+		awaitNextLoadEvaluation();
+		awaitNextLoadEvaluation();
+		assertEquals(2, this.container.getScheduledConsumerCount());
+		assertEquals(2, this.container.getLastLoadStatistics().getScheduledConsumerCount());
+
+		policy.consumerCount = 3;
+		awaitScheduledConsumerCount(3);
+		awaitIdleInvokerCount(3);
+	}
+
+
+	private void awaitActiveConsumerCount(int expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (this.container.getActiveConsumerCount() != expected && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(expected, this.container.getActiveConsumerCount());
+	}
+
+	private void awaitScheduledConsumerCount(int expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (this.container.getScheduledConsumerCount() != expected && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(expected, this.container.getScheduledConsumerCount());
+	}
+
+	private void awaitIdleInvokerCount(int expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (this.container.getIdleInvokerCount() != expected && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(expected, this.container.getIdleInvokerCount());
+	}
+
+	private void awaitNextLoadEvaluation() throws InterruptedException {
+		ConsumerLoadStatistics statistics = this.container.getLastLoadStatistics();
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (this.container.getLastLoadStatistics() == statistics && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertNotSame(statistics, this.container.getLastLoadStatistics());
+	}
+
+
+	private static class FixedConsumerScalingPolicy implements ConsumerScalingPolicy {
+
+		private volatile int consumerCount;
+
+		@Override
+		public int determineConsumerCount(ConsumerLoadStatistics statistics) {
+			return this.consumerCount;
+		}
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link LoadBasedConsumerScalingPolicy} and {@link ConsumerLoadStatistics}.
+ */
+public class LoadBasedConsumerScalingPolicyTests {
+
+	private final LoadBasedConsumerScalingPolicy policy = new LoadBasedConsumerScalingPolicy();
+
+
+	@Test
+	public void loadStatistics() {
+		ConsumerLoadStatistics statistics = statistics(500, 100, 10, 20, 2, Long.MAX_VALUE, Long.MAX_VALUE);
+		assertEquals(200, statistics.getReceiveRate(), 0.001);
+		assertEquals(20, statistics.getAverageProcessingTime(), 0.001);
+		assertEquals(10d / 110, statistics.getEmptyReceiveRatio(), 0.001);
+		assertEquals(4, statistics.getBusyConsumerEstimate(), 0.001);
+	}
+
+	@Test
+	public void noReceiveAttempts() {
+		ConsumerLoadStatistics statistics = statistics(1000, 0, 0, 0, 1, Long.MAX_VALUE, Long.MAX_VALUE);
+		assertEquals(0, statistics.getReceiveRate(), 0.001);
+		assertEquals(0, statistics.getAverageProcessingTime(), 0.001);
+		assertEquals(1, statistics.getEmptyReceiveRatio(), 0.001);
+		// to be constrained to "concurrentConsumers" by the container
+		assertEquals(0, this.policy.determineConsumerCount(statistics));
+	}
+
+	@Test
+	public void scaleUpAccordingToMeasuredLoad() {
+		// 300 msg/s at 10 ms each -> 3 busy consumers -> 4 at 75% utilization
+		assertEquals(4, this.policy.determineConsumerCount(
+				statistics(1000, 300, 300, 10, 2, Long.MAX_VALUE, Long.MAX_VALUE)));
+	}
+
+	@Test
+	public void scaleUpStepwiseWhenSaturated() {
+		assertEquals(3, this.policy.determineConsumerCount(
+				statistics(1000, 100, 0, 1, 2, Long.MAX_VALUE, Long.MAX_VALUE)));
+		this.policy.setScaleUpStep(3);
+		assertEquals(5, this.policy.determineConsumerCount(
+				statistics(1000, 100, 0, 1, 2, Long.MAX_VALUE, Long.MAX_VALUE)));
+	}
+
+	@Test
+	public void scaleUpCooldown() {
+		assertEquals(2, this.policy.determineConsumerCount(
+				statistics(1000, 100, 0, 1, 2, 500, Long.MAX_VALUE)));
+		assertEquals(3, this.policy.determineConsumerCount(
+				statistics(1000, 100, 0, 1, 2, 1000, Long.MAX_VALUE)));
+	}
+
+	@Test
+	public void scaleDownWhenIdle() {
+		assertEquals(4, this.policy.determineConsumerCount(
+				statistics(1000, 10, 1000, 1, 5, Long.MAX_VALUE, Long.MAX_VALUE)));
+		this.policy.setScaleDownStep(10);
+		assertEquals(1, this.policy.determineConsumerCount(
+				statistics(1000, 10, 1000, 1, 5, Long.MAX_VALUE, Long.MAX_VALUE)));
+	}
+
+	@Test
+	public void noScaleDownBelowIdleThreshold() {
+		assertEquals(5, this.policy.determineConsumerCount(
+				statistics(1000, 100, 50, 1, 5, Long.MAX_VALUE, Long.MAX_VALUE)));
+	}
+
+	@Test
+	public void scaleDownCooldownAfterAnyScalingEvent() {
+		assertEquals(5, this.policy.determineConsumerCount(
+				statistics(1000, 10, 1000, 1, 5, 5000, Long.MAX_VALUE)));
+		assertEquals(5, this.policy.determineConsumerCount(
+				statistics(1000, 10, 1000, 1, 5, Long.MAX_VALUE, 5000)));
+		assertEquals(4, this.policy.determineConsumerCount(
+				statistics(1000, 10, 1000, 1, 5, 30000, 30000)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidTargetUtilization() {
+		this.policy.setTargetUtilization(0);
+	}
+
+
+	private ConsumerLoadStatistics statistics(long interval, long received, long emptyReceives,
+			long processingMillis, int scheduled, long sinceScaleUp, long sinceScaleDown) {
+
+		return new ConsumerLoadStatistics(interval, received, emptyReceives, processingMillis * received * 1000000,
+				scheduled, scheduled, 1, 10, sinceScaleUp, sinceScaleDown);
+	}
+
+}
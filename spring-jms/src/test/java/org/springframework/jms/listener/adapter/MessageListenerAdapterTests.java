@@ -18,6 +18,7 @@ package org.springframework.jms.listener.adapter;
 
 import java.io.ByteArrayInputStream;
 import java.io.Serializable;
+import java.util.Arrays;
 
 import javax.jms.BytesMessage;
 import javax.jms.IllegalStateException;
@@ -121,6 +122,75 @@ public class MessageListenerAdapterTests {
 		verify(delegate).handleMessage(OBJECT);
 	}
 
+	@Test
+	public void testWithBatchMessageContentsDelegate() throws Exception {
+		TextMessage textMessage1 = mock(TextMessage.class);
+		given(textMessage1.getText()).willReturn(TEXT);
+		TextMessage textMessage2 = mock(TextMessage.class);
+		given(textMessage2.getText()).willReturn(RESPONSE_TEXT);
+		Session session = mock(Session.class);
+
+		BatchMessageContentsDelegate delegate = mock(BatchMessageContentsDelegate.class);
+
+		MessageListenerAdapter adapter = new MessageListenerAdapter(delegate);
+		adapter.onMessages(Arrays.<Message>asList(textMessage1, textMessage2), session);
+
+		verify(delegate).handleMessages(Arrays.asList(TEXT, RESPONSE_TEXT));
+	}
+
+	@Test
+	public void testWithMessageContentsDelegateForBatchOfMessages() throws Exception {
+		TextMessage textMessage = mock(TextMessage.class);
+		given(textMessage.getText()).willReturn(TEXT);
+		ObjectMessage objectMessage = mock(ObjectMessage.class);
+		given(objectMessage.getObject()).willReturn(NUMBER);
+		Session session = mock(Session.class);
+
+		MessageContentsDelegate delegate = mock(MessageContentsDelegate.class);
+
+		MessageListenerAdapter adapter = new MessageListenerAdapter(delegate);
+		adapter.onMessages(Arrays.<Message>asList(textMessage, objectMessage), session);
+
+		verify(delegate).handleMessage(TEXT);
+		verify(delegate).handleMessage(NUMBER);
+	}
+
+	@Test
+	public void testCustomBatchMethodRequiresCollectionParameter() throws Exception {
+		TextMessage textMessage = mock(TextMessage.class);
+		given(textMessage.getText()).willReturn(TEXT);
+		Session session = mock(Session.class);
+
+		MessageContentsDelegate delegate = mock(MessageContentsDelegate.class);
+
+		MessageListenerAdapter adapter = new MessageListenerAdapter(delegate);
+		adapter.setDefaultBatchListenerMethod("handleMessage");
+		adapter.onMessages(Arrays.<Message>asList(textMessage), session);
+
+		// handleMessage(Object) does not count as batch listener method
+		verify(delegate).handleMessage(TEXT);
+		verify(delegate, never()).handleMessage((Object) Arrays.asList(TEXT));
+	}
+
+	@Test
+	public void testBatchListenerMethodResolvedPerDelegateClass() throws Exception {
+		TextMessage textMessage = mock(TextMessage.class);
+		given(textMessage.getText()).willReturn(TEXT);
+		Session session = mock(Session.class);
+
+		BatchMessageContentsDelegate batchDelegate = mock(BatchMessageContentsDelegate.class);
+		MessageContentsDelegate delegate = mock(MessageContentsDelegate.class);
+
+		MessageListenerAdapter adapter = new MessageListenerAdapter(batchDelegate);
+		adapter.onMessages(Arrays.<Message>asList(textMessage), session);
+		adapter.onMessages(Arrays.<Message>asList(textMessage), session);
+		adapter.setDelegate(delegate);
+		adapter.onMessages(Arrays.<Message>asList(textMessage), session);
+
+		verify(batchDelegate, times(2)).handleMessages(Arrays.asList(TEXT));
+		verify(delegate).handleMessage(TEXT);
+	}
+
 	@Test
 	public void testWithMessageDelegate() throws Exception {
 		TextMessage textMessage = mock(TextMessage.class);
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.jms.support.converter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.jms.BytesMessage;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Unit tests for {@link BytesMessageOutputStream} and {@link BytesMessageInputStream}.
+ */
+public class BytesMessageStreamTests {
+
+	@Test
+	public void writeAndReadInMixedChunks() throws Exception {
+		byte[] content = new byte[100000];
+		new Random(42).nextBytes(content);
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+		OutputStream out = new BytesMessageOutputStream(createWritableMessage(body));
+		out.write(content, 0, 1);
+		out.write(content[1]);
+		out.write(content, 2, 100);
+		out.write(content, 102, 20000);
+		out.write(content, 20102, content.length - 20102);
+		out.close();
+		out.close();
+		assertArrayEquals(content, body.toByteArray());
+
+		InputStream in = new BytesMessageInputStream(createReadableMessage(body.toByteArray()));
+		byte[] result = new byte[content.length];
+		result[0] = (byte) in.read();
+		int offset = 1 + in.read(result, 1, 10);
+		byte[] chunk = new byte[20000];
+		int count;
+		while ((count = in.read(chunk)) != -1) {
+			System.arraycopy(chunk, 0, result, offset, count);
+			offset += count;
+		}
+		assertEquals(-1, in.read());
+		in.close();
+		assertEquals(content.length, offset);
+		assertArrayEquals(content, result);
+	}
+
+	@Test
+	public void emptyMessage() throws Exception {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		BytesMessage message = createWritableMessage(body);
+		new BytesMessageOutputStream(message).close();
+		verify(message, never()).writeBytes(any(byte[].class), anyInt(), anyInt());
+
+		InputStream in = new BytesMessageInputStream(createReadableMessage(new byte[0]));
+		assertEquals(-1, in.read());
+		assertEquals(-1, in.read(new byte[16], 0, 16));
+		in.close();
+	}
+
+	@Test(expected = IOException.class)
+	public void writeAfterClose() throws Exception {
+		OutputStream out = new BytesMessageOutputStream(createWritableMessage(new ByteArrayOutputStream()));
+		out.close();
+		out.write(1);
+	}
+
+
+	static BytesMessage createWritableMessage(final ByteArrayOutputStream body) throws Exception {
+		BytesMessage message = mock(BytesMessage.class);
+		willAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) {
+				Object[] args = invocation.getArguments();
+				body.write((byte[]) args[0], (Integer) args[1], (Integer) args[2]);
+				return null;
+			}
+		}).given(message).writeBytes(any(byte[].class), anyInt(), anyInt());
+		return message;
+	}
+
+	static BytesMessage createReadableMessage(byte[] content) throws Exception {
+		final ByteArrayInputStream body = new ByteArrayInputStream(Arrays.copyOf(content, content.length));
+		BytesMessage message = mock(BytesMessage.class);
+		given(message.readBytes(any(byte[].class))).willAnswer(new Answer<Integer>() {
+			@Override
+			public Integer answer(InvocationOnMock invocation) throws Throwable {
+				return body.read((byte[]) invocation.getArguments()[0]);
+			}
+		});
+		return message;
+	}
+
+}
@@ -17,10 +17,12 @@
 package org.springframework.jms.support.converter;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.jms.BytesMessage;
 import javax.jms.Session;
@@ -31,6 +33,10 @@ import org.junit.Test;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import org.springframework.tests.Assume;
+import org.springframework.tests.TestGroup;
+import org.springframework.util.StopWatch;
+
 import static org.junit.Assert.*;
 import static org.mockito.BDDMockito.*;
 
@@ -63,7 +69,7 @@ public class MappingJackson2MessageConverterTests {
 
 		verify(bytesMessageMock).setStringProperty("__encoding__", "UTF-8");
 		verify(bytesMessageMock).setStringProperty("__typeid__", Date.class.getName());
-		verify(bytesMessageMock).writeBytes(isA(byte[].class));
+		verify(bytesMessageMock).writeBytes(isA(byte[].class), eq(0), anyInt());
 	}
 
 	@Test
@@ -90,6 +96,64 @@ public class MappingJackson2MessageConverterTests {
 		assertEquals("Invalid result", result, unmarshalled);
 	}
 
+	@Test
+	public void bytesMessageRoundTrip() throws Exception {
+		Map<String, String> toBeMarshalled = Collections.singletonMap("foo", createPayload(100000));
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		BytesMessage outMessage = BytesMessageStreamTests.createWritableMessage(body);
+		given(sessionMock.createBytesMessage()).willReturn(outMessage);
+		converter.toMessage(toBeMarshalled, sessionMock);
+
+		BytesMessage inMessage = BytesMessageStreamTests.createReadableMessage(body.toByteArray());
+		given(inMessage.getStringProperty("__typeid__")).willReturn(HashMap.class.getName());
+		assertEquals(toBeMarshalled, converter.fromMessage(inMessage));
+	}
+
+	@Test
+	public void bytesMessageRoundTripPerformance() throws Exception {
+		Assume.group(TestGroup.PERFORMANCE);
+
+		StopWatch sw = new StopWatch();
+		roundTrip(sw, "1KB", createPayload(1024), 10000);
+		roundTrip(sw, "1MB", createPayload(1024 * 1024), 50);
+
+		System.out.println(sw.prettyPrint());
+		assertTrue("Conversion of 1MB payloads took too long: " + sw.prettyPrint(), sw.getLastTaskTimeMillis() < 10000);
+	}
+
+	private void roundTrip(StopWatch sw, String taskName, String payload, int iterations) throws Exception {
+		Map<String, String> toBeMarshalled = Collections.singletonMap("foo", payload);
+		ByteArrayOutputStream body = new ByteArrayOutputStream(payload.length() + 16);
+		final AtomicReference<ByteArrayInputStream> bodyInput = new AtomicReference<ByteArrayInputStream>();
+		// Stub a single message upfront, keeping Mockito's stubbing out of the timed loop
+		BytesMessage message = BytesMessageStreamTests.createWritableMessage(body);
+		given(message.readBytes(any(byte[].class))).willAnswer(new Answer<Integer>() {
+			@Override
+			public Integer answer(InvocationOnMock invocation) throws Throwable {
+				return bodyInput.get().read((byte[]) invocation.getArguments()[0]);
+			}
+		});
+		given(message.getStringProperty("__typeid__")).willReturn(HashMap.class.getName());
+		given(sessionMock.createBytesMessage()).willReturn(message);
+
+		sw.start(taskName);
+		for (int i = 0; i < iterations; i++) {
+			body.reset();
+			converter.toMessage(toBeMarshalled, sessionMock);
+			bodyInput.set(new ByteArrayInputStream(body.toByteArray()));
+			converter.fromMessage(message);
+		}
+		sw.stop();
+	}
+
+	private static String createPayload(int length) {
+		StringBuilder builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			builder.append((char) ('a' + i % 26));
+		}
+		return builder.toString();
+	}
+
 	@Test
 	public void toTextMessageWithObject() throws Exception {
 		converter.setTargetType(MessageType.TEXT);
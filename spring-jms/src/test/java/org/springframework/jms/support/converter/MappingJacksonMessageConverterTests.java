@@ -66,7 +66,7 @@ public class MappingJacksonMessageConverterTests {
 
 		verify(bytesMessageMock).setStringProperty("__encoding__", "UTF-8");
 		verify(bytesMessageMock).setStringProperty("__typeid__", Date.class.getName());
-		verify(bytesMessageMock).writeBytes(isA(byte[].class));
+		verify(bytesMessageMock).writeBytes(isA(byte[].class), eq(0), anyInt());
 	}
 
 	@Test
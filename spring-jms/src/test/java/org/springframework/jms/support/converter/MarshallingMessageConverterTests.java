@@ -21,9 +21,12 @@ import javax.jms.Session;
 import javax.jms.TextMessage;
 import javax.xml.transform.Result;
 import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamResult;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.springframework.oxm.Marshaller;
 import org.springframework.oxm.Unmarshaller;
 
@@ -56,11 +59,18 @@ public class MarshallingMessageConverterTests {
 		BytesMessage bytesMessageMock = mock(BytesMessage.class);
 		Object toBeMarshalled = new Object();
 		given(sessionMock.createBytesMessage()).willReturn(bytesMessageMock);
+		willAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				((StreamResult) invocation.getArguments()[1]).getOutputStream().write(new byte[] {1, 2, 3});
+				return null;
+			}
+		}).given(marshallerMock).marshal(eq(toBeMarshalled), isA(Result.class));
 
 		converter.toMessage(toBeMarshalled, sessionMock);
 
 		verify(marshallerMock).marshal(eq(toBeMarshalled), isA(Result.class));
-		verify(bytesMessageMock).writeBytes(isA(byte[].class));
+		verify(bytesMessageMock).writeBytes(isA(byte[].class), eq(0), eq(3));
 	}
 
 	@Test
@@ -37,6 +37,12 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 import javax.activation.DataHandler;
 import javax.activation.DataSource;
 import javax.xml.XMLConstants;
@@ -58,6 +64,8 @@ import javax.xml.datatype.XMLGregorianCalendar;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.Result;
@@ -108,6 +116,11 @@ import org.springframework.util.xml.StaxUtils;
  * property on this bean, possibly customize the marshaller and unmarshaller by setting
  * properties, schemas, adapters, and listeners, and to refer to it.
  *
+ * <p>JAXB marshallers and unmarshallers can optionally be {@link #setMarshallerPoolSize pooled}
+ * for reuse across calls, the {@code JAXBContext} can be {@link #setJaxbContextInitExecutor
+ * built in the background} during startup, and repeating elements of large documents can be
+ * {@link #unmarshalElements unmarshalled one at a time} via StAX.
+ *
  * @author Arjen Poutsma
  * @author Juergen Hoeller
  * @author Rossen Stoyanchev
@@ -180,6 +193,14 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 
 	private boolean processExternalEntities = false;
 
+	private Executor jaxbContextInitExecutor;
+
+	private volatile FutureTask<JAXBContext> jaxbContextFuture;
+
+	private BlockingQueue<Marshaller> marshallerPool;
+
+	private BlockingQueue<Unmarshaller> unmarshallerPool;
+
 
 	/**
 	 * Set multiple JAXB context paths. The given array of context paths gets
@@ -346,6 +367,45 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 		this.lazyInit = lazyInit;
 	}
 
+	/**
+	 * Set an Executor to build the {@link JAXBContext} with, in the background
+	 * during application context startup.
+	 * <p>By default, the context gets built synchronously on initialization.
+	 * With an Executor specified, initialization returns immediately and the first
+	 * marshalling call waits for the context to be available, if still in progress.
+	 * Several marshallers sharing a multi-threaded Executor build their contexts in
+	 * parallel. Does not apply in case of {@link #setLazyInit lazy initialization}.
+	 * <p>Note that when using {@link #setPackagesToScan "packagesToScan"},
+	 * {@link #supports} only recognizes the scanned classes once the context is built.
+	 * @see org.springframework.core.task.SimpleAsyncTaskExecutor
+	 */
+	public void setJaxbContextInitExecutor(Executor jaxbContextInitExecutor) {
+		this.jaxbContextInitExecutor = jaxbContextInitExecutor;
+	}
+
+	/**
+	 * Set the maximum number of idle JAXB {@code Marshaller} and {@code Unmarshaller}
+	 * instances (each) to keep for reuse.
+	 * <p>Default is 0, creating and initializing a new instance for every call.
+	 * A positive value makes this marshaller pool instances after a successful call,
+	 * which avoids re-creating them and re-applying properties, listeners, adapters
+	 * and schema per call. Pooled instances are only ever used by one thread at a time.
+	 * <p>Note that pooled instances are obtained via {@link #createMarshaller()} and
+	 * {@link #createUnmarshaller()} once: subclasses customizing those per call
+	 * should not enable pooling.
+	 */
+	public void setMarshallerPoolSize(int marshallerPoolSize) {
+		Assert.isTrue(marshallerPoolSize >= 0, "'marshallerPoolSize' must not be negative");
+		if (marshallerPoolSize > 0) {
+			this.marshallerPool = new ArrayBlockingQueue<Marshaller>(marshallerPoolSize);
+			this.unmarshallerPool = new ArrayBlockingQueue<Unmarshaller>(marshallerPoolSize);
+		}
+		else {
+			this.marshallerPool = null;
+			this.unmarshallerPool = null;
+		}
+	}
+
 	/**
 	 * Specify whether MTOM support should be enabled or not.
 	 * Default is {@code false}: marshalling using XOP/MTOM not being enabled.
@@ -452,7 +512,18 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 					"Setting either 'contextPath', 'classesToBeBound', " + "or 'packagesToScan' is required");
 		}
 		if (!this.lazyInit) {
-			getJaxbContext();
+			if (this.jaxbContextInitExecutor != null) {
+				FutureTask<JAXBContext> future = new FutureTask<JAXBContext>(new Callable<JAXBContext>() {
+					public JAXBContext call() {
+						return initJaxbContext();
+					}
+				});
+				this.jaxbContextFuture = future;
+				this.jaxbContextInitExecutor.execute(future);
+			}
+			else {
+				getJaxbContext();
+			}
 		}
 		if (!ObjectUtils.isEmpty(this.schemaResources)) {
 			this.schema = loadSchema(this.schemaResources, this.schemaLanguage);
@@ -466,6 +537,37 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 		if (this.jaxbContext != null) {
 			return this.jaxbContext;
 		}
+		FutureTask<JAXBContext> future = this.jaxbContextFuture;
+		if (future != null) {
+			return awaitJaxbContext(future);
+		}
+		return initJaxbContext();
+	}
+
+	/**
+	 * Wait for the JAXBContext being built in the background.
+	 */
+	private JAXBContext awaitJaxbContext(FutureTask<JAXBContext> future) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for JAXBContext initialization", ex);
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException("JAXBContext initialization failed", cause);
+		}
+	}
+
+	private JAXBContext initJaxbContext() {
 		synchronized (this.jaxbContextMonitor) {
 			if (this.jaxbContext == null) {
 				try {
@@ -667,7 +769,7 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 
 	public void marshal(Object graph, Result result, MimeContainer mimeContainer) throws XmlMappingException {
 		try {
-			Marshaller marshaller = createMarshaller();
+			Marshaller marshaller = obtainMarshaller();
 			if (this.mtomEnabled && mimeContainer != null) {
 				marshaller.setAttachmentMarshaller(new Jaxb2AttachmentMarshaller(mimeContainer));
 			}
@@ -677,6 +779,7 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 			else {
 				marshaller.marshal(graph, result);
 			}
+			releaseMarshaller(marshaller);
 		}
 		catch (JAXBException ex) {
 			throw convertJaxbException(ex);
@@ -713,6 +816,39 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 		}
 	}
 
+	/**
+	 * Obtain a JAXB marshaller, from the pool if possible.
+	 */
+	private Marshaller obtainMarshaller() {
+		if (this.marshallerPool != null) {
+			Marshaller marshaller = this.marshallerPool.poll();
+			if (marshaller != null) {
+				return marshaller;
+			}
+		}
+		return createMarshaller();
+	}
+
+	/**
+	 * Return the given JAXB marshaller to the pool, if pooling is active and the
+	 * pool has capacity left, after dropping per-call state.
+	 */
+	private void releaseMarshaller(Marshaller marshaller) {
+		BlockingQueue<Marshaller> pool = this.marshallerPool;
+		if (pool != null && pool.remainingCapacity() > 0) {
+			marshaller.setAttachmentMarshaller(null);
+			pool.offer(marshaller);
+		}
+	}
+
+	/**
+	 * Return the number of idle JAXB marshallers currently pooled.
+	 * @see #setMarshallerPoolSize
+	 */
+	public int getPooledMarshallerCount() {
+		return (this.marshallerPool != null ? this.marshallerPool.size() : 0);
+	}
+
 	/**
 	 * Template method that can be overridden by concrete JAXB marshallers for custom initialization behavior.
 	 * Gets called after creation of JAXB {@code Marshaller}, and after the respective properties have been set.
@@ -754,19 +890,22 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 		source = processSource(source);
 
 		try {
-			Unmarshaller unmarshaller = createUnmarshaller();
+			Unmarshaller unmarshaller = obtainUnmarshaller();
 			if (this.mtomEnabled && mimeContainer != null) {
 				unmarshaller.setAttachmentUnmarshaller(new Jaxb2AttachmentUnmarshaller(mimeContainer));
 			}
+			Object result;
 			if (StaxUtils.isStaxSource(source)) {
-				return unmarshalStaxSource(unmarshaller, source);
+				result = unmarshalStaxSource(unmarshaller, source);
 			}
 			else if (this.mappedClass != null) {
-				return unmarshaller.unmarshal(source, this.mappedClass).getValue();
+				result = unmarshaller.unmarshal(source, this.mappedClass).getValue();
 			}
 			else {
-				return unmarshaller.unmarshal(source);
+				result = unmarshaller.unmarshal(source);
 			}
+			releaseUnmarshaller(unmarshaller);
+			return result;
 		}
 		catch (NullPointerException ex) {
 			if (!isSupportDtd()) {
@@ -801,6 +940,96 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 		}
 	}
 
+	/**
+	 * Unmarshal all elements with the given name from the given source, one at a
+	 * time, handing each unmarshalled element to the given callback.
+	 * <p>The source is read via StAX, and only the current element is held in memory,
+	 * which makes this suitable for documents too large to be unmarshalled as a whole,
+	 * e.g. a long list of records below a common root element. Other content is skipped.
+	 * @param source the source to read from: a StAX source or a {@code StreamSource}
+	 * @param elementName the qualified name of the elements to unmarshal
+	 * @param declaredType the type to unmarshal each element to
+	 * @param callback the callback to invoke for each unmarshalled element
+	 * @return the number of elements unmarshalled
+	 * @throws XmlMappingException if reading or unmarshalling failed
+	 * @throws IllegalArgumentException if the source is of an unsupported type
+	 */
+	public <T> int unmarshalElements(Source source, QName elementName, Class<T> declaredType,
+			PartialUnmarshallingCallback<? super T> callback) throws XmlMappingException {
+
+		Assert.notNull(elementName, "'elementName' must not be null");
+		Assert.notNull(declaredType, "'declaredType' must not be null");
+		Assert.notNull(callback, "'callback' must not be null");
+		XMLStreamReader streamReader = null;
+		boolean closeReader = false;
+		try {
+			if (StaxUtils.isStaxSource(source)) {
+				streamReader = StaxUtils.getXMLStreamReader(source);
+				if (streamReader == null) {
+					XMLEventReader eventReader = StaxUtils.getXMLEventReader(source);
+					if (eventReader == null) {
+						throw new IllegalArgumentException("StaxSource contains neither XMLStreamReader nor XMLEventReader");
+					}
+					streamReader = StaxUtils.createEventStreamReader(eventReader);
+				}
+			}
+			else if (source instanceof StreamSource) {
+				streamReader = createXmlInputFactory().createXMLStreamReader(source);
+				closeReader = true;
+			}
+			else {
+				throw new IllegalArgumentException("Unsupported Source for partial unmarshalling: " + source);
+			}
+
+			Unmarshaller unmarshaller = obtainUnmarshaller();
+			int count = 0;
+			while (true) {
+				if (streamReader.isStartElement() && elementName.equals(streamReader.getName())) {
+					// Leaves the reader positioned right after the element's end tag
+					JAXBElement<T> element = unmarshaller.unmarshal(streamReader, declaredType);
+					callback.doWithElement(element.getValue());
+					count++;
+				}
+				else if (streamReader.hasNext()) {
+					streamReader.next();
+				}
+				else {
+					break;
+				}
+			}
+			releaseUnmarshaller(unmarshaller);
+			return count;
+		}
+		catch (XMLStreamException ex) {
+			throw new UnmarshallingFailureException("StAX exception while unmarshalling elements", ex);
+		}
+		catch (JAXBException ex) {
+			throw convertJaxbException(ex);
+		}
+		finally {
+			if (closeReader) {
+				try {
+					streamReader.close();
+				}
+				catch (XMLStreamException ex) {
+					logger.debug("Could not close XMLStreamReader", ex);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Create the StAX input factory for {@link #unmarshalElements partial unmarshalling},
+	 * applying the {@link #setSupportDtd DTD} and {@link #setProcessExternalEntities
+	 * external entity} settings of this marshaller.
+	 */
+	private XMLInputFactory createXmlInputFactory() {
+		XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+		inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, isSupportDtd());
+		inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, isProcessExternalEntities());
+		return inputFactory;
+	}
+
 	private Source processSource(Source source) {
 		if (StaxUtils.isStaxSource(source) || source instanceof DOMSource) {
 			return source;
@@ -860,6 +1089,39 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 		}
 	}
 
+	/**
+	 * Obtain a JAXB unmarshaller, from the pool if possible.
+	 */
+	private Unmarshaller obtainUnmarshaller() {
+		if (this.unmarshallerPool != null) {
+			Unmarshaller unmarshaller = this.unmarshallerPool.poll();
+			if (unmarshaller != null) {
+				return unmarshaller;
+			}
+		}
+		return createUnmarshaller();
+	}
+
+	/**
+	 * Return the given JAXB unmarshaller to the pool, if pooling is active and the
+	 * pool has capacity left, after dropping per-call state.
+	 */
+	private void releaseUnmarshaller(Unmarshaller unmarshaller) {
+		BlockingQueue<Unmarshaller> pool = this.unmarshallerPool;
+		if (pool != null && pool.remainingCapacity() > 0) {
+			unmarshaller.setAttachmentUnmarshaller(null);
+			pool.offer(unmarshaller);
+		}
+	}
+
+	/**
+	 * Return the number of idle JAXB unmarshallers currently pooled.
+	 * @see #setMarshallerPoolSize
+	 */
+	public int getPooledUnmarshallerCount() {
+		return (this.unmarshallerPool != null ? this.unmarshallerPool.size() : 0);
+	}
+
 	/**
 	 * Template method that can be overridden by concrete JAXB marshallers for custom initialization behavior.
 	 * Gets called after creation of JAXB {@code Marshaller}, and after the respective properties have been set.
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.oxm.jaxb;
+
+/**
+ * Callback interface for elements unmarshalled one at a time by
+ * {@link Jaxb2Marshaller#unmarshalElements}.
+ *
+ * @since 3.2.19
+ * @see Jaxb2Marshaller#unmarshalElements
+ */
+public interface PartialUnmarshallingCallback<T> {
+
+	/**
+	 * Handle the given unmarshalled element.
+	 * <p>Runtime exceptions thrown from this method abort the unmarshalling
+	 * and are propagated to the caller.
+	 * @param element the unmarshalled element
+	 */
+	void doWithElement(T element);
+
+}
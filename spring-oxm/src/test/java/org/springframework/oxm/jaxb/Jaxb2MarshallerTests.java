@@ -40,6 +40,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.oxm.AbstractMarshallerTests;
 import org.springframework.oxm.Marshaller;
 import org.springframework.oxm.UncategorizedMappingException;
@@ -121,6 +122,41 @@ public class Jaxb2MarshallerTests extends AbstractMarshallerTests {
 		assertXMLEqual("Marshaller writes invalid StreamResult", EXPECTED_STRING, writer.toString());
 	}
 
+	@Test
+	public void jaxbContextInitExecutor() throws Exception {
+		marshaller = new Jaxb2Marshaller();
+		marshaller.setContextPath(CONTEXT_PATH);
+		marshaller.setJaxbContextInitExecutor(new SimpleAsyncTaskExecutor());
+		marshaller.afterPropertiesSet();
+		StringWriter writer = new StringWriter();
+		marshaller.marshal(flights, new StreamResult(writer));
+		assertXMLEqual("Marshaller writes invalid StreamResult", EXPECTED_STRING, writer.toString());
+		assertNotNull(marshaller.getJaxbContext());
+	}
+
+	@Test(expected = UncategorizedMappingException.class)
+	public void jaxbContextInitExecutorWithInvalidContextPath() throws Exception {
+		marshaller = new Jaxb2Marshaller();
+		marshaller.setContextPath("ab");
+		marshaller.setJaxbContextInitExecutor(new SimpleAsyncTaskExecutor());
+		marshaller.afterPropertiesSet();
+		marshaller.getJaxbContext();
+	}
+
+	@Test
+	public void marshalPooled() throws Exception {
+		marshaller = new Jaxb2Marshaller();
+		marshaller.setContextPath(CONTEXT_PATH);
+		marshaller.setMarshallerPoolSize(2);
+		marshaller.afterPropertiesSet();
+		for (int i = 0; i < 3; i++) {
+			StringWriter writer = new StringWriter();
+			marshaller.marshal(flights, new StreamResult(writer));
+			assertXMLEqual("Marshaller writes invalid StreamResult", EXPECTED_STRING, writer.toString());
+		}
+		assertEquals(1, marshaller.getPooledMarshallerCount());
+	}
+
 	@Test
 	public void properties() throws Exception {
 		Jaxb2Marshaller marshaller = new Jaxb2Marshaller();
@@ -19,9 +19,12 @@ package org.springframework.oxm.jaxb;
 import java.io.File;
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
 import javax.activation.DataHandler;
 import javax.activation.FileDataSource;
 import javax.xml.bind.JAXBElement;
+import javax.xml.namespace.QName;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.Source;
@@ -145,4 +148,57 @@ public class Jaxb2UnmarshallerTests extends AbstractUnmarshallerTests {
 		testFlights(f);
 	}
 
+	@Test
+	public void unmarshalElements() throws Exception {
+		String content = "<tns:flights xmlns:tns=\"http://samples.springframework.org/flight\">" +
+				"<tns:flight><tns:number>1</tns:number></tns:flight>" +
+				"<tns:flight><tns:number>2</tns:number></tns:flight>" +
+				"<tns:flight><tns:number>3</tns:number></tns:flight></tns:flights>";
+		final List<Long> numbers = new ArrayList<Long>();
+
+		int count = unmarshaller.unmarshalElements(new StreamSource(new StringReader(content)),
+				new QName("http://samples.springframework.org/flight", "flight"), FlightType.class,
+				new PartialUnmarshallingCallback<FlightType>() {
+					public void doWithElement(FlightType flight) {
+						numbers.add(flight.getNumber());
+					}
+				});
+
+		assertEquals(3, count);
+		assertEquals(3, numbers.size());
+		assertEquals(Long.valueOf(1), numbers.get(0));
+		assertEquals(Long.valueOf(3), numbers.get(2));
+	}
+
+	@Test
+	public void unmarshalElementsFromStaxSource() throws Exception {
+		XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+		XMLStreamReader streamReader = inputFactory.createXMLStreamReader(new StringReader(INPUT_STRING));
+		final List<FlightType> flights = new ArrayList<FlightType>();
+
+		int count = unmarshaller.unmarshalElements(StaxUtils.createStaxSource(streamReader),
+				new QName("http://samples.springframework.org/flight", "flight"), FlightType.class,
+				new PartialUnmarshallingCallback<FlightType>() {
+					public void doWithElement(FlightType flight) {
+						flights.add(flight);
+					}
+				});
+
+		assertEquals(1, count);
+		testFlight(flights.get(0));
+	}
+
+	@Test
+	public void unmarshalPooled() throws Exception {
+		unmarshaller = new Jaxb2Marshaller();
+		unmarshaller.setContextPath("org.springframework.oxm.jaxb.test");
+		unmarshaller.setMarshallerPoolSize(2);
+		unmarshaller.afterPropertiesSet();
+
+		for (int i = 0; i < 3; i++) {
+			testFlights(unmarshaller.unmarshal(new StreamSource(new StringReader(INPUT_STRING))));
+		}
+		assertEquals(1, unmarshaller.getPooledUnmarshallerCount());
+	}
+
 }
@@ -31,6 +31,10 @@ import org.springframework.util.Assert;
  * <p>Note: {@code CacheAwareContextLoaderDelegate} does not implement the
  * {@link ContextLoader} or {@link SmartContextLoader} interface.
  *
+ * <p>Loading is <em>single-flight</em> per {@link MergedContextConfiguration}:
+ * concurrent requests for the same configuration wait for a single load, while
+ * different configurations may be loaded in parallel.
+ *
  * @author Sam Brannen
  * @since 3.2.2
  */
@@ -88,20 +92,44 @@ public class CacheAwareContextLoaderDelegate {
 	 * loading the application context
 	 */
 	public ApplicationContext loadContext(MergedContextConfiguration mergedContextConfiguration) {
-		synchronized (this.contextCache) {
-			ApplicationContext context = this.contextCache.get(mergedContextConfiguration);
+		return loadContext(mergedContextConfiguration, false);
+	}
+
+	/**
+	 * Load the {@link ApplicationContext application context} for the supplied
+	 * merged context configuration, optionally {@linkplain ContextCache#retain
+	 * retaining} it atomically with the lookup.
+	 * @param retain whether to register a reference to the returned context
+	 * @see #loadContext(MergedContextConfiguration)
+	 */
+	ApplicationContext loadContext(MergedContextConfiguration mergedContextConfiguration, boolean retain) {
+		// Parents are loaded from within the loading of their children, so monitors
+		// are always acquired from child to parent and cannot deadlock.
+		synchronized (this.contextCache.getLoadMonitor(mergedContextConfiguration)) {
+			ApplicationContext context;
+			synchronized (this.contextCache) {
+				context = this.contextCache.get(mergedContextConfiguration);
+				if (context != null && retain) {
+					this.contextCache.retain(context);
+				}
+			}
 			if (context == null) {
 				try {
 					context = loadContextInternal(mergedContextConfiguration);
-					if (logger.isDebugEnabled()) {
-						logger.debug(String.format("Storing ApplicationContext in cache under key [%s]",
-								mergedContextConfiguration));
-					}
-					this.contextCache.put(mergedContextConfiguration, context);
 				}
 				catch (Exception ex) {
 					throw new IllegalStateException("Failed to load ApplicationContext", ex);
 				}
+				if (logger.isDebugEnabled()) {
+					logger.debug(String.format("Storing ApplicationContext in cache under key [%s]",
+							mergedContextConfiguration));
+				}
+				synchronized (this.contextCache) {
+					this.contextCache.put(mergedContextConfiguration, context);
+					if (retain) {
+						this.contextCache.retain(context);
+					}
+				}
 			}
 			else {
 				if (logger.isDebugEnabled()) {
@@ -112,6 +140,10 @@ public class CacheAwareContextLoaderDelegate {
 
 			if (statsLogger.isDebugEnabled()) {
 				statsLogger.debug("Spring test ApplicationContext cache statistics: " + this.contextCache);
+				if (statsLogger.isTraceEnabled()) {
+					statsLogger.trace("Spring test ApplicationContext cache miss report: " +
+							this.contextCache.getMissReport());
+				}
 			}
 
 			return context;
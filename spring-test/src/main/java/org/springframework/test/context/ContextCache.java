@@ -17,11 +17,18 @@
 package org.springframework.test.context;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.context.ApplicationContext;
@@ -42,6 +49,23 @@ import org.springframework.util.Assert;
  * initialize. Hence it often makes sense to perform that initialization only once per
  * test suite.
  *
+ * <p>The cache may be bounded by a {@linkplain #ContextCache(int) maximum size}, in
+ * which case the least recently used context is closed and evicted whenever the limit
+ * is exceeded. Evicting a context that is the parent of other contexts in a
+ * {@link ContextHierarchy} evicts and closes the whole subtree as well, while the
+ * ancestors of the context being added are never evicted.
+ *
+ * <p>Contexts may be {@linkplain #retain retained} while in use by a test class.
+ * Closing a retained context that is removed from the cache, whether due to
+ * {@code @DirtiesContext} or eviction, is deferred until it has been
+ * {@linkplain #release released} by all of its users, which allows test classes
+ * sharing a context to execute in parallel.
+ *
+ * <p>In addition to overall hit and miss counts, statistics are tracked per
+ * {@linkplain MergedContextConfiguration#getTestClass() test class}, and a
+ * {@linkplain #getMissReport() miss report} lists the configurations that had to be
+ * loaded along with the test classes that requested them.
+ *
  * @author Sam Brannen
  * @author Juergen Hoeller
  * @since 2.5
@@ -49,10 +73,19 @@ import org.springframework.util.Assert;
 class ContextCache {
 
 	/**
-	 * Map of context keys to Spring {@code ApplicationContext} instances.
+	 * System property used to configure the maximum size of the context cache
+	 * shared by all {@link TestContextManager TestContextManagers}: {@value}.
+	 * <p>If not set, the shared cache is unbounded.
+	 */
+	public static final String MAX_CONTEXT_CACHE_SIZE_PROPERTY_NAME = "spring.test.context.cache.maxSize";
+
+
+	/**
+	 * Map of context keys to Spring {@code ApplicationContext} instances,
+	 * in least-recently-used order.
 	 */
 	private final Map<MergedContextConfiguration, ApplicationContext> contextMap =
-			new ConcurrentHashMap<MergedContextConfiguration, ApplicationContext>(64);
+			new LinkedHashMap<MergedContextConfiguration, ApplicationContext>(64, 0.75f, true);
 
 	/**
 	 * Map of parent keys to sets of children keys, representing a top-down <em>tree</em>
@@ -67,28 +100,96 @@ class ContextCache {
 
 	private final AtomicInteger missCount = new AtomicInteger();
 
+	private final AtomicInteger evictionCount = new AtomicInteger();
+
+	/**
+	 * Map of test classes to their hit and miss counts.
+	 */
+	private final Map<Class<?>, Statistics> statisticsPerTestClass =
+			new ConcurrentHashMap<Class<?>, Statistics>(64);
+
+	/**
+	 * Map of context keys that caused a cache miss to the names of the test classes
+	 * for which they were requested, in order of occurrence.
+	 */
+	private final Map<MergedContextConfiguration, List<String>> missesPerKey =
+			new LinkedHashMap<MergedContextConfiguration, List<String>>(64);
+
+	/**
+	 * Map of contexts currently in use to their reference counts, including the
+	 * parents of those contexts.
+	 */
+	private final Map<ApplicationContext, Integer> referenceCounts =
+			new IdentityHashMap<ApplicationContext, Integer>(64);
+
+	/**
+	 * Retained contexts that have been removed from the cache and are to be closed
+	 * once released.
+	 */
+	private final Map<ApplicationContext, Boolean> pendingClose =
+			new IdentityHashMap<ApplicationContext, Boolean>(16);
+
+	/**
+	 * Monitors used to load each context only once when requested concurrently.
+	 */
+	private final ConcurrentMap<MergedContextConfiguration, Object> loadMonitors =
+			new ConcurrentHashMap<MergedContextConfiguration, Object>(64);
+
+	private final int maxSize;
+
+
+	/**
+	 * Create a new, unbounded {@code ContextCache}.
+	 */
+	public ContextCache() {
+		this(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Create a new {@code ContextCache} holding at most the given number of contexts.
+	 * @param maxSize the maximum number of contexts to keep (must be positive)
+	 * @since 3.2.19
+	 */
+	public ContextCache(int maxSize) {
+		Assert.isTrue(maxSize > 0, "Maximum size must be positive");
+		this.maxSize = maxSize;
+	}
+
+
+	/**
+	 * Return the maximum number of contexts this cache holds.
+	 * @since 3.2.19
+	 */
+	public int getMaxSize() {
+		return this.maxSize;
+	}
 
 	/**
 	 * Clear all contexts from the cache and clears context hierarchy information as well.
 	 */
-	public void clear() {
+	public synchronized void clear() {
 		this.contextMap.clear();
 		this.hierarchyMap.clear();
 	}
 
 	/**
 	 * Clear hit and miss count statistics for the cache (i.e., resets counters to zero).
+	 * <p>Eviction counts, per-class statistics and the miss report are reset as well.
 	 */
-	public void clearStatistics() {
+	public synchronized void clearStatistics() {
 		this.hitCount.set(0);
 		this.missCount.set(0);
+		this.evictionCount.set(0);
+		this.statisticsPerTestClass.clear();
+		this.missesPerKey.clear();
 	}
 
 	/**
 	 * Return whether there is a cached context for the given key.
+	 * <p>Does not count as an access for the purpose of eviction.
 	 * @param key the context key (never {@code null})
 	 */
-	public boolean contains(MergedContextConfiguration key) {
+	public synchronized boolean contains(MergedContextConfiguration key) {
 		Assert.notNull(key, "Key must not be null");
 		return this.contextMap.containsKey(key);
 	}
@@ -96,24 +197,55 @@ class ContextCache {
 	/**
 	 * Obtain a cached {@code ApplicationContext} for the given key.
 	 * <p>The {@link #getHitCount() hit} and {@link #getMissCount() miss} counts will
-	 * be updated accordingly.
+	 * be updated accordingly, both overall and for the test class of the given key.
+	 * A hit marks the context and all of its parents as recently used.
 	 * @param key the context key (never {@code null})
 	 * @return the corresponding {@code ApplicationContext} instance, or {@code null}
 	 * if not found in the cache
 	 * @see #remove
 	 */
-	public ApplicationContext get(MergedContextConfiguration key) {
+	public synchronized ApplicationContext get(MergedContextConfiguration key) {
 		Assert.notNull(key, "Key must not be null");
 		ApplicationContext context = this.contextMap.get(key);
+		Statistics statistics = getStatistics(key.getTestClass());
 		if (context == null) {
 			this.missCount.incrementAndGet();
+			if (statistics != null) {
+				statistics.missCount.incrementAndGet();
+			}
+			List<String> testClassNames = this.missesPerKey.get(key);
+			if (testClassNames == null) {
+				testClassNames = new ArrayList<String>();
+				this.missesPerKey.put(key, testClassNames);
+			}
+			testClassNames.add(key.getTestClass() != null ? key.getTestClass().getName() : "<unknown>");
 		}
 		else {
 			this.hitCount.incrementAndGet();
+			if (statistics != null) {
+				statistics.hitCount.incrementAndGet();
+			}
+			MergedContextConfiguration parent = key.getParent();
+			while (parent != null) {
+				this.contextMap.get(parent);
+				parent = parent.getParent();
+			}
 		}
 		return context;
 	}
 
+	private Statistics getStatistics(Class<?> testClass) {
+		if (testClass == null) {
+			return null;
+		}
+		Statistics statistics = this.statisticsPerTestClass.get(testClass);
+		if (statistics == null) {
+			statistics = new Statistics();
+			this.statisticsPerTestClass.put(testClass, statistics);
+		}
+		return statistics;
+	}
+
 	/**
 	 * Get the overall hit count for this cache.
 	 * <p>A <em>hit</em> is an access to the cache, which returned a non-null context
@@ -132,12 +264,71 @@ class ContextCache {
 		return this.missCount.get();
 	}
 
+	/**
+	 * Get the hit count for contexts requested on behalf of the given test class.
+	 * @since 3.2.19
+	 * @see MergedContextConfiguration#getTestClass()
+	 */
+	public int getHitCount(Class<?> testClass) {
+		Statistics statistics = this.statisticsPerTestClass.get(testClass);
+		return (statistics != null ? statistics.hitCount.get() : 0);
+	}
+
+	/**
+	 * Get the miss count for contexts requested on behalf of the given test class.
+	 * @since 3.2.19
+	 * @see MergedContextConfiguration#getTestClass()
+	 */
+	public int getMissCount(Class<?> testClass) {
+		Statistics statistics = this.statisticsPerTestClass.get(testClass);
+		return (statistics != null ? statistics.missCount.get() : 0);
+	}
+
+	/**
+	 * Get the number of contexts that have been evicted from this cache because
+	 * its {@linkplain #getMaxSize() maximum size} was exceeded, including the
+	 * children of evicted parent contexts.
+	 * @since 3.2.19
+	 */
+	public int getEvictionCount() {
+		return this.evictionCount.get();
+	}
+
+	/**
+	 * Generate a report of all context configurations that caused a cache miss,
+	 * ordered by descending miss count, along with the names of the test classes
+	 * that requested them.
+	 * <p>Configurations that are loaded for many test classes, or repeatedly due to
+	 * eviction or {@code @DirtiesContext}, are the best candidates for consolidation.
+	 * @since 3.2.19
+	 */
+	public synchronized String getMissReport() {
+		List<Map.Entry<MergedContextConfiguration, List<String>>> entries =
+				new ArrayList<Map.Entry<MergedContextConfiguration, List<String>>>(this.missesPerKey.entrySet());
+		Collections.sort(entries, new Comparator<Map.Entry<MergedContextConfiguration, List<String>>>() {
+			public int compare(Map.Entry<MergedContextConfiguration, List<String>> entry1,
+					Map.Entry<MergedContextConfiguration, List<String>> entry2) {
+				return entry2.getValue().size() - entry1.getValue().size();
+			}
+		});
+		StringBuilder report = new StringBuilder();
+		report.append(this.missCount.get()).append(" cache misses for ").append(entries.size());
+		report.append(" distinct context configurations");
+		for (Map.Entry<MergedContextConfiguration, List<String>> entry : entries) {
+			report.append("\n").append(entry.getValue().size()).append(" x ").append(entry.getKey());
+			report.append("\n    requested by ").append(new LinkedHashSet<String>(entry.getValue()));
+		}
+		return report.toString();
+	}
+
 	/**
 	 * Explicitly add an {@code ApplicationContext} instance to the cache under the given key.
+	 * <p>If the cache exceeds its {@linkplain #getMaxSize() maximum size} as a result,
+	 * the least recently used contexts are evicted and closed, along with their children.
 	 * @param key the context key (never {@code null})
 	 * @param context the {@code ApplicationContext} instance (never {@code null})
 	 */
-	public void put(MergedContextConfiguration key, ApplicationContext context) {
+	public synchronized void put(MergedContextConfiguration key, ApplicationContext context) {
 		Assert.notNull(key, "Key must not be null");
 		Assert.notNull(context, "ApplicationContext must not be null");
 
@@ -154,6 +345,37 @@ class ContextCache {
 			child = parent;
 			parent = child.getParent();
 		}
+
+		if (this.contextMap.size() > this.maxSize) {
+			evict(key);
+		}
+	}
+
+	/**
+	 * Evict the least recently used contexts until the cache fits its maximum size
+	 * again, sparing the given key and its ancestors.
+	 */
+	private void evict(MergedContextConfiguration addedKey) {
+		Set<MergedContextConfiguration> protectedKeys = new HashSet<MergedContextConfiguration>();
+		for (MergedContextConfiguration current = addedKey; current != null; current = current.getParent()) {
+			protectedKeys.add(current);
+		}
+		while (this.contextMap.size() > this.maxSize) {
+			MergedContextConfiguration eldestKey = null;
+			for (Iterator<MergedContextConfiguration> it = this.contextMap.keySet().iterator(); it.hasNext();) {
+				MergedContextConfiguration candidate = it.next();
+				if (!protectedKeys.contains(candidate)) {
+					eldestKey = candidate;
+					break;
+				}
+			}
+			if (eldestKey == null) {
+				return;
+			}
+			int sizeBefore = this.contextMap.size();
+			remove(eldestKey, HierarchyMode.CURRENT_LEVEL);
+			this.evictionCount.addAndGet(sizeBefore - this.contextMap.size());
+		}
 	}
 
 	/**
@@ -169,7 +391,7 @@ class ContextCache {
 	 * @param hierarchyMode the hierarchy mode; may be {@code null} if the context
 	 * is not part of a hierarchy
 	 */
-	public void remove(MergedContextConfiguration key, HierarchyMode hierarchyMode) {
+	public synchronized void remove(MergedContextConfiguration key, HierarchyMode hierarchyMode) {
 		Assert.notNull(key, "Key must not be null");
 
 		// startKey is the level at which to begin clearing the cache, depending
@@ -216,10 +438,88 @@ class ContextCache {
 		// Physically remove and close leaf nodes first (i.e., on the way back up the
 		// stack as opposed to prior to the recursive call).
 		ApplicationContext context = this.contextMap.remove(key);
+		if (context != null) {
+			if (this.referenceCounts.containsKey(context)) {
+				this.pendingClose.put(context, Boolean.TRUE);
+			}
+			else {
+				close(context);
+			}
+		}
+		removedContexts.add(key);
+	}
+
+	private void close(ApplicationContext context) {
 		if (context instanceof ConfigurableApplicationContext) {
 			((ConfigurableApplicationContext) context).close();
 		}
-		removedContexts.add(key);
+	}
+
+	/**
+	 * Return the monitor to hold while loading the context for the given key.
+	 * @see CacheAwareContextLoaderDelegate#loadContext(MergedContextConfiguration, boolean)
+	 */
+	Object getLoadMonitor(MergedContextConfiguration key) {
+		Object monitor = this.loadMonitors.get(key);
+		if (monitor == null) {
+			monitor = new Object();
+			Object existing = this.loadMonitors.putIfAbsent(key, monitor);
+			if (existing != null) {
+				monitor = existing;
+			}
+		}
+		return monitor;
+	}
+
+	/**
+	 * Register a reference to the given context, and implicitly to all of its
+	 * parents, so that it is not closed while in use.
+	 * <p>Each call must be matched by a subsequent call to {@link #release}.
+	 * @param context the context in use (never {@code null})
+	 * @since 3.2.19
+	 */
+	public synchronized void retain(ApplicationContext context) {
+		Assert.notNull(context, "ApplicationContext must not be null");
+		for (ApplicationContext current = context; current != null; current = current.getParent()) {
+			Integer count = this.referenceCounts.get(current);
+			this.referenceCounts.put(current, (count != null ? count + 1 : 1));
+		}
+	}
+
+	/**
+	 * Release a reference previously registered via {@link #retain}.
+	 * <p>Closes the given context and its parents if they have been removed from
+	 * the cache in the meantime and are no longer referenced.
+	 * @param context the context no longer in use (never {@code null})
+	 * @since 3.2.19
+	 */
+	public synchronized void release(ApplicationContext context) {
+		Assert.notNull(context, "ApplicationContext must not be null");
+		for (ApplicationContext current = context; current != null; current = current.getParent()) {
+			Integer count = this.referenceCounts.get(current);
+			if (count == null) {
+				continue;
+			}
+			if (count > 1) {
+				this.referenceCounts.put(current, count - 1);
+			}
+			else {
+				this.referenceCounts.remove(current);
+				if (this.pendingClose.remove(current) != null) {
+					close(current);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Return the number of references currently registered for the given context.
+	 * @since 3.2.19
+	 * @see #retain
+	 */
+	public synchronized int getReferenceCount(ApplicationContext context) {
+		Integer count = this.referenceCounts.get(context);
+		return (count != null ? count : 0);
 	}
 
 	/**
@@ -227,7 +527,7 @@ class ContextCache {
 	 * contains more than <tt>Integer.MAX_VALUE</tt> elements, returns
 	 * <tt>Integer.MAX_VALUE</tt>.
 	 */
-	public int size() {
+	public synchronized int size() {
 		return this.contextMap.size();
 	}
 
@@ -239,18 +539,32 @@ class ContextCache {
 	}
 
 	/**
-	 * Generates a text string, which contains the {@linkplain #size() size} as well
-	 * as the {@linkplain #getHitCount() hit}, {@linkplain #getMissCount() miss},
+	 * Generates a text string, which contains the {@linkplain #size() size} and
+	 * {@linkplain #getMaxSize() maximum size} as well as the {@linkplain #getHitCount() hit},
+	 * {@linkplain #getMissCount() miss}, {@linkplain #getEvictionCount() eviction},
 	 * and {@linkplain #getParentContextCount() parent context} counts.
 	 */
 	@Override
 	public String toString() {
 		return new ToStringCreator(this)
 				.append("size", size())
+				.append("maxSize", getMaxSize())
 				.append("hitCount", getHitCount())
 				.append("missCount", getMissCount())
+				.append("evictionCount", getEvictionCount())
 				.append("parentContextCount", getParentContextCount())
 				.toString();
 	}
 
+
+	/**
+	 * Hit and miss counts for a single test class.
+	 */
+	private static class Statistics {
+
+		final AtomicInteger hitCount = new AtomicInteger();
+
+		final AtomicInteger missCount = new AtomicInteger();
+	}
+
 }
@@ -31,6 +31,15 @@ import org.springframework.util.Assert;
  * {@code TestContext} encapsulates the context in which a test is executed,
  * agnostic of the actual testing framework in use.
  *
+ * <p>A {@code TestContext} may be shared by test methods executing in parallel.
+ * The current {@linkplain #getTestInstance() test instance},
+ * {@linkplain #getTestMethod() test method} and {@linkplain #getTestException()
+ * test exception} are therefore tracked per thread, and attribute access is
+ * synchronized. An application context obtained while preparing or executing a
+ * test method is retained in the {@link ContextCache} until that test method has
+ * completed, so that it cannot be closed by sibling test methods marking it as
+ * dirty in the meantime.
+ *
  * @author Sam Brannen
  * @author Juergen Hoeller
  * @since 2.5
@@ -49,11 +58,17 @@ public class TestContext extends AttributeAccessorSupport {
 
 	private final Class<?> testClass;
 
-	private Object testInstance;
+	private volatile Object testInstance;
+
+	private volatile Method testMethod;
+
+	private volatile Throwable testException;
+
+	private final transient ThreadLocal<TestState> currentTestState = new ThreadLocal<TestState>();
 
-	private Method testMethod;
+	private boolean applicationContextRetained;
 
-	private Throwable testException;
+	private ApplicationContext retainedApplicationContext;
 
 
 	/**
@@ -119,7 +134,64 @@ public class TestContext extends AttributeAccessorSupport {
 	 * application context
 	 */
 	public ApplicationContext getApplicationContext() {
-		return this.cacheAwareContextLoaderDelegate.loadContext(this.mergedContextConfiguration);
+		TestState state = this.currentTestState.get();
+		if (state != null && state.testInstance != null) {
+			// Hold a reference per test method, released in resetState()
+			ApplicationContext context =
+					this.cacheAwareContextLoaderDelegate.loadContext(this.mergedContextConfiguration, true);
+			ApplicationContext previous = state.retainedApplicationContext;
+			state.retainedApplicationContext = context;
+			if (previous != null) {
+				this.contextCache.release(previous);
+			}
+			return context;
+		}
+
+		boolean retain;
+		synchronized (this) {
+			retain = this.applicationContextRetained;
+		}
+		ApplicationContext context =
+				this.cacheAwareContextLoaderDelegate.loadContext(this.mergedContextConfiguration, retain);
+		if (retain) {
+			// Hold a single reference, to the most recently obtained context
+			ApplicationContext previous;
+			synchronized (this) {
+				previous = this.retainedApplicationContext;
+				this.retainedApplicationContext = context;
+			}
+			if (previous != null) {
+				this.contextCache.release(previous);
+			}
+		}
+		return context;
+	}
+
+	/**
+	 * Start {@linkplain ContextCache#retain retaining} the application context
+	 * obtained from this test context outside of test methods, preventing it
+	 * from being closed by other test classes while in use.
+	 * @see #releaseApplicationContext()
+	 */
+	synchronized void retainApplicationContext() {
+		this.applicationContextRetained = true;
+	}
+
+	/**
+	 * Release the application context retained by this test context, if any,
+	 * and stop retaining subsequently obtained contexts.
+	 * @see #retainApplicationContext()
+	 */
+	void releaseApplicationContext() {
+		ApplicationContext previous;
+		synchronized (this) {
+			this.applicationContextRetained = false;
+			previous = this.retainedApplicationContext;
+			this.retainedApplicationContext = null;
+		}
+		if (previous != null) {
+			this.contextCache.release(previous);
+		}
 	}
 
 	/**
@@ -137,7 +209,8 @@ public class TestContext extends AttributeAccessorSupport {
 	 * @see #updateState(Object, Method, Throwable)
 	 */
 	public Object getTestInstance() {
-		return this.testInstance;
+		TestState state = this.currentTestState.get();
+		return (state != null ? state.testInstance : this.testInstance);
 	}
 
 	/**
@@ -147,7 +220,8 @@ public class TestContext extends AttributeAccessorSupport {
 	 * @see #updateState(Object, Method, Throwable)
 	 */
 	public Method getTestMethod() {
-		return this.testMethod;
+		TestState state = this.currentTestState.get();
+		return (state != null ? state.testMethod : this.testMethod);
 	}
 
 	/**
@@ -159,7 +233,8 @@ public class TestContext extends AttributeAccessorSupport {
 	 * @see #updateState(Object, Method, Throwable)
 	 */
 	public Throwable getTestException() {
-		return this.testException;
+		TestState state = this.currentTestState.get();
+		return (state != null ? state.testException : this.testException);
 	}
 
 	/**
@@ -184,7 +259,18 @@ public class TestContext extends AttributeAccessorSupport {
 	 * context is part of a hierarchy (may be {@code null})
 	 */
 	public void markApplicationContextDirty(HierarchyMode hierarchyMode) {
+		// Drop the class-level reference so that the context gets closed once no
+		// longer in use by other test classes or by test methods still executing;
+		// the reference of the current test method is dropped in resetState().
+		ApplicationContext previous;
+		synchronized (this) {
+			previous = this.retainedApplicationContext;
+			this.retainedApplicationContext = null;
+		}
 		synchronized (this.contextCache) {
+			if (previous != null) {
+				this.contextCache.release(previous);
+			}
 			this.contextCache.remove(this.mergedContextConfiguration, hierarchyMode);
 		}
 	}
@@ -197,11 +283,55 @@ public class TestContext extends AttributeAccessorSupport {
 	 * {@code null} if no exception was thrown
 	 */
 	void updateState(Object testInstance, Method testMethod, Throwable testException) {
+		TestState previous = this.currentTestState.get();
+		TestState state = new TestState(testInstance, testMethod, testException);
+		if (previous != null) {
+			state.retainedApplicationContext = previous.retainedApplicationContext;
+		}
+		this.currentTestState.set(state);
 		this.testInstance = testInstance;
 		this.testMethod = testMethod;
 		this.testException = testException;
 	}
 
+	/**
+	 * Discard the state of the test executing in the current thread, releasing
+	 * the application context retained for it, if any.
+	 * @see #updateState(Object, Method, Throwable)
+	 */
+	void resetState() {
+		TestState state = this.currentTestState.get();
+		this.currentTestState.remove();
+		if (state != null && state.retainedApplicationContext != null) {
+			this.contextCache.release(state.retainedApplicationContext);
+		}
+	}
+
+	@Override
+	public synchronized void setAttribute(String name, Object value) {
+		super.setAttribute(name, value);
+	}
+
+	@Override
+	public synchronized Object getAttribute(String name) {
+		return super.getAttribute(name);
+	}
+
+	@Override
+	public synchronized Object removeAttribute(String name) {
+		return super.removeAttribute(name);
+	}
+
+	@Override
+	public synchronized boolean hasAttribute(String name) {
+		return super.hasAttribute(name);
+	}
+
+	@Override
+	public synchronized String[] attributeNames() {
+		return super.attributeNames();
+	}
+
 
 	/**
 	 * Provide a String representation of this test context's state.
@@ -210,11 +340,33 @@ public class TestContext extends AttributeAccessorSupport {
 	public String toString() {
 		return new ToStringCreator(this)
 				.append("testClass", this.testClass)
-				.append("testInstance", this.testInstance)
-				.append("testMethod", this.testMethod)
-				.append("testException", this.testException)
+				.append("testInstance", getTestInstance())
+				.append("testMethod", getTestMethod())
+				.append("testException", getTestException())
 				.append("mergedContextConfiguration", this.mergedContextConfiguration)
 				.toString();
 	}
 
+
+	/**
+	 * State of the test executing in the current thread.
+	 */
+	private static class TestState {
+
+		final Object testInstance;
+
+		final Method testMethod;
+
+		final Throwable testException;
+
+		/** Only accessed by the thread executing the test */
+		ApplicationContext retainedApplicationContext;
+
+		TestState(Object testInstance, Method testMethod, Throwable testException) {
+			this.testInstance = testInstance;
+			this.testMethod = testMethod;
+			this.testException = testException;
+		}
+	}
+
 }
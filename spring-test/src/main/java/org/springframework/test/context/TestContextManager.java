@@ -87,8 +87,10 @@ public class TestContextManager {
 	 * <p>This needs to be static, since test instances may be destroyed and
 	 * recreated between invocations of individual test methods, as is the case
 	 * with JUnit.
+	 * <p>The cache is unbounded unless a maximum size is specified via the
+	 * {@value ContextCache#MAX_CONTEXT_CACHE_SIZE_PROPERTY_NAME} system property.
 	 */
-	static final ContextCache contextCache = new ContextCache();
+	static final ContextCache contextCache = createContextCache();
 
 	private final TestContext testContext;
 
@@ -123,6 +125,15 @@ public class TestContextManager {
 	}
 
 
+	private static ContextCache createContextCache() {
+		Integer maxSize = Integer.getInteger(ContextCache.MAX_CONTEXT_CACHE_SIZE_PROPERTY_NAME);
+		if (maxSize != null && maxSize > 0) {
+			return new ContextCache(maxSize);
+		}
+		return new ContextCache();
+	}
+
+
 	/**
 	 * Get the {@link TestContext} managed by this {@code TestContextManager}.
 	 */
@@ -272,6 +283,9 @@ public class TestContextManager {
 	 * {@link TestExecutionListener} a chance to pre-process the test class
 	 * execution. If a listener throws an exception, however, the remaining
 	 * registered listeners will <strong>not</strong> be called.
+	 * <p>From this point until {@link #afterTestClass()}, the application context
+	 * of the test class is retained in the context cache, so that test classes
+	 * sharing it may execute in parallel without closing it for each other.
 	 * @throws Exception if a registered TestExecutionListener throws an
 	 * exception
 	 * @see #getTestExecutionListeners()
@@ -282,6 +296,7 @@ public class TestContextManager {
 			logger.trace("beforeTestClass(): class [" + testClass.getName() + "]");
 		}
 		getTestContext().updateState(null, null, null);
+		getTestContext().retainApplicationContext();
 
 		for (TestExecutionListener testExecutionListener : getTestExecutionListeners()) {
 			try {
@@ -375,6 +390,9 @@ public class TestContextManager {
 	 * <p>The managed {@link TestContext} will be updated with the supplied
 	 * {@code testInstance}, {@code testMethod}, and
 	 * {@code exception}.
+	 * <p>The application context obtained for the test method is released once
+	 * all listeners have been called, after which the {@code TestContext} no
+	 * longer tracks the test instance for the current thread.
 	 * <p>Each registered {@link TestExecutionListener} will be given a chance to
 	 * post-process the test method execution. If a listener throws an
 	 * exception, the remaining registered listeners will still be called, but
@@ -414,6 +432,7 @@ public class TestContextManager {
 				}
 			}
 		}
+		getTestContext().resetState();
 		if (afterTestMethodException != null) {
 			throw afterTestMethodException;
 		}
@@ -455,6 +474,8 @@ public class TestContextManager {
 				}
 			}
 		}
+		getTestContext().resetState();
+		getTestContext().releaseApplicationContext();
 		if (afterTestClassException != null) {
 			throw afterTestClassException;
 		}
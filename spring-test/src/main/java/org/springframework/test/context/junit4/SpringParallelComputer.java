@@ -0,0 +1,152 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.context.junit4;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.runner.Computer;
+import org.junit.runner.Runner;
+import org.junit.runners.ParentRunner;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerBuilder;
+import org.junit.runners.model.RunnerScheduler;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * JUnit {@link Computer} which executes test classes and/or test methods in
+ * parallel on a bounded number of threads, for use with
+ * {@link org.junit.runner.JUnitCore#run(Computer, Class[])}.
+ *
+ * <p>Test classes run by the {@link SpringJUnit4ClassRunner} may share cached
+ * application contexts while executing in parallel: a context requested by
+ * several classes at the same time is loaded only once, and a context marked
+ * as dirty by one class is not closed until all other classes using it have
+ * completed.
+ *
+ * <p>In contrast to JUnit's own {@code ParallelComputer}, the number of threads
+ * is bounded, which keeps the number of contexts being loaded concurrently in
+ * check.
+ *
+ * <p><b>NOTE:</b> Requires JUnit 4.7+.
+ *
+ * @since 3.2.19
+ * @see org.springframework.test.context.TestContextManager#beforeTestClass()
+ */
+public class SpringParallelComputer extends Computer {
+
+	private final boolean classes;
+
+	private final boolean methods;
+
+	private final int threads;
+
+
+	/**
+	 * Create a new {@code SpringParallelComputer} using one thread per
+	 * available processor.
+	 * @param classes whether to execute test classes in parallel
+	 * @param methods whether to execute the test methods of each class in parallel
+	 */
+	public SpringParallelComputer(boolean classes, boolean methods) {
+		this(classes, methods, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Create a new {@code SpringParallelComputer}.
+	 * @param classes whether to execute test classes in parallel
+	 * @param methods whether to execute the test methods of each class in parallel
+	 * @param threads the maximum number of threads to execute test classes, and
+	 * the test methods of each class, with
+	 */
+	public SpringParallelComputer(boolean classes, boolean methods, int threads) {
+		Assert.isTrue(threads > 0, "Number of threads must be positive");
+		this.classes = classes;
+		this.methods = methods;
+		this.threads = threads;
+	}
+
+
+	/**
+	 * Create a {@code SpringParallelComputer} which executes test classes in parallel.
+	 */
+	public static Computer classes() {
+		return new SpringParallelComputer(true, false);
+	}
+
+	/**
+	 * Create a {@code SpringParallelComputer} which executes the test methods
+	 * of each class in parallel.
+	 */
+	public static Computer methods() {
+		return new SpringParallelComputer(false, true);
+	}
+
+
+	@Override
+	public Runner getSuite(RunnerBuilder builder, Class<?>[] classes) throws InitializationError {
+		Runner suite = super.getSuite(builder, classes);
+		return (this.classes ? parallelize(suite, "SpringTestClass-") : suite);
+	}
+
+	@Override
+	protected Runner getRunner(RunnerBuilder builder, Class<?> testClass) throws Throwable {
+		Runner runner = super.getRunner(builder, testClass);
+		return (this.methods ? parallelize(runner, "SpringTestMethod-") : runner);
+	}
+
+	private Runner parallelize(Runner runner, String threadNamePrefix) {
+		if (runner instanceof ParentRunner) {
+			((ParentRunner<?>) runner).setScheduler(new ExecutorRunnerScheduler(this.threads, threadNamePrefix));
+		}
+		return runner;
+	}
+
+
+	/**
+	 * {@link RunnerScheduler} which executes children on a fixed-size thread pool
+	 * and waits for all of them to complete.
+	 */
+	private static class ExecutorRunnerScheduler implements RunnerScheduler {
+
+		private final ExecutorService executor;
+
+		public ExecutorRunnerScheduler(int threads, String threadNamePrefix) {
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+			threadFactory.setDaemon(true);
+			this.executor = Executors.newFixedThreadPool(threads, threadFactory);
+		}
+
+		public void schedule(Runnable childStatement) {
+			this.executor.execute(childStatement);
+		}
+
+		public void finished() {
+			this.executor.shutdown();
+			try {
+				this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+}
@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -114,9 +115,9 @@ public class TransactionalTestExecutionListener extends AbstractTestExecutionLis
 	private final Map<Method, TransactionContext> transactionContextCache =
 			new ConcurrentHashMap<Method, TransactionContext>(8);
 
-	private TransactionConfigurationAttributes configurationAttributes;
+	private volatile TransactionConfigurationAttributes configurationAttributes;
 
-	private volatile int transactionsStarted = 0;
+	private final AtomicInteger transactionsStarted = new AtomicInteger();
 
 
 	/**
@@ -274,9 +275,9 @@ public class TransactionalTestExecutionListener extends AbstractTestExecutionLis
 	 */
 	private void startNewTransaction(TestContext testContext, TransactionContext txContext) throws Exception {
 		txContext.startTransaction();
-		++this.transactionsStarted;
+		int transactionsStarted = this.transactionsStarted.incrementAndGet();
 		if (logger.isInfoEnabled()) {
-			logger.info("Began transaction (" + this.transactionsStarted + "): transaction manager ["
+			logger.info("Began transaction (" + transactionsStarted + "): transaction manager ["
 					+ txContext.transactionManager + "]; rollback [" + isRollback(testContext) + "]");
 		}
 	}
@@ -16,9 +16,19 @@
 
 package org.springframework.test.context;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.test.annotation.DirtiesContext.HierarchyMode;
 import org.springframework.test.context.support.AnnotationConfigContextLoader;
@@ -261,6 +271,246 @@ public class ContextCacheTests {
 		assertParentContextCount(0);
 	}
 
+	@Test
+	public void evictLeastRecentlyUsedContext() {
+		contextCache = new ContextCache(2);
+		ApplicationContext context1 = loadContext(AnnotationConfigContextLoaderTestCase.class);
+		ApplicationContext context2 = loadContext(CustomAnnotationConfigContextLoaderTestCase.class);
+		assertSame(context1, loadContext(AnnotationConfigContextLoaderTestCase.class));
+		assertEquals(0, contextCache.getEvictionCount());
+
+		ApplicationContext context3 = loadContext(FooBarProfilesTestCase.class);
+		assertContextCacheStatistics(contextCache, "after eviction", 2, 1, 3);
+		assertEquals(1, contextCache.getEvictionCount());
+		assertFalse(((ConfigurableApplicationContext) context2).isActive());
+		assertTrue(((ConfigurableApplicationContext) context1).isActive());
+		assertTrue(((ConfigurableApplicationContext) context3).isActive());
+
+		assertNotSame(context2, loadContext(CustomAnnotationConfigContextLoaderTestCase.class));
+		assertContextCacheStatistics(contextCache, "after reload", 2, 1, 4);
+		assertEquals(2, contextCache.getEvictionCount());
+		assertFalse(((ConfigurableApplicationContext) context1).isActive());
+	}
+
+	@Test
+	public void evictParentContextWithChildren() {
+		contextCache = new ContextCache(3);
+		TestContext testContext2 = new TestContext(ClassHierarchyContextHierarchyLevel2TestCase.class, contextCache);
+		ApplicationContext level2 = testContext2.getApplicationContext();
+		ApplicationContext level1 = level2.getParent();
+		loadContext(FooBarProfilesTestCase.class);
+		assertContextCacheStatistics(contextCache, "level 2 and profiles", 3, 0, 3);
+		assertParentContextCount(1);
+
+		loadContext(AnnotationConfigContextLoaderTestCase.class);
+		assertContextCacheStatistics(contextCache, "evicted level 1", 2, 0, 4);
+		assertEquals(2, contextCache.getEvictionCount());
+		assertParentContextCount(0);
+		assertFalse(((ConfigurableApplicationContext) level1).isActive());
+		assertFalse(((ConfigurableApplicationContext) level2).isActive());
+		assertFalse(contextCache.contains(getMergedContextConfiguration(testContext2)));
+	}
+
+	@Test
+	public void neverEvictAncestorsOfAddedContext() {
+		contextCache = new ContextCache(1);
+		TestContext testContext3a = new TestContext(ClassHierarchyContextHierarchyLevel3aTestCase.class, contextCache);
+		ApplicationContext level3a = testContext3a.getApplicationContext();
+		assertContextCacheStatistics(contextCache, "level 3, A", 3, 0, 3);
+		assertEquals(0, contextCache.getEvictionCount());
+		assertTrue(((ConfigurableApplicationContext) level3a).isActive());
+		assertTrue(((ConfigurableApplicationContext) level3a.getParent().getParent()).isActive());
+
+		loadContext(AnnotationConfigContextLoaderTestCase.class);
+		assertContextCacheStatistics(contextCache, "evicted hierarchy", 1, 0, 4);
+		assertEquals(3, contextCache.getEvictionCount());
+		assertFalse(((ConfigurableApplicationContext) level3a).isActive());
+	}
+
+	@Test
+	public void hitOnChildMarksParentsAsRecentlyUsed() {
+		contextCache = new ContextCache(3);
+		TestContext testContext2 = new TestContext(ClassHierarchyContextHierarchyLevel2TestCase.class, contextCache);
+		testContext2.getApplicationContext();
+		loadContext(FooBarProfilesTestCase.class);
+		assertNotNull(new TestContext(ClassHierarchyContextHierarchyLevel2TestCase.class,
+			contextCache).getApplicationContext());
+
+		loadContext(AnnotationConfigContextLoaderTestCase.class);
+		assertEquals(1, contextCache.getEvictionCount());
+		assertTrue(contextCache.contains(getMergedContextConfiguration(testContext2)));
+		assertTrue(contextCache.contains(getMergedContextConfiguration(testContext2).getParent()));
+	}
+
+	@Test
+	public void statisticsPerTestClassAndMissReport() {
+		loadContext(FooBarProfilesTestCase.class);
+		loadContext(FooBarProfilesTestCase.class);
+		loadContext(BarFooProfilesTestCase.class);
+		loadContext(AnnotationConfigContextLoaderTestCase.class);
+
+		assertEquals(1, contextCache.getHitCount(FooBarProfilesTestCase.class));
+		assertEquals(1, contextCache.getMissCount(FooBarProfilesTestCase.class));
+		assertEquals(1, contextCache.getHitCount(BarFooProfilesTestCase.class));
+		assertEquals(0, contextCache.getMissCount(BarFooProfilesTestCase.class));
+		assertEquals(0, contextCache.getHitCount(AnnotationConfigContextLoaderTestCase.class));
+		assertEquals(1, contextCache.getMissCount(AnnotationConfigContextLoaderTestCase.class));
+		assertEquals(0, contextCache.getMissCount(Config.class));
+
+		contextCache.remove(getMergedContextConfiguration(new TestContext(BarFooProfilesTestCase.class,
+			contextCache)), null);
+		loadContext(BarFooProfilesTestCase.class);
+
+		String report = contextCache.getMissReport();
+		assertTrue(report, report.startsWith("3 cache misses for 2 distinct context configurations"));
+		int fooBarIndex = report.indexOf(FooBarProfilesTestCase.class.getName());
+		int barFooIndex = report.indexOf(BarFooProfilesTestCase.class.getName());
+		int loaderIndex = report.indexOf(AnnotationConfigContextLoaderTestCase.class.getName());
+		assertTrue(report, fooBarIndex > 0 && barFooIndex > 0 && loaderIndex > 0);
+		assertTrue("most frequent misses should come first: " + report, fooBarIndex < loaderIndex);
+
+		contextCache.clearStatistics();
+		assertEquals(0, contextCache.getMissCount(FooBarProfilesTestCase.class));
+		assertTrue(contextCache.getMissReport().startsWith("0 cache misses for 0 distinct"));
+	}
+
+	@Test
+	public void retainedContextClosedOnceReleased() {
+		TestContext testContext1 = new TestContext(AnnotationConfigContextLoaderTestCase.class, contextCache);
+		TestContext testContext2 = new TestContext(AnnotationConfigContextLoaderTestCase.class, contextCache);
+		testContext1.retainApplicationContext();
+		testContext2.retainApplicationContext();
+		ConfigurableApplicationContext context = (ConfigurableApplicationContext) testContext1.getApplicationContext();
+		assertSame(context, testContext2.getApplicationContext());
+		assertSame(context, testContext2.getApplicationContext());
+		assertEquals(2, contextCache.getReferenceCount(context));
+
+		testContext1.markApplicationContextDirty(HierarchyMode.CURRENT_LEVEL);
+		assertContextCacheStatistics(contextCache, "dirty", 0, 2, 1);
+		assertEquals(1, contextCache.getReferenceCount(context));
+		assertTrue("context still in use must not be closed", context.isActive());
+
+		ApplicationContext reloaded = testContext1.getApplicationContext();
+		assertNotSame(context, reloaded);
+		testContext2.releaseApplicationContext();
+		assertFalse(context.isActive());
+		assertEquals(0, contextCache.getReferenceCount(context));
+		assertEquals(1, contextCache.getReferenceCount(reloaded));
+
+		testContext1.releaseApplicationContext();
+		assertEquals(0, contextCache.getReferenceCount(reloaded));
+		assertTrue(((ConfigurableApplicationContext) reloaded).isActive());
+	}
+
+	@Test
+	public void contextRetainedPerTestMethod() throws Exception {
+		TestContext testContext = new TestContext(AnnotationConfigContextLoaderTestCase.class, contextCache);
+		testContext.retainApplicationContext();
+		Method testMethod = getClass().getMethod("contextRetainedPerTestMethod");
+		testContext.updateState(this, testMethod, null);
+		ConfigurableApplicationContext context = (ConfigurableApplicationContext) testContext.getApplicationContext();
+		assertSame(context, testContext.getApplicationContext());
+		assertEquals(1, contextCache.getReferenceCount(context));
+
+		final TestContext siblingContext = testContext;
+		final Method siblingMethod = testMethod;
+		Thread sibling = new Thread() {
+			@Override
+			public void run() {
+				siblingContext.updateState(this, siblingMethod, null);
+				siblingContext.getApplicationContext();
+				siblingContext.markApplicationContextDirty(HierarchyMode.CURRENT_LEVEL);
+				siblingContext.resetState();
+			}
+		};
+		sibling.start();
+		sibling.join();
+		assertTrue("context still in use by test method must not be closed", context.isActive());
+		assertEquals(1, contextCache.getReferenceCount(context));
+		assertSame(this, testContext.getTestInstance());
+
+		testContext.updateState(this, testMethod, new Exception());
+		testContext.resetState();
+		assertFalse(context.isActive());
+		assertEquals(0, contextCache.getReferenceCount(context));
+		testContext.releaseApplicationContext();
+	}
+
+	@Test
+	public void retainedChildKeepsParentOpen() {
+		TestContext testContext3a = new TestContext(ClassHierarchyContextHierarchyLevel3aTestCase.class, contextCache);
+		testContext3a.retainApplicationContext();
+		ConfigurableApplicationContext level3a = (ConfigurableApplicationContext) testContext3a.getApplicationContext();
+		ConfigurableApplicationContext level1 = (ConfigurableApplicationContext) level3a.getParent().getParent();
+		assertEquals(1, contextCache.getReferenceCount(level1));
+
+		contextCache.remove(getMergedContextConfiguration(testContext3a).getParent().getParent(),
+			HierarchyMode.CURRENT_LEVEL);
+		assertContextCacheStatistics(contextCache, "removed level 1", 0, 0, 3);
+		assertTrue(level1.isActive());
+		assertTrue(level3a.isActive());
+
+		testContext3a.releaseApplicationContext();
+		assertFalse(level3a.isActive());
+		assertFalse(level1.isActive());
+	}
+
+	@Test
+	public void loadContextOnceForConcurrentRequests() throws Exception {
+		int threads = 8;
+		final MergedContextConfiguration key = getMergedContextConfiguration(
+			new TestContext(CountingConfigTestCase.class, contextCache));
+		final CacheAwareContextLoaderDelegate delegate = new CacheAwareContextLoaderDelegate(contextCache);
+		CountingConfig.instances.set(0);
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<ApplicationContext>> futures = new ArrayList<Future<ApplicationContext>>();
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(new Callable<ApplicationContext>() {
+					@Override
+					public ApplicationContext call() {
+						return delegate.loadContext(key);
+					}
+				}));
+			}
+			ApplicationContext context = futures.get(0).get();
+			for (Future<ApplicationContext> future : futures) {
+				assertSame(context, future.get());
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertEquals(1, CountingConfig.instances.get());
+		assertContextCacheStatistics(contextCache, "concurrent", 1, threads - 1, 1);
+	}
+
+	@Test
+	public void testStateIsTrackedPerThread() throws Exception {
+		final TestContext testContext = new TestContext(AnnotationConfigContextLoaderTestCase.class, contextCache);
+		final Method method = getClass().getMethod("testStateIsTrackedPerThread");
+		testContext.updateState(this, method, null);
+
+		final Object otherInstance = new Object();
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				testContext.updateState(otherInstance, null, null);
+			}
+		};
+		thread.start();
+		thread.join();
+
+		assertSame(this, testContext.getTestInstance());
+		assertSame(method, testContext.getTestMethod());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidMaxSize() {
+		new ContextCache(0);
+	}
+
 
 	@Configuration
 	static class Config {
@@ -270,6 +520,21 @@ public class ContextCacheTests {
 	private static class AnnotationConfigContextLoaderTestCase {
 	}
 
+	@Configuration
+	static class CountingConfig {
+
+		static final AtomicInteger instances = new AtomicInteger();
+
+		public CountingConfig() throws InterruptedException {
+			instances.incrementAndGet();
+			Thread.sleep(50);
+		}
+	}
+
+	@ContextConfiguration(classes = CountingConfig.class, loader = AnnotationConfigContextLoader.class)
+	private static class CountingConfigTestCase {
+	}
+
 	@ContextConfiguration(classes = Config.class, loader = CustomAnnotationConfigContextLoader.class)
 	private static class CustomAnnotationConfigContextLoaderTestCase {
 	}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.context.junit4;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runner.Runner;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.JUnit4;
+import org.junit.runners.model.RunnerBuilder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+
+import static org.junit.Assert.*;
+
+/**
+ * Integration tests for {@link SpringParallelComputer}, executing test classes
+ * that share a cached context, one of which marks it as dirty, in parallel.
+ */
+@RunWith(JUnit4.class)
+public class SpringParallelComputerTests {
+
+	private static final Class<?>[] testClasses = new Class<?>[] { SharedContext1TestCase.class,
+		SharedContext2TestCase.class, SharedContext3TestCase.class, DirtyingTestCase.class };
+
+
+	@Test
+	public void parallelClasses() throws Exception {
+		runAndAssertNoFailures(new SpringParallelComputer(true, false, 4));
+	}
+
+	@Test
+	public void parallelClassesAndMethods() throws Exception {
+		runAndAssertNoFailures(new SpringParallelComputer(true, true, 4));
+	}
+
+	@Test
+	public void parallelMethodsWithMethodLevelDirtiesContext() throws Exception {
+		runAndAssertNoFailures(new SpringParallelComputer(false, true, 4), 4, DirtyingMethodTestCase.class);
+	}
+
+	private void runAndAssertNoFailures(SpringParallelComputer computer) throws Exception {
+		runAndAssertNoFailures(computer, 8, testClasses);
+	}
+
+	private void runAndAssertNoFailures(SpringParallelComputer computer, int expectedTestCount,
+			Class<?>... testClasses) throws Exception {
+
+		TrackingRunListener listener = new TrackingRunListener();
+		RunNotifier notifier = new RunNotifier();
+		notifier.addListener(listener);
+
+		Runner suite = computer.getSuite(new RunnerBuilder() {
+			@Override
+			public Runner runnerForClass(Class<?> testClass) throws Throwable {
+				return new SpringJUnit4ClassRunner(testClass);
+			}
+		}, testClasses);
+		suite.run(notifier);
+
+		assertEquals("tests started", expectedTestCount, listener.getTestStartedCount());
+		assertEquals("tests finished", expectedTestCount, listener.getTestFinishedCount());
+		assertEquals("failures", 0, listener.getTestFailureCount());
+	}
+
+
+	@Configuration
+	static class SharedConfig {
+
+		@Bean
+		public AtomicInteger counter() {
+			return new AtomicInteger();
+		}
+	}
+
+	@ContextConfiguration(classes = SharedConfig.class)
+	public abstract static class AbstractSharedContextTestCase {
+
+		@Autowired
+		ConfigurableApplicationContext applicationContext;
+
+		@Autowired
+		AtomicInteger counter;
+
+
+		@Test
+		public void first() throws Exception {
+			useContext();
+		}
+
+		@Test
+		public void second() throws Exception {
+			useContext();
+		}
+
+		void useContext() throws Exception {
+			this.counter.incrementAndGet();
+			Thread.sleep(20);
+			assertTrue("context closed while in use", this.applicationContext.isActive());
+			assertSame(this.counter, this.applicationContext.getBean("counter"));
+		}
+	}
+
+	@Ignore("TestCase classes are run manually by the enclosing test class")
+	public static class SharedContext1TestCase extends AbstractSharedContextTestCase {
+	}
+
+	@Ignore("TestCase classes are run manually by the enclosing test class")
+	public static class SharedContext2TestCase extends AbstractSharedContextTestCase {
+	}
+
+	@Ignore("TestCase classes are run manually by the enclosing test class")
+	public static class SharedContext3TestCase extends AbstractSharedContextTestCase {
+	}
+
+	@Ignore("TestCase classes are run manually by the enclosing test class")
+	@DirtiesContext
+	public static class DirtyingTestCase extends AbstractSharedContextTestCase {
+	}
+
+	@Ignore("TestCase classes are run manually by the enclosing test class")
+	public static class DirtyingMethodTestCase extends AbstractSharedContextTestCase {
+
+		@Test
+		@DirtiesContext
+		public void dirtying() {
+			this.counter.incrementAndGet();
+		}
+
+		@Test
+		public void third() throws Exception {
+			useContext();
+		}
+	}
+
+}
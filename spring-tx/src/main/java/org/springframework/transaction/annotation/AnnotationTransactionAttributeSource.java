@@ -131,6 +131,44 @@ public class AnnotationTransactionAttributeSource extends AbstractFallbackTransa
 		return determineTransactionAttribute(clazz);
 	}
 
+	/**
+	 * Scan the given class, its superclasses and its interfaces for transaction
+	 * annotations, on the type level as well as on any declared method.
+	 * <p>This covers all elements that the fallback policy of
+	 * {@link #getTransactionAttribute} could possibly find an annotation on.
+	 * Needs to be overridden to return {@code true} if a subclass determines
+	 * attributes from something else than the elements of the class hierarchy.
+	 */
+	@Override
+	protected boolean determineCandidateClass(Class<?> clazz) {
+		Set<Class> types = new LinkedHashSet<Class>(ClassUtils.getAllInterfacesForClassAsSet(clazz));
+		Class<?> type = clazz;
+		while (type != null) {
+			types.add(type);
+			type = type.getSuperclass();
+		}
+		try {
+			for (Class candidate : types) {
+				if (findTransactionAttribute(candidate) != null) {
+					return true;
+				}
+				for (Method method : candidate.getDeclaredMethods()) {
+					if (findTransactionAttribute(method) != null) {
+						return true;
+					}
+				}
+			}
+		}
+		catch (Throwable ex) {
+			// Typically a NoClassDefFoundError for a method signature -> check per method.
+			if (logger.isDebugEnabled()) {
+				logger.debug("Could not scan class [" + clazz.getName() + "] for transaction annotations", ex);
+			}
+			return true;
+		}
+		return false;
+	}
+
 	/**
 	 * Determine the transaction attribute for the given method or class.
 	 * <p>This implementation delegates to configured
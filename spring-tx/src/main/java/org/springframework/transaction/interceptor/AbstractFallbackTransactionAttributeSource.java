@@ -44,6 +44,12 @@ import org.springframework.util.ObjectUtils;
  * (which is very unlikely), caching could be made configurable. Caching is
  * desirable because of the cost of evaluating rollback rules.
  *
+ * <p>In addition, each class is scanned once for transaction attributes on itself,
+ * its superclasses, its interfaces and any of their methods. Methods of classes
+ * without any such attribute are rejected right away, without going through the
+ * per-method fallback lookup; this also allows the
+ * {@link TransactionAttributeSourcePointcut} to skip such classes altogether.
+ *
  * @author Rod Johnson
  * @author Juergen Hoeller
  * @since 1.1
@@ -71,6 +77,11 @@ public abstract class AbstractFallbackTransactionAttributeSource implements Tran
 	 */
 	final Map<Object, TransactionAttribute> attributeCache = new ConcurrentHashMap<Object, TransactionAttribute>(1024);
 
+	/**
+	 * Cache of candidate flags per class, as determined by {@link #isCandidateClass}.
+	 */
+	private final Map<Class<?>, Boolean> candidateCache = new ConcurrentHashMap<Class<?>, Boolean>(256);
+
 
 	/**
 	 * Determine the transaction attribute for this method invocation.
@@ -95,8 +106,11 @@ public abstract class AbstractFallbackTransactionAttributeSource implements Tran
 			}
 		}
 		else {
-			// We need to work it out.
-			TransactionAttribute txAtt = computeTransactionAttribute(method, targetClass);
+			// We need to work it out, unless the class is known to be free of attributes.
+			TransactionAttribute txAtt = null;
+			if (isCandidateMethod(method, targetClass)) {
+				txAtt = computeTransactionAttribute(method, targetClass);
+			}
 			// Put it in the cache.
 			if (txAtt == null) {
 				this.attributeCache.put(cacheKey, NULL_TRANSACTION_ATTRIBUTE);
@@ -125,6 +139,54 @@ public abstract class AbstractFallbackTransactionAttributeSource implements Tran
 		return new DefaultCacheKey(method, targetClass);
 	}
 
+	/**
+	 * Determine whether the given class may have transactional methods,
+	 * as indicated by {@link #determineCandidateClass}.
+	 * <p>A {@code false} result means that none of the methods of the given class
+	 * can be transactional. The result is cached per class.
+	 * @param clazz the class to check (never {@code null})
+	 * @return whether the class may have transactional methods
+	 * @see #determineCandidateClass
+	 */
+	public boolean isCandidateClass(Class<?> clazz) {
+		Boolean candidate = this.candidateCache.get(clazz);
+		if (candidate == null) {
+			candidate = determineCandidateClass(clazz);
+			if (!candidate && logger.isTraceEnabled()) {
+				logger.trace("No transaction attributes found on class [" + clazz.getName() + "]");
+			}
+			this.candidateCache.put(clazz, candidate);
+		}
+		return candidate;
+	}
+
+	/**
+	 * Determine whether the given class may have transactional methods.
+	 * <p>The default implementation returns {@code true}, since the attributes
+	 * of a subclass may depend on something else than the elements of the class
+	 * hierarchy. Subclasses that only find attributes on those elements may scan
+	 * them upfront, allowing for non-transactional classes to be skipped.
+	 * @param clazz the class to check
+	 * @return whether the class may have transactional methods
+	 */
+	protected boolean determineCandidateClass(Class<?> clazz) {
+		return true;
+	}
+
+	/**
+	 * Check whether the class hierarchy of the given method may carry any
+	 * transaction attribute for it.
+	 */
+	private boolean isCandidateMethod(Method method, Class<?> targetClass) {
+		Class<?> declaringClass = method.getDeclaringClass();
+		if (targetClass == null) {
+			return isCandidateClass(declaringClass);
+		}
+		Class<?> userClass = ClassUtils.getUserClass(targetClass);
+		return (isCandidateClass(userClass) ||
+				(!declaringClass.isAssignableFrom(userClass) && isCandidateClass(declaringClass)));
+	}
+
 	/**
 	 * Same signature as {@link #getTransactionAttribute}, but doesn't cache the result.
 	 * {@link #getTransactionAttribute} is effectively a caching decorator for this method.
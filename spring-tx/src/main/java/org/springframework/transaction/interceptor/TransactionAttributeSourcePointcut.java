@@ -19,6 +19,7 @@ package org.springframework.transaction.interceptor;
 import java.io.Serializable;
 import java.lang.reflect.Method;
 
+import org.springframework.aop.ClassFilter;
 import org.springframework.aop.support.StaticMethodMatcherPointcut;
 import org.springframework.util.ObjectUtils;
 
@@ -32,6 +33,10 @@ import org.springframework.util.ObjectUtils;
 @SuppressWarnings("serial")
 abstract class TransactionAttributeSourcePointcut extends StaticMethodMatcherPointcut implements Serializable {
 
+	protected TransactionAttributeSourcePointcut() {
+		setClassFilter(new TransactionAttributeSourceClassFilter());
+	}
+
 	public boolean matches(Method method, Class targetClass) {
 		TransactionAttributeSource tas = getTransactionAttributeSource();
 		return (tas == null || tas.getTransactionAttribute(method, targetClass) != null);
@@ -66,4 +71,19 @@ abstract class TransactionAttributeSourcePointcut extends StaticMethodMatcherPoi
 	 */
 	protected abstract TransactionAttributeSource getTransactionAttributeSource();
 
+
+	/**
+	 * ClassFilter that rejects classes which are known not to carry any
+	 * transaction attribute, without checking each of their methods.
+	 * @see AbstractFallbackTransactionAttributeSource#isCandidateClass
+	 */
+	private class TransactionAttributeSourceClassFilter implements ClassFilter {
+
+		public boolean matches(Class<?> clazz) {
+			TransactionAttributeSource tas = getTransactionAttributeSource();
+			return (!(tas instanceof AbstractFallbackTransactionAttributeSource) ||
+					((AbstractFallbackTransactionAttributeSource) tas).isCandidateClass(clazz));
+		}
+	}
+
 }
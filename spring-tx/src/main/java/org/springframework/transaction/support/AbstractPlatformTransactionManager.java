@@ -528,13 +528,10 @@ public abstract class AbstractPlatformTransactionManager implements PlatformTran
 	 */
 	protected void prepareSynchronization(DefaultTransactionStatus status, TransactionDefinition definition) {
 		if (status.isNewSynchronization()) {
-			TransactionSynchronizationManager.setActualTransactionActive(status.hasTransaction());
-			TransactionSynchronizationManager.setCurrentTransactionIsolationLevel(
+			TransactionSynchronizationManager.initSynchronization(definition.getName(), definition.isReadOnly(),
 					(definition.getIsolationLevel() != TransactionDefinition.ISOLATION_DEFAULT) ?
-							definition.getIsolationLevel() : null);
-			TransactionSynchronizationManager.setCurrentTransactionReadOnly(definition.isReadOnly());
-			TransactionSynchronizationManager.setCurrentTransactionName(definition.getName());
-			TransactionSynchronizationManager.initSynchronization();
+							definition.getIsolationLevel() : null,
+					status.hasTransaction());
 		}
 	}
 
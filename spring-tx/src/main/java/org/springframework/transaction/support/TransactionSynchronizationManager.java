@@ -63,6 +63,12 @@ import org.springframework.util.Assert;
  * within a JTA transaction, e.g. a JDBC Connection or a Hibernate Session for
  * any given DataSource or SessionFactory, respectively.
  *
+ * <p>All of this state is held in a single context object per thread, which is
+ * only bound while there actually is a resource, a synchronization or a transaction
+ * characteristic to hold. The sorted snapshot of registered synchronizations is
+ * cached until the next registration, so that the various callback phases of a
+ * transaction do not need to sort the synchronizations over and over again.
+ *
  * @author Juergen Hoeller
  * @since 02.06.2003
  * @see #isSynchronizationActive
@@ -77,23 +83,30 @@ public abstract class TransactionSynchronizationManager {
 
 	private static final Log logger = LogFactory.getLog(TransactionSynchronizationManager.class);
 
-	private static final ThreadLocal<Map<Object, Object>> resources =
-			new NamedThreadLocal<Map<Object, Object>>("Transactional resources");
-
-	private static final ThreadLocal<Set<TransactionSynchronization>> synchronizations =
-			new NamedThreadLocal<Set<TransactionSynchronization>>("Transaction synchronizations");
+	private static final ThreadLocal<TransactionContext> context =
+			new NamedThreadLocal<TransactionContext>("Transaction context");
 
-	private static final ThreadLocal<String> currentTransactionName =
-			new NamedThreadLocal<String>("Current transaction name");
 
-	private static final ThreadLocal<Boolean> currentTransactionReadOnly =
-			new NamedThreadLocal<Boolean>("Current transaction read-only status");
-
-	private static final ThreadLocal<Integer> currentTransactionIsolationLevel =
-			new NamedThreadLocal<Integer>("Current transaction isolation level");
+	/**
+	 * Return the context bound to the current thread, binding a new one if necessary.
+	 */
+	private static TransactionContext obtainContext() {
+		TransactionContext ctx = context.get();
+		if (ctx == null) {
+			ctx = new TransactionContext();
+			context.set(ctx);
+		}
+		return ctx;
+	}
 
-	private static final ThreadLocal<Boolean> actualTransactionActive =
-			new NamedThreadLocal<Boolean>("Actual transaction active");
+	/**
+	 * Remove the given context from the current thread if it does not hold any state anymore.
+	 */
+	private static void releaseContextIfEmpty(TransactionContext ctx) {
+		if (ctx.isEmpty()) {
+			context.remove();
+		}
+	}
 
 
 	//-------------------------------------------------------------------------
@@ -110,7 +123,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #hasResource
 	 */
 	public static Map<Object, Object> getResourceMap() {
-		Map<Object, Object> map = resources.get();
+		TransactionContext ctx = context.get();
+		Map<Object, Object> map = (ctx != null ? ctx.resources : null);
 		return (map != null ? Collections.unmodifiableMap(map) : Collections.emptyMap());
 	}
 
@@ -147,17 +161,19 @@ public abstract class TransactionSynchronizationManager {
 	 * Actually check the value of the resource that is bound for the given key.
 	 */
 	private static Object doGetResource(Object actualKey) {
-		Map<Object, Object> map = resources.get();
-		if (map == null) {
+		TransactionContext ctx = context.get();
+		if (ctx == null || ctx.resources == null) {
 			return null;
 		}
+		Map<Object, Object> map = ctx.resources;
 		Object value = map.get(actualKey);
 		// Transparently remove ResourceHolder that was marked as void...
 		if (value instanceof ResourceHolder && ((ResourceHolder) value).isVoid()) {
 			map.remove(actualKey);
 			// Remove entire ThreadLocal if empty...
 			if (map.isEmpty()) {
-				resources.remove();
+				ctx.resources = null;
+				releaseContextIfEmpty(ctx);
 			}
 			value = null;
 		}
@@ -174,11 +190,12 @@ public abstract class TransactionSynchronizationManager {
 	public static void bindResource(Object key, Object value) throws IllegalStateException {
 		Object actualKey = TransactionSynchronizationUtils.unwrapResourceIfNecessary(key);
 		Assert.notNull(value, "Value must not be null");
-		Map<Object, Object> map = resources.get();
-		// set ThreadLocal Map if none found
+		TransactionContext ctx = obtainContext();
+		Map<Object, Object> map = ctx.resources;
+		// set resource Map if none found
 		if (map == null) {
 			map = new HashMap<Object, Object>();
-			resources.set(map);
+			ctx.resources = map;
 		}
 		Object oldValue = map.put(actualKey, value);
 		// Transparently suppress a ResourceHolder that was marked as void...
@@ -226,14 +243,16 @@ public abstract class TransactionSynchronizationManager {
 	 * Actually remove the value of the resource that is bound for the given key.
 	 */
 	private static Object doUnbindResource(Object actualKey) {
-		Map<Object, Object> map = resources.get();
-		if (map == null) {
+		TransactionContext ctx = context.get();
+		if (ctx == null || ctx.resources == null) {
 			return null;
 		}
+		Map<Object, Object> map = ctx.resources;
 		Object value = map.remove(actualKey);
 		// Remove entire ThreadLocal if empty...
 		if (map.isEmpty()) {
-			resources.remove();
+			ctx.resources = null;
+			releaseContextIfEmpty(ctx);
 		}
 		// Transparently suppress a ResourceHolder that was marked as void...
 		if (value instanceof ResourceHolder && ((ResourceHolder) value).isVoid()) {
@@ -257,7 +276,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #registerSynchronization
 	 */
 	public static boolean isSynchronizationActive() {
-		return (synchronizations.get() != null);
+		TransactionContext ctx = context.get();
+		return (ctx != null && ctx.synchronizations != null);
 	}
 
 	/**
@@ -270,7 +290,33 @@ public abstract class TransactionSynchronizationManager {
 			throw new IllegalStateException("Cannot activate transaction synchronization - already active");
 		}
 		logger.trace("Initializing transaction synchronization");
-		synchronizations.set(new LinkedHashSet<TransactionSynchronization>());
+		obtainContext().synchronizations = new LinkedHashSet<TransactionSynchronization>();
+	}
+
+	/**
+	 * Activate transaction synchronization for the current thread and expose
+	 * the given transaction characteristics in a single step.
+	 * Called by {@link AbstractPlatformTransactionManager} on transaction begin.
+	 * @param name the name of the transaction, or {@code null} if none
+	 * @param readOnly whether the transaction is read-only
+	 * @param isolationLevel the isolation level to expose, or {@code null} if none
+	 * @param actualTransactionActive whether there is an actual transaction active
+	 * @throws IllegalStateException if synchronization is already active
+	 * @see #initSynchronization()
+	 */
+	static void initSynchronization(String name, boolean readOnly, Integer isolationLevel,
+			boolean actualTransactionActive) throws IllegalStateException {
+
+		TransactionContext ctx = obtainContext();
+		if (ctx.synchronizations != null) {
+			throw new IllegalStateException("Cannot activate transaction synchronization - already active");
+		}
+		logger.trace("Initializing transaction synchronization");
+		ctx.actualTransactionActive = actualTransactionActive;
+		ctx.isolationLevel = isolationLevel;
+		ctx.readOnly = readOnly;
+		ctx.name = name;
+		ctx.synchronizations = new LinkedHashSet<TransactionSynchronization>();
 	}
 
 	/**
@@ -287,10 +333,13 @@ public abstract class TransactionSynchronizationManager {
 			throws IllegalStateException {
 
 		Assert.notNull(synchronization, "TransactionSynchronization must not be null");
-		if (!isSynchronizationActive()) {
+		TransactionContext ctx = context.get();
+		if (ctx == null || ctx.synchronizations == null) {
 			throw new IllegalStateException("Transaction synchronization is not active");
 		}
-		synchronizations.get().add(synchronization);
+		if (ctx.synchronizations.add(synchronization)) {
+			ctx.sortedSynchronizations = null;
+		}
 	}
 
 	/**
@@ -301,7 +350,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see TransactionSynchronization
 	 */
 	public static List<TransactionSynchronization> getSynchronizations() throws IllegalStateException {
-		Set<TransactionSynchronization> synchs = synchronizations.get();
+		TransactionContext ctx = context.get();
+		Set<TransactionSynchronization> synchs = (ctx != null ? ctx.synchronizations : null);
 		if (synchs == null) {
 			throw new IllegalStateException("Transaction synchronization is not active");
 		}
@@ -311,12 +361,20 @@ public abstract class TransactionSynchronizationManager {
 		if (synchs.isEmpty()) {
 			return Collections.emptyList();
 		}
-		else {
+		List<TransactionSynchronization> sortedSynchs = ctx.sortedSynchronizations;
+		if (sortedSynchs == null) {
 			// Sort lazily here, not in registerSynchronization.
-			List<TransactionSynchronization> sortedSynchs = new ArrayList<TransactionSynchronization>(synchs);
-			OrderComparator.sort(sortedSynchs);
-			return Collections.unmodifiableList(sortedSynchs);
+			if (synchs.size() == 1) {
+				sortedSynchs = Collections.singletonList(synchs.iterator().next());
+			}
+			else {
+				List<TransactionSynchronization> list = new ArrayList<TransactionSynchronization>(synchs);
+				OrderComparator.sort(list);
+				sortedSynchs = Collections.unmodifiableList(list);
+			}
+			ctx.sortedSynchronizations = sortedSynchs;
 		}
+		return sortedSynchs;
 	}
 
 	/**
@@ -329,7 +387,10 @@ public abstract class TransactionSynchronizationManager {
 			throw new IllegalStateException("Cannot deactivate transaction synchronization - not active");
 		}
 		logger.trace("Clearing transaction synchronization");
-		synchronizations.remove();
+		TransactionContext ctx = context.get();
+		ctx.synchronizations = null;
+		ctx.sortedSynchronizations = null;
+		releaseContextIfEmpty(ctx);
 	}
 
 
@@ -344,7 +405,14 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#getName()
 	 */
 	public static void setCurrentTransactionName(String name) {
-		currentTransactionName.set(name);
+		TransactionContext ctx = context.get();
+		if (ctx != null) {
+			ctx.name = name;
+			releaseContextIfEmpty(ctx);
+		}
+		else if (name != null) {
+			obtainContext().name = name;
+		}
 	}
 
 	/**
@@ -354,7 +422,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#getName()
 	 */
 	public static String getCurrentTransactionName() {
-		return currentTransactionName.get();
+		TransactionContext ctx = context.get();
+		return (ctx != null ? ctx.name : null);
 	}
 
 	/**
@@ -365,7 +434,14 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#isReadOnly()
 	 */
 	public static void setCurrentTransactionReadOnly(boolean readOnly) {
-		currentTransactionReadOnly.set(readOnly ? Boolean.TRUE : null);
+		TransactionContext ctx = context.get();
+		if (ctx != null) {
+			ctx.readOnly = readOnly;
+			releaseContextIfEmpty(ctx);
+		}
+		else if (readOnly) {
+			obtainContext().readOnly = true;
+		}
 	}
 
 	/**
@@ -381,7 +457,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see TransactionSynchronization#beforeCommit(boolean)
 	 */
 	public static boolean isCurrentTransactionReadOnly() {
-		return (currentTransactionReadOnly.get() != null);
+		TransactionContext ctx = context.get();
+		return (ctx != null && ctx.readOnly);
 	}
 
 	/**
@@ -401,7 +478,14 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#getIsolationLevel()
 	 */
 	public static void setCurrentTransactionIsolationLevel(Integer isolationLevel) {
-		currentTransactionIsolationLevel.set(isolationLevel);
+		TransactionContext ctx = context.get();
+		if (ctx != null) {
+			ctx.isolationLevel = isolationLevel;
+			releaseContextIfEmpty(ctx);
+		}
+		else if (isolationLevel != null) {
+			obtainContext().isolationLevel = isolationLevel;
+		}
 	}
 
 	/**
@@ -422,7 +506,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#getIsolationLevel()
 	 */
 	public static Integer getCurrentTransactionIsolationLevel() {
-		return currentTransactionIsolationLevel.get();
+		TransactionContext ctx = context.get();
+		return (ctx != null ? ctx.isolationLevel : null);
 	}
 
 	/**
@@ -432,7 +517,14 @@ public abstract class TransactionSynchronizationManager {
 	 * with an actual transaction; {@code false} to reset that marker
 	 */
 	public static void setActualTransactionActive(boolean active) {
-		actualTransactionActive.set(active ? Boolean.TRUE : null);
+		TransactionContext ctx = context.get();
+		if (ctx != null) {
+			ctx.actualTransactionActive = active;
+			releaseContextIfEmpty(ctx);
+		}
+		else if (active) {
+			obtainContext().actualTransactionActive = true;
+		}
 	}
 
 	/**
@@ -447,7 +539,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #isSynchronizationActive()
 	 */
 	public static boolean isActualTransactionActive() {
-		return (actualTransactionActive.get() != null);
+		TransactionContext ctx = context.get();
+		return (ctx != null && ctx.actualTransactionActive);
 	}
 
 
@@ -461,11 +554,44 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #setActualTransactionActive
 	 */
 	public static void clear() {
-		clearSynchronization();
-		setCurrentTransactionName(null);
-		setCurrentTransactionReadOnly(false);
-		setCurrentTransactionIsolationLevel(null);
-		setActualTransactionActive(false);
+		TransactionContext ctx = context.get();
+		if (ctx == null || ctx.synchronizations == null) {
+			throw new IllegalStateException("Cannot deactivate transaction synchronization - not active");
+		}
+		logger.trace("Clearing transaction synchronization");
+		ctx.synchronizations = null;
+		ctx.sortedSynchronizations = null;
+		ctx.name = null;
+		ctx.readOnly = false;
+		ctx.isolationLevel = null;
+		ctx.actualTransactionActive = false;
+		releaseContextIfEmpty(ctx);
+	}
+
+
+	/**
+	 * Holder for all transactional state of a single thread.
+	 */
+	private static class TransactionContext {
+
+		Map<Object, Object> resources;
+
+		Set<TransactionSynchronization> synchronizations;
+
+		List<TransactionSynchronization> sortedSynchronizations;
+
+		String name;
+
+		boolean readOnly;
+
+		Integer isolationLevel;
+
+		boolean actualTransactionActive;
+
+		boolean isEmpty() {
+			return (this.resources == null && this.synchronizations == null && this.name == null &&
+					!this.readOnly && this.isolationLevel == null && !this.actualTransactionActive);
+		}
 	}
 
 }
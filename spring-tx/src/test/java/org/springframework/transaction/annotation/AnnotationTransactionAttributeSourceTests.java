@@ -28,6 +28,7 @@ import javax.ejb.TransactionAttributeType;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
+import org.springframework.aop.ClassFilter;
 import org.springframework.aop.framework.Advised;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.tests.transaction.CallCountingTransactionManager;
@@ -35,6 +36,7 @@ import org.springframework.transaction.interceptor.NoRollbackRuleAttribute;
 import org.springframework.transaction.interceptor.RollbackRuleAttribute;
 import org.springframework.transaction.interceptor.RuleBasedTransactionAttribute;
 import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.interceptor.TransactionAttributeSourceAdvisor;
 import org.springframework.transaction.interceptor.TransactionInterceptor;
 import org.springframework.util.SerializationTestUtils;
 
@@ -79,6 +81,30 @@ public class AnnotationTransactionAttributeSourceTests {
 		assertNull(atas.getTransactionAttribute(method, null));
 	}
 
+	@Test
+	public void testCandidateClassDetection() throws Exception {
+		AnnotationTransactionAttributeSource atas = new AnnotationTransactionAttributeSource();
+		assertFalse(atas.isCandidateClass(Empty.class));
+		assertFalse(atas.isCandidateClass(ITestBean.class));
+		assertTrue(atas.isCandidateClass(TestBean1.class));
+		assertTrue(atas.isCandidateClass(TestBean2.class));
+		assertTrue(atas.isCandidateClass(TestBean3.class));
+		assertTrue(atas.isCandidateClass(MyFoo.class));
+	}
+
+	@Test
+	public void testPointcutClassFilterRejectsNonTransactionalClass() throws Exception {
+		AnnotationTransactionAttributeSource atas = new AnnotationTransactionAttributeSource();
+		TransactionInterceptor ti = new TransactionInterceptor(new CallCountingTransactionManager(), atas);
+		ClassFilter classFilter = new TransactionAttributeSourceAdvisor(ti).getPointcut().getClassFilter();
+		assertFalse(classFilter.matches(Empty.class));
+		assertTrue(classFilter.matches(TestBean2.class));
+
+		ProxyFactory pf = new ProxyFactory(new TestBean1());
+		pf.setProxyTargetClass(true);
+		assertTrue(classFilter.matches(pf.getProxy().getClass()));
+	}
+
 	/**
 	 * Test the important case where the invocation is on a proxied interface method
 	 * but the attribute is defined on the target class.
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.transaction.support;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.tests.Assume;
+import org.springframework.tests.TestGroup;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.util.StopWatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link TransactionSynchronizationManager}.
+ */
+public class TransactionSynchronizationManagerTests {
+
+	@After
+	public void verifyCleanup() {
+		assertFalse(TransactionSynchronizationManager.isSynchronizationActive());
+		assertTrue(TransactionSynchronizationManager.getResourceMap().isEmpty());
+		assertNull(TransactionSynchronizationManager.getCurrentTransactionName());
+		assertFalse(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+		assertNull(TransactionSynchronizationManager.getCurrentTransactionIsolationLevel());
+		assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+	}
+
+
+	@Test
+	public void transactionCharacteristicsExposed() {
+		DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+		definition.setName("myTx");
+		definition.setReadOnly(true);
+		definition.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+		PlainTransactionManager tm = new PlainTransactionManager();
+
+		TransactionStatus status = tm.getTransaction(definition);
+		assertTrue(TransactionSynchronizationManager.isSynchronizationActive());
+		assertEquals("myTx", TransactionSynchronizationManager.getCurrentTransactionName());
+		assertTrue(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+		assertEquals(Integer.valueOf(TransactionDefinition.ISOLATION_SERIALIZABLE),
+				TransactionSynchronizationManager.getCurrentTransactionIsolationLevel());
+		assertTrue(TransactionSynchronizationManager.isActualTransactionActive());
+		tm.commit(status);
+	}
+
+	@Test
+	public void characteristicsWithoutSynchronization() {
+		TransactionSynchronizationManager.setCurrentTransactionName("myTx");
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertEquals("myTx", TransactionSynchronizationManager.getCurrentTransactionName());
+		assertTrue(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+		assertFalse(TransactionSynchronizationManager.isSynchronizationActive());
+		TransactionSynchronizationManager.setCurrentTransactionName(null);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+	}
+
+	@Test
+	public void resourcesSurviveSynchronizationCleanup() {
+		Object key = new Object();
+		TransactionSynchronizationManager.bindResource(key, "value");
+		TransactionSynchronizationManager.initSynchronization();
+		TransactionSynchronizationManager.setCurrentTransactionName("myTx");
+		TransactionSynchronizationManager.clear();
+		assertEquals("value", TransactionSynchronizationManager.getResource(key));
+		assertNull(TransactionSynchronizationManager.getCurrentTransactionName());
+		assertEquals("value", TransactionSynchronizationManager.unbindResource(key));
+	}
+
+	@Test
+	public void sortedSynchronizationsCachedUntilRegistration() {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			OrderedSynchronization second = new OrderedSynchronization(2);
+			OrderedSynchronization first = new OrderedSynchronization(1);
+			TransactionSynchronizationManager.registerSynchronization(second);
+			List<TransactionSynchronization> synchs = TransactionSynchronizationManager.getSynchronizations();
+			assertEquals(1, synchs.size());
+			assertSame(synchs, TransactionSynchronizationManager.getSynchronizations());
+
+			TransactionSynchronizationManager.registerSynchronization(first);
+			List<TransactionSynchronization> sortedSynchs = TransactionSynchronizationManager.getSynchronizations();
+			assertEquals(1, synchs.size());
+			assertEquals(2, sortedSynchs.size());
+			assertSame(first, sortedSynchs.get(0));
+			assertSame(second, sortedSynchs.get(1));
+			assertSame(sortedSynchs, TransactionSynchronizationManager.getSynchronizations());
+
+			TransactionSynchronizationManager.registerSynchronization(first);
+			assertSame(sortedSynchs, TransactionSynchronizationManager.getSynchronizations());
+		}
+		finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void clearWithoutActiveSynchronization() {
+		TransactionSynchronizationManager.clear();
+	}
+
+	@Test
+	public void beginAndCommitPerformance() {
+		Assume.group(TestGroup.PERFORMANCE);
+
+		PlainTransactionManager tm = new PlainTransactionManager();
+		DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+		definition.setReadOnly(true);
+		StopWatch sw = new StopWatch();
+		sw.start("without synchronizations");
+		for (int i = 0; i < 1000000; i++) {
+			tm.commit(tm.getTransaction(definition));
+		}
+		sw.stop();
+		sw.start("with synchronizations");
+		for (int i = 0; i < 1000000; i++) {
+			TransactionStatus status = tm.getTransaction(definition);
+			TransactionSynchronizationManager.registerSynchronization(new OrderedSynchronization(2));
+			TransactionSynchronizationManager.registerSynchronization(new OrderedSynchronization(1));
+			tm.commit(status);
+		}
+		sw.stop();
+
+		System.out.println(sw.prettyPrint());
+		assertTrue("Transaction begin/commit took too long: " + sw.prettyPrint(), sw.getLastTaskTimeMillis() < 5000);
+	}
+
+
+	@SuppressWarnings("serial")
+	private static class PlainTransactionManager extends AbstractPlatformTransactionManager {
+
+		@Override
+		protected Object doGetTransaction() {
+			return new Object();
+		}
+
+		@Override
+		protected void doBegin(Object transaction, TransactionDefinition definition) {
+		}
+
+		@Override
+		protected void doCommit(DefaultTransactionStatus status) {
+		}
+
+		@Override
+		protected void doRollback(DefaultTransactionStatus status) {
+		}
+	}
+
+
+	private static class OrderedSynchronization extends TransactionSynchronizationAdapter {
+
+		private final int order;
+
+		public OrderedSynchronization(int order) {
+			this.order = order;
+		}
+
+		@Override
+		public int getOrder() {
+			return this.order;
+		}
+	}
+
+}
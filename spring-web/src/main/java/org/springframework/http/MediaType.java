@@ -31,6 +31,7 @@ import java.util.Map;
 import java.util.TreeSet;
 
 import org.springframework.util.Assert;
+import org.springframework.util.BoundedConcurrentCache;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.LinkedCaseInsensitiveMap;
 import org.springframework.util.StringUtils;
@@ -200,6 +201,18 @@ public class MediaType implements Comparable<MediaType> {
 
 	private static final String PARAM_CHARSET = "charset";
 
+	/** Maximum number of distinct header values to keep parsed representations for */
+	private static final int CACHE_LIMIT = 256;
+
+	private static final BoundedConcurrentCache<String, MediaType> cachedMediaTypes =
+			new BoundedConcurrentCache<String, MediaType>(CACHE_LIMIT);
+
+	private static final BoundedConcurrentCache<String, List<MediaType>> cachedMediaTypeLists =
+			new BoundedConcurrentCache<String, List<MediaType>>(CACHE_LIMIT);
+
+	private static final BoundedConcurrentCache<String, List<MediaType>> cachedSortedMediaTypeLists =
+			new BoundedConcurrentCache<String, List<MediaType>>(CACHE_LIMIT);
+
 
 	private final String type;
 
@@ -679,12 +692,21 @@ public class MediaType implements Comparable<MediaType> {
 
 	/**
 	 * Parse the given String into a single {@code MediaType}.
+	 * <p>Parsed media types are cached per distinct String value, up to a limit.
 	 * @param mediaType the string to parse
 	 * @return the media type
 	 * @throws InvalidMediaTypeException if the string cannot be parsed
 	 */
 	public static MediaType parseMediaType(String mediaType) {
 		Assert.hasLength(mediaType, "'mediaType' must not be empty");
+		MediaType result = cachedMediaTypes.get(mediaType);
+		if (result == null) {
+			result = cachedMediaTypes.putIfAbsent(mediaType, doParseMediaType(mediaType));
+		}
+		return result;
+	}
+
+	private static MediaType doParseMediaType(String mediaType) {
 		String[] parts = StringUtils.tokenizeToStringArray(mediaType, ";");
 
 		String fullType = parts[0].trim();
@@ -742,10 +764,43 @@ public class MediaType implements Comparable<MediaType> {
 		if (!StringUtils.hasLength(mediaTypes)) {
 			return Collections.emptyList();
 		}
-		String[] tokens = mediaTypes.split(",\\s*");
-		List<MediaType> result = new ArrayList<MediaType>(tokens.length);
-		for (String token : tokens) {
-			result.add(parseMediaType(token));
+		return new ArrayList<MediaType>(getCachedMediaTypes(mediaTypes));
+	}
+
+	/**
+	 * Parse the given, comma-separated string into a list of {@code MediaType} objects,
+	 * {@linkplain #sortBySpecificityAndQuality(List) sorted by specificity and quality}.
+	 * <p>This method is meant for parsing an Accept header: since browsers and
+	 * other clients typically send a small set of distinct header values, the
+	 * resulting lists are cached per header value (up to a limit) and returned
+	 * as shared, unmodifiable lists.
+	 * @param mediaTypes the string to parse
+	 * @return the unmodifiable, sorted list of media types
+	 * @throws IllegalArgumentException if the string cannot be parsed
+	 * @since 3.2.19
+	 */
+	public static List<MediaType> parseAndSortMediaTypes(String mediaTypes) {
+		if (!StringUtils.hasLength(mediaTypes)) {
+			return Collections.emptyList();
+		}
+		List<MediaType> result = cachedSortedMediaTypeLists.get(mediaTypes);
+		if (result == null) {
+			List<MediaType> sorted = new ArrayList<MediaType>(getCachedMediaTypes(mediaTypes));
+			sortBySpecificityAndQuality(sorted);
+			result = cachedSortedMediaTypeLists.putIfAbsent(mediaTypes, Collections.unmodifiableList(sorted));
+		}
+		return result;
+	}
+
+	private static List<MediaType> getCachedMediaTypes(String mediaTypes) {
+		List<MediaType> result = cachedMediaTypeLists.get(mediaTypes);
+		if (result == null) {
+			String[] tokens = mediaTypes.split(",\\s*");
+			List<MediaType> parsed = new ArrayList<MediaType>(tokens.length);
+			for (String token : tokens) {
+				parsed.add(parseMediaType(token));
+			}
+			result = cachedMediaTypeLists.putIfAbsent(mediaTypes, Collections.unmodifiableList(parsed));
 		}
 		return result;
 	}
@@ -838,8 +893,7 @@ public class MediaType implements Comparable<MediaType> {
 	public static void sortBySpecificityAndQuality(List<MediaType> mediaTypes) {
 		Assert.notNull(mediaTypes, "'mediaTypes' must not be null");
 		if (mediaTypes.size() > 1) {
-			Collections.sort(mediaTypes, new CompoundComparator<MediaType>(
-					MediaType.SPECIFICITY_COMPARATOR, MediaType.QUALITY_VALUE_COMPARATOR));
+			Collections.sort(mediaTypes, SPECIFICITY_AND_QUALITY_COMPARATOR);
 		}
 	}
 
@@ -927,4 +981,10 @@ public class MediaType implements Comparable<MediaType> {
 		}
 	};
 
+	/**
+	 * Comparator used by {@link #sortBySpecificityAndQuality(List)}.
+	 */
+	private static final Comparator<MediaType> SPECIFICITY_AND_QUALITY_COMPARATOR =
+			new CompoundComparator<MediaType>(SPECIFICITY_COMPARATOR, QUALITY_VALUE_COMPARATOR);
+
 }
@@ -31,6 +31,7 @@ import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.remoting.rmi.CodebaseAwareObjectInputStream;
 import org.springframework.remoting.support.RemoteInvocation;
 import org.springframework.remoting.support.RemoteInvocationResult;
+import org.springframework.remoting.support.RemoteInvocationSerializer;
 import org.springframework.util.Assert;
 
 /**
@@ -72,16 +73,21 @@ public abstract class AbstractHttpInvokerRequestExecutor
 
 	protected final Log logger = LogFactory.getLog(getClass());
 
-	private String contentType = CONTENT_TYPE_SERIALIZED_OBJECT;
+	private String contentType;
 
 	private boolean acceptGzipEncoding = true;
 
+	private RemoteInvocationSerializer remoteInvocationSerializer;
+
 	private ClassLoader beanClassLoader;
 
 
 	/**
 	 * Specify the content type to use for sending HTTP invoker requests.
-	 * <p>Default is "application/x-java-serialized-object".
+	 * <p>Default is "application/x-java-serialized-object", or the content type
+	 * of the {@link #setRemoteInvocationSerializer RemoteInvocationSerializer}
+	 * if specified.
+	 * @see RemoteInvocationSerializer#getContentType()
 	 */
 	public void setContentType(String contentType) {
 		Assert.notNull(contentType, "'contentType' must not be null");
@@ -92,7 +98,11 @@ public abstract class AbstractHttpInvokerRequestExecutor
 	 * Return the content type to use for sending HTTP invoker requests.
 	 */
 	public String getContentType() {
-		return this.contentType;
+		if (this.contentType != null) {
+			return this.contentType;
+		}
+		return (this.remoteInvocationSerializer != null ?
+				this.remoteInvocationSerializer.getContentType() : CONTENT_TYPE_SERIALIZED_OBJECT);
 	}
 
 	/**
@@ -113,6 +123,27 @@ public abstract class AbstractHttpInvokerRequestExecutor
 		return this.acceptGzipEncoding;
 	}
 
+	/**
+	 * Set the {@link RemoteInvocationSerializer} to use for writing remote invocations
+	 * and reading remote invocation results, e.g. a
+	 * {@link org.springframework.remoting.support.CompactRemoteInvocationSerializer}.
+	 * <p>Default is none, using plain Java serialization through the
+	 * {@code ObjectInputStream} and {@code ObjectOutputStream} template methods.
+	 * Note that the service exporter needs to be configured with a compatible
+	 * serializer, and that a codebase URL is not supported in that case.
+	 * @see org.springframework.remoting.rmi.RemoteInvocationSerializingExporter#setRemoteInvocationSerializer
+	 */
+	public void setRemoteInvocationSerializer(RemoteInvocationSerializer remoteInvocationSerializer) {
+		this.remoteInvocationSerializer = remoteInvocationSerializer;
+	}
+
+	/**
+	 * Return the {@link RemoteInvocationSerializer} to use, if any.
+	 */
+	public RemoteInvocationSerializer getRemoteInvocationSerializer() {
+		return this.remoteInvocationSerializer;
+	}
+
 	public void setBeanClassLoader(ClassLoader classLoader) {
 		this.beanClassLoader = classLoader;
 	}
@@ -153,7 +184,8 @@ public abstract class AbstractHttpInvokerRequestExecutor
 	 * <p>The default implementation gives {@code decorateOutputStream} a chance
 	 * to decorate the stream first (for example, for custom encryption or compression).
 	 * Creates an {@code ObjectOutputStream} for the final stream and calls
-	 * {@code doWriteRemoteInvocation} to actually write the object.
+	 * {@code doWriteRemoteInvocation} to actually write the object, unless a
+	 * {@link #setRemoteInvocationSerializer RemoteInvocationSerializer} has been specified.
 	 * <p>Can be overridden for custom serialization of the invocation.
 	 * @param invocation the RemoteInvocation object
 	 * @param os the OutputStream to write to
@@ -162,6 +194,16 @@ public abstract class AbstractHttpInvokerRequestExecutor
 	 * @see #doWriteRemoteInvocation
 	 */
 	protected void writeRemoteInvocation(RemoteInvocation invocation, OutputStream os) throws IOException {
+		if (this.remoteInvocationSerializer != null) {
+			OutputStream decoratedStream = decorateOutputStream(os);
+			try {
+				this.remoteInvocationSerializer.writeRemoteInvocation(invocation, decoratedStream);
+			}
+			finally {
+				decoratedStream.close();
+			}
+			return;
+		}
 		ObjectOutputStream oos = new ObjectOutputStream(decorateOutputStream(os));
 		try {
 			doWriteRemoteInvocation(invocation, oos);
@@ -222,7 +264,8 @@ public abstract class AbstractHttpInvokerRequestExecutor
 	 * <p>Gives {@code decorateInputStream} a chance to decorate the stream
 	 * first (for example, for custom encryption or compression). Creates an
 	 * {@code ObjectInputStream} via {@code createObjectInputStream} and
-	 * calls {@code doReadRemoteInvocationResult} to actually read the object.
+	 * calls {@code doReadRemoteInvocationResult} to actually read the object, unless a
+	 * {@link #setRemoteInvocationSerializer RemoteInvocationSerializer} has been specified.
 	 * <p>Can be overridden for custom serialization of the invocation.
 	 * @param is the InputStream to read from
 	 * @param codebaseUrl the codebase URL to load classes from if not found locally
@@ -236,6 +279,15 @@ public abstract class AbstractHttpInvokerRequestExecutor
 	protected RemoteInvocationResult readRemoteInvocationResult(InputStream is, String codebaseUrl)
 			throws IOException, ClassNotFoundException {
 
+		if (this.remoteInvocationSerializer != null) {
+			InputStream decoratedStream = decorateInputStream(is);
+			try {
+				return this.remoteInvocationSerializer.readRemoteInvocationResult(decoratedStream, getBeanClassLoader());
+			}
+			finally {
+				decoratedStream.close();
+			}
+		}
 		ObjectInputStream ois = createObjectInputStream(decorateInputStream(is), codebaseUrl);
 		try {
 			return doReadRemoteInvocationResult(ois);
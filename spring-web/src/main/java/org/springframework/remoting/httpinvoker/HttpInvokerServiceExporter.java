@@ -28,6 +28,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.springframework.remoting.rmi.RemoteInvocationSerializingExporter;
 import org.springframework.remoting.support.RemoteInvocation;
 import org.springframework.remoting.support.RemoteInvocationResult;
+import org.springframework.remoting.support.RemoteInvocationSerializer;
 import org.springframework.web.HttpRequestHandler;
 import org.springframework.web.util.NestedServletException;
 
@@ -105,7 +106,9 @@ public class HttpInvokerServiceExporter extends RemoteInvocationSerializingExpor
 	 * <p>Gives {@link #decorateInputStream} a chance to decorate the stream
 	 * first (for example, for custom encryption or compression). Creates a
 	 * {@link org.springframework.remoting.rmi.CodebaseAwareObjectInputStream}
-	 * and calls {@link #doReadRemoteInvocation} to actually read the object.
+	 * and calls {@link #doReadRemoteInvocation} to actually read the object,
+	 * unless a {@link #setRemoteInvocationSerializer RemoteInvocationSerializer}
+	 * has been specified.
 	 * <p>Can be overridden for custom serialization of the invocation.
 	 * @param request current HTTP request
 	 * @param is the InputStream to read from
@@ -116,6 +119,16 @@ public class HttpInvokerServiceExporter extends RemoteInvocationSerializingExpor
 	protected RemoteInvocation readRemoteInvocation(HttpServletRequest request, InputStream is)
 			throws IOException, ClassNotFoundException {
 
+		RemoteInvocationSerializer serializer = getRemoteInvocationSerializer();
+		if (serializer != null) {
+			InputStream decoratedStream = decorateInputStream(request, is);
+			try {
+				return serializer.readRemoteInvocation(decoratedStream, getBeanClassLoader());
+			}
+			finally {
+				decoratedStream.close();
+			}
+		}
 		ObjectInputStream ois = createObjectInputStream(decorateInputStream(request, is));
 		try {
 			return doReadRemoteInvocation(ois);
@@ -159,7 +172,9 @@ public class HttpInvokerServiceExporter extends RemoteInvocationSerializingExpor
 	 * <p>The default implementation gives {@link #decorateOutputStream} a chance
 	 * to decorate the stream first (for example, for custom encryption or compression).
 	 * Creates an {@link java.io.ObjectOutputStream} for the final stream and calls
-	 * {@link #doWriteRemoteInvocationResult} to actually write the object.
+	 * {@link #doWriteRemoteInvocationResult} to actually write the object,
+	 * unless a {@link #setRemoteInvocationSerializer RemoteInvocationSerializer}
+	 * has been specified.
 	 * <p>Can be overridden for custom serialization of the invocation.
 	 * @param request current HTTP request
 	 * @param response current HTTP response
@@ -173,6 +188,17 @@ public class HttpInvokerServiceExporter extends RemoteInvocationSerializingExpor
 			HttpServletRequest request, HttpServletResponse response, RemoteInvocationResult result, OutputStream os)
 			throws IOException {
 
+		RemoteInvocationSerializer serializer = getRemoteInvocationSerializer();
+		if (serializer != null) {
+			OutputStream decoratedStream = decorateOutputStream(request, response, os);
+			try {
+				serializer.writeRemoteInvocationResult(result, decoratedStream);
+			}
+			finally {
+				decoratedStream.close();
+			}
+			return;
+		}
 		ObjectOutputStream oos = createObjectOutputStream(decorateOutputStream(request, response, os));
 		try {
 			doWriteRemoteInvocationResult(result, oos);
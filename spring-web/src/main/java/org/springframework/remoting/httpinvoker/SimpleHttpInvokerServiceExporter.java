@@ -28,6 +28,7 @@ import com.sun.net.httpserver.HttpHandler;
 import org.springframework.remoting.rmi.RemoteInvocationSerializingExporter;
 import org.springframework.remoting.support.RemoteInvocation;
 import org.springframework.remoting.support.RemoteInvocationResult;
+import org.springframework.remoting.support.RemoteInvocationSerializer;
 
 /**
  * HTTP request handler that exports the specified service bean as
@@ -96,7 +97,9 @@ public class SimpleHttpInvokerServiceExporter extends RemoteInvocationSerializin
 	 * <p>Gives {@link #decorateInputStream} a chance to decorate the stream
 	 * first (for example, for custom encryption or compression). Creates a
 	 * {@link org.springframework.remoting.rmi.CodebaseAwareObjectInputStream}
-	 * and calls {@link #doReadRemoteInvocation} to actually read the object.
+	 * and calls {@link #doReadRemoteInvocation} to actually read the object,
+	 * unless a {@link #setRemoteInvocationSerializer RemoteInvocationSerializer}
+	 * has been specified.
 	 * <p>Can be overridden for custom serialization of the invocation.
 	 * @param exchange current HTTP request/response
 	 * @param is the InputStream to read from
@@ -107,6 +110,10 @@ public class SimpleHttpInvokerServiceExporter extends RemoteInvocationSerializin
 	protected RemoteInvocation readRemoteInvocation(HttpExchange exchange, InputStream is)
 			throws IOException, ClassNotFoundException {
 
+		RemoteInvocationSerializer serializer = getRemoteInvocationSerializer();
+		if (serializer != null) {
+			return serializer.readRemoteInvocation(decorateInputStream(exchange, is), getBeanClassLoader());
+		}
 		ObjectInputStream ois = createObjectInputStream(decorateInputStream(exchange, is));
 		return doReadRemoteInvocation(ois);
 	}
@@ -144,7 +151,9 @@ public class SimpleHttpInvokerServiceExporter extends RemoteInvocationSerializin
 	 * <p>The default implementation gives {@link #decorateOutputStream} a chance
 	 * to decorate the stream first (for example, for custom encryption or compression).
 	 * Creates an {@link java.io.ObjectOutputStream} for the final stream and calls
-	 * {@link #doWriteRemoteInvocationResult} to actually write the object.
+	 * {@link #doWriteRemoteInvocationResult} to actually write the object,
+	 * unless a {@link #setRemoteInvocationSerializer RemoteInvocationSerializer}
+	 * has been specified.
 	 * <p>Can be overridden for custom serialization of the invocation.
 	 * @param exchange current HTTP request/response
 	 * @param result the RemoteInvocationResult object
@@ -156,6 +165,11 @@ public class SimpleHttpInvokerServiceExporter extends RemoteInvocationSerializin
 	protected void writeRemoteInvocationResult(
 			HttpExchange exchange, RemoteInvocationResult result, OutputStream os) throws IOException {
 
+		RemoteInvocationSerializer serializer = getRemoteInvocationSerializer();
+		if (serializer != null) {
+			serializer.writeRemoteInvocationResult(result, decorateOutputStream(exchange, os));
+			return;
+		}
 		ObjectOutputStream oos = createObjectOutputStream(decorateOutputStream(exchange, os));
 		doWriteRemoteInvocationResult(result, oos);
 		oos.flush();
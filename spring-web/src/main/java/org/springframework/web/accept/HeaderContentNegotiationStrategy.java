@@ -16,6 +16,7 @@
 
 package org.springframework.web.accept;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -42,9 +43,7 @@ public class HeaderContentNegotiationStrategy implements ContentNegotiationStrat
 		String acceptHeader = webRequest.getHeader(ACCEPT_HEADER);
 		try {
 			if (StringUtils.hasText(acceptHeader)) {
-				List<MediaType> mediaTypes = MediaType.parseMediaTypes(acceptHeader);
-				MediaType.sortBySpecificityAndQuality(mediaTypes);
-				return mediaTypes;
+				return new ArrayList<MediaType>(MediaType.parseAndSortMediaTypes(acceptHeader));
 			}
 		}
 		catch (IllegalArgumentException ex) {
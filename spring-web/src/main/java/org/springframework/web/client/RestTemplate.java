@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -48,6 +48,7 @@ import org.springframework.http.converter.support.AllEncompassingFormHttpMessage
 import org.springframework.http.converter.xml.Jaxb2RootElementHttpMessageConverter;
 import org.springframework.http.converter.xml.SourceHttpMessageConverter;
 import org.springframework.util.Assert;
+import org.springframework.util.BoundedConcurrentCache;
 import org.springframework.util.ClassUtils;
 import org.springframework.web.util.UriTemplate;
 
@@ -145,6 +146,9 @@ public class RestTemplate extends InterceptingHttpAccessor implements RestOperat
 
 	private final ResponseExtractor<HttpHeaders> headersExtractor = new HeadersExtractor();
 
+	private final BoundedConcurrentCache<String, UriTemplate> uriTemplateCache =
+			new BoundedConcurrentCache<String, UriTemplate>(256);
+
 
 	/**
 	 * Create a new instance of the {@link RestTemplate} using default settings.
@@ -478,14 +482,14 @@ public class RestTemplate extends InterceptingHttpAccessor implements RestOperat
 	public <T> T execute(String url, HttpMethod method, RequestCallback requestCallback,
 			ResponseExtractor<T> responseExtractor, Object... urlVariables) throws RestClientException {
 
-		URI expanded = new UriTemplate(url).expand(urlVariables);
+		URI expanded = getUriTemplate(url).expand(urlVariables);
 		return doExecute(expanded, method, requestCallback, responseExtractor);
 	}
 
 	public <T> T execute(String url, HttpMethod method, RequestCallback requestCallback,
 			ResponseExtractor<T> responseExtractor, Map<String, ?> urlVariables) throws RestClientException {
 
-		URI expanded = new UriTemplate(url).expand(urlVariables);
+		URI expanded = getUriTemplate(url).expand(urlVariables);
 		return doExecute(expanded, method, requestCallback, responseExtractor);
 	}
 
@@ -495,6 +499,19 @@ public class RestTemplate extends InterceptingHttpAccessor implements RestOperat
 		return doExecute(url, method, requestCallback, responseExtractor);
 	}
 
+	/**
+	 * Return the parsed {@link UriTemplate} for the given URL template,
+	 * reusing a cached instance for recently used templates.
+	 */
+	private UriTemplate getUriTemplate(String url) {
+		Assert.notNull(url, "'url' must not be null");
+		UriTemplate uriTemplate = this.uriTemplateCache.get(url);
+		if (uriTemplate == null) {
+			uriTemplate = this.uriTemplateCache.putIfAbsent(url, new UriTemplate(url));
+		}
+		return uriTemplate;
+	}
+
 	/**
 	 * Execute the given method on the provided URI.
 	 * <p>The {@link ClientHttpRequest} is processed using the {@link RequestCallback};
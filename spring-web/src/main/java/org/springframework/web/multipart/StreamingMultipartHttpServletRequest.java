@@ -0,0 +1,49 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.multipart;
+
+import java.util.Iterator;
+
+/**
+ * Extension of {@link MultipartHttpServletRequest} for multipart requests that
+ * are parsed while the request body is being read, rather than upfront.
+ *
+ * <p>File parts can be processed one after the other via {@link #getFileIterator()},
+ * with their content read straight from the request. The regular accessors remain
+ * available as well: they read the request up to the requested part, buffering
+ * any file parts skipped on the way. A part that is accessed before the parts
+ * following it is not buffered at all.
+ *
+ * @since 3.2.19
+ * @see org.springframework.web.multipart.commons.CommonsMultipartResolver#setStreaming
+ */
+public interface StreamingMultipartHttpServletRequest extends MultipartHttpServletRequest {
+
+	/**
+	 * Return an iterator over the file parts of this request: first the parts
+	 * already buffered by the regular accessors, then the parts that have not been
+	 * read yet, in the order in which they occur in the request body.
+	 * <p>The content of each file that has not been read yet is read straight from
+	 * the request and is only available until the iterator is advanced;
+	 * {@link MultipartFile#getSize()} returns -1 if the size of a part is not known
+	 * upfront. Form fields encountered on the way are exposed as request parameters.
+	 * <p>The iterator methods throw a {@link MultipartException} if the request
+	 * cannot be parsed.
+	 */
+	Iterator<MultipartFile> getFileIterator();
+
+}
@@ -287,7 +287,7 @@ public abstract class CommonsFileUploadSupport {
 		}
 	}
 
-	private String determineEncoding(String contentTypeHeader, String defaultEncoding) {
+	String determineEncoding(String contentTypeHeader, String defaultEncoding) {
 		if (!StringUtils.hasText(contentTypeHeader)) {
 			return defaultEncoding;
 		}
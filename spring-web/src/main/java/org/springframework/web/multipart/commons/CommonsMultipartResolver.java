@@ -33,6 +33,7 @@ import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartException;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
 import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.multipart.StreamingMultipartHttpServletRequest;
 import org.springframework.web.multipart.support.DefaultMultipartHttpServletRequest;
 import org.springframework.web.util.WebUtils;
 
@@ -50,11 +51,16 @@ import org.springframework.web.util.WebUtils;
  * Needs to be initialized <i>either</i> by an application context <i>or</i>
  * via the constructor that takes a ServletContext (for standalone usage).
  *
+ * <p>In {@linkplain #setStreaming streaming} mode, the request body is parsed
+ * while being read, exposing file parts as a stream through the
+ * {@link StreamingMultipartHttpServletRequest} interface.
+ *
  * @author Trevor D. Cook
  * @author Juergen Hoeller
  * @since 29.09.2003
  * @see #CommonsMultipartResolver(ServletContext)
  * @see #setResolveLazily
+ * @see #setStreaming
  * @see org.springframework.web.portlet.multipart.CommonsPortletMultipartResolver
  * @see org.apache.commons.fileupload.servlet.ServletFileUpload
  * @see org.apache.commons.fileupload.disk.DiskFileItemFactory
@@ -64,6 +70,10 @@ public class CommonsMultipartResolver extends CommonsFileUploadSupport
 
 	private boolean resolveLazily = false;
 
+	private boolean streaming = false;
+
+	private boolean memoryMappedSpooling = false;
+
 
 	/**
 	 * Constructor for use as bean. Determines the servlet container's
@@ -100,6 +110,35 @@ public class CommonsMultipartResolver extends CommonsFileUploadSupport
 		this.resolveLazily = resolveLazily;
 	}
 
+	/**
+	 * Set whether to parse multipart requests while their body is being read,
+	 * rather than parsing all parts into {@code FileItems} upfront.
+	 * <p>Default is "false". Switch this to "true" to resolve multipart requests
+	 * as {@link StreamingMultipartHttpServletRequest}, giving access to the content
+	 * of file parts straight from the request: for example, for uploads too large
+	 * to be buffered. Parts skipped on the way to a requested part are buffered as
+	 * configured through the "maxInMemorySize" and "uploadTempDir" properties.
+	 * <p>Streaming implies lazy resolution: parse exceptions are thrown once the
+	 * application reads the affected part.
+	 * @since 3.2.19
+	 * @see StreamingMultipartHttpServletRequest#getFileIterator()
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	/**
+	 * Set whether parts buffered to temporary files in {@linkplain #setStreaming
+	 * streaming} mode are read back through memory-mapped buffers, avoiding copies
+	 * of their content on the heap.
+	 * <p>Default is "false". Note that some platforms cannot delete a temporary
+	 * file while it is still mapped.
+	 * @since 3.2.19
+	 */
+	public void setMemoryMappedSpooling(boolean memoryMappedSpooling) {
+		this.memoryMappedSpooling = memoryMappedSpooling;
+	}
+
 	/**
 	 * Initialize the underlying {@code org.apache.commons.fileupload.servlet.ServletFileUpload}
 	 * instance. Can be overridden to use a custom subclass, e.g. for testing purposes.
@@ -124,7 +163,12 @@ public class CommonsMultipartResolver extends CommonsFileUploadSupport
 
 	public MultipartHttpServletRequest resolveMultipart(final HttpServletRequest request) throws MultipartException {
 		Assert.notNull(request, "Request must not be null");
-		if (this.resolveLazily) {
+		if (this.streaming) {
+			String encoding = determineEncoding(request);
+			return new CommonsStreamingMultipartHttpServletRequest(request, this,
+					(ServletFileUpload) prepareFileUpload(encoding), encoding, this.memoryMappedSpooling);
+		}
+		else if (this.resolveLazily) {
 			return new DefaultMultipartHttpServletRequest(request) {
 				@Override
 				protected void initializeMultipart() {
@@ -183,7 +227,10 @@ public class CommonsMultipartResolver extends CommonsFileUploadSupport
 	}
 
 	public void cleanupMultipart(MultipartHttpServletRequest request) {
-		if (request != null) {
+		if (request instanceof CommonsStreamingMultipartHttpServletRequest) {
+			((CommonsStreamingMultipartHttpServletRequest) request).cleanup();
+		}
+		else if (request != null) {
 			try {
 				cleanupFileItems(request.getMultiFileMap());
 			}
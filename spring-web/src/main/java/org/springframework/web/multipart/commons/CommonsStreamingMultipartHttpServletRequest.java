@@ -0,0 +1,533 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.multipart.commons;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.fileupload.FileItem;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUploadBase;
+import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.disk.DiskFileItem;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.apache.commons.fileupload.util.Streams;
+
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.StreamingMultipartHttpServletRequest;
+import org.springframework.web.multipart.support.DefaultMultipartHttpServletRequest;
+
+/**
+ * {@link StreamingMultipartHttpServletRequest} implementation on top of the
+ * Commons FileUpload streaming API, as created by {@link CommonsMultipartResolver}
+ * in {@linkplain CommonsMultipartResolver#setStreaming streaming} mode.
+ *
+ * <p>File parts that have to be skipped to reach a requested part are spooled
+ * through the resolver's {@code DiskFileItemFactory}, and are read back from
+ * memory-mapped files if configured.
+ *
+ * @since 3.2.19
+ */
+class CommonsStreamingMultipartHttpServletRequest extends DefaultMultipartHttpServletRequest
+		implements StreamingMultipartHttpServletRequest {
+
+	private final CommonsMultipartResolver resolver;
+
+	private final ServletFileUpload fileUpload;
+
+	private final String encoding;
+
+	private final boolean memoryMappedSpooling;
+
+	private final MultiValueMap<String, MultipartFile> files = new LinkedMultiValueMap<String, MultipartFile>();
+
+	private final Map<String, String[]> parameters = new HashMap<String, String[]>();
+
+	private final Map<String, String> parameterContentTypes = new HashMap<String, String>();
+
+	private final List<FileItem> spooledItems = new ArrayList<FileItem>();
+
+	private FileItemIterator itemIterator;
+
+	private StreamedMultipartFile currentFile;
+
+	private boolean exhausted;
+
+
+	public CommonsStreamingMultipartHttpServletRequest(HttpServletRequest request, CommonsMultipartResolver resolver,
+			ServletFileUpload fileUpload, String encoding, boolean memoryMappedSpooling) {
+
+		super(request);
+		this.resolver = resolver;
+		this.fileUpload = fileUpload;
+		this.encoding = encoding;
+		this.memoryMappedSpooling = memoryMappedSpooling;
+	}
+
+
+	public Iterator<MultipartFile> getFileIterator() {
+		return new Iterator<MultipartFile>() {
+
+			private final Set<MultipartFile> returnedBufferedFiles = new HashSet<MultipartFile>();
+
+			private MultipartFile next;
+
+			private StreamedMultipartFile nextStreamed;
+
+			public boolean hasNext() {
+				if (this.next == null) {
+					this.next = nextBufferedFile();
+				}
+				if (this.next == null) {
+					this.nextStreamed = nextFile();
+					if (this.nextStreamed != null) {
+						// Keep it readable in case the request gets read further
+						// before the caller obtains it.
+						this.nextStreamed.retained = true;
+					}
+					this.next = this.nextStreamed;
+				}
+				return (this.next != null);
+			}
+
+			public MultipartFile next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				MultipartFile file = this.next;
+				this.next = null;
+				if (this.nextStreamed != null) {
+					this.nextStreamed.retained = false;
+					this.nextStreamed = null;
+				}
+				return file;
+			}
+
+			/**
+			 * Return a file part buffered by the regular accessors, i.e. read
+			 * before this iterator got to it, that has not been returned yet.
+			 */
+			private MultipartFile nextBufferedFile() {
+				for (List<MultipartFile> filesPerName : files.values()) {
+					for (MultipartFile file : filesPerName) {
+						if (this.returnedBufferedFiles.add(file)) {
+							return file;
+						}
+					}
+				}
+				return null;
+			}
+
+			public void remove() {
+				throw new UnsupportedOperationException("remove");
+			}
+		};
+	}
+
+	@Override
+	public MultipartFile getFile(String name) {
+		MultipartFile file = this.files.getFirst(name);
+		while (file == null && !this.exhausted) {
+			StreamedMultipartFile next = nextFile();
+			if (next != null) {
+				this.files.add(next.getName(), next);
+				if (next.getName().equals(name)) {
+					next.retained = true;
+					file = next;
+				}
+				else {
+					next.spool();
+				}
+			}
+		}
+		return file;
+	}
+
+	@Override
+	public String getParameter(String name) {
+		while (!this.parameters.containsKey(name) && !this.exhausted) {
+			StreamedMultipartFile next = nextFile();
+			if (next != null) {
+				this.files.add(next.getName(), next);
+				next.spool();
+			}
+		}
+		String[] values = this.parameters.get(name);
+		if (values != null) {
+			return (values.length > 0 ? values[0] : null);
+		}
+		return getRequest().getParameter(name);
+	}
+
+	@Override
+	protected MultiValueMap<String, MultipartFile> getMultipartFiles() {
+		readFully();
+		return this.files;
+	}
+
+	@Override
+	protected Map<String, String[]> getMultipartParameters() {
+		readFully();
+		return this.parameters;
+	}
+
+	@Override
+	protected Map<String, String> getMultipartParameterContentTypes() {
+		readFully();
+		return this.parameterContentTypes;
+	}
+
+	private void readFully() {
+		while (!this.exhausted) {
+			StreamedMultipartFile next = nextFile();
+			if (next != null) {
+				this.files.add(next.getName(), next);
+				next.spool();
+			}
+		}
+	}
+
+	/**
+	 * Read up to the next file part, recording the form fields on the way.
+	 * @return the next file part, or {@code null} if the request has been read fully
+	 */
+	private StreamedMultipartFile nextFile() {
+		if (this.currentFile != null) {
+			this.currentFile.release();
+			this.currentFile = null;
+		}
+		try {
+			if (this.itemIterator == null) {
+				this.itemIterator = this.fileUpload.getItemIterator(getRequest());
+			}
+			while (this.itemIterator.hasNext()) {
+				FileItemStream item = this.itemIterator.next();
+				if (item.isFormField()) {
+					addParameter(item);
+				}
+				else {
+					this.currentFile = new StreamedMultipartFile(item);
+					return this.currentFile;
+				}
+			}
+			this.exhausted = true;
+			return null;
+		}
+		catch (FileUploadBase.SizeLimitExceededException ex) {
+			this.exhausted = true;
+			throw new MaxUploadSizeExceededException(this.fileUpload.getSizeMax(), ex);
+		}
+		catch (FileUploadException ex) {
+			this.exhausted = true;
+			throw new MultipartException("Could not parse multipart servlet request", ex);
+		}
+		catch (IOException ex) {
+			this.exhausted = true;
+			if (ex.getCause() instanceof FileUploadBase.SizeLimitExceededException) {
+				throw new MaxUploadSizeExceededException(this.fileUpload.getSizeMax(), ex.getCause());
+			}
+			throw new MultipartException("Could not read multipart servlet request", ex);
+		}
+	}
+
+	private void addParameter(FileItemStream item) throws IOException {
+		String fieldName = item.getFieldName();
+		String partEncoding = this.resolver.determineEncoding(item.getContentType(), this.encoding);
+		String value;
+		try {
+			value = Streams.asString(item.openStream(), partEncoding);
+		}
+		catch (UnsupportedEncodingException ex) {
+			throw new MultipartException("Could not decode multipart item '" + fieldName +
+					"' with encoding '" + partEncoding + "'", ex);
+		}
+		String[] curParam = this.parameters.get(fieldName);
+		if (curParam == null) {
+			this.parameters.put(fieldName, new String[] {value});
+		}
+		else {
+			this.parameters.put(fieldName, StringUtils.addStringToArray(curParam, value));
+		}
+		this.parameterContentTypes.put(fieldName, item.getContentType());
+	}
+
+	/**
+	 * Delete all files spooled while reading this request.
+	 */
+	void cleanup() {
+		for (FileItem item : this.spooledItems) {
+			item.delete();
+		}
+		this.spooledItems.clear();
+	}
+
+
+	/**
+	 * {@code MultipartFile} for a file part read straight from the request. Once the
+	 * request is read further, its content is only available if it has been spooled.
+	 */
+	private class StreamedMultipartFile implements MultipartFile {
+
+		private final FileItemStream item;
+
+		private PushbackInputStream inputStream;
+
+		private boolean consumed;
+
+		private boolean released;
+
+		/** Whether to spool the content when the request is read further */
+		private boolean retained;
+
+		private CommonsMultipartFile spooledFile;
+
+		public StreamedMultipartFile(FileItemStream item) {
+			this.item = item;
+		}
+
+		public String getName() {
+			return this.item.getFieldName();
+		}
+
+		public String getOriginalFilename() {
+			String filename = this.item.getName();
+			return (filename != null ? StringUtils.getFilename(StringUtils.cleanPath(filename)) : "");
+		}
+
+		public String getContentType() {
+			return this.item.getContentType();
+		}
+
+		public boolean isEmpty() {
+			if (this.spooledFile != null) {
+				return this.spooledFile.isEmpty();
+			}
+			try {
+				PushbackInputStream inputStream = openStream();
+				int b = inputStream.read();
+				if (b == -1) {
+					return true;
+				}
+				inputStream.unread(b);
+				return false;
+			}
+			catch (IOException ex) {
+				throw new MultipartException("Could not read multipart file '" + getName() + "'", ex);
+			}
+		}
+
+		public long getSize() {
+			return (this.spooledFile != null ? this.spooledFile.getSize() : -1);
+		}
+
+		public byte[] getBytes() throws IOException {
+			if (this.spooledFile != null) {
+				return this.spooledFile.getBytes();
+			}
+			return FileCopyUtils.copyToByteArray(consumeStream());
+		}
+
+		public InputStream getInputStream() throws IOException {
+			if (this.spooledFile != null) {
+				return this.spooledFile.getInputStream();
+			}
+			return consumeStream();
+		}
+
+		public void transferTo(File dest) throws IOException, IllegalStateException {
+			if (this.spooledFile != null) {
+				this.spooledFile.transferTo(dest);
+				return;
+			}
+			InputStream inputStream = consumeStream();
+			if (dest.exists() && !dest.delete()) {
+				throw new IOException(
+						"Destination file [" + dest.getAbsolutePath() + "] already exists and could not be deleted");
+			}
+			FileChannel channel = new FileOutputStream(dest).getChannel();
+			try {
+				ReadableByteChannel source = Channels.newChannel(inputStream);
+				long position = 0;
+				long count;
+				while ((count = channel.transferFrom(source, position, 1024 * 1024)) > 0) {
+					position += count;
+				}
+			}
+			finally {
+				channel.close();
+			}
+		}
+
+		private InputStream consumeStream() throws IOException {
+			if (this.consumed) {
+				throw new IllegalStateException("Multipart file '" + getName() +
+						"' is read straight from the request and can only be read once");
+			}
+			InputStream inputStream = openStream();
+			this.consumed = true;
+			return inputStream;
+		}
+
+		private PushbackInputStream openStream() throws IOException {
+			if (this.released) {
+				throw new IllegalStateException("Multipart file '" + getName() +
+						"' is no longer available: the request has been read past it");
+			}
+			if (this.inputStream == null) {
+				this.inputStream = new PushbackInputStream(this.item.openStream(), 1);
+			}
+			return this.inputStream;
+		}
+
+		/**
+		 * Copy the content of this part to a {@code FileItem}, unless already read.
+		 */
+		void spool() {
+			if (this.spooledFile != null || this.consumed || this.released) {
+				return;
+			}
+			FileItem fileItem = resolver.getFileItemFactory().createItem(
+					getName(), getContentType(), false, this.item.getName());
+			spooledItems.add(fileItem);
+			try {
+				Streams.copy(openStream(), fileItem.getOutputStream(), true);
+			}
+			catch (IOException ex) {
+				throw new MultipartException("Could not spool multipart file '" + getName() + "'", ex);
+			}
+			if (fileItem instanceof DiskFileItem) {
+				((DiskFileItem) fileItem).setHeaders(this.item.getHeaders());
+			}
+			this.spooledFile = (memoryMappedSpooling ?
+					new MemoryMappedMultipartFile(fileItem) : new CommonsMultipartFile(fileItem));
+			if (resolver.logger.isDebugEnabled()) {
+				resolver.logger.debug("Spooled multipart file [" + getName() + "] of size " +
+						this.spooledFile.getSize() + " bytes with original filename [" + getOriginalFilename() +
+						"], stored " + this.spooledFile.getStorageDescription());
+			}
+		}
+
+		/**
+		 * Called when the request is read past this part.
+		 */
+		void release() {
+			if (this.retained) {
+				spool();
+			}
+			this.released = true;
+		}
+	}
+
+
+	/**
+	 * {@code CommonsMultipartFile} that reads content stored on disk via a
+	 * memory-mapped buffer rather than copying it onto the heap.
+	 */
+	@SuppressWarnings("serial")
+	private static class MemoryMappedMultipartFile extends CommonsMultipartFile {
+
+		public MemoryMappedMultipartFile(FileItem fileItem) {
+			super(fileItem);
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			FileItem fileItem = getFileItem();
+			if (fileItem.isInMemory() || !(fileItem instanceof DiskFileItem) || getSize() > Integer.MAX_VALUE ||
+					!isAvailable()) {
+				return super.getInputStream();
+			}
+			RandomAccessFile file = new RandomAccessFile(((DiskFileItem) fileItem).getStoreLocation(), "r");
+			try {
+				// The mapping remains valid after the channel has been closed
+				return new ByteBufferInputStream(file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, getSize()));
+			}
+			finally {
+				file.close();
+			}
+		}
+	}
+
+
+	/**
+	 * {@code InputStream} reading from a {@code ByteBuffer}.
+	 */
+	private static class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		public ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return (this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+			if (!this.buffer.hasRemaining()) {
+				return -1;
+			}
+			int count = Math.min(len, this.buffer.remaining());
+			this.buffer.get(b, off, count);
+			return count;
+		}
+
+		@Override
+		public long skip(long n) {
+			int count = (int) Math.max(0, Math.min(n, this.buffer.remaining()));
+			this.buffer.position(this.buffer.position() + count);
+			return count;
+		}
+
+		@Override
+		public int available() {
+			return this.buffer.remaining();
+		}
+	}
+
+}
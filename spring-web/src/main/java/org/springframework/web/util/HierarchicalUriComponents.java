@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -48,6 +48,8 @@ final class HierarchicalUriComponents extends UriComponents {
 
 	private static final char PATH_DELIMITER = '/';
 
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
 	private final String userInfo;
 
 	private final String host;
@@ -219,6 +221,61 @@ final class HierarchicalUriComponents extends UriComponents {
 		return new String(bytes, "US-ASCII");
 	}
 
+	/**
+	 * Encodes the given source as UTF-8 using the rules specified by the given
+	 * component, appending the result to the given builder. Produces the same
+	 * output as {@link #encodeUriComponent(String, String, Type)} with "UTF-8"
+	 * without creating intermediate byte arrays or strings.
+	 * @param source the source string
+	 * @param type the URI component for the source
+	 * @param target the builder to append the encoded source to
+	 */
+	static void encodeUriComponent(String source, Type type, StringBuilder target) {
+		int length = source.length();
+		for (int i = 0; i < length; i++) {
+			char c = source.charAt(i);
+			if (c < 0x80) {
+				if (type.isAllowed(c)) {
+					target.append(c);
+				}
+				else {
+					appendEscaped(c, target);
+				}
+			}
+			else if (c < 0x800) {
+				appendEscaped(0xC0 | (c >> 6), target);
+				appendEscaped(0x80 | (c & 0x3F), target);
+			}
+			else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(source.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, source.charAt(++i));
+				appendEscaped(0xF0 | (codePoint >> 18), target);
+				appendEscaped(0x80 | ((codePoint >> 12) & 0x3F), target);
+				appendEscaped(0x80 | ((codePoint >> 6) & 0x3F), target);
+				appendEscaped(0x80 | (codePoint & 0x3F), target);
+			}
+			else if (c >= '\uD800' && c <= '\uDFFF') {
+				// Unpaired surrogate: replaced with '?', as done by String.getBytes
+				if (type.isAllowed('?')) {
+					target.append('?');
+				}
+				else {
+					appendEscaped('?', target);
+				}
+			}
+			else {
+				appendEscaped(0xE0 | (c >> 12), target);
+				appendEscaped(0x80 | ((c >> 6) & 0x3F), target);
+				appendEscaped(0x80 | (c & 0x3F), target);
+			}
+		}
+	}
+
+	private static void appendEscaped(int b, StringBuilder target) {
+		target.append('%');
+		target.append(HEX_DIGITS[(b >> 4) & 0xF]);
+		target.append(HEX_DIGITS[b & 0xF]);
+	}
+
 	private static byte[] encodeBytes(byte[] source, Type type) {
 		Assert.notNull(source, "Source must not be null");
 		Assert.notNull(type, "Type must not be null");
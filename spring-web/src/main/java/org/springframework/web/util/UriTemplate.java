@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.io.Serializable;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -29,6 +30,8 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.springframework.util.Assert;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
 
 /**
  * Represents a URI template. A URI template is a URI-like String that contains variables enclosed
@@ -36,6 +39,10 @@ import org.springframework.util.Assert;
  *
  * <p>See {@link #expand(Map)}, {@link #expand(Object[])}, and {@link #match(String)} for example usages.
  *
+ * <p>Instances are immutable and thread-safe. The template is parsed once, with expansion
+ * writing literal parts and encoded variable values straight into a single buffer, so
+ * instances are meant to be reused for repeated expansion of the same template.
+ *
  * @author Arjen Poutsma
  * @author Juergen Hoeller
  * @since 3.0
@@ -58,6 +65,8 @@ public class UriTemplate implements Serializable {
 
 	private final String uriTemplate;
 
+	private transient volatile Expander expander;
+
 
 	/**
 	 * Construct a new {@code UriTemplate} with the given URI String.
@@ -98,6 +107,11 @@ public class UriTemplate implements Serializable {
 	 * or if it does not contain values for all the variable names
 	 */
 	public URI expand(Map<String, ?> uriVariables) {
+		Expander expander = getExpander();
+		if (expander.isPrecompiled()) {
+			Assert.notNull(uriVariables, "'uriVariables' must not be null");
+			return expander.expand(new UriComponents.MapTemplateVariables(uriVariables));
+		}
 		UriComponents expandedComponents = this.uriComponents.expand(uriVariables);
 		UriComponents encodedComponents = expandedComponents.encode();
 		return encodedComponents.toUri();
@@ -118,6 +132,11 @@ public class UriTemplate implements Serializable {
      * or if it does not contain sufficient variables
      */
 	public URI expand(Object... uriVariableValues) {
+		Expander expander = getExpander();
+		if (expander.isPrecompiled()) {
+			Assert.notNull(uriVariableValues, "'uriVariableValues' must not be null");
+			return expander.expand(new UriComponents.VarArgsTemplateVariables(uriVariableValues));
+		}
 		UriComponents expandedComponents = this.uriComponents.expand(uriVariableValues);
 		UriComponents encodedComponents = expandedComponents.encode();
 		return encodedComponents.toUri();
@@ -189,6 +208,16 @@ public class UriTemplate implements Serializable {
 		return this.uriTemplate;
 	}
 
+	private Expander getExpander() {
+		Expander expander = this.expander;
+		if (expander == null) {
+			// Not serialized: lazily rebuilt after deserialization
+			expander = new Expander(this.uriComponents);
+			this.expander = expander;
+		}
+		return expander;
+	}
+
 
 	/**
 	 * Static inner class to parse URI template strings into a matching regular expression.
@@ -248,4 +277,238 @@ public class UriTemplate implements Serializable {
 		}
 	}
 
+
+
+	/**
+	 * Static inner class that expands and encodes a parsed URI template into a URI
+	 * in a single pass, equivalent to {@code uriComponents.expand(...).encode().toUri()}.
+	 * <p>Literal parts are encoded upfront; only variable values get encoded during
+	 * expansion. Opaque URIs and templates with variables in query parameter names
+	 * are not precompiled, since expansion may change their structure.
+	 */
+	private static class Expander {
+
+		private final boolean precompiled;
+
+		private final Component scheme;
+
+		private final Component userInfo;
+
+		private final Component host;
+
+		private final int port;
+
+		private final Component path;
+
+		private final List<QueryParam> queryParams;
+
+		private final Component fragment;
+
+		private final int estimatedLength;
+
+		private Expander(UriComponents uriComponents) {
+			this.precompiled = (uriComponents instanceof HierarchicalUriComponents &&
+					!hasQueryParamNameVariables(uriComponents));
+			if (this.precompiled) {
+				this.scheme = Component.compile(uriComponents.getScheme(), HierarchicalUriComponents.Type.SCHEME);
+				this.userInfo = Component.compile(uriComponents.getUserInfo(), HierarchicalUriComponents.Type.USER_INFO);
+				this.host = Component.compile(uriComponents.getHost(), HierarchicalUriComponents.Type.HOST);
+				this.port = uriComponents.getPort();
+				this.path = (StringUtils.hasLength(uriComponents.getPath()) ?
+						Component.compile(uriComponents.getPath(), HierarchicalUriComponents.Type.PATH) : null);
+				this.queryParams = compileQueryParams(uriComponents.getQueryParams());
+				this.fragment = Component.compile(uriComponents.getFragment(), HierarchicalUriComponents.Type.FRAGMENT);
+				this.estimatedLength = uriComponents.toUriString().length() + 32;
+			}
+			else {
+				this.scheme = null;
+				this.userInfo = null;
+				this.host = null;
+				this.port = -1;
+				this.path = null;
+				this.queryParams = null;
+				this.fragment = null;
+				this.estimatedLength = 0;
+			}
+		}
+
+		private static List<QueryParam> compileQueryParams(MultiValueMap<String, String> params) {
+			if (params.isEmpty()) {
+				return null;
+			}
+			List<QueryParam> queryParams = new ArrayList<QueryParam>(params.size());
+			for (Map.Entry<String, List<String>> entry : params.entrySet()) {
+				queryParams.add(new QueryParam(entry.getKey(), entry.getValue()));
+			}
+			return queryParams;
+		}
+
+		private static boolean hasQueryParamNameVariables(UriComponents uriComponents) {
+			for (String name : uriComponents.getQueryParams().keySet()) {
+				if (name.indexOf('{') != -1) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		public boolean isPrecompiled() {
+			return this.precompiled;
+		}
+
+		/**
+		 * Mirrors the layout of {@link HierarchicalUriComponents#toUriString()}.
+		 */
+		public URI expand(UriComponents.UriTemplateVariables uriVariables) {
+			StringBuilder uriBuilder = new StringBuilder(this.estimatedLength);
+			if (this.scheme != null) {
+				this.scheme.appendTo(uriBuilder, uriVariables);
+				uriBuilder.append(':');
+			}
+			if (this.userInfo != null || this.host != null) {
+				uriBuilder.append("//");
+				if (this.userInfo != null) {
+					this.userInfo.appendTo(uriBuilder, uriVariables);
+					uriBuilder.append('@');
+				}
+				if (this.host != null) {
+					this.host.appendTo(uriBuilder, uriVariables);
+				}
+				if (this.port != -1) {
+					uriBuilder.append(':');
+					uriBuilder.append(this.port);
+				}
+			}
+			if (this.path != null) {
+				int pathStart = uriBuilder.length();
+				this.path.appendTo(uriBuilder, uriVariables);
+				if (pathStart != 0 && uriBuilder.length() > pathStart && uriBuilder.charAt(pathStart) != '/') {
+					uriBuilder.insert(pathStart, '/');
+				}
+			}
+			if (this.queryParams != null) {
+				uriBuilder.append('?');
+				int queryStart = uriBuilder.length();
+				for (QueryParam queryParam : this.queryParams) {
+					queryParam.appendTo(uriBuilder, queryStart, uriVariables);
+				}
+			}
+			if (this.fragment != null) {
+				uriBuilder.append('#');
+				this.fragment.appendTo(uriBuilder, uriVariables);
+			}
+			try {
+				return new URI(uriBuilder.toString());
+			}
+			catch (URISyntaxException ex) {
+				throw new IllegalStateException("Could not create URI object: " + ex.getMessage(), ex);
+			}
+		}
+	}
+
+
+	/**
+	 * A single URI component, split into encoded literal parts and the names
+	 * of the variables in between.
+	 */
+	private static class Component {
+
+		private final String[] literals;
+
+		private final String[] variableNames;
+
+		private final HierarchicalUriComponents.Type type;
+
+		private Component(String[] literals, String[] variableNames, HierarchicalUriComponents.Type type) {
+			this.literals = literals;
+			this.variableNames = variableNames;
+			this.type = type;
+		}
+
+		public static Component compile(String source, HierarchicalUriComponents.Type type) {
+			if (source == null) {
+				return null;
+			}
+			List<String> literals = new ArrayList<String>();
+			List<String> variableNames = new ArrayList<String>();
+			Matcher matcher = NAMES_PATTERN.matcher(source);
+			int end = 0;
+			while (matcher.find()) {
+				literals.add(encodeLiteral(source.substring(end, matcher.start()), type));
+				String match = matcher.group(1);
+				int colonIdx = match.indexOf(':');
+				variableNames.add(colonIdx != -1 ? match.substring(0, colonIdx) : match);
+				end = matcher.end();
+			}
+			literals.add(encodeLiteral(source.substring(end), type));
+			return new Component(literals.toArray(new String[literals.size()]),
+					variableNames.toArray(new String[variableNames.size()]), type);
+		}
+
+		private static String encodeLiteral(String literal, HierarchicalUriComponents.Type type) {
+			StringBuilder encoded = new StringBuilder(literal.length());
+			HierarchicalUriComponents.encodeUriComponent(literal, type, encoded);
+			return encoded.toString();
+		}
+
+		public void appendTo(StringBuilder uriBuilder, UriComponents.UriTemplateVariables uriVariables) {
+			for (int i = 0; i < this.variableNames.length; i++) {
+				uriBuilder.append(this.literals[i]);
+				Object value = uriVariables.getValue(this.variableNames[i]);
+				if (value != null) {
+					HierarchicalUriComponents.encodeUriComponent(value.toString(), this.type, uriBuilder);
+				}
+			}
+			uriBuilder.append(this.literals[this.variableNames.length]);
+		}
+	}
+
+
+	/**
+	 * A query parameter with an encoded name and compiled values.
+	 */
+	private static class QueryParam {
+
+		private final String name;
+
+		private final Component[] values;
+
+		public QueryParam(String name, List<String> values) {
+			this.name = Component.compile(name, HierarchicalUriComponents.Type.QUERY_PARAM).literals[0];
+			if (values == null) {
+				this.values = new Component[0];
+			}
+			else {
+				this.values = new Component[values.size()];
+				for (int i = 0; i < this.values.length; i++) {
+					this.values[i] = Component.compile(values.get(i), HierarchicalUriComponents.Type.QUERY_PARAM);
+				}
+			}
+		}
+
+		/**
+		 * Mirrors the layout of {@link HierarchicalUriComponents#getQuery()}.
+		 */
+		public void appendTo(StringBuilder uriBuilder, int queryStart,
+				UriComponents.UriTemplateVariables uriVariables) {
+
+			if (this.values.length == 0) {
+				if (uriBuilder.length() != queryStart) {
+					uriBuilder.append('&');
+				}
+				uriBuilder.append(this.name);
+			}
+			for (Component value : this.values) {
+				if (uriBuilder.length() != queryStart) {
+					uriBuilder.append('&');
+				}
+				uriBuilder.append(this.name);
+				if (value != null) {
+					uriBuilder.append('=');
+					value.appendTo(uriBuilder, uriVariables);
+				}
+			}
+		}
+	}
+
 }
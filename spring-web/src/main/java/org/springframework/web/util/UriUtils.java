@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -340,6 +340,10 @@ public abstract class UriUtils {
 	public static String decode(String source, String encoding) throws UnsupportedEncodingException {
 		Assert.notNull(source, "Source must not be null");
 		Assert.hasLength(encoding, "Encoding must not be empty");
+		if (source.indexOf('%') == -1) {
+			// Nothing to decode: avoid copying the source
+			return source;
+		}
 		int length = source.length();
 		ByteArrayOutputStream bos = new ByteArrayOutputStream(length);
 		boolean changed = false;
@@ -29,6 +29,7 @@ import org.apache.commons.logging.LogFactory;
 
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -40,6 +41,12 @@ import org.springframework.util.StringUtils;
  * and {@link org.springframework.web.servlet.support.RequestContext} for path matching
  * and/or URI determination.
  *
+ * <p>By default, the request URI, the path within the application and the lookup
+ * path are computed once per request and kept in a request attribute, so that all
+ * {@code UrlPathHelper} instances with the same configuration involved in handling
+ * a request (handler mappings, interceptors, resource handlers, view name
+ * translation) share the result. See {@link #setCacheLookupPath}.
+ *
  * @author Juergen Hoeller
  * @author Rob Harrop
  * @author Rossen Stoyanchev
@@ -54,6 +61,12 @@ public class UrlPathHelper {
 	 */
 	private static final String WEBSPHERE_URI_ATTRIBUTE = "com.ibm.websphere.servlet.uri_non_decoded";
 
+	/**
+	 * Name of the request attribute that holds the {@link ResolvedPaths}
+	 * computed for the current request.
+	 */
+	private static final String RESOLVED_PATHS_ATTRIBUTE = UrlPathHelper.class.getName() + ".RESOLVED_PATHS";
+
 	private static final Log logger = LogFactory.getLog(UrlPathHelper.class);
 
 	static volatile Boolean websphereComplianceFlag;
@@ -67,6 +80,8 @@ public class UrlPathHelper {
 
 	private String defaultEncoding = WebUtils.DEFAULT_CHARACTER_ENCODING;
 
+	private Boolean cacheLookupPath;
+
 
 	/**
 	 * Set if URL lookup should always use full path within current servlet
@@ -135,6 +150,32 @@ public class UrlPathHelper {
 		return this.defaultEncoding;
 	}
 
+	/**
+	 * Set whether the request URI, the path within the application and the
+	 * lookup path should be computed once per request and stored in a request
+	 * attribute, to be reused by subsequent calls for the same request.
+	 * <p>The stored value is only reused while the underlying request URI,
+	 * context path, servlet path, path info and character encoding as well as
+	 * the configuration of this helper are unchanged, so forwards, includes
+	 * and differently configured helpers transparently recompute it.
+	 * <p>Default is "true" for {@code UrlPathHelper} itself but "false" for
+	 * subclasses, since the stored value is computed without consulting
+	 * overridden versions of {@link #getRequestUri}, {@link #getPathWithinApplication}
+	 * or {@link #getPathWithinServletMapping}. Subclasses which do not override
+	 * these methods may switch this on explicitly.
+	 */
+	public void setCacheLookupPath(boolean cacheLookupPath) {
+		this.cacheLookupPath = cacheLookupPath;
+	}
+
+	/**
+	 * Return whether paths are computed once per request and stored in a
+	 * request attribute.
+	 */
+	private boolean isCacheLookupPath() {
+		return (this.cacheLookupPath != null ? this.cacheLookupPath : getClass() == UrlPathHelper.class);
+	}
+
 
 	/**
 	 * Return the mapping lookup path for the given request, within the current
@@ -146,17 +187,24 @@ public class UrlPathHelper {
 	 * @see #getPathWithinServletMapping
 	 */
 	public String getLookupPathForRequest(HttpServletRequest request) {
+		if (isCacheLookupPath()) {
+			return getResolvedPaths(request).lookupPath;
+		}
+		return resolveLookupPath(request, getPathWithinApplication(request));
+	}
+
+	private String resolveLookupPath(HttpServletRequest request, String pathWithinApp) {
 		// Always use full path within current servlet context?
 		if (this.alwaysUseFullPath) {
-			return getPathWithinApplication(request);
+			return pathWithinApp;
 		}
 		// Else, use path within current servlet mapping if applicable
-		String rest = getPathWithinServletMapping(request);
+		String rest = resolvePathWithinServletMapping(request, pathWithinApp);
 		if (!"".equals(rest)) {
 			return rest;
 		}
 		else {
-			return getPathWithinApplication(request);
+			return pathWithinApp;
 		}
 	}
 
@@ -172,7 +220,10 @@ public class UrlPathHelper {
 	 * @return the path within the servlet mapping, or ""
 	 */
 	public String getPathWithinServletMapping(HttpServletRequest request) {
-		String pathWithinApp = getPathWithinApplication(request);
+		return resolvePathWithinServletMapping(request, getPathWithinApplication(request));
+	}
+
+	private String resolvePathWithinServletMapping(HttpServletRequest request, String pathWithinApp) {
 		String servletPath = getServletPath(request);
 		String path = getRemainingPath(pathWithinApp, servletPath, false);
 		if (path != null) {
@@ -209,8 +260,14 @@ public class UrlPathHelper {
 	 * @return the path within the web application
 	 */
 	public String getPathWithinApplication(HttpServletRequest request) {
+		if (isCacheLookupPath()) {
+			return getResolvedPaths(request).pathWithinApplication;
+		}
+		return resolvePathWithinApplication(request, getRequestUri(request));
+	}
+
+	private String resolvePathWithinApplication(HttpServletRequest request, String requestUri) {
 		String contextPath = getContextPath(request);
-		String requestUri = getRequestUri(request);
 		String path = getRemainingPath(requestUri, contextPath, true);
 		if (path != null) {
 			// Normal case: URI contains context path.
@@ -272,11 +329,53 @@ public class UrlPathHelper {
 	 * @return the request URI
 	 */
 	public String getRequestUri(HttpServletRequest request) {
+		if (isCacheLookupPath()) {
+			return getResolvedPaths(request).requestUri;
+		}
+		return decodeAndCleanUriString(request, getRawRequestUri(request));
+	}
+
+	private String getRawRequestUri(HttpServletRequest request) {
 		String uri = (String) request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE);
 		if (uri == null) {
 			uri = request.getRequestURI();
 		}
-		return decodeAndCleanUriString(request, uri);
+		return uri;
+	}
+
+	/**
+	 * Return the paths computed for the given request, reusing the ones stored
+	 * in the request if they were computed from the same request state by an
+	 * equally configured helper.
+	 */
+	private ResolvedPaths getResolvedPaths(HttpServletRequest request) {
+		String rawUri = getRawRequestUri(request);
+		String rawContextPath = (String) request.getAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE);
+		if (rawContextPath == null) {
+			rawContextPath = request.getContextPath();
+		}
+		String rawServletPath = (String) request.getAttribute(WebUtils.INCLUDE_SERVLET_PATH_ATTRIBUTE);
+		if (rawServletPath == null) {
+			rawServletPath = request.getServletPath();
+		}
+		String pathInfo = request.getPathInfo();
+		String encoding = request.getCharacterEncoding();
+
+		Object existing = request.getAttribute(RESOLVED_PATHS_ATTRIBUTE);
+		if (existing instanceof ResolvedPaths) {
+			ResolvedPaths paths = (ResolvedPaths) existing;
+			if (paths.matches(this, rawUri, rawContextPath, rawServletPath, pathInfo, encoding)) {
+				return paths;
+			}
+		}
+
+		String requestUri = decodeAndCleanUriString(request, rawUri);
+		String pathWithinApp = resolvePathWithinApplication(request, requestUri);
+		String lookupPath = resolveLookupPath(request, pathWithinApp);
+		ResolvedPaths paths = new ResolvedPaths(this, rawUri, rawContextPath, rawServletPath, pathInfo, encoding,
+				requestUri, pathWithinApp, lookupPath);
+		request.setAttribute(RESOLVED_PATHS_ATTRIBUTE, paths);
+		return paths;
 	}
 
 	/**
@@ -468,6 +567,9 @@ public class UrlPathHelper {
 	}
 
 	private String removeJsessionid(String requestUri) {
+		if (requestUri.indexOf(';') == -1) {
+			return requestUri;
+		}
 		int startIndex = requestUri.toLowerCase().indexOf(";jsessionid=");
 		if (startIndex != -1) {
 			int endIndex = requestUri.indexOf(';', startIndex + 12);
@@ -557,4 +659,71 @@ public class UrlPathHelper {
 		return !websphereComplianceFlag;
 	}
 
+
+	/**
+	 * Immutable holder for the paths computed for a request, along with the
+	 * request state and helper configuration they were computed from.
+	 */
+	private static final class ResolvedPaths {
+
+		private final Class<?> helperClass;
+
+		private final boolean alwaysUseFullPath;
+
+		private final boolean urlDecode;
+
+		private final boolean removeSemicolonContent;
+
+		private final String defaultEncoding;
+
+		private final String rawUri;
+
+		private final String rawContextPath;
+
+		private final String rawServletPath;
+
+		private final String pathInfo;
+
+		private final String encoding;
+
+		final String requestUri;
+
+		final String pathWithinApplication;
+
+		final String lookupPath;
+
+		ResolvedPaths(UrlPathHelper helper, String rawUri, String rawContextPath, String rawServletPath,
+				String pathInfo, String encoding, String requestUri, String pathWithinApplication, String lookupPath) {
+
+			this.helperClass = helper.getClass();
+			this.alwaysUseFullPath = helper.alwaysUseFullPath;
+			this.urlDecode = helper.urlDecode;
+			this.removeSemicolonContent = helper.removeSemicolonContent;
+			this.defaultEncoding = helper.defaultEncoding;
+			this.rawUri = rawUri;
+			this.rawContextPath = rawContextPath;
+			this.rawServletPath = rawServletPath;
+			this.pathInfo = pathInfo;
+			this.encoding = encoding;
+			this.requestUri = requestUri;
+			this.pathWithinApplication = pathWithinApplication;
+			this.lookupPath = lookupPath;
+		}
+
+		boolean matches(UrlPathHelper helper, String rawUri, String rawContextPath, String rawServletPath,
+				String pathInfo, String encoding) {
+
+			return (this.helperClass == helper.getClass() &&
+					this.alwaysUseFullPath == helper.alwaysUseFullPath &&
+					this.urlDecode == helper.urlDecode &&
+					this.removeSemicolonContent == helper.removeSemicolonContent &&
+					ObjectUtils.nullSafeEquals(this.defaultEncoding, helper.defaultEncoding) &&
+					ObjectUtils.nullSafeEquals(this.rawUri, rawUri) &&
+					ObjectUtils.nullSafeEquals(this.rawContextPath, rawContextPath) &&
+					ObjectUtils.nullSafeEquals(this.rawServletPath, rawServletPath) &&
+					ObjectUtils.nullSafeEquals(this.pathInfo, pathInfo) &&
+					ObjectUtils.nullSafeEquals(this.encoding, encoding));
+		}
+	}
+
 }
@@ -27,6 +27,9 @@ import org.junit.Test;
 
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.tests.Assume;
+import org.springframework.tests.TestGroup;
+import org.springframework.util.StopWatch;
 
 import static org.junit.Assert.*;
 
@@ -530,4 +533,62 @@ public class MediaTypeTests {
 		assertFalse("text/* concrete", new MediaType("text", "*").isConcrete());
 	}
 
+	@Test
+	public void parseMediaTypesReturnsModifiableCopy() {
+		String header = "text/html, application/xml;q=0.9, */*;q=0.8";
+		List<MediaType> first = MediaType.parseMediaTypes(header);
+		first.add(MediaType.TEXT_PLAIN);
+		List<MediaType> second = MediaType.parseMediaTypes(header);
+		assertEquals(3, second.size());
+		assertNotSame(first, second);
+		assertSame(second.get(0), MediaType.parseMediaTypes(header).get(0));
+	}
+
+	@Test
+	public void parseAndSortMediaTypes() {
+		String header = "*/*;q=0.8, text/html, application/xml;q=0.9, text/*";
+		List<MediaType> expected = MediaType.parseMediaTypes(header);
+		MediaType.sortBySpecificityAndQuality(expected);
+
+		List<MediaType> result = MediaType.parseAndSortMediaTypes(header);
+		assertEquals(expected, result);
+		assertSame(result, MediaType.parseAndSortMediaTypes(header));
+		assertTrue(MediaType.parseAndSortMediaTypes("").isEmpty());
+		try {
+			result.add(MediaType.TEXT_PLAIN);
+			fail("Should have thrown UnsupportedOperationException");
+		}
+		catch (UnsupportedOperationException ex) {
+			// expected
+		}
+	}
+
+	@Test(expected = InvalidMediaTypeException.class)
+	public void parseAndSortInvalidMediaTypes() {
+		MediaType.parseAndSortMediaTypes("text/html, audio");
+	}
+
+	@Test
+	public void parseAndSortPerformance() {
+		Assume.group(TestGroup.PERFORMANCE);
+		String[] headers = new String[] {
+				"text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8",
+				"application/json, text/plain, */*",
+				"image/webp,image/*,*/*;q=0.8"};
+		StopWatch sw = new StopWatch();
+		sw.start("parseMediaTypes+sort");
+		for (int i = 0; i < 100000; i++) {
+			List<MediaType> mediaTypes = MediaType.parseMediaTypes(headers[i % headers.length]);
+			MediaType.sortBySpecificityAndQuality(mediaTypes);
+		}
+		sw.stop();
+		sw.start("parseAndSortMediaTypes");
+		for (int i = 0; i < 100000; i++) {
+			MediaType.parseAndSortMediaTypes(headers[i % headers.length]);
+		}
+		sw.stop();
+		System.out.println(sw.prettyPrint());
+		assertTrue("Cached parsing took too long: " + sw.prettyPrint(), sw.getLastTaskTimeMillis() < 1000);
+	}
+
 }
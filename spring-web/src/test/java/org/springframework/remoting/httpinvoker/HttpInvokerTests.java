@@ -41,6 +41,7 @@ import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.mock.web.test.MockHttpServletRequest;
 import org.springframework.mock.web.test.MockHttpServletResponse;
 import org.springframework.remoting.RemoteAccessException;
+import org.springframework.remoting.support.CompactRemoteInvocationSerializer;
 import org.springframework.remoting.support.DefaultRemoteInvocationExecutor;
 import org.springframework.remoting.support.RemoteInvocation;
 import org.springframework.remoting.support.RemoteInvocationFactory;
@@ -321,6 +322,74 @@ public class HttpInvokerTests extends TestCase {
 		}
 	}
 
+	public void testHttpInvokerProxyFactoryBeanAndServiceExporterWithCompactSerializer() throws Throwable {
+		TestBean target = new TestBean("myname", 99);
+		CompactRemoteInvocationSerializer serializer = new CompactRemoteInvocationSerializer();
+		serializer.setCompressionThreshold(0);
+
+		final HttpInvokerServiceExporter exporter = new HttpInvokerServiceExporter();
+		exporter.setServiceInterface(ITestBean.class);
+		exporter.setService(target);
+		exporter.setRemoteInvocationSerializer(serializer);
+		exporter.afterPropertiesSet();
+
+		HttpInvokerProxyFactoryBean pfb = new HttpInvokerProxyFactoryBean();
+		pfb.setServiceInterface(ITestBean.class);
+		pfb.setServiceUrl("http://myurl");
+
+		AbstractHttpInvokerRequestExecutor executor = new AbstractHttpInvokerRequestExecutor() {
+			@Override
+			protected RemoteInvocationResult doExecuteRequest(
+					HttpInvokerClientConfiguration config, ByteArrayOutputStream baos) throws Exception {
+				MockHttpServletRequest request = new MockHttpServletRequest();
+				MockHttpServletResponse response = new MockHttpServletResponse();
+				request.setContent(baos.toByteArray());
+				exporter.handleRequest(request, response);
+				assertEquals(CompactRemoteInvocationSerializer.CONTENT_TYPE_COMPACT_REMOTE_INVOCATION,
+						response.getContentType());
+				return readRemoteInvocationResult(
+						new ByteArrayInputStream(response.getContentAsByteArray()), config.getCodebaseUrl());
+			}
+		};
+		executor.setRemoteInvocationSerializer(serializer);
+		assertEquals(CompactRemoteInvocationSerializer.CONTENT_TYPE_COMPACT_REMOTE_INVOCATION,
+				executor.getContentType());
+		pfb.setHttpInvokerRequestExecutor(executor);
+
+		pfb.afterPropertiesSet();
+		ITestBean proxy = (ITestBean) pfb.getObject();
+		assertEquals("myname", proxy.getName());
+		assertEquals(99, proxy.getAge());
+		proxy.setAge(50);
+		assertEquals(50, proxy.getAge());
+		proxy.setStringArray(new String[] {"str1", "str2"});
+		assertTrue(Arrays.equals(new String[] {"str1", "str2"}, proxy.getStringArray()));
+		proxy.setSomeIntArray(new int[] {1, 2, 3});
+		assertTrue(Arrays.equals(new int[] {1, 2, 3}, proxy.getSomeIntArray()));
+
+		try {
+			proxy.exceptional(new IllegalStateException());
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			// expected
+		}
+	}
+
+	public void testHttpInvokerServiceExporterAppliesAcceptProxyClassesToSerializer() {
+		CompactRemoteInvocationSerializer serializer = new CompactRemoteInvocationSerializer();
+		HttpInvokerServiceExporter exporter = new HttpInvokerServiceExporter();
+		exporter.setServiceInterface(ITestBean.class);
+		exporter.setService(new TestBean());
+		exporter.setRemoteInvocationSerializer(serializer);
+		exporter.setAcceptProxyClasses(false);
+		exporter.afterPropertiesSet();
+		assertFalse(serializer.isAcceptProxyClasses());
+
+		exporter.setContentType("application/x-custom");
+		assertEquals("application/x-custom", exporter.getContentType());
+	}
+
 	public void testHttpInvokerProxyFactoryBeanAndServiceExporterWithInvocationAttributes() throws Exception {
 		TestBean target = new TestBean("myname", 99);
 
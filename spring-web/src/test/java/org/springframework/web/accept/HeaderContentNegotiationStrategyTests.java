@@ -16,6 +16,7 @@
 package org.springframework.web.accept;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 
 import java.util.List;
 
@@ -59,6 +60,17 @@ public class HeaderContentNegotiationStrategyTests {
 		assertEquals("text/plain;q=0.5", mediaTypes.get(3).toString());
 	}
 
+	@Test
+	public void resolveMediaTypesReturnsModifiableCopy() throws Exception {
+		this.servletRequest.addHeader("Accept", "text/html, application/json");
+		List<MediaType> mediaTypes = this.strategy.resolveMediaTypes(this.webRequest);
+		mediaTypes.remove(0);
+
+		List<MediaType> otherMediaTypes = this.strategy.resolveMediaTypes(this.webRequest);
+		assertNotSame(mediaTypes, otherMediaTypes);
+		assertEquals(2, otherMediaTypes.size());
+	}
+
 	@Test(expected=HttpMediaTypeNotAcceptableException.class)
 	public void resolveMediaTypesParseError() throws Exception {
 		this.servletRequest.addHeader("Accept", "textplain; q=0.5");
@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Enumeration;
@@ -41,6 +42,7 @@ import org.apache.commons.fileupload.FileItem;
 import org.apache.commons.fileupload.FileItemFactory;
 import org.apache.commons.fileupload.FileItemHeaders;
 import org.apache.commons.fileupload.FileUpload;
+import org.apache.commons.fileupload.disk.DiskFileItem;
 import org.apache.commons.fileupload.servlet.ServletFileUpload;
 import org.junit.Test;
 
@@ -50,12 +52,14 @@ import org.springframework.mock.web.test.MockHttpServletRequest;
 import org.springframework.mock.web.test.MockHttpServletResponse;
 import org.springframework.mock.web.test.MockServletContext;
 import org.springframework.mock.web.test.PassThroughFilterChain;
+import org.springframework.util.FileCopyUtils;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.ServletRequestDataBinder;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.context.support.StaticWebApplicationContext;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.multipart.StreamingMultipartHttpServletRequest;
 import org.springframework.web.multipart.support.ByteArrayMultipartFileEditor;
 import org.springframework.web.multipart.support.MultipartFilter;
 import org.springframework.web.multipart.support.StringMultipartFileEditor;
@@ -360,6 +364,125 @@ public class CommonsMultipartResolverTests {
 		assertTrue(((MockFileItem) file2.getFileItem()).deleted);
 	}
 
+	@Test
+	public void streamingFileIterator() throws Exception {
+		CommonsMultipartResolver resolver = new CommonsMultipartResolver();
+		resolver.setStreaming(true);
+		MultipartHttpServletRequest request = resolver.resolveMultipart(createStreamingRequest());
+		assertTrue(request instanceof StreamingMultipartHttpServletRequest);
+
+		Iterator<MultipartFile> fileIterator = ((StreamingMultipartHttpServletRequest) request).getFileIterator();
+		assertTrue(fileIterator.hasNext());
+		MultipartFile file1 = fileIterator.next();
+		assertEquals("file1", file1.getName());
+		assertEquals("a.txt", file1.getOriginalFilename());
+		assertEquals("text/plain", file1.getContentType());
+		assertEquals(-1, file1.getSize());
+		assertFalse(file1.isEmpty());
+		assertEquals("content1", new String(file1.getBytes(), "UTF-8"));
+
+		MultipartFile file2 = fileIterator.next();
+		assertEquals("file2", file2.getName());
+		assertEquals("b.txt", file2.getOriginalFilename());
+		assertFalse(fileIterator.hasNext());
+		try {
+			file2.getInputStream();
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			// expected
+		}
+
+		assertEquals("value1", request.getParameter("field1"));
+		assertEquals("value2", request.getParameter("field2"));
+		assertTrue(request.getFileMap().isEmpty());
+		resolver.cleanupMultipart(request);
+	}
+
+	@Test
+	public void streamingGetFileSpoolsSkippedParts() throws Exception {
+		doTestStreamingGetFile(false);
+	}
+
+	@Test
+	public void streamingGetFileWithMemoryMappedSpooling() throws Exception {
+		doTestStreamingGetFile(true);
+	}
+
+	private void doTestStreamingGetFile(boolean memoryMapped) throws Exception {
+		CommonsMultipartResolver resolver = new CommonsMultipartResolver();
+		resolver.setStreaming(true);
+		resolver.setMemoryMappedSpooling(memoryMapped);
+		resolver.setMaxInMemorySize(0);
+		MultipartHttpServletRequest request = resolver.resolveMultipart(createStreamingRequest());
+
+		assertEquals("value1", request.getParameter("field1"));
+		MultipartFile file2 = request.getFile("file2");
+		assertNotNull(file2);
+		MultipartFile file1 = request.getFile("file1");
+		assertEquals(8, file1.getSize());
+		assertEquals("content1", new String(FileCopyUtils.copyToByteArray(file1.getInputStream()), "UTF-8"));
+		assertEquals("content1", new String(file1.getBytes(), "UTF-8"));
+		assertEquals("content2", new String(FileCopyUtils.copyToByteArray(file2.getInputStream()), "UTF-8"));
+
+		File spoolFile = ((DiskFileItem) ((CommonsMultipartFile) getSpooledFile(request, "file1")).getFileItem())
+				.getStoreLocation();
+		assertTrue(spoolFile.exists());
+		assertNull(request.getParameter("field3"));
+		assertEquals(2, request.getFileMap().size());
+		resolver.cleanupMultipart(request);
+		if (!memoryMapped) {
+			assertFalse(spoolFile.exists());
+		}
+	}
+
+	@Test
+	public void streamingGetFileKeepsRequestedPartOnceReadFurther() throws Exception {
+		CommonsMultipartResolver resolver = new CommonsMultipartResolver();
+		resolver.setStreaming(true);
+		MultipartHttpServletRequest request = resolver.resolveMultipart(createStreamingRequest());
+
+		MultipartFile file1 = request.getFile("file1");
+		assertEquals(-1, file1.getSize());
+		assertNotNull(request.getFile("file2"));
+		assertEquals(8, file1.getSize());
+		assertEquals("content1", new String(file1.getBytes(), "UTF-8"));
+		assertEquals("value2", request.getParameter("field2"));
+		resolver.cleanupMultipart(request);
+	}
+
+	private MultipartFile getSpooledFile(MultipartHttpServletRequest request, String name) throws Exception {
+		MultipartFile file = request.getFile(name);
+		Field field = file.getClass().getDeclaredField("spooledFile");
+		field.setAccessible(true);
+		return (MultipartFile) field.get(file);
+	}
+
+	private MockHttpServletRequest createStreamingRequest() throws Exception {
+		String boundary = "----TestBoundary";
+		StringBuilder body = new StringBuilder();
+		appendPart(body, boundary, "form-data; name=\"field1\"", null, "value1");
+		appendPart(body, boundary, "form-data; name=\"file1\"; filename=\"C:\\tmp\\a.txt\"", "text/plain", "content1");
+		appendPart(body, boundary, "form-data; name=\"field2\"", null, "value2");
+		appendPart(body, boundary, "form-data; name=\"file2\"; filename=\"b.txt\"", "text/plain", "content2");
+		body.append("--").append(boundary).append("--\r\n");
+
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/upload");
+		request.setContentType("multipart/form-data; boundary=" + boundary);
+		request.setContent(body.toString().getBytes("UTF-8"));
+		return request;
+	}
+
+	private void appendPart(StringBuilder body, String boundary, String disposition, String contentType,
+			String content) {
+		body.append("--").append(boundary).append("\r\n");
+		body.append("Content-Disposition: ").append(disposition).append("\r\n");
+		if (contentType != null) {
+			body.append("Content-Type: ").append(contentType).append("\r\n");
+		}
+		body.append("\r\n").append(content).append("\r\n");
+	}
+
 
 	public static class MockCommonsMultipartResolver extends CommonsMultipartResolver {
 
@@ -17,6 +17,7 @@
 package org.springframework.web.util;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -25,6 +26,11 @@ import java.util.Map;
 
 import org.junit.Test;
 
+import org.springframework.tests.Assume;
+import org.springframework.tests.TestGroup;
+import org.springframework.util.SerializationTestUtils;
+import org.springframework.util.StopWatch;
+
 import static org.junit.Assert.*;
 
 /**
@@ -190,4 +196,90 @@ public class UriTemplateTests {
 		assertEquals("http://localhost/query=foo@bar", uri.toString());
 	}
 
+	@Test
+	public void expandSameAsUriComponents() throws Exception {
+		String[] templates = new String[] {
+				"http://example.com/hotels/{hotel}/bookings/{booking}",
+				"https://{user}@{host}:8080/{path}?q={query}&flag&empty=#{fragment}",
+				"/relative/{path:[a-z]+}/{path2}?a={a}&a={b}",
+				"http://example.com{path}",
+				"/search?q={query}#{fragment}"};
+		Object[] values = new Object[] {
+				"Rest & Relax", "T\u014dky\u014d", "a/b?c#d", 42, "\uD83D\uDE00 \uD83D", "", "50%", "http"};
+
+		for (String template : templates) {
+			for (int offset = 0; offset < values.length; offset++) {
+				Object[] uriVariables = new Object[values.length];
+				for (int i = 0; i < values.length; i++) {
+					uriVariables[i] = values[(i + offset) % values.length];
+				}
+				URI expected = UriComponentsBuilder.fromUriString(template).build().expand(uriVariables).encode().toUri();
+				assertEquals("Invalid expansion of " + template, expected, new UriTemplate(template).expand(uriVariables));
+			}
+		}
+	}
+
+	@Test
+	public void expandMapNullValue() throws Exception {
+		Map<String, Object> uriVariables = new HashMap<String, Object>();
+		uriVariables.put("hotel", null);
+		UriTemplate template = new UriTemplate("http://example.com/hotels/{hotel}/pic");
+		assertEquals(new URI("http://example.com/hotels//pic"), template.expand(uriVariables));
+	}
+
+	@Test
+	public void expandOpaque() throws Exception {
+		UriTemplate template = new UriTemplate("mailto:{user}@example.com");
+		assertEquals(new URI("mailto:john@example.com"), template.expand("john"));
+	}
+
+	@Test
+	public void expandQueryParamNameVariable() throws Exception {
+		UriTemplate template = new UriTemplate("/search?{name}={value}");
+		assertEquals(new URI("/search?q=foo%20bar"), template.expand("q", "foo bar"));
+	}
+
+	@Test
+	public void expandAfterSerialization() throws Exception {
+		UriTemplate template = new UriTemplate("http://example.com/hotels/{hotel}");
+		template.expand("1");
+		UriTemplate deserialized = (UriTemplate) SerializationTestUtils.serializeAndDeserialize(template);
+		assertEquals(new URI("http://example.com/hotels/42"), deserialized.expand("42"));
+	}
+
+	@Test
+	public void expandPerformance() throws Exception {
+		Assume.group(TestGroup.PERFORMANCE);
+
+		List<String> templates = new ArrayList<String>();
+		for (int i = 0; i < 50; i++) {
+			templates.add("http://api" + i + ".example.com/customers/{customer}/orders/{order}?page={page}&q={query}");
+		}
+		Object[] uriVariables = new Object[] {"Rest & Relax", 42, 7, "T\u014dky\u014d"};
+		Map<String, UriTemplate> cache = new HashMap<String, UriTemplate>();
+		for (String template : templates) {
+			cache.put(template, new UriTemplate(template));
+		}
+		int iterations = 20000;
+
+		StopWatch sw = new StopWatch();
+		sw.start("UriComponentsBuilder");
+		for (int i = 0; i < iterations; i++) {
+			for (String template : templates) {
+				UriComponentsBuilder.fromUriString(template).build().expand(uriVariables).encode().toUri();
+			}
+		}
+		sw.stop();
+		sw.start("Cached UriTemplate");
+		for (int i = 0; i < iterations; i++) {
+			for (String template : templates) {
+				cache.get(template).expand(uriVariables);
+			}
+		}
+		sw.stop();
+
+		System.out.println(sw.prettyPrint());
+		assertTrue("Expansion took too long: " + sw.prettyPrint(), sw.getLastTaskTimeMillis() < 5000);
+	}
+
 }
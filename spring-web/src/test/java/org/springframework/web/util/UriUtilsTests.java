@@ -100,6 +100,12 @@ public class UriUtilsTests {
 		assertEquals("Invalid encoded result", "T\u014dky\u014d", UriUtils.decode("T\u014dky\u014d", ENC));
 	}
 
+	@Test
+	public void decodeWithoutEscapes() throws UnsupportedEncodingException {
+		String source = "/foo/bar";
+		assertSame(source, UriUtils.decode(source, ENC));
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void decodeInvalidSequence() throws UnsupportedEncodingException {
 		UriUtils.decode("foo%2", ENC);
@@ -17,6 +17,7 @@
 package org.springframework.web.util;
 
 import java.io.UnsupportedEncodingException;
+import javax.servlet.http.HttpServletRequest;
 
 import org.junit.Before;
 import org.junit.Ignore;
@@ -384,4 +385,77 @@ public class UrlPathHelperTests {
 		assertNull(this.helper.getOriginatingQueryString(request));
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void lookupPathCachedPerRequest() {
+		request.setContextPath("/petclinic");
+		request.setServletPath("/main");
+		request.setRequestURI("/petclinic/main/welcome.html");
+
+		String lookupPath = helper.getLookupPathForRequest(request);
+		assertEquals("/welcome.html", lookupPath);
+		assertSame(lookupPath, new UrlPathHelper().getLookupPathForRequest(request));
+		assertEquals("/main/welcome.html", helper.getPathWithinApplication(request));
+		assertEquals("/petclinic/main/welcome.html", helper.getRequestUri(request));
+	}
+
+	@Test
+	public void lookupPathRecomputedWhenRequestChanges() {
+		request.setContextPath("/petclinic");
+		request.setServletPath("/main");
+		request.setRequestURI("/petclinic/main/welcome.html");
+		assertEquals("/welcome.html", helper.getLookupPathForRequest(request));
+
+		request.setRequestURI("/petclinic/main/owners.html");
+		assertEquals("/owners.html", helper.getLookupPathForRequest(request));
+
+		request.setAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE, "/petclinic/main/included.html");
+		assertEquals("/included.html", helper.getLookupPathForRequest(request));
+
+		request.removeAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE);
+		assertEquals("/owners.html", helper.getLookupPathForRequest(request));
+	}
+
+	@Test
+	public void lookupPathRecomputedForDifferentConfiguration() {
+		request.setContextPath("/petclinic");
+		request.setServletPath("/main");
+		request.setRequestURI("/petclinic/main/welcome.html");
+		assertEquals("/welcome.html", helper.getLookupPathForRequest(request));
+
+		UrlPathHelper fullPathHelper = new UrlPathHelper();
+		fullPathHelper.setAlwaysUseFullPath(true);
+		assertEquals("/main/welcome.html", fullPathHelper.getLookupPathForRequest(request));
+		assertEquals("/welcome.html", helper.getLookupPathForRequest(request));
+	}
+
+	@Test
+	public void lookupPathNotCached() {
+		request.setContextPath("/petclinic");
+		request.setRequestURI("/petclinic/welcome.html");
+		helper.setCacheLookupPath(false);
+
+		assertEquals("/welcome.html", helper.getLookupPathForRequest(request));
+		assertFalse(request.getAttributeNames().hasMoreElements());
+	}
+
+	@Test
+	public void lookupPathNotCachedForSubclassByDefault() {
+		request.setContextPath("/petclinic");
+		request.setRequestURI("/petclinic/welcome.html");
+		UrlPathHelper subclassHelper = new UrlPathHelper() {
+			@Override
+			public String getPathWithinApplication(HttpServletRequest request) {
+				return "/custom" + super.getPathWithinApplication(request);
+			}
+		};
+
+		assertEquals("/custom/welcome.html", subclassHelper.getLookupPathForRequest(request));
+		assertEquals("/custom/welcome.html", subclassHelper.getLookupPathForRequest(request));
+		assertFalse(request.getAttributeNames().hasMoreElements());
+
+		subclassHelper.setCacheLookupPath(true);
+		assertEquals("/welcome.html", subclassHelper.getLookupPathForRequest(request));
+		assertTrue(request.getAttributeNames().hasMoreElements());
+	}
+
+}
@@ -22,20 +22,28 @@ import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.BeanInitializationException;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.SmartApplicationListener;
 import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.core.GenericTypeResolver;
 import org.springframework.core.OrderComparator;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.support.PropertiesLoaderUtils;
 import org.springframework.ui.context.ThemeSource;
+import org.springframework.util.BoundedConcurrentCache;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.async.WebAsyncManager;
 import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.multipart.MultipartException;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
 import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.servlet.support.SessionFlashMapManager;
 import org.springframework.web.util.NestedServletException;
 import org.springframework.web.util.WebUtils;
 
@@ -189,6 +197,15 @@ public class DispatcherServlet extends FrameworkServlet {
 	/** Perform cleanup of request attributes after include request? */
 	private boolean cleanupAfterInclude = true;
 
+	/** Trade some of the per-request bookkeeping for throughput? */
+	private boolean leanDispatch = false;
+
+	/** Whether RequestHandledEvent listeners were detected on refresh, in lean dispatch mode */
+	private boolean requestHandledEventListened = true;
+
+	/** HandlerAdapters resolved per handler type or handler method, in lean dispatch mode */
+	private final BoundedConcurrentCache<Object, HandlerAdapter> handlerAdapterCache =
+			new BoundedConcurrentCache<Object, HandlerAdapter>(1024);
 
 
 	/*
@@ -246,6 +263,34 @@ public class DispatcherServlet extends FrameworkServlet {
 		this.cleanupAfterInclude = cleanupAfterInclude;
 	}
 
+	/**
+	 * Set whether to use a leaner dispatch path for high request rates.
+	 * Default is "false".
+	 * <p>Turn this flag on to:
+	 * <ul>
+	 * <li>skip the request attribute snapshot (and its restoration) for include
+	 * requests, i.e. behave as if {@link #setCleanupAfterInclude "cleanupAfterInclude"}
+	 * was off, also for DispatcherServlet's own attributes;</li>
+	 * <li>publish a {@link ServletRequestHandledEvent} only if an ApplicationListener
+	 * that may receive it has been detected in this servlet's context hierarchy
+	 * when the context was refreshed. Note that listeners added programmatically
+	 * after that point, e.g. via {@code addApplicationListener}, are not taken
+	 * into account until the next refresh;</li>
+	 * <li>cache the {@link HandlerAdapter} resolved for each handler type (or each
+	 * handler method for {@link HandlerMethod} handlers) instead of querying all
+	 * adapters on every request. This assumes that {@link HandlerAdapter#supports}
+	 * decisions depend on the handler type or method only.</li>
+	 * <li>skip retrieving the input {@link FlashMap} for requests without an HTTP
+	 * session, in case of the default {@link SessionFlashMapManager} which cannot
+	 * hold any flash attributes for such requests.</li>
+	 * </ul>
+	 * <p>Note that the {@link LocaleResolver} and {@link ThemeResolver} are
+	 * consulted lazily in any case, so there is nothing to skip for them here.
+	 */
+	public void setLeanDispatch(boolean leanDispatch) {
+		this.leanDispatch = leanDispatch;
+	}
+
 	//dispatcher servlet的入口方法
 	protected void onRefresh(ApplicationContext context) {
 		initStrategies(context);
@@ -265,6 +310,9 @@ public class DispatcherServlet extends FrameworkServlet {
 		initRequestToViewNameTranslator(context);
 		initViewResolvers(context);
 		initFlashMapManager(context);
+		if (this.leanDispatch) {
+			this.requestHandledEventListened = detectRequestHandledEventListeners(context);
+		}
 	}
 
 
@@ -361,6 +409,7 @@ public class DispatcherServlet extends FrameworkServlet {
 	 */
 	private void initHandlerAdapters(ApplicationContext context) {
 		this.handlerAdapters = null;
+		this.handlerAdapterCache.clear();
 
 		if (this.detectAllHandlerAdapters) {
 			// Find all HandlerAdapters in the ApplicationContext, including ancestor contexts.
@@ -515,6 +564,58 @@ public class DispatcherServlet extends FrameworkServlet {
 		}
 	}
 
+	/**
+	 * Detect whether any ApplicationListener in the given context or its ancestors
+	 * may receive a {@link ServletRequestHandledEvent}. Errs on the side of
+	 * {@code true} for listeners whose event type cannot be determined up front.
+	 */
+	private boolean detectRequestHandledEventListeners(ApplicationContext context) {
+		ApplicationContext current = context;
+		while (current != null) {
+			if (!(current instanceof AbstractApplicationContext)) {
+				return true;
+			}
+			for (ApplicationListener<?> listener : ((AbstractApplicationContext) current).getApplicationListeners()) {
+				if (listener instanceof SmartApplicationListener) {
+					SmartApplicationListener smartListener = (SmartApplicationListener) listener;
+					if (smartListener.supportsEventType(ServletRequestHandledEvent.class) &&
+							smartListener.supportsSourceType(getClass())) {
+						return true;
+					}
+				}
+				else if (supportsRequestHandledEvent(listener.getClass())) {
+					return true;
+				}
+			}
+			for (String beanName : current.getBeanNamesForType(ApplicationListener.class, true, true)) {
+				Class<?> listenerType = current.getType(beanName);
+				if (listenerType == null || SmartApplicationListener.class.isAssignableFrom(listenerType) ||
+						supportsRequestHandledEvent(listenerType)) {
+					return true;
+				}
+			}
+			current = current.getParent();
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("No RequestHandledEvent listeners found for servlet '" + getServletName() +
+					"': skipping event publication");
+		}
+		return false;
+	}
+
+	private static boolean supportsRequestHandledEvent(Class<?> listenerType) {
+		Class<?> eventType = GenericTypeResolver.resolveTypeArgument(listenerType, ApplicationListener.class);
+		return (eventType == null || eventType.isAssignableFrom(ServletRequestHandledEvent.class));
+	}
+
+	/**
+	 * In lean dispatch mode, only publish RequestHandledEvents if anybody listens.
+	 */
+	@Override
+	protected boolean isRequestHandledEventListened() {
+		return (!this.leanDispatch || this.requestHandledEventListened);
+	}
+
 	/**
 	 * Return this servlet's ThemeSource, if any; else return {@code null}.
 	 * <p>Default is to return the WebApplicationContext as ThemeSource,
@@ -624,7 +725,7 @@ public class DispatcherServlet extends FrameworkServlet {
 
 		//如果是include请求的话为属性保存一个快照
 		Map<String, Object> attributesSnapshot = null;
-		if (WebUtils.isIncludeRequest(request)) {
+		if (!this.leanDispatch && WebUtils.isIncludeRequest(request)) {
 			attributesSnapshot = new HashMap<String, Object>();
 			Enumeration<?> attrNames = request.getAttributeNames();
 			while (attrNames.hasMoreElements()) {
@@ -645,9 +746,11 @@ public class DispatcherServlet extends FrameworkServlet {
 		//后三个属性都和FlashMap有关，主要应用redirect转发时参数的传递，比如我们想要传递一些参数给hadler
 
 		//inputFlashMap用于上次请求转发过来的属性,,,flashMapMannager 的默认实现类是 SessionFlashMapManager,是通过 session 来完成的
-		FlashMap inputFlashMap = this.flashMapManager.retrieveAndUpdate(request, response);
-		if (inputFlashMap != null) {
-			request.setAttribute(INPUT_FLASH_MAP_ATTRIBUTE, Collections.unmodifiableMap(inputFlashMap));
+		if (!this.leanDispatch || hasPotentialInputFlashMap(request)) {
+			FlashMap inputFlashMap = this.flashMapManager.retrieveAndUpdate(request, response);
+			if (inputFlashMap != null) {
+				request.setAttribute(INPUT_FLASH_MAP_ATTRIBUTE, Collections.unmodifiableMap(inputFlashMap));
+			}
 		}
 		//OUTPUT_FLASH_MAP_ATTRIBUTE 用于这次重定向需要传递的属性
 		request.setAttribute(OUTPUT_FLASH_MAP_ATTRIBUTE, new FlashMap());
@@ -659,15 +762,23 @@ public class DispatcherServlet extends FrameworkServlet {
 			doDispatch(request, response);
 		}
 		finally {
-			if (!WebAsyncUtils.getAsyncManager(request).isConcurrentHandlingStarted()) {
-				// 还原当前快照
-				if (attributesSnapshot != null) {
-					restoreAttributesAfterInclude(request, attributesSnapshot);
-				}
+			// 还原当前快照
+			if (attributesSnapshot != null && !WebAsyncUtils.getAsyncManager(request).isConcurrentHandlingStarted()) {
+				restoreAttributesAfterInclude(request, attributesSnapshot);
 			}
 		}
 	}
 
+	/**
+	 * Determine whether the given request may have an input FlashMap, in lean
+	 * dispatch mode: not the case for requests without an HTTP session if the
+	 * default {@link SessionFlashMapManager} is in use. Any other FlashMapManager
+	 * (including SessionFlashMapManager subclasses) always gets consulted.
+	 */
+	private boolean hasPotentialInputFlashMap(HttpServletRequest request) {
+		return (this.flashMapManager.getClass() != SessionFlashMapManager.class || request.getSession(false) != null);
+	}
+
 	/**
 	 *		异常处理：
 	 *				内层异常，主要是拦截器和handler抛出的异常，会封装到	dispatchException中，然后交给processDispatchResult去处理
@@ -916,11 +1027,22 @@ public class DispatcherServlet extends FrameworkServlet {
 	 * @throws ServletException if no HandlerAdapter can be found for the handler. This is a fatal error.
 	 */
 	protected HandlerAdapter getHandlerAdapter(Object handler) throws ServletException {
+		Object cacheKey = null;
+		if (this.leanDispatch) {
+			cacheKey = (handler instanceof HandlerMethod ? ((HandlerMethod) handler).getMethod() : handler.getClass());
+			HandlerAdapter ha = this.handlerAdapterCache.get(cacheKey);
+			if (ha != null) {
+				return ha;
+			}
+		}
 		for (HandlerAdapter ha : this.handlerAdapters) {
 			if (logger.isTraceEnabled()) {
 				logger.trace("Testing handler adapter [" + ha + "]");
 			}
 			if (ha.supports(handler)) {
+				if (cacheKey != null) {
+					this.handlerAdapterCache.putIfAbsent(cacheKey, ha);
+				}
 				return ha;
 			}
 		}
@@ -133,6 +133,9 @@ public abstract class FrameworkServlet extends HttpServletBean {
 	/** Flag used to detect whether onRefresh has already been called */
 	private boolean refreshEventReceived = false;
 
+	/** Stateless interceptor binding the context holders around async Callable processing */
+	private final RequestBindingInterceptor requestBindingInterceptor = new RequestBindingInterceptor();
+
 	/**
 	 * Create a new {@code FrameworkServlet} that will create its own internal web
 	 * application context based on defaults and values provided through servlet
@@ -937,7 +940,7 @@ public abstract class FrameworkServlet extends HttpServletBean {
 		ServletRequestAttributes requestAttributes = buildRequestAttributes(request, response, previousAttributes);
 
 		WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
-		asyncManager.registerCallableInterceptor(FrameworkServlet.class.getName(), new RequestBindingInterceptor());
+		asyncManager.registerCallableInterceptor(FrameworkServlet.class.getName(), this.requestBindingInterceptor);
 
 		//将当前请求的ServletRequestAttributes，LocaleContext放入RequestContextHolder，LocaleContextHolder中去
 		initContextHolders(request, localeContext, requestAttributes);
@@ -1044,7 +1047,7 @@ public abstract class FrameworkServlet extends HttpServletBean {
 	}
 
 	private void publishRequestHandledEvent(HttpServletRequest request, long startTime, Throwable failureCause) {
-		if (this.publishEvents) {
+		if (this.publishEvents && isRequestHandledEventListened()) {
 			// Whether or not we succeeded, publish an event.
 			long processingTime = System.currentTimeMillis() - startTime;
 			this.webApplicationContext.publishEvent(
@@ -1056,6 +1059,20 @@ public abstract class FrameworkServlet extends HttpServletBean {
 		}
 	}
 
+	/**
+	 * Determine whether any listener may be interested in the
+	 * {@link ServletRequestHandledEvent} published at the end of each request.
+	 * Only called if {@link #setPublishEvents "publishEvents"} is on.
+	 * <p>The default implementation returns {@code true}. Subclasses may detect
+	 * the registered listeners in order to avoid building and multicasting
+	 * events that nobody receives.
+	 *
+	 * @return whether to publish a ServletRequestHandledEvent for the current request
+	 */
+	protected boolean isRequestHandledEventListened() {
+		return true;
+	}
+
 	/**
 	 * Determine the username for the given request.
 	 * <p>The default implementation takes the name of the UserPrincipal, if any.
@@ -24,7 +24,9 @@ import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -35,6 +37,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.util.BoundedConcurrentCache;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
@@ -76,6 +79,14 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 
 	private final Set<String> safeExtensions = new HashSet<String>();
 
+	/** Media types producible by the configured converters, per return value class */
+	private final Map<Class<?>, List<MediaType>> producibleMediaTypesCache =
+			new ConcurrentHashMap<Class<?>, List<MediaType>>(64);
+
+	/** Sorted compatible media types, per pair of requested and producible media types */
+	private final BoundedConcurrentCache<MediaTypesKey, List<MediaType>> compatibleMediaTypesCache =
+			new BoundedConcurrentCache<MediaTypesKey, List<MediaType>>(256);
+
 
 	protected AbstractMessageConverterMethodProcessor(List<HttpMessageConverter<?>> messageConverters) {
 		this(messageConverters, null);
@@ -133,21 +144,11 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 		List<MediaType> requestedMediaTypes = getAcceptableMediaTypes(servletRequest);
 		List<MediaType> producibleMediaTypes = getProducibleMediaTypes(servletRequest, returnValueClass);
 
-		Set<MediaType> compatibleMediaTypes = new LinkedHashSet<MediaType>();
-		for (MediaType requestedType : requestedMediaTypes) {
-			for (MediaType producibleType : producibleMediaTypes) {
-				if (requestedType.isCompatibleWith(producibleType)) {
-					compatibleMediaTypes.add(getMostSpecificMediaType(requestedType, producibleType));
-				}
-			}
-		}
-		if (compatibleMediaTypes.isEmpty()) {
+		List<MediaType> mediaTypes = getCompatibleMediaTypes(requestedMediaTypes, producibleMediaTypes);
+		if (mediaTypes.isEmpty()) {
 			throw new HttpMediaTypeNotAcceptableException(producibleMediaTypes);
 		}
 
-		List<MediaType> mediaTypes = new ArrayList<MediaType>(compatibleMediaTypes);
-		MediaType.sortBySpecificityAndQuality(mediaTypes);
-
 		MediaType selectedMediaType = null;
 		for (MediaType mediaType : mediaTypes) {
 			if (mediaType.isConcrete()) {
@@ -192,13 +193,17 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 			return new ArrayList<MediaType>(mediaTypes);
 		}
 		else if (!this.allSupportedMediaTypes.isEmpty()) {
-			List<MediaType> result = new ArrayList<MediaType>();
-			for (HttpMessageConverter<?> converter : this.messageConverters) {
-				if (converter.canWrite(returnValueClass, null)) {
-					result.addAll(converter.getSupportedMediaTypes());
+			List<MediaType> result = this.producibleMediaTypesCache.get(returnValueClass);
+			if (result == null) {
+				result = new ArrayList<MediaType>();
+				for (HttpMessageConverter<?> converter : this.messageConverters) {
+					if (converter.canWrite(returnValueClass, null)) {
+						result.addAll(converter.getSupportedMediaTypes());
+					}
 				}
+				this.producibleMediaTypesCache.put(returnValueClass, result);
 			}
-			return result;
+			return new ArrayList<MediaType>(result);
 		}
 		else {
 			return Collections.singletonList(MediaType.ALL);
@@ -210,6 +215,33 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 		return (mediaTypes.isEmpty() ? Collections.singletonList(MediaType.ALL) : mediaTypes);
 	}
 
+	/**
+	 * Return the media types compatible with both the requested and the producible
+	 * media types, sorted by specificity and quality. Results are memoized per
+	 * combination, since a handler typically sees a small set of distinct Accept
+	 * headers.
+	 */
+	private List<MediaType> getCompatibleMediaTypes(List<MediaType> requestedMediaTypes,
+			List<MediaType> producibleMediaTypes) {
+
+		MediaTypesKey cacheKey = new MediaTypesKey(requestedMediaTypes, producibleMediaTypes);
+		List<MediaType> result = this.compatibleMediaTypesCache.get(cacheKey);
+		if (result == null) {
+			Set<MediaType> compatibleMediaTypes = new LinkedHashSet<MediaType>();
+			for (MediaType requestedType : requestedMediaTypes) {
+				for (MediaType producibleType : producibleMediaTypes) {
+					if (requestedType.isCompatibleWith(producibleType)) {
+						compatibleMediaTypes.add(getMostSpecificMediaType(requestedType, producibleType));
+					}
+				}
+			}
+			List<MediaType> mediaTypes = new ArrayList<MediaType>(compatibleMediaTypes);
+			MediaType.sortBySpecificityAndQuality(mediaTypes);
+			result = this.compatibleMediaTypesCache.putIfAbsent(cacheKey, Collections.unmodifiableList(mediaTypes));
+		}
+		return result;
+	}
+
 	/**
 	 * Return the more specific of the acceptable and the producible media types
 	 * with the q-value of the former.
@@ -281,4 +313,53 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 		return false;
 	}
 
+
+	/**
+	 * Cache key for a pair of requested and producible media types. Hashes on
+	 * type and subtype only, which is cheap since their String hash codes are
+	 * cached, leaving media type parameters to the equality check.
+	 */
+	private static final class MediaTypesKey {
+
+		private final List<MediaType> requestedMediaTypes;
+
+		private final List<MediaType> producibleMediaTypes;
+
+		private final int hashCode;
+
+		public MediaTypesKey(List<MediaType> requestedMediaTypes, List<MediaType> producibleMediaTypes) {
+			this.requestedMediaTypes = requestedMediaTypes;
+			this.producibleMediaTypes = producibleMediaTypes;
+			this.hashCode = 31 * hashCode(requestedMediaTypes) + hashCode(producibleMediaTypes);
+		}
+
+		private static int hashCode(List<MediaType> mediaTypes) {
+			int result = 1;
+			for (MediaType mediaType : mediaTypes) {
+				result = 31 * result + mediaType.getType().hashCode();
+				result = 31 * result + mediaType.getSubtype().hashCode();
+			}
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof MediaTypesKey)) {
+				return false;
+			}
+			MediaTypesKey otherKey = (MediaTypesKey) other;
+			return (this.hashCode == otherKey.hashCode &&
+					this.requestedMediaTypes.equals(otherKey.requestedMediaTypes) &&
+					this.producibleMediaTypes.equals(otherKey.producibleMediaTypes));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
 }
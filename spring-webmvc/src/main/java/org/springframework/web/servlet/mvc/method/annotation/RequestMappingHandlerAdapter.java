@@ -63,9 +63,9 @@ import javax.servlet.http.HttpSession;
 import javax.xml.transform.Source;
 import java.lang.reflect.Method;
 import java.util.*;
-import java.util.Map.Entry;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  *
@@ -114,19 +114,17 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 	private ConfigurableBeanFactory beanFactory;
 
 
-	private final Map<Class<?>, SessionAttributesHandler> sessionAttributesHandlerCache =
-			new ConcurrentHashMap<Class<?>, SessionAttributesHandler>(64);
-
-	private final Map<Class<?>, Set<Method>> initBinderCache = new ConcurrentHashMap<Class<?>, Set<Method>>(64);
+	private final ConcurrentMap<Class<?>, HandlerTypeMetadata> handlerTypeMetadataCache =
+			new ConcurrentHashMap<Class<?>, HandlerTypeMetadata>(64);
 
 	private final Map<ControllerAdviceBean, Set<Method>> initBinderAdviceCache =
 			new LinkedHashMap<ControllerAdviceBean, Set<Method>>();
 
-	private final Map<Class<?>, Set<Method>> modelAttributeCache = new ConcurrentHashMap<Class<?>, Set<Method>>(64);
-
 	private final Map<ControllerAdviceBean, Set<Method>> modelAttributeAdviceCache =
 			new LinkedHashMap<ControllerAdviceBean, Set<Method>>();
 
+	private ControllerAdviceBean[] controllerAdviceBeans = new ControllerAdviceBean[0];
+
 
 	public RequestMappingHandlerAdapter() {
 		StringHttpMessageConverter stringHttpMessageConverter = new StringHttpMessageConverter();
@@ -586,6 +584,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		//获取到所有注释了@ControllerAdvice的bean
 		List<ControllerAdviceBean> beans = ControllerAdviceBean.findAnnotatedBeans(getApplicationContext());
 		Collections.sort(beans, new OrderComparator());
+		List<ControllerAdviceBean> adviceBeans = new ArrayList<ControllerAdviceBean>();
 
 		for (ControllerAdviceBean bean : beans) {
 			//查找注释了@ModelAttribute ,但是没有注释@RequestMapping的方法
@@ -604,7 +603,11 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 				this.initBinderAdviceCache.put(bean, binderMethods);
 				logger.info("Detected @InitBinder methods in " + bean);
 			}
+			if (!attrMethods.isEmpty() || !binderMethods.isEmpty()) {
+				adviceBeans.add(bean);
+			}
 		}
+		this.controllerAdviceBeans = adviceBeans.toArray(new ControllerAdviceBean[adviceBeans.size()]);
 	}
 
 
@@ -637,7 +640,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 	protected final ModelAndView handleInternal(HttpServletRequest request,
 			HttpServletResponse response, HandlerMethod handlerMethod) throws Exception {
 		//判断handler是否有@SessionAttributes注释的参数，，看该方法的实现
-		if (getSessionAttributesHandler(handlerMethod).hasSessionAttributes()) {
+		if (getHandlerTypeMetadata(handlerMethod).getSessionAttributesHandler().hasSessionAttributes()) {
 			// 有@SessionAttributes 的话组织浏览器缓存
 			checkAndPrepare(request, response, /* 值为）*/this.cacheSecondsForSessionAttributeHandlers, true);
 		}
@@ -673,31 +676,26 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 
 	/**
-	 * Return the SessionAttributesHandler instance for the given handler type
+	 * Return the {@link HandlerTypeMetadata} for the given handler's type,
+	 * introspecting the type on first access.
 	 * 	这个sessionAttrHandler 是用来干什么的呢？其作用就是解析注解@SessionAttributes 并通过sessionAttributeStore来从
 	 * 	session中获取参数并绑定到model对象上面
 	 */
-
-	private SessionAttributesHandler getSessionAttributesHandler(HandlerMethod handlerMethod) {
+	private HandlerTypeMetadata getHandlerTypeMetadata(HandlerMethod handlerMethod) {
 		Class<?> handlerType = handlerMethod.getBeanType();
-
-
-		//从缓存中查找HandlerMethod对应的SessionAttributesHandler
-		SessionAttributesHandler sessionAttrHandler = this.sessionAttributesHandlerCache.get(handlerType);
-
-		if (sessionAttrHandler == null) {
-			//没有找到则添加
-			synchronized (this.sessionAttributesHandlerCache) {
-
-				sessionAttrHandler = this.sessionAttributesHandlerCache.get(handlerType);
-				if (sessionAttrHandler == null) {
-					//创建一个sessionAttrHandler
-					sessionAttrHandler = new SessionAttributesHandler(handlerType, sessionAttributeStore);
-					this.sessionAttributesHandlerCache.put(handlerType, sessionAttrHandler);
-				}
+		HandlerTypeMetadata metadata = this.handlerTypeMetadataCache.get(handlerType);
+		if (metadata == null) {
+			metadata = new HandlerTypeMetadata(handlerType,
+					new SessionAttributesHandler(handlerType, this.sessionAttributeStore),
+					HandlerMethodSelector.selectMethods(handlerType, INIT_BINDER_METHODS),
+					HandlerMethodSelector.selectMethods(handlerType, MODEL_ATTRIBUTE_METHODS));
+			// Only one SessionAttributesHandler per type may be exposed since it keeps track of known attributes
+			HandlerTypeMetadata existing = this.handlerTypeMetadataCache.putIfAbsent(handlerType, metadata);
+			if (existing != null) {
+				metadata = existing;
 			}
 		}
-		return sessionAttrHandler;
+		return metadata;
 	}
 
 	/**
@@ -720,10 +718,11 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 				ServletInvocableHandlerMethod：实际请求的处理就是通过他来执行的，参数绑定、处理请求以及返回值处理都在他里边完成
 		 */
-		WebDataBinderFactory binderFactory = getDataBinderFactory(handlerMethod);
+		HandlerMethodFactories factories = getHandlerMethodFactories(handlerMethod);
+		WebDataBinderFactory binderFactory = factories.getBinderFactory();
 
 		//因为我们需要使用 data binder 对象 帮助我们进行string 到 其他类型的转化工作
-		ModelFactory modelFactory = getModelFactory(handlerMethod, binderFactory);
+		ModelFactory modelFactory = factories.getModelFactory();
 
 		ServletInvocableHandlerMethod requestMappingMethod = createRequestMappingMethod(handlerMethod, binderFactory);
 
@@ -784,37 +783,84 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		return requestMethod;
 	}
 
-	private ModelFactory getModelFactory(HandlerMethod handlerMethod, WebDataBinderFactory binderFactory) {
-		//获取sessionAttribute handler
-		SessionAttributesHandler sessionAttrHandler = getSessionAttributesHandler(handlerMethod);
-
-		Class<?> handlerType = handlerMethod.getBeanType();
-		//获取处理器中注释了@modelAttribute 而且没有注释@requestMapping 的类型，第一次获取后添加到缓存，以后直接从缓存中获取
-		Set<Method> methods = this.modelAttributeCache.get(handlerType);
+	/**
+	 * Return the {@code @InitBinder} and {@code @ModelAttribute} factories for the
+	 * given handler method. Factories are built once per handler type and reused
+	 * for as long as the handler and the {@code @ControllerAdvice} beans resolve
+	 * to the same instances, i.e. for all singletons; per-request work is then
+	 * limited to invoking the methods themselves.
+	 */
+	private HandlerMethodFactories getHandlerMethodFactories(HandlerMethod handlerMethod) throws Exception {
+		HandlerTypeMetadata metadata = getHandlerTypeMetadata(handlerMethod);
+		HandlerMethodFactories factories = metadata.getFactories();
+		Object handler = handlerMethod.getBean();
+
+		ControllerAdviceBean[] adviceBeans = this.controllerAdviceBeans;
+		if (factories != null && factories.adviceBeanInstances.length != adviceBeans.length) {
+			factories = null;
+		}
+		Object[] resolvedAdviceBeans = null;
+		for (int i = 0; i < adviceBeans.length; i++) {
+			Object adviceBean = adviceBeans[i].resolveBean();
+			if (resolvedAdviceBeans == null && (factories == null || !factories.isBoundTo(i, adviceBean))) {
+				resolvedAdviceBeans = new Object[adviceBeans.length];
+				if (factories != null) {
+					System.arraycopy(factories.adviceBeanInstances, 0, resolvedAdviceBeans, 0, i);
+				}
+			}
+			if (resolvedAdviceBeans != null) {
+				resolvedAdviceBeans[i] = adviceBean;
+			}
+		}
 
-		if (methods == null) {
-			methods = HandlerMethodSelector.selectMethods(handlerType, MODEL_ATTRIBUTE_METHODS);
-			this.modelAttributeCache.put(handlerType, methods);
+		if (resolvedAdviceBeans == null) {
+			if (factories != null && factories.handler == handler) {
+				return factories;
+			}
+			resolvedAdviceBeans = (factories != null ? factories.adviceBeanInstances : new Object[0]);
 		}
+		factories = createHandlerMethodFactories(metadata, handler, adviceBeans, resolvedAdviceBeans);
+		metadata.setFactories(factories);
+		return factories;
+	}
 
+	private HandlerMethodFactories createHandlerMethodFactories(HandlerTypeMetadata metadata, Object handler,
+			ControllerAdviceBean[] adviceBeans, Object[] adviceBeanInstances) throws Exception {
+
+		//定义保存initBinder 的临时变量
+		List<InvocableHandlerMethod> initBinderMethods = new ArrayList<InvocableHandlerMethod>();
+		//将所有符合条件的ControllerAdviceBean 的 initBinder添加到initBinderMethods里面
+		for (int i = 0; i < adviceBeans.length; i++) {
+			Set<Method> methods = this.initBinderAdviceCache.get(adviceBeans[i]);
+			if (methods != null) {
+				for (Method method : methods) {
+					initBinderMethods.add(createInitBinderMethod(adviceBeanInstances[i], method));
+				}
+			}
+		}
+		//将当前handler中的initBinder 添加到initBinderMethods中
+		for (Method method : metadata.getInitBinderMethods()) {
+			initBinderMethods.add(createInitBinderMethod(handler, method));
+		}
+		//创建DataBinderFactory
+		WebDataBinderFactory binderFactory = createDataBinderFactory(initBinderMethods);
 
 		List<InvocableHandlerMethod> attrMethods = new ArrayList<InvocableHandlerMethod>();
 		// 获取ControllerAdvice中的注释了@modelAttribute 的方法
-		for (Entry<ControllerAdviceBean, Set<Method>> entry : this.modelAttributeAdviceCache.entrySet()) {
-			Object bean = entry.getKey().resolveBean();
-			for (Method method : entry.getValue()) {
-				attrMethods.add(createModelAttributeMethod(binderFactory, bean, method));
+		for (int i = 0; i < adviceBeans.length; i++) {
+			Set<Method> methods = this.modelAttributeAdviceCache.get(adviceBeans[i]);
+			if (methods != null) {
+				for (Method method : methods) {
+					attrMethods.add(createModelAttributeMethod(binderFactory, adviceBeanInstances[i], method));
+				}
 			}
 		}
-
-
-		for (Method method : methods) {
-			Object bean = handlerMethod.getBean();
-			attrMethods.add(createModelAttributeMethod(binderFactory, bean, method));
+		for (Method method : metadata.getModelAttributeMethods()) {
+			attrMethods.add(createModelAttributeMethod(binderFactory, handler, method));
 		}
+		ModelFactory modelFactory = new ModelFactory(attrMethods, binderFactory, metadata.getSessionAttributesHandler());
 
-		//返回ModelFactory
-		return new ModelFactory(attrMethods, binderFactory, sessionAttrHandler);
+		return new HandlerMethodFactories(handler, adviceBeanInstances, binderFactory, modelFactory);
 	}
 
 	private InvocableHandlerMethod createModelAttributeMethod(WebDataBinderFactory factory, Object bean, Method method) {
@@ -825,40 +871,6 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		return attrMethod;
 	}
 
-	private WebDataBinderFactory getDataBinderFactory(HandlerMethod handlerMethod) throws Exception {
-
-		Class<?> handlerType = handlerMethod.getBeanType();
-
-		//handler bean 方法内部的initBinder方法
-		Set<Method> methods = this.initBinderCache.get(handlerType);
-		//如果没有，则查找并设置缓存
-		if (methods == null) {
-			methods = HandlerMethodSelector.selectMethods(handlerType, INIT_BINDER_METHODS);
-			this.initBinderCache.put(handlerType, methods);
-		}
-
-		//定义保存initBinder 的临时变量
-		List<InvocableHandlerMethod> initBinderMethods = new ArrayList<InvocableHandlerMethod>();
-
-		//将所有符合条件的ControllerAdviceBean 的 initBinder添加到initBinderMethods里面
-		for (Entry<ControllerAdviceBean, Set<Method>> entry : this.initBinderAdviceCache .entrySet()) {
-
-			Object bean = entry.getKey().resolveBean();
-
-			for (Method method : entry.getValue()) {
-				initBinderMethods.add(createInitBinderMethod(bean, method));
-			}
-		}
-		//将当前handler中的initBinder 添加到initBinderMethods中
-		for (Method method : methods) {
-			Object bean = handlerMethod.getBean();
-			initBinderMethods.add(createInitBinderMethod(bean, method));
-		}
-
-		//创建DataBinderFactory 并返回
-		return createDataBinderFactory(initBinderMethods);
-	}
-
 	private InvocableHandlerMethod createInitBinderMethod(Object bean, Method method) {
 
 
@@ -875,6 +887,8 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 	 * Template method to create a new ServletRequestDataBinderFactory instance.
 	 * <p>The default implementation creates a ServletRequestDataBinderFactory.
 	 * This can be overridden for custom ServletRequestDataBinder subclasses.
+	 * <p>The returned factory is cached per handler type and shared across
+	 * requests, so it must be thread-safe.
 	 * @param binderMethods {@code @InitBinder} methods
 	 * @return the ServletRequestDataBinderFactory instance to use
 	 * @throws Exception in case of invalid state or arguments
@@ -913,6 +927,97 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 	}
 
 
+	/**
+	 * Immutable introspection results for a handler type: its {@code @InitBinder}
+	 * and {@code @ModelAttribute} methods as well as its {@code @SessionAttributes}
+	 * handler. The factories built from them are published through a volatile
+	 * field and replaced wholesale, so no locking is required on the request path.
+	 */
+	private static class HandlerTypeMetadata {
+
+		private final Class<?> handlerType;
+
+		private final SessionAttributesHandler sessionAttributesHandler;
+
+		private final Set<Method> initBinderMethods;
+
+		private final Set<Method> modelAttributeMethods;
+
+		private volatile HandlerMethodFactories factories;
+
+		public HandlerTypeMetadata(Class<?> handlerType, SessionAttributesHandler sessionAttributesHandler,
+				Set<Method> initBinderMethods, Set<Method> modelAttributeMethods) {
+
+			this.handlerType = handlerType;
+			this.sessionAttributesHandler = sessionAttributesHandler;
+			this.initBinderMethods = initBinderMethods;
+			this.modelAttributeMethods = modelAttributeMethods;
+		}
+
+		public SessionAttributesHandler getSessionAttributesHandler() {
+			return this.sessionAttributesHandler;
+		}
+
+		public Set<Method> getInitBinderMethods() {
+			return this.initBinderMethods;
+		}
+
+		public Set<Method> getModelAttributeMethods() {
+			return this.modelAttributeMethods;
+		}
+
+		public HandlerMethodFactories getFactories() {
+			return this.factories;
+		}
+
+		public void setFactories(HandlerMethodFactories factories) {
+			this.factories = factories;
+		}
+
+		@Override
+		public String toString() {
+			return "HandlerTypeMetadata for [" + this.handlerType.getName() + "]";
+		}
+	}
+
+
+	/**
+	 * The {@link WebDataBinderFactory} and {@link ModelFactory} for a handler type,
+	 * bound to the handler and {@code @ControllerAdvice} instances they were built for.
+	 */
+	private static class HandlerMethodFactories {
+
+		private final Object handler;
+
+		private final Object[] adviceBeanInstances;
+
+		private final WebDataBinderFactory binderFactory;
+
+		private final ModelFactory modelFactory;
+
+		public HandlerMethodFactories(Object handler, Object[] adviceBeanInstances,
+				WebDataBinderFactory binderFactory, ModelFactory modelFactory) {
+
+			this.handler = handler;
+			this.adviceBeanInstances = adviceBeanInstances;
+			this.binderFactory = binderFactory;
+			this.modelFactory = modelFactory;
+		}
+
+		public boolean isBoundTo(int adviceIndex, Object adviceBean) {
+			return (this.adviceBeanInstances[adviceIndex] == adviceBean);
+		}
+
+		public WebDataBinderFactory getBinderFactory() {
+			return this.binderFactory;
+		}
+
+		public ModelFactory getModelFactory() {
+			return this.modelFactory;
+		}
+	}
+
+
 	/**
 	 * MethodFilter that matches {@link InitBinder @InitBinder} methods.
 	 */
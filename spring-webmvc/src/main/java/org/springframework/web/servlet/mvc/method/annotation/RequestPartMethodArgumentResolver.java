@@ -17,8 +17,13 @@
 package org.springframework.web.servlet.mvc.method.annotation;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.core.GenericCollectionTypeResolver;
@@ -41,6 +46,7 @@ import org.springframework.web.multipart.MultipartException;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
 import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.multipart.StreamingMultipartHttpServletRequest;
 import org.springframework.web.multipart.support.MissingServletRequestPartException;
 import org.springframework.web.multipart.support.RequestPartServletServerHttpRequest;
 import org.springframework.web.servlet.mvc.support.DefaultHandlerExceptionResolver;
@@ -52,6 +58,8 @@ import org.springframework.web.util.WebUtils;
  * <li>Annotated with {@code @RequestPart}
  * <li>Of type {@link MultipartFile} in conjunction with Spring's {@link MultipartResolver} abstraction
  * <li>Of type {@code javax.servlet.http.Part} in conjunction with Servlet 3.0 multipart requests
+ * <li>Of type {@code Iterator<MultipartFile>}, iterating over the file parts of the request
+ * in order, straight from the request body in case of a {@link StreamingMultipartHttpServletRequest}
  * </ul>
  *
  * <p>When a parameter is annotated with {@code @RequestPart}, the content of the part is
@@ -83,6 +91,7 @@ public class RequestPartMethodArgumentResolver extends AbstractMessageConverterM
 	 * <li>annotated with {@code @RequestPart}
 	 * <li>of type {@link MultipartFile} unless annotated with {@code @RequestParam}
 	 * <li>of type {@code javax.servlet.http.Part} unless annotated with {@code @RequestParam}
+	 * <li>of type {@code Iterator<MultipartFile>} unless annotated with {@code @RequestParam}
 	 * </ul>
 	 */
 	public boolean supportsParameter(MethodParameter parameter) {
@@ -99,6 +108,9 @@ public class RequestPartMethodArgumentResolver extends AbstractMessageConverterM
 			else if ("javax.servlet.http.Part".equals(parameter.getParameterType().getName())) {
 				return true;
 			}
+			else if (isMultipartFileIterator(parameter)) {
+				return true;
+			}
 			else {
 				return false;
 			}
@@ -114,9 +126,22 @@ public class RequestPartMethodArgumentResolver extends AbstractMessageConverterM
 		MultipartHttpServletRequest multipartRequest =
 				WebUtils.getNativeRequest(servletRequest, MultipartHttpServletRequest.class);
 
-		String partName = getPartName(parameter);
+		RequestPart ann = parameter.getParameterAnnotation(RequestPart.class);
+		boolean isRequired = (ann == null || ann.required());
 		Object arg;
 
+		if (isMultipartFileIterator(parameter)) {
+			Assert.notNull(multipartRequest, "Expected MultipartHttpServletRequest: is a MultipartResolver configured?");
+			String partName = (ann != null ? ann.value() : "");
+			Iterator<MultipartFile> iterator = getFileIterator(multipartRequest, partName);
+			if (isRequired && !iterator.hasNext()) {
+				throw new MissingServletRequestPartException(
+						partName.length() > 0 ? partName : parameter.getParameterName());
+			}
+			return iterator;
+		}
+
+		String partName = getPartName(parameter);
 		if (MultipartFile.class.equals(parameter.getParameterType())) {
 			Assert.notNull(multipartRequest, "Expected MultipartHttpServletRequest: is a MultipartResolver configured?");
 			arg = multipartRequest.getFile(partName);
@@ -144,9 +169,6 @@ public class RequestPartMethodArgumentResolver extends AbstractMessageConverterM
 			}
 		}
 
-		RequestPart ann = parameter.getParameterAnnotation(RequestPart.class);
-		boolean isRequired = (ann == null || ann.required());
-
 		if (arg == null && isRequired) {
 			throw new MissingServletRequestPartException(partName);
 		}
@@ -211,6 +233,67 @@ public class RequestPartMethodArgumentResolver extends AbstractMessageConverterM
 		}
 	}
 
+	private boolean isMultipartFileIterator(MethodParameter methodParam) {
+		if (Iterator.class.equals(methodParam.getParameterType())) {
+			Type genericType = methodParam.getGenericParameterType();
+			if (genericType instanceof ParameterizedType) {
+				Type[] typeArgs = ((ParameterizedType) genericType).getActualTypeArguments();
+				return (typeArgs.length == 1 && MultipartFile.class.equals(typeArgs[0]));
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Return an iterator over the file parts with the given name, or all file parts
+	 * if no name is specified, reading them on demand from a streaming request
+	 * after the ones it has already buffered.
+	 */
+	private Iterator<MultipartFile> getFileIterator(MultipartHttpServletRequest multipartRequest, final String partName) {
+		Iterator<MultipartFile> iterator;
+		if (multipartRequest instanceof StreamingMultipartHttpServletRequest) {
+			iterator = ((StreamingMultipartHttpServletRequest) multipartRequest).getFileIterator();
+		}
+		else {
+			List<MultipartFile> files = new ArrayList<MultipartFile>();
+			for (List<MultipartFile> filesPerName : multipartRequest.getMultiFileMap().values()) {
+				files.addAll(filesPerName);
+			}
+			iterator = files.iterator();
+		}
+		if (partName.length() == 0) {
+			return iterator;
+		}
+		final Iterator<MultipartFile> allFiles = iterator;
+		return new Iterator<MultipartFile>() {
+
+			private MultipartFile next;
+
+			public boolean hasNext() {
+				while (this.next == null && allFiles.hasNext()) {
+					MultipartFile file = allFiles.next();
+					if (partName.equals(file.getName())) {
+						this.next = file;
+					}
+				}
+				return (this.next != null);
+			}
+
+			public MultipartFile next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				MultipartFile file = this.next;
+				this.next = null;
+				return file;
+			}
+
+			public void remove() {
+				throw new UnsupportedOperationException("remove");
+			}
+		};
+	}
+
 	/**
 	 * Whether to raise a fatal bind exception on validation errors.
 	 * @param binder the data binder used to perform data binding
@@ -19,11 +19,21 @@ package org.springframework.web.servlet.view.xslt;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.lang.reflect.Method;
 import java.util.Enumeration;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.ErrorListener;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Result;
@@ -35,19 +45,23 @@ import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.TransformerFactoryConfigurationError;
 import javax.xml.transform.URIResolver;
 import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
 
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContextException;
 import org.springframework.core.io.Resource;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.util.xml.SimpleTransformErrorListener;
+import org.springframework.util.xml.StaxUtils;
 import org.springframework.util.xml.TransformerUtils;
 import org.springframework.web.servlet.view.AbstractUrlBasedView;
 import org.springframework.web.util.WebUtils;
@@ -67,6 +81,12 @@ import org.springframework.web.util.WebUtils;
  * In addition the user can configure {@link #setOutputProperties output properties}
  * to be passed to the Transformer.
  *
+ * <p>For high-volume rendering, Transformer instances can be
+ * {@link #setTransformerPoolSize pooled} and the stylesheet can be
+ * {@link #setPrecompileExecutor precompiled in the background} at startup.
+ * Render times are tracked per view; see {@link #getRenderCount()},
+ * {@link #getTotalRenderTime()} and {@link #getMaxRenderTime()}.
+ *
  * @author Rob Harrop
  * @author Juergen Hoeller
  * @since 2.0
@@ -87,9 +107,25 @@ public class XsltView extends AbstractUrlBasedView {
 
 	private boolean cacheTemplates = true;
 
+	private Map<String, Object> transformerFactoryAttributes;
+
+	private int transformerPoolSize = 0;
+
+	private Executor precompileExecutor;
+
 	private TransformerFactory transformerFactory;
 
-	private Templates cachedTemplates;
+	private volatile Templates cachedTemplates;
+
+	private volatile FutureTask<Templates> templatesFuture;
+
+	private BlockingQueue<Transformer> transformerPool;
+
+	private final AtomicLong renderCount = new AtomicLong();
+
+	private final AtomicLong totalRenderNanos = new AtomicLong();
+
+	private final AtomicLong maxRenderNanos = new AtomicLong();
 
 
 	/**
@@ -107,7 +143,9 @@ public class XsltView extends AbstractUrlBasedView {
 	 * If not specified, the model map will be searched for a matching value type.
 	 * <p>The following source types are supported out of the box:
 	 * {@link Source}, {@link Document}, {@link Node}, {@link Reader},
-	 * {@link InputStream} and {@link Resource}.
+	 * {@link InputStream} and {@link Resource}, as well as StAX
+	 * {@link XMLStreamReader}/{@link XMLEventReader} and SAX {@link InputSource}
+	 * for streaming the model data into the transformation without building a DOM.
 	 * @see #getSourceTypes
 	 * @see #convertSource
 	 */
@@ -166,6 +204,49 @@ public class XsltView extends AbstractUrlBasedView {
 		this.cacheTemplates = cacheTemplates;
 	}
 
+	/**
+	 * Set implementation-specific attributes to apply to the TransformerFactory,
+	 * e.g. the XSLTC options for translet generation:
+	 * {@code "generate-translet"} (true), {@code "destination-directory"} and
+	 * {@code "package-name"}, or {@code "auto-translet"} for reusing translets
+	 * that are newer than their stylesheet.
+	 * @see javax.xml.transform.TransformerFactory#setAttribute
+	 */
+	public void setTransformerFactoryAttributes(Map<String, Object> transformerFactoryAttributes) {
+		this.transformerFactoryAttributes = transformerFactoryAttributes;
+	}
+
+	/**
+	 * Set the maximum number of idle Transformer instances to keep for reuse.
+	 * <p>Default is 0, creating a new Transformer for every render call.
+	 * A positive value makes this view {@link Transformer#reset() reset} and pool
+	 * Transformers after a successful transformation, which avoids re-instantiating
+	 * the compiled stylesheet per request. Only applies when
+	 * {@link #setCacheTemplates caching the Templates}, and not to subclasses
+	 * that override {@link #createTransformer}, since a reset Transformer loses
+	 * any custom settings applied there.
+	 */
+	public void setTransformerPoolSize(int transformerPoolSize) {
+		Assert.isTrue(transformerPoolSize >= 0, "'transformerPoolSize' must not be negative");
+		this.transformerPoolSize = transformerPoolSize;
+	}
+
+	/**
+	 * Set an Executor to compile the stylesheet with, in the background
+	 * during application context startup.
+	 * <p>By default, the stylesheet gets compiled synchronously on initialization.
+	 * With an Executor specified, initialization returns immediately and the first
+	 * render call waits for the compilation to complete, if still in progress.
+	 * Only applies when {@link #setCacheTemplates caching the Templates}.
+	 * <p><b>NOTE:</b> A stylesheet that cannot be compiled does not fail the
+	 * initialization of this view then. The error gets logged as soon as the
+	 * compilation fails, and every render call rethrows it.
+	 * @see org.springframework.core.task.SimpleAsyncTaskExecutor
+	 */
+	public void setPrecompileExecutor(Executor precompileExecutor) {
+		this.precompileExecutor = precompileExecutor;
+	}
+
 
 	/**
 	 * Initialize this XsltView's TransformerFactory.
@@ -177,11 +258,50 @@ public class XsltView extends AbstractUrlBasedView {
 		if (this.uriResolver != null) {
 			this.transformerFactory.setURIResolver(this.uriResolver);
 		}
+		if (this.transformerFactoryAttributes != null) {
+			for (Map.Entry<String, Object> entry : this.transformerFactoryAttributes.entrySet()) {
+				this.transformerFactory.setAttribute(entry.getKey(), entry.getValue());
+			}
+		}
 		if (this.cacheTemplates) {
-			this.cachedTemplates = loadTemplates();
+			if (this.transformerPoolSize > 0) {
+				if (isCreateTransformerOverridden()) {
+					logger.info("Not pooling Transformers for XsltView with custom createTransformer method");
+				}
+				else {
+					this.transformerPool = new ArrayBlockingQueue<Transformer>(this.transformerPoolSize);
+				}
+			}
+			if (this.precompileExecutor != null) {
+				FutureTask<Templates> future = new FutureTask<Templates>(new Callable<Templates>() {
+					public Templates call() {
+						try {
+							return loadTemplates();
+						}
+						catch (RuntimeException ex) {
+							logger.error("Background compilation of stylesheet for XsltView failed", ex);
+							throw ex;
+						}
+					}
+				});
+				this.templatesFuture = future;
+				this.precompileExecutor.execute(future);
+			}
+			else {
+				this.cachedTemplates = loadTemplates();
+			}
 		}
 	}
 
+	/**
+	 * Determine whether a subclass overrides {@link #createTransformer},
+	 * possibly configuring Transformers in a way that does not survive a reset.
+	 */
+	private boolean isCreateTransformerOverridden() {
+		Method method = ReflectionUtils.findMethod(getClass(), "createTransformer", Templates.class);
+		return (method != null && method.getDeclaringClass() != XsltView.class);
+	}
+
 	/**
 	 * Instantiate a new TransformerFactory for this view.
 	 * <p>The default implementation simply calls
@@ -223,27 +343,129 @@ public class XsltView extends AbstractUrlBasedView {
 			Map<String, Object> model, HttpServletRequest request, HttpServletResponse response)
 			throws Exception {
 
-		Templates templates = this.cachedTemplates;
-		if (templates == null) {
-			templates = loadTemplates();
-		}
-
-		Transformer transformer = createTransformer(templates);
-		configureTransformer(model, response, transformer);
-		configureResponse(model, response, transformer);
+		long startTime = System.nanoTime();
+		Templates templates = getTemplates();
+		Transformer transformer = obtainTransformer(templates);
+		boolean reusable = false;
 		Source source = null;
 		try {
+			configureTransformer(model, response, transformer);
+			configureResponse(model, response, transformer);
 			source = locateSource(model);
 			if (source == null) {
 				throw new IllegalArgumentException("Unable to locate Source object in model: " + model);
 			}
 			transformer.transform(source, createResult(response));
+			reusable = true;
 		}
 		finally {
 			closeSourceIfNecessary(source);
+			if (reusable) {
+				releaseTransformer(transformer);
+			}
+			recordRenderTime(System.nanoTime() - startTime);
 		}
 	}
 
+	/**
+	 * Return the Templates to render with: the cached instance, the result of
+	 * background precompilation (waiting for it if necessary), or a freshly
+	 * loaded instance if caching is turned off.
+	 */
+	private Templates getTemplates() throws Exception {
+		Templates templates = this.cachedTemplates;
+		if (templates != null) {
+			return templates;
+		}
+		FutureTask<Templates> future = this.templatesFuture;
+		if (future != null) {
+			try {
+				templates = future.get();
+			}
+			catch (ExecutionException ex) {
+				Throwable cause = ex.getCause();
+				throw (cause instanceof Exception ? (Exception) cause : ex);
+			}
+			this.cachedTemplates = templates;
+			return templates;
+		}
+		return loadTemplates();
+	}
+
+	/**
+	 * Obtain a Transformer for the given Templates, from the pool if possible.
+	 */
+	private Transformer obtainTransformer(Templates templates) throws TransformerConfigurationException {
+		if (this.transformerPool != null) {
+			Transformer transformer = this.transformerPool.poll();
+			if (transformer != null) {
+				return transformer;
+			}
+		}
+		return createTransformer(templates);
+	}
+
+	/**
+	 * Return the given Transformer to the pool, if pooling is active and the pool
+	 * has capacity left, after resetting it to its initial state.
+	 */
+	private void releaseTransformer(Transformer transformer) {
+		if (this.transformerPool != null && this.transformerPool.remainingCapacity() > 0) {
+			try {
+				transformer.reset();
+			}
+			catch (UnsupportedOperationException ex) {
+				// Pre-JAXP 1.3 implementation: cannot be reused.
+				return;
+			}
+			// Not all implementations drop parameters on reset (e.g. the JDK's XSLTC):
+			// make sure that no model values leak into the next render call.
+			transformer.clearParameters();
+			if (this.uriResolver != null) {
+				transformer.setURIResolver(this.uriResolver);
+			}
+			this.transformerPool.offer(transformer);
+		}
+	}
+
+	private void recordRenderTime(long nanos) {
+		this.renderCount.incrementAndGet();
+		this.totalRenderNanos.addAndGet(nanos);
+		long max = this.maxRenderNanos.get();
+		while (nanos > max && !this.maxRenderNanos.compareAndSet(max, nanos)) {
+			max = this.maxRenderNanos.get();
+		}
+	}
+
+	/**
+	 * Return the number of render calls of this view so far, including failed ones.
+	 */
+	public long getRenderCount() {
+		return this.renderCount.get();
+	}
+
+	/**
+	 * Return the accumulated time spent rendering this view, in milliseconds.
+	 */
+	public long getTotalRenderTime() {
+		return this.totalRenderNanos.get() / 1000000;
+	}
+
+	/**
+	 * Return the longest time a single render call of this view took, in milliseconds.
+	 */
+	public long getMaxRenderTime() {
+		return this.maxRenderNanos.get() / 1000000;
+	}
+
+	/**
+	 * Return the number of idle Transformer instances currently pooled.
+	 * @see #setTransformerPoolSize
+	 */
+	public int getPooledTransformerCount() {
+		return (this.transformerPool != null ? this.transformerPool.size() : 0);
+	}
+
 	/**
 	 * Create the XSLT {@link Result} used to render the result of the transformation.
 	 * <p>The default implementation creates a {@link StreamResult} wrapping the supplied
@@ -280,11 +502,14 @@ public class XsltView extends AbstractUrlBasedView {
 	 * Return the array of {@link Class Classes} that are supported when converting to an
 	 * XSLT {@link Source}.
 	 * <p>Currently supports {@link Source}, {@link Document}, {@link Node},
-	 * {@link Reader}, {@link InputStream} and {@link Resource}.
+	 * {@link Reader}, {@link InputStream}, {@link Resource}, as well as the
+	 * streaming {@link XMLStreamReader}, {@link XMLEventReader} and SAX
+	 * {@link InputSource} types.
 	 * @return the supported source types
 	 */
 	protected Class[] getSourceTypes() {
-		return new Class[] {Source.class, Document.class, Node.class, Reader.class, InputStream.class, Resource.class};
+		return new Class[] {Source.class, Document.class, Node.class, Reader.class, InputStream.class, Resource.class,
+				XMLStreamReader.class, XMLEventReader.class, InputSource.class};
 	}
 
 	/**
@@ -314,6 +539,15 @@ public class XsltView extends AbstractUrlBasedView {
 			Resource resource = (Resource) source;
 			return new StreamSource(resource.getInputStream(), resource.getURI().toASCIIString());
 		}
+		else if (source instanceof XMLStreamReader) {
+			return StaxUtils.createStaxSource((XMLStreamReader) source);
+		}
+		else if (source instanceof XMLEventReader) {
+			return StaxUtils.createStaxSource((XMLEventReader) source);
+		}
+		else if (source instanceof InputSource) {
+			return new SAXSource((InputSource) source);
+		}
 		else {
 			throw new IllegalArgumentException("Value '" + source + "' cannot be converted to XSLT Source");
 		}
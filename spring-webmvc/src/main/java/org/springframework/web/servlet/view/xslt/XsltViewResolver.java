@@ -16,7 +16,9 @@
 
 package org.springframework.web.servlet.view.xslt;
 
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Executor;
 import javax.xml.transform.ErrorListener;
 import javax.xml.transform.URIResolver;
 
@@ -46,6 +48,12 @@ public class XsltViewResolver extends UrlBasedViewResolver {
 
 	private boolean cacheTemplates = true;
 
+	private Map<String, Object> transformerFactoryAttributes;
+
+	private int transformerPoolSize = 0;
+
+	private Executor precompileExecutor;
+
 
 	public XsltViewResolver() {
 		setViewClass(requiredViewClass());
@@ -120,6 +128,32 @@ public class XsltViewResolver extends UrlBasedViewResolver {
 		this.cacheTemplates = cacheTemplates;
 	}
 
+	/**
+	 * Set implementation-specific attributes to apply to each view's
+	 * TransformerFactory, e.g. XSLTC options for translet generation.
+	 * @see XsltView#setTransformerFactoryAttributes
+	 */
+	public void setTransformerFactoryAttributes(Map<String, Object> transformerFactoryAttributes) {
+		this.transformerFactoryAttributes = transformerFactoryAttributes;
+	}
+
+	/**
+	 * Set the maximum number of idle Transformer instances to pool per view.
+	 * <p>Default is 0, creating a new Transformer for every render call.
+	 * @see XsltView#setTransformerPoolSize
+	 */
+	public void setTransformerPoolSize(int transformerPoolSize) {
+		this.transformerPoolSize = transformerPoolSize;
+	}
+
+	/**
+	 * Set an Executor to compile each view's stylesheet with, in the background.
+	 * @see XsltView#setPrecompileExecutor
+	 */
+	public void setPrecompileExecutor(Executor precompileExecutor) {
+		this.precompileExecutor = precompileExecutor;
+	}
+
 
 	@Override
 	protected AbstractUrlBasedView buildView(String viewName) throws Exception {
@@ -134,6 +168,9 @@ public class XsltViewResolver extends UrlBasedViewResolver {
 		view.setIndent(this.indent);
 		view.setOutputProperties(this.outputProperties);
 		view.setCacheTemplates(this.cacheTemplates);
+		view.setTransformerFactoryAttributes(this.transformerFactoryAttributes);
+		view.setTransformerPoolSize(this.transformerPoolSize);
+		view.setPrecompileExecutor(this.precompileExecutor);
 		return view;
 	}
 
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.mock.web.test.MockHttpServletResponse;
+import org.springframework.mock.web.test.MockHttpSession;
+import org.springframework.mock.web.test.MockServletConfig;
+import org.springframework.mock.web.test.MockServletContext;
+import org.springframework.tests.Assume;
+import org.springframework.tests.TestGroup;
+import org.springframework.tests.sample.beans.TestBean;
+import org.springframework.util.StopWatch;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.springframework.web.servlet.support.SessionFlashMapManager;
+import org.springframework.web.util.WebUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link DispatcherServlet} in {@link DispatcherServlet#setLeanDispatch lean dispatch} mode.
+ */
+public class DispatcherServletLeanDispatchTests {
+
+	private MockServletConfig servletConfig;
+
+
+	@Before
+	public void setUp() {
+		this.servletConfig = new MockServletConfig(new MockServletContext(), "simple");
+	}
+
+
+	@Test
+	public void noRequestHandledEventsWithoutListeners() throws Exception {
+		DispatcherServlet servlet = createServlet(SimpleWebApplicationContext.class, true);
+		assertFalse(servlet.isRequestHandledEventListened());
+
+		MockHttpServletRequest request = createLocaleRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		servlet.service(request, response);
+		assertEquals(200, response.getStatus());
+	}
+
+	@Test
+	public void requestHandledEventsWithListeners() throws Exception {
+		DispatcherServlet servlet = createServlet(ComplexWebApplicationContext.class, true);
+		assertTrue(servlet.isRequestHandledEventListened());
+
+		MockHttpServletRequest request = new MockHttpServletRequest(
+				this.servletConfig.getServletContext(), "GET", "/locale.do");
+		servlet.service(request, new MockHttpServletResponse());
+		ComplexWebApplicationContext.TestApplicationListener listener =
+				(ComplexWebApplicationContext.TestApplicationListener) servlet
+						.getWebApplicationContext().getBean("testListener");
+		assertEquals(1, listener.counter);
+	}
+
+	@Test
+	public void requestHandledEventsWithoutLeanDispatch() throws Exception {
+		DispatcherServlet servlet = createServlet(SimpleWebApplicationContext.class, false);
+		assertTrue(servlet.isRequestHandledEventListened());
+	}
+
+	@Test
+	public void noAttributeSnapshotForIncludeRequest() throws Exception {
+		DispatcherServlet servlet = createServlet(SimpleWebApplicationContext.class, true);
+
+		MockHttpServletRequest request = new MockHttpServletRequest(
+				this.servletConfig.getServletContext(), "GET", "/main.do");
+		request.setAttribute("test1", "value1");
+		TestBean command = new TestBean();
+		request.setAttribute("command", command);
+		request.setAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE, "/form.do");
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		servlet.service(request, response);
+		assertEquals("form", response.getIncludedUrl());
+
+		assertEquals("value1", request.getAttribute("test1"));
+		assertNotSame(command, request.getAttribute("command"));
+		assertNotNull(request.getAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE));
+	}
+
+	@Test
+	public void handlerAdapterCached() throws Exception {
+		DispatcherServlet servlet = createServlet(SimpleWebApplicationContext.class, true);
+		Object handler = servlet.getWebApplicationContext().getBean("/locale.do");
+
+		HandlerAdapter adapter = servlet.getHandlerAdapter(handler);
+		assertTrue(adapter.supports(handler));
+		assertSame(adapter, servlet.getHandlerAdapter(handler));
+
+		for (int i = 0; i < 3; i++) {
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			servlet.service(createLocaleRequest(), response);
+			assertEquals(200, response.getStatus());
+		}
+	}
+
+	@Test
+	public void flashMapRetrievalSkippedWithoutSession() throws Exception {
+		DispatcherServlet servlet = createServlet(SimpleWebApplicationContext.class, true);
+		MockHttpServletRequest request = createLocaleRequest();
+		servlet.service(request, new MockHttpServletResponse());
+		assertNull(RequestContextUtils.getInputFlashMap(request));
+		assertNull(request.getSession(false));
+		assertNotNull(RequestContextUtils.getOutputFlashMap(request));
+	}
+
+	@Test
+	public void flashMapRetrievedWithSession() throws Exception {
+		// as saved by another node in a cluster, or before a restart
+		DispatcherServlet servlet = createServlet(SimpleWebApplicationContext.class, true);
+		MockHttpSession session = new MockHttpSession();
+		List<FlashMap> flashMaps = new ArrayList<FlashMap>();
+		flashMaps.add(createFlashMap("/locale.do", "saved"));
+		session.setAttribute(SessionFlashMapManager.class.getName() + ".FLASH_MAPS", flashMaps);
+
+		MockHttpServletRequest request = createLocaleRequest();
+		request.setSession(session);
+		servlet.service(request, new MockHttpServletResponse());
+		assertNotNull(RequestContextUtils.getInputFlashMap(request));
+		assertEquals("saved", RequestContextUtils.getInputFlashMap(request).get("name"));
+	}
+
+	@Test
+	public void frameworkOverheadPerRequest() throws Exception {
+		Assume.group(TestGroup.PERFORMANCE);
+
+		DispatcherServlet defaultServlet = createServlet(SimpleWebApplicationContext.class, false);
+		DispatcherServlet leanServlet = createServlet(SimpleWebApplicationContext.class, true);
+		int iterations = 100000;
+		for (int i = 0; i < iterations / 10; i++) {
+			defaultServlet.service(createLocaleRequest(), new MockHttpServletResponse());
+			leanServlet.service(createLocaleRequest(), new MockHttpServletResponse());
+		}
+
+		StopWatch sw = new StopWatch();
+		sw.start("default");
+		for (int i = 0; i < iterations; i++) {
+			defaultServlet.service(createLocaleRequest(), new MockHttpServletResponse());
+		}
+		sw.stop();
+		sw.start("lean");
+		for (int i = 0; i < iterations; i++) {
+			leanServlet.service(createLocaleRequest(), new MockHttpServletResponse());
+		}
+		sw.stop();
+
+		System.out.println(sw.prettyPrint());
+		assertTrue("Lean dispatch took too long: " + sw.prettyPrint(), sw.getLastTaskTimeMillis() < 5000);
+	}
+
+
+	private DispatcherServlet createServlet(Class<?> contextClass, boolean leanDispatch) throws Exception {
+		DispatcherServlet servlet = new DispatcherServlet();
+		servlet.setContextClass(contextClass);
+		servlet.setLeanDispatch(leanDispatch);
+		servlet.init(this.servletConfig);
+		return servlet;
+	}
+
+	private FlashMap createFlashMap(String targetRequestPath, String value) {
+		FlashMap flashMap = new FlashMap();
+		flashMap.setTargetRequestPath(targetRequestPath);
+		flashMap.put("name", value);
+		return flashMap;
+	}
+
+	private MockHttpServletRequest createLocaleRequest() {
+		MockHttpServletRequest request = new MockHttpServletRequest(
+				this.servletConfig.getServletContext(), "GET", "/locale.do");
+		request.addPreferredLocale(Locale.CANADA);
+		return request;
+	}
+
+}
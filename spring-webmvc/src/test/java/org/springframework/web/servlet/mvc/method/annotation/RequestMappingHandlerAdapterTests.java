@@ -16,6 +16,8 @@
 
 package org.springframework.web.servlet.mvc.method.annotation;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 
@@ -25,8 +27,13 @@ import org.junit.Test;
 
 import org.springframework.mock.web.test.MockHttpServletRequest;
 import org.springframework.mock.web.test.MockHttpServletResponse;
+import org.springframework.tests.Assume;
+import org.springframework.tests.TestGroup;
 import org.springframework.ui.Model;
+import org.springframework.util.StopWatch;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.SessionAttributes;
 import org.springframework.web.context.support.StaticWebApplicationContext;
@@ -187,6 +194,89 @@ public class RequestMappingHandlerAdapterTests {
 		assertEquals("gAttr2", mav.getModel().get("attr2"));
 	}
 
+	@Test
+	public void modelAttributeAndInitBinderMethodsInvokedOnEveryRequest() throws Exception {
+		CountingController handler = new CountingController();
+		HandlerMethod handlerMethod = handlerMethod(handler, "handle", String.class);
+		this.handlerAdapter.afterPropertiesSet();
+
+		this.request.addParameter("param", "value");
+		for (int i = 0; i < 3; i++) {
+			ModelAndView mav = this.handlerAdapter.handle(this.request, new MockHttpServletResponse(), handlerMethod);
+			assertEquals(i + 1, mav.getModel().get("count"));
+		}
+		assertEquals(3, handler.initBinderCount);
+	}
+
+	@Test
+	public void modelAttributeMethodsBoundToResolvedHandlerInstance() throws Exception {
+		this.handlerAdapter.afterPropertiesSet();
+
+		CountingController handler1 = new CountingController();
+		CountingController handler2 = new CountingController();
+		this.handlerAdapter.handle(this.request, this.response, handlerMethod(handler1, "handle", String.class));
+		this.handlerAdapter.handle(this.request, this.response, handlerMethod(handler2, "handle", String.class));
+		this.handlerAdapter.handle(this.request, this.response, handlerMethod(handler2, "handle", String.class));
+
+		assertEquals(1, handler1.modelAttributeCount);
+		assertEquals(2, handler2.modelAttributeCount);
+	}
+
+	@Test
+	public void prototypeModelAttributeAdvice() throws Exception {
+		this.webAppContext.registerPrototype("maa", PrototypeModelAttributeAdvice.class);
+		this.webAppContext.refresh();
+
+		HandlerMethod handlerMethod = handlerMethod(new SimpleController(), "handle");
+		this.handlerAdapter.afterPropertiesSet();
+
+		for (int i = 0; i < 3; i++) {
+			ModelAndView mav = this.handlerAdapter.handle(this.request, this.response, handlerMethod);
+			assertEquals("Expected a new advice instance per request", 1, mav.getModel().get("adviceCount"));
+		}
+	}
+
+	@Test
+	public void handlerMethodFactoriesPerformance() throws Exception {
+		Assume.group(TestGroup.PERFORMANCE);
+
+		this.webAppContext.registerSingleton("maa", ModelAttributeAdvice.class);
+		this.webAppContext.refresh();
+		this.handlerAdapter.afterPropertiesSet();
+
+		HandlerMethod handlerMethod = handlerMethod(new CountingController(), "handle", String.class);
+		this.request.addParameter("param", "value");
+		for (int i = 0; i < 1000; i++) {
+			this.handlerAdapter.handle(this.request, new MockHttpServletResponse(), handlerMethod);
+		}
+
+		int iterations = 100000;
+		long allocatedBefore = getAllocatedBytes();
+		StopWatch sw = new StopWatch();
+		sw.start("handle");
+		for (int i = 0; i < iterations; i++) {
+			this.handlerAdapter.handle(this.request, new MockHttpServletResponse(), handlerMethod);
+		}
+		sw.stop();
+		long allocatedAfter = getAllocatedBytes();
+
+		System.out.println(sw.prettyPrint());
+		if (allocatedBefore >= 0 && allocatedAfter >= 0) {
+			System.out.println((allocatedAfter - allocatedBefore) / iterations + " bytes allocated per request");
+		}
+		assertTrue("Handler invocation took too long: " + sw.prettyPrint(), sw.getTotalTimeMillis() < 5000);
+	}
+
+	private static long getAllocatedBytes() {
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+			if (sunThreadMXBean.isThreadAllocatedMemorySupported() && sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+				return sunThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+		return -1;
+	}
 
 	private HandlerMethod handlerMethod(Object handler, String methodName, Class<?>... paramTypes) throws Exception {
 		Method method = handler.getClass().getDeclaredMethod(methodName, paramTypes);
@@ -214,6 +304,29 @@ public class RequestMappingHandlerAdapterTests {
 	}
 
 
+	@SuppressWarnings("unused")
+	private static class CountingController {
+
+		private int initBinderCount;
+
+		private int modelAttributeCount;
+
+		@InitBinder
+		public void initBinder(WebDataBinder binder) {
+			this.initBinderCount++;
+		}
+
+		@ModelAttribute
+		public void addAttributes(Model model) {
+			model.addAttribute("count", ++this.modelAttributeCount);
+		}
+
+		public String handle(String param) {
+			return null;
+		}
+	}
+
+
 	@SessionAttributes("attr1")
 	private static class SessionAttributeController {
 
@@ -243,4 +356,16 @@ public class RequestMappingHandlerAdapterTests {
 		}
 	}
 
+
+	@ControllerAdvice
+	private static class PrototypeModelAttributeAdvice {
+
+		private int count;
+
+		@ModelAttribute
+		public void addAttributes(Model model) {
+			model.addAttribute("adviceCount", ++this.count);
+		}
+	}
+
 }
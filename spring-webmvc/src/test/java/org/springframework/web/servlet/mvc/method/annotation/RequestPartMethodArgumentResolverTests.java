@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 import javax.servlet.http.Part;
@@ -48,6 +49,8 @@ import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.method.support.ModelAndViewContainer;
 import org.springframework.web.multipart.MultipartException;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.multipart.commons.CommonsMultipartResolver;
 import org.springframework.web.multipart.support.MissingServletRequestPartException;
 import org.springframework.web.multipart.support.RequestPartServletServerHttpRequest;
 
@@ -77,6 +80,7 @@ public class RequestPartMethodArgumentResolverTests {
 	private MethodParameter paramMultipartFileNotAnnot;
 	private MethodParameter paramServlet30Part;
 	private MethodParameter paramRequestParamAnnot;
+	private MethodParameter paramMultipartFileIterator;
 
 	private NativeWebRequest webRequest;
 
@@ -89,7 +93,8 @@ public class RequestPartMethodArgumentResolverTests {
 	public void setUp() throws Exception {
 
 		Method method = getClass().getMethod("handle", SimpleBean.class, SimpleBean.class, SimpleBean.class,
-				MultipartFile.class, List.class, Integer.TYPE, MultipartFile.class, Part.class, MultipartFile.class);
+				MultipartFile.class, List.class, Integer.TYPE, MultipartFile.class, Part.class, MultipartFile.class,
+				Iterator.class);
 
 		paramRequestPart = new MethodParameter(method, 0);
 		paramRequestPart.initParameterNameDiscovery(new LocalVariableTableParameterNameDiscoverer());
@@ -103,6 +108,7 @@ public class RequestPartMethodArgumentResolverTests {
 		paramServlet30Part = new MethodParameter(method, 7);
 		paramServlet30Part.initParameterNameDiscovery(new LocalVariableTableParameterNameDiscoverer());
 		paramRequestParamAnnot = new MethodParameter(method, 8);
+		paramMultipartFileIterator = new MethodParameter(method, 9);
 
 		messageConverter = mock(HttpMessageConverter.class);
 		given(messageConverter.getSupportedMediaTypes()).willReturn(Collections.singletonList(MediaType.TEXT_PLAIN));
@@ -126,6 +132,7 @@ public class RequestPartMethodArgumentResolverTests {
 		assertTrue("Part parameter not supported", resolver.supportsParameter(paramServlet30Part));
 		assertFalse("non-RequestPart parameter supported", resolver.supportsParameter(paramInt));
 		assertFalse("@RequestParam args not supported", resolver.supportsParameter(paramRequestParamAnnot));
+		assertTrue("Iterator<MultipartFile> parameter not supported", resolver.supportsParameter(paramMultipartFileIterator));
 	}
 
 	@Test
@@ -143,6 +150,46 @@ public class RequestPartMethodArgumentResolverTests {
 		assertEquals(Arrays.asList(multipartFile1, multipartFile2), actual);
 	}
 
+	@Test
+	public void resolveMultipartFileIterator() throws Exception {
+		MockMultipartFile otherFile = new MockMultipartFile("otherPart", "", "text/plain", (byte[]) null);
+		multipartRequest.addFile(otherFile);
+
+		Object actual = resolver.resolveArgument(paramMultipartFileIterator, null, webRequest, null);
+		assertTrue(actual instanceof Iterator);
+		Iterator<?> iterator = (Iterator<?>) actual;
+		assertSame(multipartFile1, iterator.next());
+		assertSame(multipartFile2, iterator.next());
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void resolveMultipartFileIteratorAfterReadingTrailingField() throws Exception {
+		String boundary = "----TestBoundary";
+		String body = "--" + boundary + "\r\n" +
+				"Content-Disposition: form-data; name=\"requestPart\"; filename=\"a.txt\"\r\n" +
+				"Content-Type: text/plain\r\n\r\ncontent1\r\n" +
+				"--" + boundary + "\r\n" +
+				"Content-Disposition: form-data; name=\"field\"\r\n\r\nvalue\r\n" +
+				"--" + boundary + "--\r\n";
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/upload");
+		request.setContentType("multipart/form-data; boundary=" + boundary);
+		request.setContent(body.getBytes("UTF-8"));
+		CommonsMultipartResolver multipartResolver = new CommonsMultipartResolver();
+		multipartResolver.setStreaming(true);
+		MultipartHttpServletRequest streamingRequest = multipartResolver.resolveMultipart(request);
+		assertEquals("value", streamingRequest.getParameter("field"));
+		webRequest = new ServletWebRequest(streamingRequest);
+
+		Object actual = resolver.resolveArgument(paramMultipartFileIterator, null, webRequest, null);
+		Iterator<?> iterator = (Iterator<?>) actual;
+		MultipartFile file = (MultipartFile) iterator.next();
+		assertEquals("a.txt", file.getOriginalFilename());
+		assertEquals("content1", new String(file.getBytes(), "UTF-8"));
+		assertFalse(iterator.hasNext());
+		multipartResolver.cleanupMultipart(streamingRequest);
+	}
+
 	@Test
 	public void resolveMultipartFileNotAnnotArgument() throws Exception {
 		MockMultipartHttpServletRequest request = new MockMultipartHttpServletRequest();
@@ -277,7 +324,8 @@ public class RequestPartMethodArgumentResolverTests {
 					   int i,
 					   MultipartFile multipartFileNotAnnot,
 					   Part servlet30Part,
-					   @RequestParam MultipartFile requestParamAnnot) {
+					   @RequestParam MultipartFile requestParamAnnot,
+					   @RequestPart("requestPart") Iterator<MultipartFile> multipartFileIterator) {
 	}
 
 }
@@ -25,7 +25,11 @@ import java.util.Map;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
 import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.stream.StreamSource;
 
 import org.dom4j.Document;
@@ -35,12 +39,14 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.Test;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 import org.springframework.context.support.StaticApplicationContext;
 import org.springframework.core.JdkVersion;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.mock.web.test.MockHttpServletRequest;
 import org.springframework.mock.web.test.MockHttpServletResponse;
 
@@ -170,6 +176,115 @@ public class XsltViewTests {
 
 	}
 
+	@Test
+	public void testSimpleTransformWithXMLStreamReader() throws Exception {
+		Map model = new HashMap();
+		model.put("someKey", XMLInputFactory.newInstance().createXMLStreamReader(
+				getProductDataResource().getInputStream()));
+		doTestWithModel(model);
+	}
+
+	@Test
+	public void testSimpleTransformWithXMLEventReader() throws Exception {
+		Map model = new HashMap();
+		model.put("someKey", XMLInputFactory.newInstance().createXMLEventReader(
+				getProductDataResource().getInputStream()));
+		doTestWithModel(model);
+	}
+
+	@Test
+	public void testSimpleTransformWithInputSource() throws Exception {
+		Map model = new HashMap();
+		model.put("someKey", new InputSource(getProductDataResource().getInputStream()));
+		doTestWithModel(model);
+	}
+
+	@Test
+	public void testPooledTransformers() throws Exception {
+		XsltView view = new XsltView();
+		view.setUrl(HTML_OUTPUT);
+		view.setTransformerPoolSize(2);
+		view.setApplicationContext(new StaticApplicationContext());
+		assertEquals(0, view.getPooledTransformerCount());
+
+		for (int i = 0; i < 3; i++) {
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			Map model = new HashMap();
+			model.put("someKey", getProductDataResource());
+			model.put("run", i);
+			view.render(model, this.request, response);
+			assertHtmlOutput(response.getContentAsString());
+			assertTrue(response.getContentType().startsWith("text/html"));
+			assertEquals("UTF-8", response.getCharacterEncoding());
+			assertEquals(1, view.getPooledTransformerCount());
+		}
+		assertEquals(3, view.getRenderCount());
+		assertTrue(view.getMaxRenderTime() <= view.getTotalRenderTime());
+	}
+
+	@Test
+	public void testFailedTransformerNotPooled() throws Exception {
+		XsltView view = new XsltView();
+		view.setUrl(HTML_OUTPUT);
+		view.setTransformerPoolSize(2);
+		view.setApplicationContext(new StaticApplicationContext());
+		try {
+			view.render(new HashMap(), this.request, this.response);
+		}
+		catch (IllegalArgumentException ex) {
+			// expected: no source
+		}
+		assertEquals(0, view.getPooledTransformerCount());
+		assertEquals(1, view.getRenderCount());
+	}
+
+	@Test
+	public void testTransformersNotPooledWithCustomCreateTransformer() throws Exception {
+		XsltView view = new XsltView() {
+			@Override
+			protected Transformer createTransformer(Templates templates) throws TransformerConfigurationException {
+				Transformer transformer = super.createTransformer(templates);
+				transformer.setParameter("custom", Boolean.TRUE);
+				return transformer;
+			}
+		};
+		view.setUrl(HTML_OUTPUT);
+		view.setTransformerPoolSize(2);
+		view.setApplicationContext(new StaticApplicationContext());
+
+		for (int i = 0; i < 2; i++) {
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			Map model = new HashMap();
+			model.put("someKey", getProductDataResource());
+			view.render(model, this.request, response);
+			assertHtmlOutput(response.getContentAsString());
+			assertEquals(0, view.getPooledTransformerCount());
+		}
+	}
+
+	@Test
+	public void testBackgroundPrecompile() throws Exception {
+		XsltView view = new XsltView();
+		view.setUrl(HTML_OUTPUT);
+		view.setPrecompileExecutor(new SimpleAsyncTaskExecutor());
+		view.setApplicationContext(new StaticApplicationContext());
+		Map model = new HashMap();
+		model.put("someKey", getProductDataResource());
+		view.render(model, this.request, this.response);
+		assertHtmlOutput(this.response.getContentAsString());
+	}
+
+	@Test(expected = org.springframework.context.ApplicationContextException.class)
+	public void testBackgroundPrecompileFailure() throws Exception {
+		XsltView view = new XsltView();
+		view.setUrl("/org/springframework/web/servlet/view/xslt/nonexistent.xsl");
+		view.setPrecompileExecutor(new SimpleAsyncTaskExecutor());
+		view.setApplicationContext(new StaticApplicationContext());
+		Map model = new HashMap();
+		model.put("someKey", getProductDataResource());
+		view.render(model, this.request, this.response);
+	}
+
 	private org.w3c.dom.Document getDomDocument() throws ParserConfigurationException, SAXException, IOException {
 		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
 		DocumentBuilder builder = dbf.newDocumentBuilder();